@@ -0,0 +1,89 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.benchmarks;
+
+import de.uni_kl.cs.discodnc.nc.Analysis;
+import de.uni_kl.cs.discodnc.nc.Analysis.Analyses;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
+import de.uni_kl.cs.discodnc.nc.analyses.PmooAnalysis;
+import de.uni_kl.cs.discodnc.nc.analyses.SeparateFlowAnalysis;
+import de.uni_kl.cs.discodnc.nc.analyses.TotalFlowAnalysis;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Derives end-to-end delay bounds for every flow of a network, one analysis
+ * per flow like the functional tests do.
+ * <p>
+ * Subclasses provide the number and curve implementation parameters and set up
+ * the network.
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractAnalysisBenchmark {
+	@Param
+	public Analyses analysis;
+
+	protected Network network;
+	protected AnalysisConfig configuration = new AnalysisConfig();
+
+	protected AbstractAnalysisBenchmark() {
+		// Every invocation has to analyze the network, not look up previous results.
+		configuration.setUseTotalFlowBoundCache(false);
+	}
+
+	protected void analyseFlows(Blackhole blackhole) throws Exception {
+		for (Flow flow : network.getFlows()) {
+			blackhole.consume(analyse(flow));
+		}
+	}
+
+	private Num analyse(Flow flow) throws Exception {
+		switch (analysis) {
+		case TFA:
+			TotalFlowAnalysis tfa = new TotalFlowAnalysis(network, configuration);
+			tfa.performAnalysis(flow);
+			return tfa.getDelayBound();
+		case SFA:
+			SeparateFlowAnalysis sfa = new SeparateFlowAnalysis(network, configuration);
+			sfa.performAnalysis(flow);
+			return sfa.getDelayBound();
+		case PMOO:
+			PmooAnalysis pmoo = new PmooAnalysis(network, configuration);
+			pmoo.performAnalysis(flow);
+			return pmoo.getDelayBound();
+		default:
+			throw new IllegalArgumentException("Unknown analysis: " + analysis);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.benchmarks;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.Server;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+final class BenchmarkUtils {
+	private BenchmarkUtils() {
+	}
+
+	/**
+	 * The calculator configuration is global. Curves and networks must thus be
+	 * created after calling this method.
+	 */
+	static void setUpCalculator(NumImpl num_impl, CurveImpl curve_impl) {
+		CalculatorConfig.getInstance().setNumImpl(num_impl);
+		CalculatorConfig.getInstance().setCurveImpl(curve_impl);
+	}
+
+	/**
+	 * The minimum of token buckets with decreasing rates and increasing bursts,
+	 * i.e., a concave curve with the given number of segments. The i-th token
+	 * bucket intersects its predecessor at x = i * burst / rate.
+	 */
+	static ArrivalCurve createArrivalCurve(int segments, double rate, double burst) {
+		ArrivalCurve arrival_curve = CurvePwAffine.getFactory().createTokenBucket(rate * segments, burst);
+		for (int i = 1; i < segments; i++) {
+			arrival_curve = CurvePwAffine.min(arrival_curve, CurvePwAffine.getFactory()
+					.createTokenBucket(rate * (segments - i), burst * (1 + i * (i + 1) / 2)));
+		}
+		return arrival_curve;
+	}
+
+	/**
+	 * The maximum of rate latencies with increasing rates and latencies, i.e., a
+	 * convex curve with the given number of segments. The i-th rate latency
+	 * intersects its predecessor at x = (2 * i + 1) * latency.
+	 */
+	static ServiceCurve createServiceCurve(int segments, double rate, double latency) {
+		ServiceCurve service_curve = CurvePwAffine.getFactory().createRateLatency(rate, latency);
+		for (int i = 1; i < segments; i++) {
+			service_curve = CurvePwAffine.max(service_curve,
+					CurvePwAffine.getFactory().createRateLatency(rate * (1 + i), latency * (1 + i)));
+		}
+		return service_curve;
+	}
+
+	/**
+	 * Servers are numbered in topological order. Every server is connected to its
+	 * direct successor and up to two other servers at most four hops downstream.
+	 * Flows start at a random server and follow random successors for up to four
+	 * hops.
+	 */
+	static Network createFeedForwardNetwork(int num_servers, int num_flows, long seed) throws Exception {
+		Random random = new Random(seed);
+		Network network = new Network();
+
+		Server[] servers = new Server[num_servers];
+		for (int i = 0; i < num_servers; i++) {
+			servers[i] = network.addServer(CurvePwAffine.getFactory().createRateLatency(100 + random.nextInt(5) * 20,
+					0.01 * (1 + random.nextInt(3))));
+		}
+
+		for (int i = 0; i < num_servers - 1; i++) {
+			network.addLink(servers[i], servers[i + 1]);
+			for (int j = 0; j < 2; j++) {
+				Server successor = servers[i + 1 + random.nextInt(Math.min(4, num_servers - i - 1))];
+				if (!network.getSuccessors(servers[i]).contains(successor)) {
+					network.addLink(servers[i], successor);
+				}
+			}
+		}
+
+		for (int i = 0; i < num_flows; i++) {
+			Server current = servers[random.nextInt(num_servers - 1)];
+			List<Server> path = new LinkedList<Server>();
+			path.add(current);
+
+			int hops = 1 + random.nextInt(4);
+			for (int j = 0; j < hops && current.getId() < num_servers - 1; j++) {
+				List<Server> successors = new ArrayList<Server>(network.getSuccessors(current));
+				successors.sort(Comparator.comparingInt(Server::getId));
+				current = successors.get(random.nextInt(successors.size()));
+				path.add(current);
+			}
+
+			network.addFlow(CurvePwAffine.getFactory().createTokenBucket(1 + random.nextInt(5), 1 + random.nextInt(10)),
+					path);
+		}
+
+		return network;
+	}
+}
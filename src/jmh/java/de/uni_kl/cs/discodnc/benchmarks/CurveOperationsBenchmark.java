@@ -0,0 +1,96 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.benchmarks;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurveOperationsBenchmark {
+	@Param
+	public NumImpl num_impl;
+
+	@Param
+	public CurveImpl curve_impl;
+
+	@Param({ "2", "8", "32" })
+	public int segments;
+
+	private ArrivalCurve arrival_curve_1;
+	private ArrivalCurve arrival_curve_2;
+	private ServiceCurve service_curve_1;
+	private ServiceCurve service_curve_2;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		BenchmarkUtils.setUpCalculator(num_impl, curve_impl);
+
+		arrival_curve_1 = BenchmarkUtils.createArrivalCurve(segments, 5, 10);
+		arrival_curve_2 = BenchmarkUtils.createArrivalCurve(segments, 7, 3);
+		service_curve_1 = BenchmarkUtils.createServiceCurve(segments, 10, 2);
+		service_curve_2 = BenchmarkUtils.createServiceCurve(segments, 15, 1);
+	}
+
+	@Benchmark
+	public ArrivalCurve add() {
+		return CurvePwAffine.add(arrival_curve_1, arrival_curve_2);
+	}
+
+	@Benchmark
+	public ArrivalCurve min() {
+		return CurvePwAffine.min(arrival_curve_1, arrival_curve_2);
+	}
+
+	@Benchmark
+	public ServiceCurve max() {
+		return CurvePwAffine.max(service_curve_1, service_curve_2);
+	}
+}
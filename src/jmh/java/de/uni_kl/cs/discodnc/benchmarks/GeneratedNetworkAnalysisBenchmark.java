@@ -0,0 +1,93 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.benchmarks;
+
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analyses of randomly generated feed-forward networks. The seed is fixed, so
+ * all parameter combinations analyse the same topologies.
+ * <p>
+ * The recursive arrival bounding makes the run time grow steeply with the
+ * network size. Larger topologies can be set with, e.g.,
+ * <code>-p num_servers=20 -p num_flows=60</code>.
+ * <p>
+ * RATIONAL_INTEGER is not among the default number implementations as its
+ * numerators and denominators overflow on these networks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class GeneratedNetworkAnalysisBenchmark extends AbstractAnalysisBenchmark {
+	@Param({ "REAL_DOUBLE_PRECISION", "REAL_SINGLE_PRECISION", "RATIONAL_BIGINTEGER", "RATIONAL_LONG" })
+	public NumImpl num_impl;
+
+	@Param
+	public CurveImpl curve_impl;
+
+	@Param({ "10" })
+	public int num_servers;
+
+	@Param({ "20", "40" })
+	public int num_flows;
+
+	@Param({ "1" })
+	public long seed;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		BenchmarkUtils.setUpCalculator(num_impl, curve_impl);
+
+		network = BenchmarkUtils.createFeedForwardNetwork(num_servers, num_flows, seed);
+	}
+
+	@Benchmark
+	public void analyseAllFlows(Blackhole blackhole) throws Exception {
+		analyseFlows(blackhole);
+	}
+}
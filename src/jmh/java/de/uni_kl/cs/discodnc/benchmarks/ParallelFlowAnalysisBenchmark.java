@@ -0,0 +1,106 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.benchmarks;
+
+import de.uni_kl.cs.discodnc.nc.Analysis.Analyses;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+import de.uni_kl.cs.discodnc.nc.analyses.ParallelFlowAnalysis;
+import de.uni_kl.cs.discodnc.network.Network;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analyses of randomly generated feed-forward networks with one task per flow
+ * executed by the given number of threads. A single thread is the sequential
+ * baseline, 0 uses all available processors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ParallelFlowAnalysisBenchmark {
+	@Param({ "REAL_DOUBLE_PRECISION", "RATIONAL_BIGINTEGER" })
+	public NumImpl num_impl;
+
+	@Param({ "DNC" })
+	public CurveImpl curve_impl;
+
+	@Param
+	public Analyses analysis;
+
+	@Param({ "10" })
+	public int num_servers;
+
+	@Param({ "40" })
+	public int num_flows;
+
+	@Param({ "1" })
+	public long seed;
+
+	@Param({ "1", "0" })
+	public int num_threads;
+
+	private Network network;
+	private AnalysisConfig configuration = new AnalysisConfig();
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		BenchmarkUtils.setUpCalculator(num_impl, curve_impl);
+		// Every invocation has to analyze the network, not look up previous results.
+		configuration.setUseTotalFlowBoundCache(false);
+
+		network = BenchmarkUtils.createFeedForwardNetwork(num_servers, num_flows, seed);
+		if (num_threads == 0) {
+			num_threads = Runtime.getRuntime().availableProcessors();
+		}
+	}
+
+	@Benchmark
+	public void analyseAllFlows(Blackhole blackhole) throws Exception {
+		blackhole.consume(new ParallelFlowAnalysis(network, configuration, analysis, num_threads).performAnalysis());
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.benchmarks;
+
+import ch.ethz.rtc.kernel.CurveMath;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.curves.mpa_rtc_pwaffine.Curve_MPARTC_PwAffine;
+import de.uni_kl.cs.discodnc.minplus.MinPlus;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.OperationImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Min-plus operations of the RTC toolbox (CurveImpl.MPA_RTC and
+ * OperationImpl.NATIVE). The *RtcOnly benchmarks measure the bare toolbox
+ * operation, the *StringRoundTrip benchmarks convert the result via its string
+ * representation as MinPlus used to. The difference to the MinPlus benchmarks
+ * is the cost of converting the result into a DiscoDNC curve.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RtcNativeBenchmark {
+	@Param({ "2", "8", "32" })
+	public int segments;
+
+	private ArrivalCurve arrival_curve;
+	private ServiceCurve service_curve_1;
+	private ServiceCurve service_curve_2;
+
+	private ch.ethz.rtc.kernel.Curve rtc_arrival_curve;
+	private ch.ethz.rtc.kernel.Curve rtc_service_curve_1;
+	private ch.ethz.rtc.kernel.Curve rtc_service_curve_2;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		BenchmarkUtils.setUpCalculator(NumImpl.REAL_DOUBLE_PRECISION, CurveImpl.MPA_RTC);
+		CalculatorConfig.getInstance().setOperationImpl(OperationImpl.NATIVE);
+
+		arrival_curve = BenchmarkUtils.createArrivalCurve(segments, 1, 10);
+		service_curve_1 = BenchmarkUtils.createServiceCurve(segments, 10, 2);
+		service_curve_2 = BenchmarkUtils.createServiceCurve(segments, 15, 1);
+
+		rtc_arrival_curve = ((Curve_MPARTC_PwAffine) arrival_curve).getRtc_curve();
+		rtc_service_curve_1 = ((Curve_MPARTC_PwAffine) service_curve_1).getRtc_curve();
+		rtc_service_curve_2 = ((Curve_MPARTC_PwAffine) service_curve_2).getRtc_curve();
+	}
+
+	@Benchmark
+	public ServiceCurve convolve() throws Exception {
+		return MinPlus.convolve(service_curve_1, service_curve_2);
+	}
+
+	@Benchmark
+	public ServiceCurve convolveStringRoundTrip() throws Exception {
+		return CurvePwAffine.getFactory().createServiceCurve(
+				CurveMath.minPlusConv(rtc_service_curve_1, rtc_service_curve_2).toString());
+	}
+
+	@Benchmark
+	public ch.ethz.rtc.kernel.Curve convolveRtcOnly() {
+		return CurveMath.minPlusConv(rtc_service_curve_1, rtc_service_curve_2);
+	}
+
+	@Benchmark
+	public ArrivalCurve deconvolve() throws Exception {
+		return MinPlus.deconvolve(arrival_curve, service_curve_1);
+	}
+
+	@Benchmark
+	public ArrivalCurve deconvolveStringRoundTrip() throws Exception {
+		return CurvePwAffine.getFactory().createArrivalCurve(
+				CurveMath.minPlusDeconv(rtc_arrival_curve, rtc_service_curve_1).toString());
+	}
+
+	@Benchmark
+	public ch.ethz.rtc.kernel.Curve deconvolveRtcOnly() {
+		return CurveMath.minPlusDeconv(rtc_arrival_curve, rtc_service_curve_1);
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.benchmarks;
+
+import de.uni_kl.cs.discodnc.FF_4S_1SC_4F_1AC_4P_Network;
+import de.uni_kl.cs.discodnc.S_1SC_10F_10AC_Network;
+import de.uni_kl.cs.discodnc.TA_3S_1SC_3F_1AC_3P_Network;
+import de.uni_kl.cs.discodnc.TR_7S_1SC_3F_1AC_3P_Network;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+import de.uni_kl.cs.discodnc.network.NetworkFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analyses of the functional test networks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestNetworkAnalysisBenchmark extends AbstractAnalysisBenchmark {
+	@Param
+	public NumImpl num_impl;
+
+	@Param
+	public CurveImpl curve_impl;
+
+	@Param({ "S_1SC_10F_10AC", "TA_3S_1SC_3F_1AC_3P", "TR_7S_1SC_3F_1AC_3P", "FF_4S_1SC_4F_1AC_4P" })
+	public String test_network;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		BenchmarkUtils.setUpCalculator(num_impl, curve_impl);
+
+		NetworkFactory network_factory;
+		switch (test_network) {
+		case "S_1SC_10F_10AC":
+			network_factory = new S_1SC_10F_10AC_Network();
+			break;
+		case "TA_3S_1SC_3F_1AC_3P":
+			network_factory = new TA_3S_1SC_3F_1AC_3P_Network();
+			break;
+		case "TR_7S_1SC_3F_1AC_3P":
+			network_factory = new TR_7S_1SC_3F_1AC_3P_Network();
+			break;
+		case "FF_4S_1SC_4F_1AC_4P":
+			network_factory = new FF_4S_1SC_4F_1AC_4P_Network();
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown test network: " + test_network);
+		}
+		network = network_factory.getNetwork();
+	}
+
+	@Benchmark
+	public void analyseAllFlows(Blackhole blackhole) throws Exception {
+		analyseFlows(blackhole);
+	}
+}
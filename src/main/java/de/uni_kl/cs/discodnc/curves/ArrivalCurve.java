@@ -31,6 +31,8 @@ public interface ArrivalCurve extends CurvePwAffine {
     @Override
     ArrivalCurve copy();
 
+    boolean isZeroArrivals();
+
     @Override
     boolean equals(Object obj);
 
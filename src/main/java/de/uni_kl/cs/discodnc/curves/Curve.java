@@ -68,6 +68,11 @@ public interface Curve {
     // Curve properties
     boolean isDelayedInfiniteBurst();
 
+    // Allocation-free alternatives to comparing with the respective factory-created curves
+    boolean isZeroCurve();
+
+    boolean isZeroDelayInfiniteBurst();
+
     boolean isDiscontinuity(int pos);
 
     boolean isRealDiscontinuity(int pos);
@@ -92,6 +97,21 @@ public interface Curve {
     // Curve function values
     Num f(Num x);
 
+    /**
+     * Returns the function values at the x-coordinates <code>x</code> that must be
+     * sorted in non-decreasing order.
+     *
+     * @param x the sorted x-coordinates.
+     * @return the function values.
+     */
+    default Num[] f(Num[] x) {
+        Num[] result = new Num[x.length];
+        for (int i = 0; i < x.length; i++) {
+            result[i] = f(x[i]);
+        }
+        return result;
+    }
+
     Num fLimitRight(Num x);
 
     Num f_inv(Num y);
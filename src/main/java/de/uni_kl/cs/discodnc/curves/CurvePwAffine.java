@@ -28,8 +28,11 @@
 package de.uni_kl.cs.discodnc.curves;
 
 import de.uni_kl.cs.discodnc.curves.dnc.Curve_DNC;
+import de.uni_kl.cs.discodnc.curves.dnc.TbRlAlgebra_DNC;
+import de.uni_kl.cs.discodnc.curves.dnc_double.Curve_DNC_Double;
 import de.uni_kl.cs.discodnc.curves.mpa_rtc_pwaffine.Curve_MPARTC_PwAffine;
-import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
 import de.uni_kl.cs.discodnc.numbers.Num;
 
 import java.util.ArrayList;
@@ -44,9 +47,15 @@ import java.util.List;
  */
 public interface CurvePwAffine extends Curve {
     static CurvePwAffine getFactory() {
-        switch (CalculatorConfig.getInstance().getCurveImpl()) {
+        return CalculationContext.current().getCurveFactory();
+    }
+
+    static CurvePwAffine getFactory(CurveImpl curve_impl) {
+        switch (curve_impl) {
             case MPA_RTC:
                 return Curve_MPARTC_PwAffine.getFactory();
+            case DNC_DOUBLE:
+                return Curve_DNC_Double.getFactory();
             case DNC:
             default:
                 return Curve_DNC.getFactory();
@@ -62,30 +71,33 @@ public interface CurvePwAffine extends Curve {
      * @return The resulting curve.
      */
     static CurvePwAffine computeResultingCurve(CurvePwAffine curve1, CurvePwAffine curve2, CurveOperation operator) {
-        CurvePwAffine ZERO_DELAY_INFINITE_BURST = CurvePwAffine.getFactory().createZeroDelayInfiniteBurst();
+        if (curve1 instanceof Curve_DNC_Double && curve2 instanceof Curve_DNC_Double) {
+            return Curve_DNC_Double.computeResultingCurve((Curve_DNC_Double) curve1, (Curve_DNC_Double) curve2,
+                    operator);
+        }
 
         switch (operator) {
             case ADD:
-                if (curve1.equals(ZERO_DELAY_INFINITE_BURST) || curve2.equals(ZERO_DELAY_INFINITE_BURST)) {
-                    return ZERO_DELAY_INFINITE_BURST;
+                if (curve1.isZeroDelayInfiniteBurst() || curve2.isZeroDelayInfiniteBurst()) {
+                    return CurvePwAffine.getFactory().createZeroDelayInfiniteBurst();
                 }
                 break;
             case SUB:
-                if (curve1.equals(ZERO_DELAY_INFINITE_BURST) || curve2.equals(ZERO_DELAY_INFINITE_BURST)) {
-                    return ZERO_DELAY_INFINITE_BURST;
+                if (curve1.isZeroDelayInfiniteBurst() || curve2.isZeroDelayInfiniteBurst()) {
+                    return CurvePwAffine.getFactory().createZeroDelayInfiniteBurst();
                 }
                 break;
             case MIN:
-                if (curve1.equals(ZERO_DELAY_INFINITE_BURST)) {
+                if (curve1.isZeroDelayInfiniteBurst()) {
                     return curve2.copy();
                 }
-                if (curve2.equals(ZERO_DELAY_INFINITE_BURST)) {
+                if (curve2.isZeroDelayInfiniteBurst()) {
                     return curve1.copy();
                 }
                 break;
             case MAX:
-                if (curve1.equals(ZERO_DELAY_INFINITE_BURST) || curve2.equals(ZERO_DELAY_INFINITE_BURST)) {
-                    return ZERO_DELAY_INFINITE_BURST;
+                if (curve1.isZeroDelayInfiniteBurst() || curve2.isZeroDelayInfiniteBurst()) {
+                    return CurvePwAffine.getFactory().createZeroDelayInfiniteBurst();
                 }
                 break;
             default:
@@ -254,6 +266,11 @@ public interface CurvePwAffine extends Curve {
      * @return the value of the vertical deviation.
      */
     static Num getMaxVerticalDeviation(CurvePwAffine c1, CurvePwAffine c2) {
+        if (c1 instanceof Curve_DNC_Double && c2 instanceof Curve_DNC_Double) {
+            return Num.getFactory().create(
+                    Curve_DNC_Double.getMaxVerticalDeviation((Curve_DNC_Double) c1, (Curve_DNC_Double) c2));
+        }
+
         if (c1.getUltAffineRate().gt(c2.getUltAffineRate())) {
             return Num.getFactory().createPositiveInfinity();
         }
@@ -273,11 +290,11 @@ public interface CurvePwAffine extends Curve {
         Num burst_c2 = c2.fLimitRight(Num.getFactory().getZero());
         Num result = Num.getUtils().diff(burst_c1, burst_c2);
 
-        ArrayList<Num> xcoords = computeInflectionPointsX(c1, c2);
-        for (int i = 0; i < xcoords.size(); i++) {
-            Num ip_x = xcoords.get(i);
-
-            Num backlog = Num.getUtils().sub(c1.f(ip_x), c2.f(ip_x));
+        Num[] xcoords = computeInflectionPointsX(c1, c2).toArray(new Num[0]);
+        Num[] c1_ys = c1.f(xcoords);
+        Num[] c2_ys = c2.f(xcoords);
+        for (int i = 0; i < xcoords.length; i++) {
+            Num backlog = Num.getUtils().sub(c1_ys[i], c2_ys[i]);
             result = Num.getUtils().max(result, backlog);
         }
         return result;
@@ -291,6 +308,11 @@ public interface CurvePwAffine extends Curve {
      * @return the value of the horizontal deviation.
      */
     static Num getMaxHorizontalDeviation(CurvePwAffine c1, CurvePwAffine c2) {
+        if (c1 instanceof Curve_DNC_Double && c2 instanceof Curve_DNC_Double) {
+            return Num.getFactory().create(
+                    Curve_DNC_Double.getMaxHorizontalDeviation((Curve_DNC_Double) c1, (Curve_DNC_Double) c2));
+        }
+
         if (c1.getUltAffineRate().gt(c2.getUltAffineRate())) {
             return Num.getFactory().createPositiveInfinity();
         }
@@ -477,6 +499,10 @@ public interface CurvePwAffine extends Curve {
     }
 
     static ArrivalCurve add(ArrivalCurve arrival_curve_1, ArrivalCurve arrival_curve_2) {
+        ArrivalCurve closed_form = TbRlAlgebra_DNC.add(arrival_curve_1, arrival_curve_2);
+        if (closed_form != null) {
+            return closed_form;
+        }
         return CurvePwAffine.getFactory()
                 .createArrivalCurve(computeResultingCurve(arrival_curve_1, arrival_curve_2, CurveOperation.ADD));
     }
@@ -494,6 +520,10 @@ public interface CurvePwAffine extends Curve {
     // ------------------------------------------------------------------------------
 
     static ArrivalCurve min(ArrivalCurve arrival_curve_1, ArrivalCurve arrival_curve_2) {
+        ArrivalCurve closed_form = TbRlAlgebra_DNC.min(arrival_curve_1, arrival_curve_2);
+        if (closed_form != null) {
+            return closed_form;
+        }
         return CurvePwAffine.getFactory()
                 .createArrivalCurve(computeResultingCurve(arrival_curve_1, arrival_curve_2, CurveOperation.MIN));
     }
@@ -512,6 +542,10 @@ public interface CurvePwAffine extends Curve {
      * @return The shifted curve.
      */
     static CurvePwAffine shiftRight(CurvePwAffine curve, Num dx) {
+        if (curve instanceof Curve_DNC_Double) {
+            return Curve_DNC_Double.shiftRight((Curve_DNC_Double) curve, dx.doubleValue());
+        }
+
         CurvePwAffine curve_copy = curve.copy();
         if (dx.eq(0.0)) {
             return curve_copy;
@@ -546,6 +580,10 @@ public interface CurvePwAffine extends Curve {
      * @return The shifted curve.
      */
     static CurvePwAffine shiftLeftClipping(CurvePwAffine curve, Num dx) {
+        if (curve instanceof Curve_DNC_Double) {
+            return Curve_DNC_Double.shiftLeftClipping((Curve_DNC_Double) curve, dx.doubleValue());
+        }
+
         int i = curve.getSegmentDefining(dx);
         CurvePwAffine result = curve.copy();
         LinearSegment segment_i = result.getSegment(i);
@@ -622,6 +660,15 @@ public interface CurvePwAffine extends Curve {
     }
 
     static void beautify(CurvePwAffine c) {
+        if (c instanceof Curve_DNC_Double) {
+            ((Curve_DNC_Double) c).beautify();
+            return;
+        }
+        if (c instanceof Curve_DNC) {
+            ((Curve_DNC) c).beautify();
+            return;
+        }
+
         int i = 0;
         while (i < c.getSegmentCount() - 1) {
             // Remove unreal discontinuity
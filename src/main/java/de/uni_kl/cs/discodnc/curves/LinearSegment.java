@@ -28,6 +28,7 @@
 package de.uni_kl.cs.discodnc.curves;
 
 import de.uni_kl.cs.discodnc.curves.dnc.LinearSegment_DNC;
+import de.uni_kl.cs.discodnc.curves.dnc_double.LinearSegment_DNC_Double;
 import de.uni_kl.cs.discodnc.curves.mpa_rtc_pwaffine.LinearSegment_MPARTC_PwAffine;
 import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
 import de.uni_kl.cs.discodnc.numbers.Num;
@@ -37,16 +38,44 @@ public interface LinearSegment {
         switch (CalculatorConfig.getInstance().getCurveImpl()) {
             case MPA_RTC:
                 return new LinearSegment_MPARTC_PwAffine(x.doubleValue(), y.doubleValue(), grad.doubleValue());
+            case DNC_DOUBLE:
+                return new LinearSegment_DNC_Double(x, y, grad, leftopen);
             case DNC:
             default:
                 return new LinearSegment_DNC(x, y, grad, leftopen);
         }
     }
 
+    /**
+     * Creates a segment from primitive values. Curve implementations operating on
+     * doubles take them as they are instead of passing them through the current
+     * number representation.
+     *
+     * @param x        The segment's x-coordinate.
+     * @param y        The segment's y-coordinate.
+     * @param grad     The segment's gradient.
+     * @param leftopen Set the segment to be left-open.
+     * @return The new linear segment.
+     */
+    static LinearSegment createLinearSegment(double x, double y, double grad, boolean leftopen) {
+        switch (CalculatorConfig.getInstance().getCurveImpl()) {
+            case MPA_RTC:
+                return new LinearSegment_MPARTC_PwAffine(x, y, grad);
+            case DNC_DOUBLE:
+                return new LinearSegment_DNC_Double(x, y, grad, leftopen);
+            case DNC:
+            default:
+                return new LinearSegment_DNC(Num.getFactory().create(x), Num.getFactory().create(y),
+                        Num.getFactory().create(grad), leftopen);
+        }
+    }
+
     static LinearSegment createHorizontalLine(double y) {
         switch (CalculatorConfig.getInstance().getCurveImpl()) {
             case MPA_RTC:
                 return new LinearSegment_MPARTC_PwAffine(0.0, y, 0.0);
+            case DNC_DOUBLE:
+                return new LinearSegment_DNC_Double(0.0, y, 0.0, false);
             case DNC:
             default:
                 return new LinearSegment_DNC(Num.getFactory().createZero(),
@@ -180,6 +209,19 @@ public interface LinearSegment {
 
     boolean isLeftopen();
 
+    // Implementations storing doubles return them without the detour via the current number representation
+    default double getXDouble() {
+        return getX().doubleValue();
+    }
+
+    default double getYDouble() {
+        return getY().doubleValue();
+    }
+
+    default double getGradDouble() {
+        return getGrad().doubleValue();
+    }
+
     // --------------------------------------------------------------------------------------------------------------
     // Factory
     // --------------------------------------------------------------------------------------------------------------
@@ -31,6 +31,8 @@ public interface ServiceCurve extends CurvePwAffine {
     @Override
     ServiceCurve copy();
 
+    boolean isZeroService();
+
     @Override
     boolean equals(Object obj);
 
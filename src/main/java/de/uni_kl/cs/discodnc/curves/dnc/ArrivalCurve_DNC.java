@@ -86,6 +86,11 @@ public class ArrivalCurve_DNC extends Curve_DNC implements ArrivalCurve {
         return ac_copy;
     }
 
+    @Override
+    public boolean isZeroArrivals() {
+        return isZeroCurve();
+    }
+
     @Override
     public boolean equals(Object obj) {
         return (obj instanceof ArrivalCurve_DNC) && super.equals(obj);
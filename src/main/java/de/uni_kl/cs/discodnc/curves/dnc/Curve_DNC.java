@@ -33,12 +33,17 @@ import de.uni_kl.cs.discodnc.curves.Curve;
 import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
 import de.uni_kl.cs.discodnc.curves.LinearSegment;
 import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
 import de.uni_kl.cs.discodnc.numbers.Num;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Class representing a piecewise linear curve, defined on [0,inf).<br>
@@ -51,22 +56,52 @@ import java.util.List;
  * indicate that the inflection point is excluded from the second segment.<br>
  * All arithmetic operations on a curve return a new instance of class
  * <code>Curve</code>.<br>
+ * With curve interning enabled in the <code>CalculatorConfig</code>, the factory
+ * returns shared, immutable instances for the basic curve shapes. Equal interned
+ * curves of the same type are identical, modifying them throws an
+ * <code>UnsupportedOperationException</code>.
  */
 public class Curve_DNC implements CurvePwAffine {
 	private static Curve_DNC instance = new Curve_DNC();
 
+	// One weak table per curve type as equality is type-sensitive.
+	private static final Map<Class<?>, Map<Curve_DNC, WeakReference<Curve_DNC>>> intern_tables = new HashMap<>();
+	private static final InternedSentinels[] interned_sentinels = new InternedSentinels[NumImpl.values().length];
+
 	protected LinearSegment_DNC[] segments;
 
 	protected boolean is_delayed_infinite_burst = false;
 
+	// The decompositions are computed lazily, also on curves shared by concurrent
+	// analyses. The volatile flags are written after the list and the property they
+	// guard, so a thread that sees them set also sees a complete decomposition.
 	protected boolean is_rate_latency = false;
-	protected boolean has_rate_latency_meta_info = false;
+	protected volatile boolean has_rate_latency_meta_info = false;
 	protected List<Curve_DNC> rate_latencies = new LinkedList<Curve_DNC>();
 
 	protected boolean is_token_bucket = false;
-	protected boolean has_token_bucket_meta_info = false;
+	protected volatile boolean has_token_bucket_meta_info = false;
 	protected List<Curve_DNC> token_buckets = new LinkedList<Curve_DNC>();
 
+	// Beautified copy of the segments used by equals and hashCode. Immutable once
+	// created, so curves shared by concurrent analyses can publish it without locking.
+	private CanonicalForm canonical_form = null;
+
+	// Advanced by every change of the segment array and every setter call on one of
+	// its segments. The cached properties below remember the version they hold for.
+	private long version = 0;
+
+	// Version when the curve was last beautified, -1 if it was not beautified since
+	// the last change of its segment array.
+	private long beautified_stamp = -1;
+
+	// Version when the segments' y-coordinates were found to be non-decreasing, -1
+	// if this was not checked since the last change.
+	private long non_decreasing_y_stamp = -1;
+
+	// Set once the curve is shared by the intern table. Its segments cannot change anymore.
+	private boolean interned = false;
+
 	/**
 	 * Creates a <code>CurveDNC</code> instance with a single segment on the x-axis.
 	 */
@@ -112,6 +147,7 @@ public class Curve_DNC implements CurvePwAffine {
 	}
 
 	public void setRL_MetaInfo(boolean has_rate_latency_meta_info) {
+		checkMutable();
 		this.has_rate_latency_meta_info = has_rate_latency_meta_info;
 	}
 
@@ -128,6 +164,7 @@ public class Curve_DNC implements CurvePwAffine {
 	}
 
 	public void setRL_Components(List<CurvePwAffine> rate_latencies) {
+		checkMutable();
 		List<Curve_DNC> tmp = new LinkedList<>();
 		for (int i = 0; i < rate_latencies.size(); i++) {
 			tmp.add((Curve_DNC) rate_latencies.get(i));
@@ -140,6 +177,7 @@ public class Curve_DNC implements CurvePwAffine {
 	}
 
 	public void setTB_MetaInfo(boolean has_token_bucket_meta_info) {
+		checkMutable();
 		this.has_token_bucket_meta_info = has_token_bucket_meta_info;
 	}
 
@@ -152,6 +190,7 @@ public class Curve_DNC implements CurvePwAffine {
 	}
 
 	public void setTB_Components(List<CurvePwAffine> token_buckets) {
+		checkMutable();
 		List<Curve_DNC> tmp = new LinkedList<>();
 		for (int i = 0; i < token_buckets.size(); i++) {
 			tmp.add((Curve_DNC) token_buckets.get(i));
@@ -172,6 +211,7 @@ public class Curve_DNC implements CurvePwAffine {
 				segments[i] = new LinearSegment_DNC(Num.getFactory().createZero(), Num.getFactory().createZero(),
 						Num.getFactory().createZero(), true);
 			}
+			adoptSegments();
 		}
 	}
 
@@ -189,6 +229,7 @@ public class Curve_DNC implements CurvePwAffine {
 			segments[i] = new LinearSegment_DNC(Num.getFactory().createZero(), Num.getFactory().createZero(),
 					Num.getFactory().createZero(), true);
 		}
+		adoptSegments();
 	}
 
 	// Accepts string representations of Curve, ArrivalCurve, ServiceCurve, and
@@ -217,10 +258,12 @@ public class Curve_DNC implements CurvePwAffine {
 		for (int i = 0; i < segments_to_parse.length; i++) {
 			segments[i] = new LinearSegment_DNC(segments_to_parse[i]);
 		}
+		adoptSegments();
 		CurvePwAffine.beautify(this);
 	}
 
 	protected void forceThroughOrigin() {
+		checkMutable();
 		if (getSegment(0).getY().gtZero()) {
 			addSegment(0, new LinearSegment_DNC(Num.getFactory().createZero(), Num.getFactory().createZero(),
 					Num.getFactory().createZero(), false));
@@ -237,6 +280,31 @@ public class Curve_DNC implements CurvePwAffine {
 		has_rate_latency_meta_info = false;
 		is_rate_latency = false;
 		rate_latencies = new LinkedList<Curve_DNC>();
+
+		canonical_form = null;
+		beautified_stamp = -1;
+		non_decreasing_y_stamp = -1;
+		version++;
+	}
+
+	/**
+	 * Makes this curve the owner of the segments in its array, so that their
+	 * setters advance its version. Segments owned by another curve are replaced
+	 * by copies, a segment can only notify a single curve.
+	 */
+	private void adoptSegments() {
+		for (int i = 0; i < segments.length; i++) {
+			if (segments[i].owner != this) {
+				if (segments[i].owner != null) {
+					segments[i] = segments[i].copy();
+				}
+				segments[i].owner = this;
+			}
+		}
+	}
+
+	void segmentModified() {
+		version++;
 	}
 
 	/**
@@ -253,6 +321,7 @@ public class Curve_DNC implements CurvePwAffine {
 
 	@Override
 	public void copy(Curve curve) {
+		checkMutable();
 		LinearSegment_DNC[] segments = new LinearSegment_DNC[curve.getSegmentCount()];
 
 		if (curve instanceof Curve_DNC) {
@@ -276,6 +345,18 @@ public class Curve_DNC implements CurvePwAffine {
 		}
 
 		setSegments(segments);
+
+		// The copy is equal to its source, so a still valid canonical form can be shared.
+		if (curve instanceof Curve_DNC) {
+			if (((Curve_DNC) curve).isBeautified()) {
+				beautified_stamp = version;
+			}
+			CanonicalForm source_canonical_form = ((Curve_DNC) curve).getValidCanonicalForm();
+			if (source_canonical_form != null) {
+				canonical_form = new CanonicalForm(source_canonical_form.segments, source_canonical_form.hash,
+						version);
+			}
+		}
 	}
 
 	/**
@@ -314,18 +395,12 @@ public class Curve_DNC implements CurvePwAffine {
 	 * @return the index of the segment into the array.
 	 */
 	public int getSegmentDefining(Num x) {
-		for (int i = segments.length - 1; i >= 0; i--) {
-			if (segments[i].isLeftopen()) {
-				if (segments[i].getX().lt(x)) {
-					return i;
-				}
-			} else {
-				if (segments[i].getX().leq(x)) {
-					return i;
-				}
-			}
+		int i = getSegmentLastStartingAtOrBefore(x);
+		// Only left-open segments starting exactly at x need to be skipped.
+		while (i >= 0 && segments[i].leftopen && !segments[i].x.lt(x)) {
+			i--;
 		}
-		return -1;
+		return i;
 	}
 
 	/**
@@ -345,15 +420,34 @@ public class Curve_DNC implements CurvePwAffine {
 			return getSegmentCount();
 		}
 
-		for (int i = segments.length - 1; i >= 0; i--) {
-			if (segments[i].getX().leq(x)) {
-				return i;
+		return getSegmentLastStartingAtOrBefore(x);
+	}
+
+	/**
+	 * Binary search for the last segment whose x-coordinate is less than or equal
+	 * to <code>x</code>. Relies on the segments being sorted by their
+	 * x-coordinates.
+	 *
+	 * @param x
+	 *            the x-coordinate
+	 * @return the index of the segment into the array, -1 if there is none.
+	 */
+	private int getSegmentLastStartingAtOrBefore(Num x) {
+		int low = 0;
+		int high = segments.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (segments[mid].x.leq(x)) {
+				low = mid + 1;
+			} else {
+				high = mid - 1;
 			}
 		}
-		return -1;
+		return high;
 	}
 
 	public void setSegment(int pos, LinearSegment s) {
+		checkMutable();
 		if (pos < 0 || pos >= segments.length) {
 			throw new IndexOutOfBoundsException("Index out of bounds (pos=" + pos + ")!");
 		}
@@ -369,19 +463,22 @@ public class Curve_DNC implements CurvePwAffine {
 		}
 
 		segments[pos] = s_dnc;
+		s_dnc.owner = this;
 		clearMetaInfo();
 	}
 
 	protected void setSegments(LinearSegment[] segments) {
+		checkMutable();
 		if (segments instanceof LinearSegment_DNC[]) {
 			this.segments = (LinearSegment_DNC[]) segments;
 		} else {
 			// Convert to LinearSegmentDNC
 			this.segments = new LinearSegment_DNC[segments.length];
 			for (int i = 0; i < segments.length; i++) {
-				segments[i] = new LinearSegment_DNC(segments[i]);
+				this.segments[i] = new LinearSegment_DNC(segments[i]);
 			}
 		}
+		adoptSegments();
 		clearMetaInfo();
 	}
 
@@ -410,6 +507,7 @@ public class Curve_DNC implements CurvePwAffine {
 	 *            the segment to be added.
 	 */
 	public void addSegment(int pos, LinearSegment s) {
+		checkMutable();
 		if (pos < 0 || pos > segments.length) {
 			throw new IndexOutOfBoundsException("Index out of bounds (pos=" + pos + ")!");
 		}
@@ -427,6 +525,7 @@ public class Curve_DNC implements CurvePwAffine {
 		LinearSegment_DNC[] old_segments = segments;
 		segments = new LinearSegment_DNC[old_segments.length + 1];
 		segments[pos] = s_dnc;
+		s_dnc.owner = this;
 		if (pos > 0) {
 			System.arraycopy(old_segments, 0, segments, 0, pos);
 		}
@@ -444,6 +543,7 @@ public class Curve_DNC implements CurvePwAffine {
 	 *            the index of the segment to be removed.
 	 */
 	public void removeSegment(int pos) {
+		checkMutable();
 		if (pos < 0 || pos >= segments.length) {
 			throw new IndexOutOfBoundsException("Index out of bounds (pos=" + pos + ")!");
 		}
@@ -652,27 +752,24 @@ public class Curve_DNC implements CurvePwAffine {
 			return false;
 		}
 
-		Curve_DNC this_cpy = this.copy();
-		Curve_DNC other_cpy = ((Curve_DNC) obj).copy();
-
-		CurvePwAffine.beautify(this_cpy);
-		CurvePwAffine.beautify(other_cpy);
-
-		if (this_cpy.getLatency() == Num.getFactory().getPositiveInfinity()) {
-			this_cpy = this.createZeroCurve();
+		if (obj == this) {
+			return true;
 		}
-		if (other_cpy.getLatency() == Num.getFactory().getPositiveInfinity()) {
-			other_cpy = this.createZeroCurve();
+		if (interned && ((Curve_DNC) obj).interned && obj.getClass() == getClass()) {
+			return false;
 		}
 
-		int this_segment_length = this_cpy.segments.length;
+		LinearSegment_DNC[] this_canonical_segments = this.getCanonicalForm().segments;
+		LinearSegment_DNC[] other_canonical_segments = ((Curve_DNC) obj).getCanonicalForm().segments;
 
-		if (this_segment_length != other_cpy.segments.length) {
+		int this_segment_length = this_canonical_segments.length;
+
+		if (this_segment_length != other_canonical_segments.length) {
 			return false;
 		}
 
 		for (int i = 0; i < this_segment_length; i++) {
-			if (!this_cpy.segments[i].equals(other_cpy.segments[i])) {
+			if (!this_canonical_segments[i].equals(other_canonical_segments[i])) {
 				return false;
 			}
 		}
@@ -680,9 +777,236 @@ public class Curve_DNC implements CurvePwAffine {
 		return true;
 	}
 
+	/**
+	 * Returns the hash code of the beautified curve such that curves that only
+	 * differ in their representation, e.g., by unreal discontinuities or co-linear
+	 * segments, share the same hash code.
+	 */
 	@Override
 	public int hashCode() {
-		return Arrays.hashCode(segments);
+		return getCanonicalForm().hash;
+	}
+
+	/**
+	 * Returns whether the curve was beautified and not modified since.
+	 *
+	 * @return <code>true</code> if beautify() would not change the curve.
+	 */
+	public boolean isBeautified() {
+		return interned || beautified_stamp == version;
+	}
+
+	/**
+	 * Beautifies the curve in place, see <code>CurvePwAffine.beautify(...)</code>.
+	 * Each rule is applied in a single pass that compacts the segment array instead
+	 * of removing segments one by one. The curve remembers to be beautified until
+	 * it is modified, so repeated calls do not scan it again.
+	 */
+	public void beautify() {
+		if (isBeautified()) {
+			return;
+		}
+		checkMutable();
+
+		// The segments' fields are read directly, their getters return copies.
+		LinearSegment_DNC[] segments = this.segments;
+		Num epsilon = Num.getFactory().getEpsilon();
+
+		// Remove unreal discontinuities
+		int count = Math.min(1, segments.length);
+		for (int i = 1; i < segments.length; i++) {
+			LinearSegment_DNC last = segments[count - 1];
+			LinearSegment_DNC segment = segments[i];
+			if (Num.getUtils().abs(Num.getUtils().sub(segment.x, last.x)).lt(epsilon)
+					&& Num.getUtils().abs(Num.getUtils().sub(segment.y, last.y)).lt(epsilon)) {
+				segment.setLeftopen(last.leftopen);
+				segments[count - 1] = segment;
+			} else {
+				segments[count++] = segment;
+			}
+		}
+
+		// Join colinear segments
+		int length = count;
+		count = Math.min(1, length);
+		for (int i = 1; i < length; i++) {
+			LinearSegment_DNC last = segments[count - 1];
+			LinearSegment_DNC segment = segments[i];
+			if (Num.getUtils().abs(Num.getUtils().sub(segment.grad, last.grad)).lt(epsilon)
+					&& Num.getUtils().abs(Num.getUtils().sub(segment.y, Num.getUtils().add(last.y,
+							Num.getUtils().mult(Num.getUtils().sub(segment.x, last.x), last.grad)))).lt(epsilon)) {
+				if (i + 1 < length && !segments[i + 1].leftopen) {
+					last.setGrad(Num.getUtils().div(Num.getUtils().sub(segments[i + 1].y, last.y),
+							Num.getUtils().sub(segments[i + 1].x, last.x)));
+				}
+			} else {
+				segments[count++] = segment;
+			}
+		}
+
+		for (int i = 0; i < count - 1; i++) {
+			if (segments[i].x.equals(segments[i + 1].x)) {
+				segments[i].setGrad(Num.getFactory().createZero());
+			}
+		}
+
+		if (count < segments.length) {
+			this.segments = Arrays.copyOf(segments, count);
+		}
+		clearMetaInfo();
+		beautified_stamp = version;
+	}
+
+	private CanonicalForm getValidCanonicalForm() {
+		CanonicalForm form = canonical_form;
+		if (interned) {
+			return form;
+		}
+		if (form == null || form.stamp != version) {
+			return null;
+		}
+		return form;
+	}
+
+	private CanonicalForm getCanonicalForm() {
+		CanonicalForm form = getValidCanonicalForm();
+		if (form == null) {
+			long stamp = version;
+
+			// Copy the segments only, copy() would also decompose the curve
+			LinearSegment_DNC[] segments_copy = new LinearSegment_DNC[segments.length];
+			for (int i = 0; i < segments.length; i++) {
+				segments_copy[i] = segments[i].copy();
+			}
+			Curve_DNC curve_beautified = new Curve_DNC();
+			curve_beautified.setSegments(segments_copy);
+			if (!isBeautified()) {
+				curve_beautified.beautify();
+			}
+
+			form = new CanonicalForm(curve_beautified.segments, Arrays.hashCode(curve_beautified.segments), stamp);
+			canonical_form = form;
+		}
+		return form;
+	}
+
+	private static final class CanonicalForm {
+		private final LinearSegment_DNC[] segments;
+		private final int hash;
+		private final long stamp;
+
+		private CanonicalForm(LinearSegment_DNC[] segments, int hash, long stamp) {
+			this.segments = segments;
+			this.hash = hash;
+			this.stamp = stamp;
+		}
+	}
+
+	// ------------------------------------------------------------
+	// Interning
+	// ------------------------------------------------------------
+	public boolean isInterned() {
+		return interned;
+	}
+
+	private void checkMutable() {
+		if (interned) {
+			throw new UnsupportedOperationException("Interned curves must not be modified, use a copy instead.");
+		}
+	}
+
+	/**
+	 * Returns the shared instance that equals the given curve. If there is none
+	 * yet, the given curve is beautified and becomes the shared instance, i.e., the
+	 * caller must not modify it anymore. Shared instances are only weakly
+	 * referenced by the intern table.
+	 *
+	 * @param curve
+	 *            the curve to intern.
+	 * @param <C>
+	 *            the curve type, arrival, service and maximum service curves are
+	 *            interned separately.
+	 * @return the immutable shared instance.
+	 */
+	@SuppressWarnings("unchecked")
+	public <C extends Curve_DNC> C intern(C curve) {
+		Curve_DNC c_dnc = curve; // Private members are not accessible via the type variable
+		if (c_dnc.interned) {
+			return curve;
+		}
+
+		synchronized (intern_tables) {
+			Map<Curve_DNC, WeakReference<Curve_DNC>> intern_table = intern_tables.get(c_dnc.getClass());
+			if (intern_table == null) {
+				intern_table = new WeakHashMap<Curve_DNC, WeakReference<Curve_DNC>>();
+				intern_tables.put(c_dnc.getClass(), intern_table);
+			}
+
+			WeakReference<Curve_DNC> shared_ref = intern_table.get(c_dnc);
+			Curve_DNC shared = shared_ref == null ? null : shared_ref.get();
+			if (shared != null) {
+				return (C) shared;
+			}
+
+			CurvePwAffine.beautify(c_dnc);
+			c_dnc.getCanonicalForm();
+			for (int i = 0; i < c_dnc.segments.length; i++) {
+				c_dnc.segments[i].immutable = true;
+			}
+			c_dnc.interned = true;
+
+			intern_table.put(c_dnc, new WeakReference<Curve_DNC>(c_dnc));
+			return curve;
+		}
+	}
+
+	private <C extends Curve_DNC> C internIfEnabled(C curve) {
+		if (CalculatorConfig.getInstance().exec_curve_interning()) {
+			return intern(curve);
+		}
+		return curve;
+	}
+
+	private InternedSentinels getInternedSentinels() {
+		int num_impl = CalculatorConfig.getInstance().getNumImpl().ordinal();
+		InternedSentinels sentinels = interned_sentinels[num_impl];
+		if (sentinels == null) {
+			sentinels = new InternedSentinels(this);
+			synchronized (interned_sentinels) {
+				if (interned_sentinels[num_impl] == null) {
+					interned_sentinels[num_impl] = sentinels;
+				} else {
+					sentinels = interned_sentinels[num_impl];
+				}
+			}
+		}
+		return sentinels;
+	}
+
+	/**
+	 * The curves the analyses create over and over again, one set per number
+	 * representation. Final fields to safely publish them without locking.
+	 */
+	private static final class InternedSentinels {
+		private final Curve_DNC zero_curve;
+		private final ArrivalCurve_DNC zero_arrivals;
+		private final ServiceCurve_DNC zero_service;
+		private final ServiceCurve_DNC zero_delay_infinite_burst;
+		private final MaxServiceCurve_DNC zero_delay_infinite_burst_msc;
+
+		private InternedSentinels(Curve_DNC factory) {
+			zero_curve = factory.intern(new Curve_DNC());
+			zero_arrivals = factory.intern(new ArrivalCurve_DNC());
+			zero_service = factory.intern(new ServiceCurve_DNC());
+
+			ServiceCurve_DNC sc_dnc = new ServiceCurve_DNC();
+			factory.makeDelayedInfiniteBurst(sc_dnc, Num.getFactory().createZero());
+			zero_delay_infinite_burst = factory.intern(sc_dnc);
+
+			MaxServiceCurve_DNC msc_dnc = new MaxServiceCurve_DNC();
+			factory.makeDelayedInfiniteBurst(msc_dnc, Num.getFactory().createZero());
+			zero_delay_infinite_burst_msc = factory.intern(msc_dnc);
+		}
 	}
 
 	/**
@@ -720,6 +1044,38 @@ public class Curve_DNC implements CurvePwAffine {
 				segments[i].getY());
 	}
 
+	/**
+	 * Returns the function values at the x-coordinates <code>x</code> that must be
+	 * sorted in non-decreasing order. The segments are traversed only once instead
+	 * of being searched for every x-coordinate.
+	 *
+	 * @param x
+	 *            the sorted x-coordinates
+	 * @return the function values, <code>NaN</code> for negative x-coordinates.
+	 */
+	@Override
+	public Num[] f(Num[] x) {
+		Num[] result = new Num[x.length];
+		int i_last = -1; // last segment starting at or before the current x
+		for (int j = 0; j < x.length; j++) {
+			while (i_last + 1 < segments.length && segments[i_last + 1].x.leq(x[j])) {
+				i_last++;
+			}
+			int i = i_last;
+			while (i >= 0 && segments[i].leftopen && !segments[i].x.lt(x[j])) {
+				i--;
+			}
+			if (i < 0) {
+				result[j] = Num.getFactory().createNaN();
+			} else {
+				result[j] = Num.getUtils().add(
+						Num.getUtils().mult(Num.getUtils().sub(x[j], segments[i].x), segments[i].grad),
+						segments[i].y);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Returns the limit to the right of the function value at x-coordinate
 	 * <code>x</code>, if <code>x&gt;=0</code>, and <code>NaN</code> if not.
@@ -795,23 +1151,59 @@ public class Curve_DNC implements CurvePwAffine {
 	 * @return the segment number
 	 */
 	private int getSegmentFirstAtValue(Num y) {
-		if (segments.length == 0 || segments[0].getY().gt(y)) {
+		if (segments.length == 0 || segments[0].y.gt(y)) {
 			return -1;
 		}
-		for (int i = 0; i < segments.length; i++) {
-			if (i < segments.length - 1) {
-				if (segments[i + 1].getY().geq(y)) {
-					return i;
+		int last = segments.length - 1;
+		if (hasNonDecreasingY()) {
+			// Binary search for the first segment after 0 that reaches y.
+			int low = 1;
+			int high = last;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				if (segments[mid].y.geq(y)) {
+					high = mid - 1;
+				} else {
+					low = mid + 1;
 				}
-			} else {
-				if (segments[i].getGrad().gt(Num.getFactory().getZero())) {
+			}
+			if (low <= last) {
+				return low - 1;
+			}
+		} else {
+			for (int i = 0; i < last; i++) {
+				if (segments[i + 1].y.geq(y)) {
 					return i;
 				}
 			}
 		}
+		if (segments[last].grad.gt(Num.getFactory().getZero())) {
+			return last;
+		}
 		return -1;
 	}
 
+	/**
+	 * Returns whether the y-coordinates of the segments are sorted in
+	 * non-decreasing order, the precondition for searching them in logarithmic
+	 * time. The check is remembered until the segments change.
+	 *
+	 * @return <code>true</code> if the segments' y-coordinates do not decrease.
+	 */
+	private boolean hasNonDecreasingY() {
+		long stamp = version;
+		if (non_decreasing_y_stamp == stamp) {
+			return true;
+		}
+		for (int i = 1; i < segments.length; i++) {
+			if (segments[i].y.lt(segments[i - 1].y)) {
+				return false;
+			}
+		}
+		non_decreasing_y_stamp = stamp;
+		return true;
+	}
+
 	/**
 	 * Returns the x-coordinate of the inflection point after which the function
 	 * values are greater than zero.
@@ -896,6 +1288,30 @@ public class Curve_DNC implements CurvePwAffine {
 		return is_delayed_infinite_burst;
 	}
 
+	public boolean isZeroCurve() {
+		if (segments.length == 0) {
+			return false;
+		}
+		for (int i = 0; i < segments.length; i++) {
+			if (!segments[i].y.eqZero() || !segments[i].grad.eqZero()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public boolean isZeroDelayInfiniteBurst() {
+		if (segments.length < 2 || !segments[0].y.eqZero() || !segments[1].x.eqZero()) {
+			return false;
+		}
+		for (int i = 1; i < segments.length; i++) {
+			if (!segments[i].y.isInfinite() || !segments[i].y.gtZero()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	// Rate latency
 	public boolean getRL_Property() {
 		decomposeIntoRateLatencies();
@@ -903,6 +1319,7 @@ public class Curve_DNC implements CurvePwAffine {
 	}
 
 	public void setRateLateny(boolean is_rate_latency) {
+		checkMutable();
 		this.is_rate_latency = is_rate_latency;
 	}
 
@@ -939,16 +1356,17 @@ public class Curve_DNC implements CurvePwAffine {
 			return;
 		}
 
+		// Decompose into a local list first. Curves shared by concurrent analyses,
+		// e.g., a server's maximum service curve, must never expose a partial list.
+		List<Curve_DNC> rate_latencies_decomposed = new ArrayList<Curve_DNC>();
 		if (CalculatorConfig.getInstance().exec_service_curve_checks() && !this.isConvex()) {
-			if (this.equals(this.createZeroDelayInfiniteBurst())) {
-				rate_latencies = new ArrayList<Curve_DNC>();
-				rate_latencies.add(this.createRateLatency(Num.getFactory().createPositiveInfinity(),
+			if (this.isZeroDelayInfiniteBurst()) {
+				rate_latencies_decomposed.add(this.createRateLatency(Num.getFactory().createPositiveInfinity(),
 						Num.getFactory().createZero()));
 			} else {
 				throw new RuntimeException("Can only decompose convex service curves into rate latency curves.");
 			}
 		} else {
-			rate_latencies = new ArrayList<Curve_DNC>();
 			for (int i = 0; i < segments.length; i++) {
 				if (segments[i].getY().eq(0.0) && segments[i].getGrad().eq(0.0)) {
 					continue;
@@ -959,16 +1377,18 @@ public class Curve_DNC implements CurvePwAffine {
 				if (latency.ltZero()) {
 					continue;
 				}
-				rate_latencies.add(this.createRateLatency(rate, latency));
+				rate_latencies_decomposed.add(this.createRateLatency(rate, latency));
 			}
 		}
 
-		is_rate_latency = rate_latencies.size() == 1;
+		rate_latencies = rate_latencies_decomposed;
+		is_rate_latency = rate_latencies_decomposed.size() == 1;
 
 		has_rate_latency_meta_info = true;
 	}
 
 	public void setTokenBucket(boolean is_token_bucket) {
+		checkMutable();
 		this.is_token_bucket = is_token_bucket;
 	}
 
@@ -1009,7 +1429,7 @@ public class Curve_DNC implements CurvePwAffine {
 			throw new RuntimeException("Can only decompose concave arrival curves into token buckets.");
 		}
 
-		token_buckets = new ArrayList<Curve_DNC>();
+		List<Curve_DNC> token_buckets_decomposed = new ArrayList<Curve_DNC>();
 		for (int i = 0; i < segments.length; i++) {
 			if (isDiscontinuity(i)) {
 				continue;
@@ -1017,10 +1437,11 @@ public class Curve_DNC implements CurvePwAffine {
 			Num rate = segments[i].getGrad();
 			Num burst = Num.getUtils().sub(segments[i].getY(),
 					Num.getUtils().mult(segments[i].getX(), segments[i].getGrad()));
-			token_buckets.add(this.createTokenBucket(rate, burst));
+			token_buckets_decomposed.add(this.createTokenBucket(rate, burst));
 		}
 
-		is_token_bucket = token_buckets.size() == 1;
+		token_buckets = token_buckets_decomposed;
+		is_token_bucket = token_buckets_decomposed.size() == 1;
 
 		has_token_bucket_meta_info = true;
 	}
@@ -1046,6 +1467,9 @@ public class Curve_DNC implements CurvePwAffine {
 	}
 
 	public Curve_DNC createZeroCurve() {
+		if (CalculatorConfig.getInstance().exec_curve_interning()) {
+			return getInternedSentinels().zero_curve;
+		}
 		return new Curve_DNC(); // CurveDNC constructor's default behavior
 	}
 
@@ -1063,7 +1487,7 @@ public class Curve_DNC implements CurvePwAffine {
 	public Curve_DNC createHorizontal(Num y) {
 		Curve_DNC c_dnc = new Curve_DNC();
 		makeHorizontal(c_dnc, y);
-		return c_dnc;
+		return internIfEnabled(c_dnc);
 	}
 
 	// ------------------------------------------------------------------------------
@@ -1090,6 +1514,9 @@ public class Curve_DNC implements CurvePwAffine {
 	}
 
 	public ServiceCurve_DNC createZeroService() {
+		if (CalculatorConfig.getInstance().exec_curve_interning()) {
+			return getInternedSentinels().zero_service;
+		}
 		return new ServiceCurve_DNC(); // ServiceCurveDNC constructor's default behavior
 	}
 
@@ -1099,6 +1526,9 @@ public class Curve_DNC implements CurvePwAffine {
 	 * @return a <code>ServiceCurve</code> instance
 	 */
 	public ServiceCurve_DNC createZeroDelayInfiniteBurst() {
+		if (CalculatorConfig.getInstance().exec_curve_interning()) {
+			return getInternedSentinels().zero_delay_infinite_burst;
+		}
 		return createDelayedInfiniteBurst(Num.getFactory().createZero());
 	}
 
@@ -1109,7 +1539,7 @@ public class Curve_DNC implements CurvePwAffine {
 	public ServiceCurve_DNC createDelayedInfiniteBurst(Num delay) {
 		ServiceCurve_DNC sc_dnc = new ServiceCurve_DNC();
 		makeDelayedInfiniteBurst(sc_dnc, delay);
-		return sc_dnc;
+		return internIfEnabled(sc_dnc);
 	}
 
 	public ServiceCurve_DNC createRateLatency(double rate, double latency) {
@@ -1119,7 +1549,7 @@ public class Curve_DNC implements CurvePwAffine {
 	public ServiceCurve_DNC createRateLatency(Num rate, Num latency) {
 		ServiceCurve_DNC sc_dnc = new ServiceCurve_DNC();
 		makeRateLatency(sc_dnc, rate, latency);
-		return sc_dnc;
+		return internIfEnabled(sc_dnc);
 	}
 
 	// ------------------------------------------------------------------------------
@@ -1150,6 +1580,9 @@ public class Curve_DNC implements CurvePwAffine {
 	}
 
 	public ArrivalCurve_DNC createZeroArrivals() {
+		if (CalculatorConfig.getInstance().exec_curve_interning()) {
+			return getInternedSentinels().zero_arrivals;
+		}
 		return new ArrivalCurve_DNC(); // ArrivalCurveDNC constructor's default behavior
 	}
 
@@ -1160,7 +1593,7 @@ public class Curve_DNC implements CurvePwAffine {
 	public ArrivalCurve_DNC createPeakArrivalRate(Num rate) {
 		ArrivalCurve_DNC ac_dnc = new ArrivalCurve_DNC();
 		makePeakRate(ac_dnc, rate);
-		return ac_dnc;
+		return internIfEnabled(ac_dnc);
 	}
 
 	public ArrivalCurve_DNC createTokenBucket(double rate, double burst) {
@@ -1170,7 +1603,7 @@ public class Curve_DNC implements CurvePwAffine {
 	public ArrivalCurve_DNC createTokenBucket(Num rate, Num burst) {
 		ArrivalCurve_DNC ac_dnc = new ArrivalCurve_DNC();
 		makeTokenBucket(ac_dnc, rate, burst);
-		return ac_dnc;
+		return internIfEnabled(ac_dnc);
 	}
 
 	// ------------------------------------------------------------------------------
@@ -1197,10 +1630,16 @@ public class Curve_DNC implements CurvePwAffine {
 	}
 
 	public MaxServiceCurve_DNC createInfiniteMaxService() {
+		if (CalculatorConfig.getInstance().exec_curve_interning()) {
+			return getInternedSentinels().zero_delay_infinite_burst_msc;
+		}
 		return createDelayedInfiniteBurstMSC(Num.getFactory().createZero());
 	}
 
 	public MaxServiceCurve_DNC createZeroDelayInfiniteBurstMSC() {
+		if (CalculatorConfig.getInstance().exec_curve_interning()) {
+			return getInternedSentinels().zero_delay_infinite_burst_msc;
+		}
 		return createDelayedInfiniteBurstMSC(Num.getFactory().createZero());
 	}
 
@@ -1211,7 +1650,7 @@ public class Curve_DNC implements CurvePwAffine {
 	public MaxServiceCurve_DNC createDelayedInfiniteBurstMSC(Num delay) {
 		MaxServiceCurve_DNC msc_dnc = new MaxServiceCurve_DNC();
 		makeDelayedInfiniteBurst(msc_dnc, delay);
-		return msc_dnc;
+		return internIfEnabled(msc_dnc);
 	}
 
 	public MaxServiceCurve_DNC createRateLatencyMSC(double rate, double latency) {
@@ -1221,7 +1660,7 @@ public class Curve_DNC implements CurvePwAffine {
 	public MaxServiceCurve_DNC createRateLatencyMSC(Num rate, Num latency) {
 		MaxServiceCurve_DNC msc_dnc = new MaxServiceCurve_DNC();
 		makeRateLatency(msc_dnc, rate, latency);
-		return msc_dnc;
+		return internIfEnabled(msc_dnc);
 	}
 
 	// ------------------------------------------------------------------------------
@@ -61,6 +61,18 @@ public class LinearSegment_DNC implements LinearSegment {
      */
     protected boolean leftopen;
 
+    /**
+     * The curve whose segment array holds this segment, if any. Setters advance
+     * its version so that it can tell whether its cached properties are still
+     * valid.
+     */
+    Curve_DNC owner = null;
+
+    /**
+     * Set for the segments of interned curves, the setters throw afterwards.
+     */
+    boolean immutable = false;
+
     // --------------------------------------------------------------------------------------------------------------
     // Constructors
     // --------------------------------------------------------------------------------------------------------------
@@ -151,7 +163,9 @@ public class LinearSegment_DNC implements LinearSegment {
     }
 
     public void setX(Num x) {
+        checkMutable();
         this.x = x.copy();
+        modified();
     }
 
     public Num getY() {
@@ -159,7 +173,9 @@ public class LinearSegment_DNC implements LinearSegment {
     }
 
     public void setY(Num y) {
+        checkMutable();
         this.y = y.copy();
+        modified();
     }
 
     public Num getGrad() {
@@ -167,7 +183,9 @@ public class LinearSegment_DNC implements LinearSegment {
     }
 
     public void setGrad(Num grad) {
+        checkMutable();
         this.grad = grad.copy();
+        modified();
     }
 
     public boolean isLeftopen() {
@@ -175,7 +193,21 @@ public class LinearSegment_DNC implements LinearSegment {
     }
 
     public void setLeftopen(boolean leftopen) {
+        checkMutable();
         this.leftopen = leftopen;
+        modified();
+    }
+
+    private void modified() {
+        if (owner != null) {
+            owner.segmentModified();
+        }
+    }
+
+    private void checkMutable() {
+        if (immutable) {
+            throw new UnsupportedOperationException("Segments of interned curves must not be modified.");
+        }
     }
 
     /**
@@ -214,17 +246,21 @@ public class LinearSegment_DNC implements LinearSegment {
 
         LinearSegment_DNC other = (LinearSegment_DNC) obj;
         boolean result;
-        result = this.x.equals(other.getX());
-        result = result && this.y.equals(other.getY());
-        result = result && this.grad.equals(other.getGrad());
-        result = result && (this.leftopen == other.isLeftopen());
+        result = this.x.equals(other.x);
+        result = result && this.y.equals(other.y);
+        result = result && this.grad.equals(other.grad);
+        result = result && (this.leftopen == other.leftopen);
 
         return result;
     }
 
     @Override
     public int hashCode() {
-        return x.hashCode() * y.hashCode() * grad.hashCode() * Boolean.hashCode(leftopen);
+        int result = x.hashCode();
+        result = 31 * result + y.hashCode();
+        result = 31 * result + grad.hashCode();
+        result = 31 * result + Boolean.hashCode(leftopen);
+        return result;
     }
 
     /**
@@ -91,6 +91,11 @@ public class MaxServiceCurve_DNC extends Curve_DNC implements MaxServiceCurve {
         return msc_copy;
     }
 
+    @Override
+    public boolean isZeroService() {
+        return isZeroCurve();
+    }
+
     @Override
     public boolean equals(Object obj) {
         return (obj instanceof MaxServiceCurve_DNC) && super.equals(obj);
@@ -82,6 +82,11 @@ public class ServiceCurve_DNC extends Curve_DNC implements ServiceCurve {
         return sc_copy;
     }
 
+    @Override
+    public boolean isZeroService() {
+        return isZeroCurve();
+    }
+
     @Override
     public boolean equals(Object obj) {
         return (obj instanceof ServiceCurve_DNC) && super.equals(obj);
@@ -0,0 +1,676 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2005 - 2007 Frank A. Zdarsky
+ * Copyright (C) 2011 - 2016 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * disco | Distributed Computer Systems Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.curves.dnc;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import java.util.Arrays;
+
+/**
+ * Closed-form (min,plus) operations for the curves most models are built from:
+ * arrival curves that are a minimum of token buckets gamma_{r,b} and service
+ * curves that are a maximum of rate latencies beta_{R,T}.<br>
+ * The operands are translated into their (rate, burst) and (rate, latency)
+ * tuples, the operation is computed on these tuples and only the result is
+ * translated back into segments. All operations return <code>null</code> if an
+ * operand leaves this class of curves or the precondition of the closed form
+ * does not hold. The caller then continues with the generic, segment-based
+ * algorithm.
+ */
+public final class TbRlAlgebra_DNC {
+	private TbRlAlgebra_DNC() {
+	}
+
+	// ------------------------------------------------------------
+	// Arrival curves
+	// ------------------------------------------------------------
+
+	/**
+	 * Returns the sum of two arrival curves. Sums of the token buckets that define
+	 * the operands on the same interval define the result on that interval.
+	 *
+	 * @param arrival_curve_1
+	 *            The first summand.
+	 * @param arrival_curve_2
+	 *            The second summand.
+	 * @return The sum or <code>null</code> if the closed form does not apply.
+	 */
+	public static ArrivalCurve add(ArrivalCurve arrival_curve_1, ArrivalCurve arrival_curve_2) {
+		if (!isApplicable(arrival_curve_1, arrival_curve_2)) {
+			return null;
+		}
+		TokenBuckets tbs_1 = tokenBuckets(arrival_curve_1);
+		TokenBuckets tbs_2 = tokenBuckets(arrival_curve_2);
+		if (tbs_1 == null || tbs_2 == null) {
+			return null;
+		}
+
+		Num[] rates = new Num[tbs_1.count + tbs_2.count - 1];
+		Num[] bursts = new Num[rates.length];
+		int count = 0;
+		int i = 0;
+		int j = 0;
+		while (true) {
+			rates[count] = Num.getUtils().add(tbs_1.rates[i], tbs_2.rates[j]);
+			bursts[count] = Num.getUtils().add(tbs_1.bursts[i], tbs_2.bursts[j]);
+			count++;
+
+			boolean next_1 = i + 1 < tbs_1.count;
+			boolean next_2 = j + 1 < tbs_2.count;
+			if (next_1 && next_2) {
+				// Cross-multiplied comparison of the two operands' next breakpoints.
+				Num x_1 = Num.getUtils().mult(Num.getUtils().sub(tbs_1.bursts[i + 1], tbs_1.bursts[i]),
+						Num.getUtils().sub(tbs_2.rates[j], tbs_2.rates[j + 1]));
+				Num x_2 = Num.getUtils().mult(Num.getUtils().sub(tbs_2.bursts[j + 1], tbs_2.bursts[j]),
+						Num.getUtils().sub(tbs_1.rates[i], tbs_1.rates[i + 1]));
+				next_1 = x_1.leq(x_2);
+				next_2 = x_2.leq(x_1);
+			}
+			if (!next_1 && !next_2) {
+				break;
+			}
+			if (next_1) {
+				i++;
+			}
+			if (next_2) {
+				j++;
+			}
+		}
+
+		return toArrivalCurve(new TokenBuckets(rates, bursts, count));
+	}
+
+	/**
+	 * Returns the minimum of two arrival curves, i.e., their convolution.
+	 *
+	 * @param arrival_curve_1
+	 *            The first arrival curve.
+	 * @param arrival_curve_2
+	 *            The second arrival curve.
+	 * @return The minimum or <code>null</code> if the closed form does not apply.
+	 */
+	public static ArrivalCurve min(ArrivalCurve arrival_curve_1, ArrivalCurve arrival_curve_2) {
+		if (!isApplicable(arrival_curve_1, arrival_curve_2)) {
+			return null;
+		}
+		TokenBuckets tbs_1 = tokenBuckets(arrival_curve_1);
+		TokenBuckets tbs_2 = tokenBuckets(arrival_curve_2);
+		if (tbs_1 == null || tbs_2 == null) {
+			return null;
+		}
+
+		// Merge both sets of token buckets by decreasing rate.
+		Num[] rates = new Num[tbs_1.count + tbs_2.count];
+		Num[] bursts = new Num[rates.length];
+		int i = 0;
+		int j = 0;
+		for (int k = 0; k < rates.length; k++) {
+			if (j == tbs_2.count || (i < tbs_1.count && tbs_1.rates[i].geq(tbs_2.rates[j]))) {
+				rates[k] = tbs_1.rates[i];
+				bursts[k] = tbs_1.bursts[i];
+				i++;
+			} else {
+				rates[k] = tbs_2.rates[j];
+				bursts[k] = tbs_2.bursts[j];
+				j++;
+			}
+		}
+
+		return toArrivalCurve(lowerEnvelope(rates, bursts, rates.length));
+	}
+
+	/**
+	 * Returns the deconvolution of an arrival curve and a service curve. If no
+	 * token bucket's rate exceeds the service curve's first rate, the result is the
+	 * arrival curve shifted to the left by the service curve's latency T, i.e., the
+	 * minimum of all gamma_{r,b+r*T}.
+	 *
+	 * @param arrival_curve
+	 *            The arrival curve.
+	 * @param service_curve
+	 *            The service curve.
+	 * @return The output arrival curve or <code>null</code> if the closed form does
+	 *         not apply.
+	 */
+	public static ArrivalCurve deconvolve(CurvePwAffine arrival_curve, CurvePwAffine service_curve) {
+		if (!isApplicable(arrival_curve, service_curve)) {
+			return null;
+		}
+		TokenBuckets tbs = tokenBuckets(arrival_curve);
+		RateLatencies rls = rateLatencies(service_curve);
+		if (tbs == null || rls == null || rls.count == 0 || tbs.rates[0].gt(rls.rates[0])) {
+			return null;
+		}
+
+		Num latency = rls.getActiveFrom(0);
+		Num[] bursts = new Num[tbs.count];
+		for (int i = 0; i < tbs.count; i++) {
+			bursts[i] = Num.getUtils().add(tbs.bursts[i], Num.getUtils().mult(tbs.rates[i], latency));
+		}
+
+		// Token buckets that only defined the arrival curve up to T drop out.
+		return toArrivalCurve(lowerEnvelope(tbs.rates, bursts, tbs.count));
+	}
+
+	// ------------------------------------------------------------
+	// Service curves
+	// ------------------------------------------------------------
+
+	/**
+	 * Returns the convolution of two service curves: a rate latency with the sum of
+	 * the latencies followed by the operands' segments in the order of increasing
+	 * rate, up to the smaller one of the two final rates.
+	 *
+	 * @param service_curve_1
+	 *            The first service curve.
+	 * @param service_curve_2
+	 *            The second service curve.
+	 * @return The convolution or <code>null</code> if the closed form does not
+	 *         apply.
+	 */
+	public static ServiceCurve convolve(ServiceCurve service_curve_1, ServiceCurve service_curve_2) {
+		if (!isApplicable(service_curve_1, service_curve_2)) {
+			return null;
+		}
+		RateLatencies rls_1 = rateLatencies(service_curve_1);
+		RateLatencies rls_2 = rateLatencies(service_curve_2);
+		if (rls_1 == null || rls_2 == null) {
+			return null;
+		}
+		if (rls_1.count == 0 || rls_2.count == 0) {
+			return Curve_DNC.getFactory().createZeroService();
+		}
+
+		Num[] rates = new Num[rls_1.count + rls_2.count];
+		Num[] offsets = new Num[rates.length];
+		int count = 0;
+		Num x = Num.getUtils().add(rls_1.getActiveFrom(0), rls_2.getActiveFrom(0));
+		Num y = Num.getFactory().createZero();
+		int i = 0;
+		int j = 0;
+		while (true) {
+			boolean from_1 = rls_1.rates[i].leq(rls_2.rates[j]);
+			RateLatencies rls = from_1 ? rls_1 : rls_2;
+			int k = from_1 ? i : j;
+
+			rates[count] = rls.rates[k];
+			offsets[count] = Num.getUtils().sub(y, Num.getUtils().mult(rls.rates[k], x));
+			count++;
+
+			if (k + 1 == rls.count) { // The last rate latency is not bounded to the right
+				break;
+			}
+			Num length = Num.getUtils().sub(rls.getActiveFrom(k + 1), rls.getActiveFrom(k));
+			x = Num.getUtils().add(x, length);
+			y = Num.getUtils().add(y, Num.getUtils().mult(rls.rates[k], length));
+			if (from_1) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+
+		return toServiceCurve(upperEnvelope(rates, offsets, count));
+	}
+
+	/**
+	 * Returns the left-over service curve under arbitrary multiplexing, the maximum
+	 * of all beta_{R-r,(R*T+b)/(R-r)} for the pairs of the service curve's rate
+	 * latencies and the arrival curve's token buckets with R &gt; r.
+	 *
+	 * @param service_curve
+	 *            The server's service curve.
+	 * @param arrival_curve
+	 *            The arrival curve of cross-traffic.
+	 * @return The left-over service curve or <code>null</code> if the closed form
+	 *         does not apply.
+	 */
+	public static ServiceCurve leftOverArb(ServiceCurve service_curve, ArrivalCurve arrival_curve) {
+		if (!isApplicable(service_curve, arrival_curve)) {
+			return null;
+		}
+		RateLatencies rls = rateLatencies(service_curve);
+		TokenBuckets tbs = tokenBuckets(arrival_curve);
+		if (rls == null || tbs == null) {
+			return null;
+		}
+
+		Num[] rates = new Num[rls.count * tbs.count];
+		Num[] offsets = new Num[rates.length];
+		int count = 0;
+		for (int j = 0; j < rls.count; j++) {
+			for (int i = 0; i < tbs.count; i++) {
+				if (rls.rates[j].gt(tbs.rates[i])) {
+					rates[count] = Num.getUtils().sub(rls.rates[j], tbs.rates[i]);
+					offsets[count] = Num.getUtils().sub(rls.offsets[j], tbs.bursts[i]);
+					count++;
+				}
+			}
+		}
+
+		// The envelope requires increasing rates.
+		Integer[] order = new Integer[count];
+		for (int k = 0; k < count; k++) {
+			order[k] = k;
+		}
+		Arrays.sort(order, (k_1, k_2) -> rates[k_1].lt(rates[k_2]) ? -1 : (rates[k_1].gt(rates[k_2]) ? 1 : 0));
+		Num[] rates_sorted = new Num[count];
+		Num[] offsets_sorted = new Num[count];
+		for (int k = 0; k < count; k++) {
+			rates_sorted[k] = rates[order[k]];
+			offsets_sorted[k] = offsets[order[k]];
+		}
+
+		return toServiceCurve(upperEnvelope(rates_sorted, offsets_sorted, count));
+	}
+
+	// ------------------------------------------------------------
+	// Bounds
+	// ------------------------------------------------------------
+
+	/**
+	 * Returns the FIFO delay bound, i.e., the horizontal deviation. If no token
+	 * bucket's rate exceeds the service curve's first rate, the deviation is
+	 * largest right after zero and amounts to min_j (T_j + b/R_j) for the smallest
+	 * burst b.
+	 *
+	 * @param arrival_curve
+	 *            The arrival curve.
+	 * @param service_curve
+	 *            The service curve.
+	 * @return The delay bound or <code>null</code> if the closed form does not
+	 *         apply.
+	 */
+	public static Num delayFIFO(ArrivalCurve arrival_curve, ServiceCurve service_curve) {
+		if (!isApplicable(arrival_curve, service_curve)) {
+			return null;
+		}
+		TokenBuckets tbs = tokenBuckets(arrival_curve);
+		RateLatencies rls = rateLatencies(service_curve);
+		if (tbs == null || rls == null || rls.count == 0 || tbs.rates[0].gt(rls.rates[0])) {
+			return null;
+		}
+
+		Num result = Num.getFactory().createPositiveInfinity();
+		for (int j = 0; j < rls.count; j++) {
+			result = Num.getUtils().min(result,
+					Num.getUtils().div(Num.getUtils().sub(tbs.bursts[0], rls.offsets[j]), rls.rates[j]));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the backlog bound, i.e., the vertical deviation. If no token bucket's
+	 * rate exceeds the service curve's first rate, the deviation is largest at the
+	 * service curve's latency T and amounts to min_i (b_i + r_i*T).
+	 *
+	 * @param arrival_curve
+	 *            The arrival curve.
+	 * @param service_curve
+	 *            The service curve.
+	 * @return The backlog bound or <code>null</code> if the closed form does not
+	 *         apply.
+	 */
+	public static Num backlog(ArrivalCurve arrival_curve, ServiceCurve service_curve) {
+		if (!isApplicable(arrival_curve, service_curve)) {
+			return null;
+		}
+		TokenBuckets tbs = tokenBuckets(arrival_curve);
+		RateLatencies rls = rateLatencies(service_curve);
+		if (tbs == null || rls == null || rls.count == 0 || tbs.rates[0].gt(rls.rates[0])) {
+			return null;
+		}
+
+		Num latency = rls.getActiveFrom(0);
+		Num result = Num.getFactory().createPositiveInfinity();
+		for (int i = 0; i < tbs.count; i++) {
+			result = Num.getUtils().min(result,
+					Num.getUtils().add(tbs.bursts[i], Num.getUtils().mult(tbs.rates[i], latency)));
+		}
+		return result;
+	}
+
+	// ------------------------------------------------------------
+	// Tuple representation
+	// ------------------------------------------------------------
+
+	/**
+	 * The token buckets gamma_{r_i,b_i} whose minimum is an arrival curve. They are
+	 * ordered by decreasing rate and increasing burst, each one defines the curve
+	 * on an interval of positive length.
+	 */
+	static final class TokenBuckets {
+		final Num[] rates;
+		final Num[] bursts;
+		final int count;
+
+		TokenBuckets(Num[] rates, Num[] bursts, int count) {
+			this.rates = rates;
+			this.bursts = bursts;
+			this.count = count;
+		}
+	}
+
+	/**
+	 * The rate latencies beta_{R_j,T_j} whose maximum is a service curve, no rate
+	 * latency at all denotes the zero service curve. They are ordered by increasing
+	 * rate, each one defines the curve on an interval of positive length. A rate
+	 * latency is stored as the line R_j*t - R_j*T_j it follows after its latency,
+	 * i.e., by rate and y-axis offset, as this keeps most operations free of
+	 * divisions.
+	 */
+	static final class RateLatencies {
+		final Num[] rates;
+		final Num[] offsets;
+		final int count;
+
+		RateLatencies(Num[] rates, Num[] offsets, int count) {
+			this.rates = rates;
+			this.offsets = offsets;
+			this.count = count;
+		}
+
+		/**
+		 * @param j
+		 *            The index of the rate latency.
+		 * @return The x-coordinate where rate latency <code>j</code> starts to define
+		 *         the curve, the latency of the curve for <code>j = 0</code>.
+		 */
+		Num getActiveFrom(int j) {
+			if (j == 0) {
+				return Num.getUtils().div(Num.getUtils().negate(offsets[0]), rates[0]);
+			}
+			return Num.getUtils().div(Num.getUtils().sub(offsets[j - 1], offsets[j]),
+					Num.getUtils().sub(rates[j], rates[j - 1]));
+		}
+	}
+
+	private static boolean isApplicable(CurvePwAffine curve_1, CurvePwAffine curve_2) {
+		return CalculatorConfig.getInstance().exec_tbrl_closed_forms()
+				&& CalculatorConfig.getInstance().getCurveImpl() == CurveImpl.DNC
+				&& curve_1 instanceof Curve_DNC && curve_2 instanceof Curve_DNC;
+	}
+
+	/**
+	 * Decomposes a curve that is zero in the origin, may have a burst there and is
+	 * continuous and concave afterwards into its token buckets.
+	 *
+	 * @param curve
+	 *            The curve to decompose.
+	 * @return The token buckets or <code>null</code> if the curve is not of that
+	 *         shape.
+	 */
+	static TokenBuckets tokenBuckets(CurvePwAffine curve) {
+		LinearSegment_DNC[] segments = ((Curve_DNC) curve).segments;
+		if (!segments[0].getX().eqZero() || !segments[0].getY().eqZero()) {
+			return null;
+		}
+
+		Num[] rates = new Num[segments.length];
+		Num[] bursts = new Num[segments.length];
+		int count = 0;
+		for (int i = 0; i < segments.length; i++) {
+			LinearSegment_DNC segment = segments[i];
+			Num grad = segment.getGrad();
+			if (!segment.getY().isFinite() || !grad.isFinite() || grad.ltZero()) {
+				return null;
+			}
+			if (i == 0 && segments.length > 1 && segments[1].getX().eqZero()) {
+				continue; // Only defines f(0) = 0, the burst follows.
+			}
+			if (i > 0) {
+				LinearSegment_DNC previous = segments[i - 1];
+				Num dx = Num.getUtils().sub(segment.getX(), previous.getX());
+				if (!dx.gtZero()) {
+					if (i > 1 || !dx.eqZero() || segment.getY().ltZero()) {
+						return null;
+					}
+				} else if (grad.gt(previous.getGrad()) || !isContinuous(previous, dx, segment)) {
+					return null;
+				}
+			}
+			rates[count] = grad;
+			bursts[count] = Num.getUtils().sub(segment.getY(), Num.getUtils().mult(grad, segment.getX()));
+			count++;
+		}
+
+		return lowerEnvelope(rates, bursts, count);
+	}
+
+	/**
+	 * Decomposes a curve that is zero in the origin, continuous and convex into its
+	 * rate latencies.
+	 *
+	 * @param curve
+	 *            The curve to decompose.
+	 * @return The rate latencies or <code>null</code> if the curve is not of that
+	 *         shape.
+	 */
+	static RateLatencies rateLatencies(CurvePwAffine curve) {
+		LinearSegment_DNC[] segments = ((Curve_DNC) curve).segments;
+		if (!segments[0].getX().eqZero() || !segments[0].getY().eqZero()) {
+			return null;
+		}
+
+		Num[] rates = new Num[segments.length];
+		Num[] offsets = new Num[segments.length];
+		int count = 0;
+		for (int i = 0; i < segments.length; i++) {
+			LinearSegment_DNC segment = segments[i];
+			Num grad = segment.getGrad();
+			if (!segment.getY().isFinite() || !grad.isFinite() || grad.ltZero()) {
+				return null;
+			}
+			if (i > 0) {
+				LinearSegment_DNC previous = segments[i - 1];
+				Num dx = Num.getUtils().sub(segment.getX(), previous.getX());
+				if (!dx.gtZero() || grad.lt(previous.getGrad()) || !isContinuous(previous, dx, segment)) {
+					return null;
+				}
+			}
+			if (grad.gtZero()) {
+				rates[count] = grad;
+				offsets[count] = Num.getUtils().sub(segment.getY(), Num.getUtils().mult(grad, segment.getX()));
+				count++;
+			}
+		}
+
+		return upperEnvelope(rates, offsets, count);
+	}
+
+	private static boolean isContinuous(LinearSegment_DNC previous, Num dx, LinearSegment_DNC segment) {
+		Num y_limit_left = Num.getUtils().add(previous.getY(), Num.getUtils().mult(previous.getGrad(), dx));
+		return Num.getUtils().abs(Num.getUtils().sub(segment.getY(), y_limit_left)).lt(Num.getFactory().getEpsilon());
+	}
+
+	/**
+	 * Computes the minimum of the token buckets for t &gt; 0 and removes the ones
+	 * that never define it.
+	 *
+	 * @param rates
+	 *            The rates in non-increasing order.
+	 * @param bursts
+	 *            The corresponding bursts.
+	 * @param count
+	 *            The number of token buckets.
+	 * @return The token buckets of the minimum.
+	 */
+	private static TokenBuckets lowerEnvelope(Num[] rates, Num[] bursts, int count) {
+		Num[] envelope_rates = new Num[count];
+		Num[] envelope_bursts = new Num[count];
+		int n = 0;
+		for (int i = 0; i < count; i++) {
+			Num rate = rates[i];
+			Num burst = bursts[i];
+			if (n > 0 && rate.geq(envelope_rates[n - 1])) { // Equal rates, keep the smaller burst
+				if (burst.geq(envelope_bursts[n - 1])) {
+					continue;
+				}
+				n--;
+			}
+			// A larger rate requires a smaller burst to define the minimum anywhere.
+			while (n > 0 && envelope_bursts[n - 1].geq(burst)) {
+				n--;
+			}
+			// The last one is dominated if the new one intersects the second to last one
+			// not after the last one does.
+			while (n > 1 && Num.getUtils()
+					.mult(Num.getUtils().sub(burst, envelope_bursts[n - 2]),
+							Num.getUtils().sub(envelope_rates[n - 2], envelope_rates[n - 1]))
+					.leq(Num.getUtils().mult(Num.getUtils().sub(envelope_bursts[n - 1], envelope_bursts[n - 2]),
+							Num.getUtils().sub(envelope_rates[n - 2], rate)))) {
+				n--;
+			}
+			envelope_rates[n] = rate;
+			envelope_bursts[n] = burst;
+			n++;
+		}
+		return new TokenBuckets(envelope_rates, envelope_bursts, n);
+	}
+
+	/**
+	 * Computes the maximum of the rate latencies, i.e., of their lines and zero,
+	 * and removes the ones that never define it.
+	 *
+	 * @param rates
+	 *            The positive rates in non-decreasing order.
+	 * @param offsets
+	 *            The corresponding y-axis offsets.
+	 * @param count
+	 *            The number of rate latencies.
+	 * @return The rate latencies of the maximum.
+	 */
+	private static RateLatencies upperEnvelope(Num[] rates, Num[] offsets, int count) {
+		// Index 0 holds the zero line.
+		Num[] envelope_rates = new Num[count + 1];
+		Num[] envelope_offsets = new Num[count + 1];
+		envelope_rates[0] = Num.getFactory().createZero();
+		envelope_offsets[0] = Num.getFactory().createZero();
+		int n = 1;
+		for (int i = 0; i < count; i++) {
+			Num rate = rates[i];
+			Num offset = offsets[i];
+			if (n > 0 && rate.leq(envelope_rates[n - 1])) { // Equal rates, keep the larger offset
+				if (offset.leq(envelope_offsets[n - 1])) {
+					continue;
+				}
+				n--;
+			}
+			// A smaller rate requires a larger offset to define the maximum anywhere.
+			while (n > 0 && envelope_offsets[n - 1].leq(offset)) {
+				n--;
+			}
+			// The last one is dominated if the new one intersects the second to last one
+			// not after the last one does.
+			while (n > 1 && Num.getUtils()
+					.mult(Num.getUtils().sub(envelope_offsets[n - 2], offset),
+							Num.getUtils().sub(envelope_rates[n - 1], envelope_rates[n - 2]))
+					.leq(Num.getUtils().mult(Num.getUtils().sub(envelope_offsets[n - 2], envelope_offsets[n - 1]),
+							Num.getUtils().sub(rate, envelope_rates[n - 2])))) {
+				n--;
+			}
+			envelope_rates[n] = rate;
+			envelope_offsets[n] = offset;
+			n++;
+		}
+
+		int first = (n > 0 && envelope_rates[0].eqZero()) ? 1 : 0;
+		return new RateLatencies(Arrays.copyOfRange(envelope_rates, first, n),
+				Arrays.copyOfRange(envelope_offsets, first, n), n - first);
+	}
+
+	// ------------------------------------------------------------
+	// Curve assembly
+	// ------------------------------------------------------------
+
+	private static ArrivalCurve toArrivalCurve(TokenBuckets tbs) {
+		if (tbs.count == 1 && tbs.rates[0].gtZero()) {
+			return Curve_DNC.getFactory().createTokenBucket(tbs.rates[0].copy(), tbs.bursts[0].copy());
+		}
+
+		LinearSegment_DNC[] segments = new LinearSegment_DNC[tbs.count + 1];
+		int s = 0;
+		if (tbs.bursts[0].gtZero()) {
+			segments[s++] = new LinearSegment_DNC(Num.getFactory().createZero(), Num.getFactory().createZero(),
+					Num.getFactory().createZero(), false);
+			segments[s++] = new LinearSegment_DNC(Num.getFactory().createZero(), tbs.bursts[0].copy(),
+					tbs.rates[0].copy(), true);
+		} else {
+			segments[s++] = new LinearSegment_DNC(Num.getFactory().createZero(), Num.getFactory().createZero(),
+					tbs.rates[0].copy(), false);
+		}
+		for (int i = 1; i < tbs.count; i++) {
+			Num x = Num.getUtils().div(Num.getUtils().sub(tbs.bursts[i], tbs.bursts[i - 1]),
+					Num.getUtils().sub(tbs.rates[i - 1], tbs.rates[i]));
+			Num y = Num.getUtils().add(tbs.bursts[i], Num.getUtils().mult(tbs.rates[i], x));
+			segments[s++] = new LinearSegment_DNC(x, y, tbs.rates[i].copy(), true);
+		}
+
+		ArrivalCurve_DNC result = new ArrivalCurve_DNC();
+		result.setSegments(s == segments.length ? segments : Arrays.copyOf(segments, s));
+		return result;
+	}
+
+	private static ServiceCurve toServiceCurve(RateLatencies rls) {
+		if (rls.count == 0) {
+			return Curve_DNC.getFactory().createZeroService();
+		}
+		if (rls.count == 1) {
+			return Curve_DNC.getFactory().createRateLatency(rls.rates[0].copy(), rls.getActiveFrom(0));
+		}
+
+		LinearSegment_DNC[] segments = new LinearSegment_DNC[rls.count + 1];
+		int s = 0;
+		Num latency = rls.getActiveFrom(0);
+		if (latency.gtZero()) {
+			segments[s++] = new LinearSegment_DNC(Num.getFactory().createZero(), Num.getFactory().createZero(),
+					Num.getFactory().createZero(), false);
+			segments[s++] = new LinearSegment_DNC(latency, Num.getFactory().createZero(), rls.rates[0].copy(),
+					true);
+		} else {
+			segments[s++] = new LinearSegment_DNC(Num.getFactory().createZero(), Num.getFactory().createZero(),
+					rls.rates[0].copy(), false);
+		}
+		for (int j = 1; j < rls.count; j++) {
+			Num x = rls.getActiveFrom(j);
+			Num y = Num.getUtils().add(rls.offsets[j], Num.getUtils().mult(rls.rates[j], x));
+			segments[s++] = new LinearSegment_DNC(x, y, rls.rates[j].copy(), true);
+		}
+
+		ServiceCurve_DNC result = new ServiceCurve_DNC();
+		result.setSegments(s == segments.length ? segments : Arrays.copyOf(segments, s));
+		return result;
+	}
+}
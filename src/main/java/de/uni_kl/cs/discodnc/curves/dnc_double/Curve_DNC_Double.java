@@ -0,0 +1,1829 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.curves.dnc_double;
+
+import de.uni_kl.cs.discodnc.curves.Curve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.LinearSegment;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
+import de.uni_kl.cs.discodnc.numbers.Num;
+import de.uni_kl.cs.discodnc.numbers.implementations.RealDoublePrecision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Class representing a piecewise linear curve, defined on [0,inf), that
+ * stores its segments in parallel arrays of primitive doubles.<br>
+ * Segment <code>i</code> starts at the inflection point
+ * (<code>xs[i]</code>,<code>ys[i]</code>) and continues with gradient
+ * <code>grads[i]</code> up to, but not including, the next inflection point.
+ * Bit <code>i</code> of <code>leftopen</code> tells whether the inflection
+ * point itself is excluded from the segment.<br>
+ * The curve has the semantics of a <code>Curve_DNC</code> with
+ * <code>RealDoublePrecision</code> numbers, i.e., it computes in double
+ * precision with the same epsilon, independent of the configured number
+ * representation. <code>Num</code> objects are only created when values are
+ * accessed via the <code>Curve</code> interface.<br>
+ * <code>getSegment(int)</code> returns a view on the respective segment,
+ * changes made to it are written through to the curve. Repeated calls return
+ * the same view. It moves along with its segment when segments are added or
+ * removed in front of it and becomes a stand-alone copy once its segment is
+ * removed or the curve's segments are replaced.
+ */
+public class Curve_DNC_Double implements CurvePwAffine {
+	static final double EPSILON = RealDoublePrecision.getInstance().getEpsilon().doubleValue();
+
+	private static Curve_DNC_Double instance = new Curve_DNC_Double();
+
+	protected double[] xs;
+	protected double[] ys;
+	protected double[] grads;
+	protected BitSet leftopen;
+	protected int segment_count;
+
+	// Views handed out by getSegment(int), created on demand. Entry i is the view
+	// on segment i or null.
+	private LinearSegment_DNC_Double[] segment_views = null;
+
+	protected boolean is_delayed_infinite_burst = false;
+
+	// The decompositions are computed lazily, also on curves shared by concurrent
+	// analyses. The volatile flags are written after the list and the property they
+	// guard, so a thread that sees them set also sees a complete decomposition.
+	protected boolean is_rate_latency = false;
+	protected volatile boolean has_rate_latency_meta_info = false;
+	protected List<Curve_DNC_Double> rate_latencies = new LinkedList<Curve_DNC_Double>();
+
+	protected boolean is_token_bucket = false;
+	protected volatile boolean has_token_bucket_meta_info = false;
+	protected List<Curve_DNC_Double> token_buckets = new LinkedList<Curve_DNC_Double>();
+
+	/**
+	 * Creates a <code>Curve_DNC_Double</code> instance with a single segment on
+	 * the x-axis.
+	 */
+	protected Curve_DNC_Double() {
+		createZeroSegmentsCurve(1);
+	}
+
+	protected Curve_DNC_Double(CurvePwAffine curve) {
+		copy(curve);
+	}
+
+	/**
+	 * Creates a <code>Curve_DNC_Double</code> instance with
+	 * <code>segment_count</code> segments on the x-axis.
+	 *
+	 * @param segment_count
+	 *            the number of segments
+	 */
+	protected Curve_DNC_Double(int segment_count) {
+		createZeroSegmentsCurve(segment_count);
+	}
+
+	public static Curve_DNC_Double getFactory() {
+		return instance;
+	}
+
+	// --------------------------------------------------------------------------------------------------------------
+	// Double Arithmetic
+	// --------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Subtraction with the semantics of <code>RealDoublePrecision</code>, i.e.,
+	 * differences within epsilon become zero.
+	 *
+	 * @param num1
+	 *            the minuend.
+	 * @param num2
+	 *            the subtrahend.
+	 * @return the difference.
+	 */
+	public static double sub(double num1, double num2) {
+		double result = num1 - num2;
+		if (Math.abs(result) <= EPSILON) {
+			return 0.0;
+		}
+		return result;
+	}
+
+	/**
+	 * Equality with the semantics of <code>RealDoublePrecision</code>, i.e.,
+	 * within epsilon or infinities of the same sign.
+	 *
+	 * @param num1
+	 *            the first number.
+	 * @param num2
+	 *            the second number.
+	 * @return whether the numbers are considered equal.
+	 */
+	public static boolean eq(double num1, double num2) {
+		if (Double.isInfinite(num1) && Double.isInfinite(num2) && (Double.compare(num1, num2) == 0)) {
+			return true;
+		}
+		return Math.abs(num1 - num2) <= EPSILON;
+	}
+
+	// --------------------------------------------------------------------------------------------------------------
+	// Interface Implementations
+	// --------------------------------------------------------------------------------------------------------------
+
+	public boolean isRateLatency() {
+		decomposeIntoRateLatencies();
+		return is_rate_latency;
+	}
+
+	public boolean isTokenBucket() {
+		decomposeIntoTokenBuckets();
+		return is_token_bucket;
+	}
+
+	public boolean hasRateLatencyMetaInfo() {
+		return has_rate_latency_meta_info;
+	}
+
+	public void setRL_MetaInfo(boolean has_rate_latency_meta_info) {
+		this.has_rate_latency_meta_info = has_rate_latency_meta_info;
+	}
+
+	public List<CurvePwAffine> getRL_Components() {
+		List<CurvePwAffine> tmp = new LinkedList<>();
+		if (this.is_rate_latency) {
+			tmp.add(this.copy());
+		} else {
+			for (int i = 0; i < rate_latencies.size(); i++) {
+				tmp.add(rate_latencies.get(i));
+			}
+		}
+		return tmp;
+	}
+
+	public void setRL_Components(List<CurvePwAffine> rate_latencies) {
+		List<Curve_DNC_Double> tmp = new LinkedList<>();
+		for (int i = 0; i < rate_latencies.size(); i++) {
+			tmp.add((Curve_DNC_Double) rate_latencies.get(i));
+		}
+		this.rate_latencies = tmp;
+	}
+
+	public boolean hasTokenBucketMetaInfo() {
+		return has_token_bucket_meta_info;
+	}
+
+	public void setTB_MetaInfo(boolean has_token_bucket_meta_info) {
+		this.has_token_bucket_meta_info = has_token_bucket_meta_info;
+	}
+
+	public List<CurvePwAffine> getTB_Components() {
+		List<CurvePwAffine> tmp = new LinkedList<>();
+		for (int i = 0; i < token_buckets.size(); i++) {
+			tmp.add(token_buckets.get(i));
+		}
+		return tmp;
+	}
+
+	public void setTB_Components(List<CurvePwAffine> token_buckets) {
+		List<Curve_DNC_Double> tmp = new LinkedList<>();
+		for (int i = 0; i < token_buckets.size(); i++) {
+			tmp.add((Curve_DNC_Double) token_buckets.get(i));
+		}
+		this.token_buckets = tmp;
+	}
+
+	private void createZeroSegmentsCurve(int segment_count) {
+		detachSegmentViews();
+		xs = new double[segment_count];
+		ys = new double[segment_count];
+		grads = new double[segment_count];
+		leftopen = new BitSet(segment_count);
+		if (segment_count > 1) {
+			leftopen.set(1, segment_count);
+		}
+		this.segment_count = segment_count;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (xs.length >= capacity) {
+			return;
+		}
+		int new_capacity = Math.max(capacity, 2 * xs.length);
+		xs = Arrays.copyOf(xs, new_capacity);
+		ys = Arrays.copyOf(ys, new_capacity);
+		grads = Arrays.copyOf(grads, new_capacity);
+	}
+
+	// Accepts string representations of Curve, ArrivalCurve, ServiceCurve, and
+	// MaxServiceCurve
+	protected void initializeCurve(String curve_str) throws Exception {
+		if (curve_str.substring(0, 2).equals("AC") || curve_str.substring(0, 2).equals("SC")) {
+			curve_str = curve_str.substring(2);
+		} else {
+			if (curve_str.substring(0, 3).equals("MSC")) {
+				curve_str = curve_str.substring(3);
+			}
+		}
+
+		// Must to be a string representation of a "raw" curve object at this location.
+		if (curve_str.charAt(0) != '{' || curve_str.charAt(curve_str.length() - 1) != '}') {
+			throw new RuntimeException("Invalid string representation of a curve.");
+		}
+
+		// Remove enclosing curly brackets
+		String curve_str_internal = curve_str.substring(1, curve_str.length() - 1);
+
+		String[] segments_to_parse = curve_str_internal.split(";");
+		createZeroSegmentsCurve(segments_to_parse.length);
+		for (int i = 0; i < segments_to_parse.length; i++) {
+			setSegment(i, new LinearSegment_DNC_Double(segments_to_parse[i]));
+		}
+		beautify();
+	}
+
+	protected void forceThroughOrigin() {
+		if (ys[0] > 0.0) {
+			addSegment(0, 0.0, 0.0, 0.0, false);
+			leftopen.set(1);
+		}
+	}
+
+	private void clearMetaInfo() {
+		has_token_bucket_meta_info = false;
+		is_token_bucket = false;
+		token_buckets = new LinkedList<Curve_DNC_Double>();
+
+		has_rate_latency_meta_info = false;
+		is_rate_latency = false;
+		rate_latencies = new LinkedList<Curve_DNC_Double>();
+	}
+
+	/**
+	 * Returns a copy of this instance.
+	 *
+	 * @return a copy of this instance.
+	 */
+	@Override
+	public Curve_DNC_Double copy() {
+		Curve_DNC_Double c_copy = new Curve_DNC_Double();
+		c_copy.copy(this);
+		return c_copy;
+	}
+
+	@Override
+	public void copy(Curve curve) {
+		if (curve instanceof Curve_DNC_Double) {
+			Curve_DNC_Double c_double = (Curve_DNC_Double) curve;
+			detachSegmentViews();
+			int count = c_double.segment_count;
+			xs = Arrays.copyOf(c_double.xs, count);
+			ys = Arrays.copyOf(c_double.ys, count);
+			grads = Arrays.copyOf(c_double.grads, count);
+			leftopen = (BitSet) c_double.leftopen.clone();
+			segment_count = count;
+
+			this.is_delayed_infinite_burst = c_double.is_delayed_infinite_burst;
+		} else {
+			createZeroSegmentsCurve(curve.getSegmentCount());
+			for (int i = 0; i < segment_count; i++) {
+				setSegmentValues(i, curve.getSegment(i));
+			}
+		}
+
+		// Like Curve_DNC.copy(Curve), the copy starts without rate latency and token
+		// bucket meta information.
+		clearMetaInfo();
+	}
+
+	/**
+	 * Starting at 0.<br>
+	 * Returns a view on the segment, i.e., changes to the segment are made to this
+	 * curve. The view stays on this segment if other segments are added or
+	 * removed.
+	 */
+	public LinearSegment_DNC_Double getSegment(int pos) {
+		if (pos < 0 || pos > segment_count - 1) {
+			throw new IndexOutOfBoundsException("Index out of bounds (pos=" + pos + ")!");
+		}
+		if (segment_views == null) {
+			segment_views = new LinearSegment_DNC_Double[xs.length];
+		} else if (segment_views.length <= pos) {
+			segment_views = Arrays.copyOf(segment_views, xs.length);
+		}
+		if (segment_views[pos] == null) {
+			segment_views[pos] = new LinearSegment_DNC_Double(this, pos);
+		}
+		return segment_views[pos];
+	}
+
+	// Turns all views into stand-alone segments before the segments are replaced.
+	private void detachSegmentViews() {
+		if (segment_views == null) {
+			return;
+		}
+		for (int i = 0; i < segment_count && i < segment_views.length; i++) {
+			if (segment_views[i] != null) {
+				segment_views[i].detach();
+			}
+		}
+		segment_views = null;
+	}
+
+	/**
+	 * Returns the number of segments in this curve.
+	 *
+	 * @return the number of segments
+	 */
+	public int getSegmentCount() {
+		return segment_count;
+	}
+
+	// ------------------------------------------------------------
+	// Primitive segment access
+	// ------------------------------------------------------------
+	// Like changes made via getSegment(pos), the setters do not reset the curve's
+	// meta information.
+
+	public double getSegmentX(int pos) {
+		return xs[pos];
+	}
+
+	public void setSegmentX(int pos, double x) {
+		xs[pos] = x;
+	}
+
+	public double getSegmentY(int pos) {
+		return ys[pos];
+	}
+
+	public void setSegmentY(int pos, double y) {
+		ys[pos] = y;
+	}
+
+	public double getSegmentGrad(int pos) {
+		return grads[pos];
+	}
+
+	public void setSegmentGrad(int pos, double grad) {
+		grads[pos] = grad;
+	}
+
+	public boolean isSegmentLeftopen(int pos) {
+		return leftopen.get(pos);
+	}
+
+	public void setSegmentLeftopen(int pos, boolean leftopen) {
+		this.leftopen.set(pos, leftopen);
+	}
+
+	// ------------------------------------------------------------
+	// Curve's segments
+	// ------------------------------------------------------------
+
+	/**
+	 * Returns the number of the segment that defines the function value at
+	 * x-coordinate <code>x</code>. The number of the segment is usually the same as
+	 * the one returned by <code>getSegmentLimitRight(x)</code>, except for if a
+	 * segment starts at <code>x</code> and is left-open. In this case the function
+	 * returns the previous segment, rather than the current segment, as the
+	 * previous segment defines <code>x</code>.
+	 *
+	 * @param x
+	 *            the x-coordinate
+	 * @return the index of the segment into the array.
+	 */
+	public int getSegmentDefining(Num x) {
+		return getSegmentDefining(x.doubleValue());
+	}
+
+	public int getSegmentDefining(double x) {
+		for (int i = segment_count - 1; i >= 0; i--) {
+			if (leftopen.get(i)) {
+				if (xs[i] < x) {
+					return i;
+				}
+			} else {
+				if (xs[i] <= x) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the number of the segment that defines the value of the function when
+	 * computing the limit to the right of the function at x-coordinate
+	 * <code>x</code>. The number of the segment is usually the same as the one
+	 * returned by <code>getSegmentDefining(x)</code>, except for if a segment
+	 * starts at <code>x</code> and is left-open. In this case the function returns
+	 * the current segment, rather than the previous segment.
+	 *
+	 * @param x
+	 *            the x-coordinate
+	 * @return the index of the segment into the array.
+	 */
+	public int getSegmentLimitRight(Num x) {
+		return getSegmentLimitRight(x.doubleValue());
+	}
+
+	public int getSegmentLimitRight(double x) {
+		if (x == Double.POSITIVE_INFINITY) {
+			return segment_count;
+		}
+
+		for (int i = segment_count - 1; i >= 0; i--) {
+			if (xs[i] <= x) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public void setSegment(int pos, LinearSegment s) {
+		if (pos < 0 || pos >= segment_count) {
+			throw new IndexOutOfBoundsException("Index out of bounds (pos=" + pos + ")!");
+		}
+		if (s == null) {
+			throw new IllegalArgumentException("Tried to insert null!");
+		}
+
+		setSegmentValues(pos, s);
+		clearMetaInfo();
+	}
+
+	private void setSegmentValues(int pos, LinearSegment s) {
+		if (s instanceof LinearSegment_DNC_Double) {
+			LinearSegment_DNC_Double s_double = (LinearSegment_DNC_Double) s;
+			xs[pos] = s_double.getXDouble();
+			ys[pos] = s_double.getYDouble();
+			grads[pos] = s_double.getGradDouble();
+		} else {
+			xs[pos] = s.getX().doubleValue();
+			ys[pos] = s.getY().doubleValue();
+			grads[pos] = s.getGrad().doubleValue();
+		}
+		leftopen.set(pos, s.isLeftopen());
+	}
+
+	/**
+	 * Adds a <code>LinearSegment</code> to the end of the curve.<br>
+	 * Note: It is the user's responsibility to add segments in the order of
+	 * increasing x-coordinates.
+	 *
+	 * @param s
+	 *            the segment to be added.
+	 */
+	public void addSegment(LinearSegment s) {
+		addSegment(segment_count, s);
+	}
+
+	/**
+	 * Adds a <code>LinearSegment</code> at the location <code>pos</code> of the
+	 * curve.<br>
+	 * Note1; Segments after pos will be pushed back by one position.<br>
+	 * Note2: It is the user's responsibility to add segments in the order of
+	 * increasing x-coordinates.
+	 *
+	 * @param pos
+	 *            the index into the segment array to add the new segment.
+	 * @param s
+	 *            the segment to be added.
+	 */
+	public void addSegment(int pos, LinearSegment s) {
+		if (pos < 0 || pos > segment_count) {
+			throw new IndexOutOfBoundsException("Index out of bounds (pos=" + pos + ")!");
+		}
+		if (s == null) {
+			throw new IllegalArgumentException("Tried to insert null!");
+		}
+
+		insertSegment(pos);
+		setSegmentValues(pos, s);
+		clearMetaInfo();
+	}
+
+	/**
+	 * Adds a segment to the end of the curve without creating a
+	 * <code>LinearSegment</code> object.
+	 *
+	 * @param x
+	 *            the x-coordinate the segment starts at.
+	 * @param y
+	 *            the y-coordinate the segment starts at.
+	 * @param grad
+	 *            the segment's gradient.
+	 * @param leftopen
+	 *            whether the segment is left-open.
+	 */
+	public void addSegment(double x, double y, double grad, boolean leftopen) {
+		addSegment(segment_count, x, y, grad, leftopen);
+	}
+
+	public void addSegment(int pos, double x, double y, double grad, boolean leftopen) {
+		if (pos < 0 || pos > segment_count) {
+			throw new IndexOutOfBoundsException("Index out of bounds (pos=" + pos + ")!");
+		}
+
+		insertSegment(pos);
+		xs[pos] = x;
+		ys[pos] = y;
+		grads[pos] = grad;
+		this.leftopen.set(pos, leftopen);
+		clearMetaInfo();
+	}
+
+	private void insertSegment(int pos) {
+		ensureCapacity(segment_count + 1);
+		if (segment_views != null) {
+			if (segment_views.length <= segment_count) {
+				segment_views = Arrays.copyOf(segment_views, xs.length);
+			}
+			System.arraycopy(segment_views, pos, segment_views, pos + 1, segment_count - pos);
+			segment_views[pos] = null;
+			for (int i = pos + 1; i <= segment_count; i++) {
+				if (segment_views[i] != null) {
+					segment_views[i].moveTo(i);
+				}
+			}
+		}
+		System.arraycopy(xs, pos, xs, pos + 1, segment_count - pos);
+		System.arraycopy(ys, pos, ys, pos + 1, segment_count - pos);
+		System.arraycopy(grads, pos, grads, pos + 1, segment_count - pos);
+		for (int i = segment_count; i > pos; i--) {
+			leftopen.set(i, leftopen.get(i - 1));
+		}
+		segment_count++;
+	}
+
+	/**
+	 * Removes the segment at position <code>pos</code>.
+	 *
+	 * @param pos
+	 *            the index of the segment to be removed.
+	 */
+	public void removeSegment(int pos) {
+		if (pos < 0 || pos >= segment_count) {
+			throw new IndexOutOfBoundsException("Index out of bounds (pos=" + pos + ")!");
+		}
+		removeSegments(pos, 1);
+	}
+
+	private void removeSegments(int pos, int count) {
+		int tail = segment_count - pos - count;
+		if (segment_views != null) {
+			int views_end = Math.min(segment_count, segment_views.length);
+			for (int i = pos; i < pos + count && i < views_end; i++) {
+				if (segment_views[i] != null) {
+					segment_views[i].detach();
+				}
+			}
+			for (int i = pos; i < views_end; i++) {
+				segment_views[i] = (i + count < views_end) ? segment_views[i + count] : null;
+				if (segment_views[i] != null) {
+					segment_views[i].moveTo(i);
+				}
+			}
+		}
+		System.arraycopy(xs, pos + count, xs, pos, tail);
+		System.arraycopy(ys, pos + count, ys, pos, tail);
+		System.arraycopy(grads, pos + count, grads, pos, tail);
+		for (int i = pos; i < pos + tail; i++) {
+			leftopen.set(i, leftopen.get(i + count));
+		}
+		leftopen.clear(pos + tail, segment_count);
+		segment_count -= count;
+
+		clearMetaInfo();
+	}
+
+	/**
+	 * Returns whether the inflection point is a (real or unreal) discontinuity.
+	 *
+	 * @param pos
+	 *            the index of the IP
+	 * @return <code>true</code> if the IP is a discontinuity, <code>false</code> if
+	 *         not.
+	 */
+	public boolean isDiscontinuity(int pos) {
+		return (pos + 1 < segment_count && Math.abs(sub(xs[pos + 1], xs[pos])) < EPSILON);
+	}
+
+	/**
+	 * Returns whether the inflection point is a real discontinuity, i.e. the y0 of
+	 * the leftopen segment differs from the previous one.
+	 *
+	 * @param pos
+	 *            the index of the IP
+	 * @return <code>true</code> if the IP is a real discontinuity,
+	 *         <code>false</code> if not.
+	 */
+	public boolean isRealDiscontinuity(int pos) {
+		return (isDiscontinuity(pos) && Math.abs(sub(ys[pos + 1], ys[pos])) >= EPSILON);
+	}
+
+	// ------------------------------------------------------------
+	// Curve properties
+	// ------------------------------------------------------------
+
+	/**
+	 * Returns whether the inflection point is an unreal discontinuity, i.e. the y0
+	 * of the leftopen segment is coincident with the y0 of the previous segment and
+	 * therefore the unreal discontinuity may safely be removed.
+	 *
+	 * @param pos
+	 *            the index of the IP
+	 * @return <code>true</code> if the IP is an unreal discontinuity,
+	 *         <code>false</code> if not.
+	 */
+	public boolean isUnrealDiscontinuity(int pos) {
+		return (isDiscontinuity(pos) && Math.abs(sub(ys[pos + 1], ys[pos])) < EPSILON);
+	}
+
+	/**
+	 * Tests whether the curve is wide-sense increasing.
+	 *
+	 * @return whether the curve is wide-sense increasing.
+	 */
+	public boolean isWideSenseIncreasing() {
+		double y = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < segment_count; i++) {
+			if (ys[i] < y || grads[i] < 0.0) {
+				return false;
+			}
+			y = ys[i];
+		}
+		return true;
+	}
+
+	/**
+	 * Tests whether the curve is convex.
+	 *
+	 * @return whether the curve is convex.
+	 */
+	public boolean isConvex() {
+		return isConvexIn(0.0, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Tests whether the curve is convex in [a,b].
+	 *
+	 * @param a
+	 *            the lower bound of the test interval.
+	 * @param b
+	 *            the upper bound of the test interval.
+	 * @return whether the curve is convex
+	 */
+	public boolean isConvexIn(Num a, Num b) {
+		return isConvexIn(a.doubleValue(), b.doubleValue());
+	}
+
+	public boolean isConvexIn(double a, double b) {
+		double last_gradient = Double.NEGATIVE_INFINITY;
+
+		int i_start = getSegmentDefining(a);
+		int i_end = getSegmentDefining(b);
+		if (i_start < 0) {
+			return true;
+		}
+		for (int i = i_start; i <= i_end; i++) {
+			double gradient = gradientToNextSegment(i);
+			if (gradient < last_gradient) {
+				return false;
+			}
+			last_gradient = gradient;
+		}
+		return true;
+	}
+
+	// The gradient of the line connecting segment i's inflection point with the
+	// next one, handles discontinuities.
+	private double gradientToNextSegment(int i) {
+		if (i < segment_count - 1) {
+			return sub(ys[i + 1], ys[i]) / sub(xs[i + 1], xs[i]);
+		} else {
+			return grads[i];
+		}
+	}
+
+	/**
+	 * Tests whether the curve is concave.
+	 *
+	 * @return whether the curve is concave.
+	 */
+	public boolean isConcave() {
+		return isConcaveIn(0.0, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Tests whether the curve is concave in [a,b].
+	 *
+	 * @param a
+	 *            the lower bound of the test interval.
+	 * @param b
+	 *            the upper bound of the test interval.
+	 * @return whether the curve is concave.
+	 */
+	public boolean isConcaveIn(Num a, Num b) {
+		return isConcaveIn(a.doubleValue(), b.doubleValue());
+	}
+
+	public boolean isConcaveIn(double a, double b) {
+		double last_gradient = Double.POSITIVE_INFINITY;
+
+		int i_start = getSegmentDefining(a);
+		int i_end = getSegmentDefining(b);
+		for (int i = i_start; i <= i_end; i++) {
+			double gradient = gradientToNextSegment(i);
+			if (gradient > last_gradient) {
+				return false;
+			}
+			last_gradient = gradient;
+		}
+		return true;
+	}
+
+	/**
+	 * Tests whether the curve is almost concave, i.e. it is concave once its
+	 * function value is larger than 0.
+	 *
+	 * @return whether the curve is almost concave.
+	 */
+	public boolean isAlmostConcave() {
+		double last_gradient = Double.POSITIVE_INFINITY;
+
+		for (int i = 0; i < segment_count; i++) {
+			// Skip the horizontal part at the beginning
+			if (last_gradient == Double.POSITIVE_INFINITY && eq(grads[i], 0.0)) {
+				continue;
+			}
+
+			double gradient = gradientToNextSegment(i);
+			if (gradient > last_gradient) {
+				return false;
+			}
+			last_gradient = gradient;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == null || !(obj instanceof Curve_DNC_Double)) {
+			return false;
+		}
+		if (obj == this) {
+			return true;
+		}
+
+		Curve_DNC_Double this_cpy = this.copy();
+		Curve_DNC_Double other_cpy = ((Curve_DNC_Double) obj).copy();
+
+		this_cpy.beautify();
+		other_cpy.beautify();
+
+		if (this_cpy.segment_count != other_cpy.segment_count) {
+			return false;
+		}
+
+		for (int i = 0; i < this_cpy.segment_count; i++) {
+			if (!eq(this_cpy.xs[i], other_cpy.xs[i]) || !eq(this_cpy.ys[i], other_cpy.ys[i])
+					|| !eq(this_cpy.grads[i], other_cpy.grads[i])
+					|| this_cpy.leftopen.get(i) != other_cpy.leftopen.get(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the same hash code as a <code>Curve_DNC</code> with the same
+	 * segments in <code>RealDoublePrecision</code>, i.e., the hash code of the
+	 * beautified curve.
+	 */
+	@Override
+	public int hashCode() {
+		Curve_DNC_Double this_cpy = this.copy();
+		this_cpy.beautify();
+
+		int result = 1;
+		for (int i = 0; i < this_cpy.segment_count; i++) {
+			result = 31 * result + LinearSegment_DNC_Double.hashCode(this_cpy.xs[i], this_cpy.ys[i],
+					this_cpy.grads[i], this_cpy.leftopen.get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a string representation of this curve.
+	 *
+	 * @return the curve represented as a string.
+	 */
+	@Override
+	public String toString() {
+		StringBuffer result = new StringBuffer("{");
+		for (int i = 0; i < segment_count; i++) {
+			if (i > 0) {
+				result.append(";");
+			}
+			result.append(LinearSegment_DNC_Double.toString(xs[i], ys[i], grads[i], leftopen.get(i)));
+		}
+		result.append("}");
+		return result.toString();
+	}
+
+	// ------------------------------------------------------------
+	// Curve function values
+	// ------------------------------------------------------------
+
+	/**
+	 * Returns the function value at x-coordinate <code>x</code>, if
+	 * <code>x&gt;=0</code>, and <code>NaN</code> if not.
+	 *
+	 * @param x
+	 *            the x-coordinate
+	 * @return the function value
+	 */
+	public Num f(Num x) {
+		return Num.getFactory().create(f(x.doubleValue()));
+	}
+
+	public double f(double x) {
+		int i = getSegmentDefining(x);
+		if (i < 0) {
+			return Double.NaN;
+		}
+		return sub(x, xs[i]) * grads[i] + ys[i];
+	}
+
+	/**
+	 * Returns the limit to the right of the function value at x-coordinate
+	 * <code>x</code>, if <code>x&gt;=0</code>, and <code>NaN</code> if not.
+	 *
+	 * @param x
+	 *            the x-coordinate
+	 * @return the function value
+	 */
+	public Num fLimitRight(Num x) {
+		return Num.getFactory().create(fLimitRight(x.doubleValue()));
+	}
+
+	public double fLimitRight(double x) {
+		int i = getSegmentLimitRight(x);
+		if (i < 0) {
+			return Double.NaN;
+		}
+		if (i >= segment_count) {
+			throw new IndexOutOfBoundsException("Index out of bounds (pos=" + i + ")!");
+		}
+		return sub(x, xs[i]) * grads[i] + ys[i];
+	}
+
+	/**
+	 * Returns the smallest x value at which the function value is equal to
+	 * <code>y</code>.
+	 *
+	 * @param y
+	 *            the y-coordinate
+	 * @return the smallest x value
+	 */
+	public Num f_inv(Num y) {
+		return f_inv(y, false);
+	}
+
+	/**
+	 * Returns the x value at which the function value is equal to <code>y</code>.
+	 * If <code>rightmost</code> is <code>true</code>, returns the rightmost
+	 * x-coordinate, otherwise the leftmost coordinate.
+	 *
+	 * @param y
+	 *            The y-coordinate.
+	 * @param rightmost
+	 *            Return the rightmost x coordinate instaed of the leftmost one
+	 *            (default).
+	 * @return The smallest x value.
+	 */
+	public Num f_inv(Num y, boolean rightmost) {
+		return Num.getFactory().create(f_inv(y.doubleValue(), rightmost));
+	}
+
+	public double f_inv(double y, boolean rightmost) {
+		int i = getSegmentFirstAtValue(y);
+		if (i < 0) {
+			return Double.NaN;
+		}
+		if (rightmost) {
+			while (i < segment_count && eq(grads[i], 0.0)) {
+				i++;
+			}
+			if (i >= segment_count) {
+				return Double.POSITIVE_INFINITY;
+			}
+		}
+		if (!eq(grads[i], 0.0)) {
+			return xs[i] + sub(y, ys[i]) / grads[i];
+		} else {
+			return xs[i];
+		}
+	}
+
+	/**
+	 * Returns the first segment at which the function reaches the value
+	 * <code>y</code>. It returns -1 if the curve never reaches this value.
+	 *
+	 * @param y
+	 *            the y-coordinate
+	 * @return the segment number
+	 */
+	private int getSegmentFirstAtValue(double y) {
+		if (segment_count == 0 || ys[0] > y) {
+			return -1;
+		}
+		for (int i = 0; i < segment_count; i++) {
+			if (i < segment_count - 1) {
+				if (ys[i + 1] >= y) {
+					return i;
+				}
+			} else {
+				if (grads[i] > 0.0) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the x-coordinate of the inflection point after which the function
+	 * values are greater than zero.
+	 *
+	 * @return the latency of this curve.
+	 */
+	public Num getLatency() {
+		return Num.getFactory().create(getLatencyDouble());
+	}
+
+	public double getLatencyDouble() {
+		if (isRateLatency()) {
+			if (segment_count == 2) { // Rate latency other than a simple rate function
+				return xs[1];
+			} else { // Single-segment rate functions have latency 0
+				return 0.0;
+			}
+		} else {
+			beautify();
+			if (ys[0] > 0.0) {
+				return 0.0;
+			}
+			for (int i = 0; i < segment_count; i++) {
+				double y0 = ys[i];
+				if (y0 < 0.0 && y0 > -EPSILON) {
+					y0 = 0.0;
+				}
+				if (y0 > 0.0 || (y0 >= 0.0 && grads[i] > 0.0)) {
+					return xs[i];
+				}
+				if (y0 < 0.0 || grads[i] < 0.0) {
+					System.out.println("RemoveLatency of " + this.toString());
+					throw new RuntimeException("Should have avoided neg. gradients elsewhere...");
+				}
+			}
+			return Double.POSITIVE_INFINITY;
+		}
+	}
+
+	/**
+	 * @return the burstiness
+	 */
+	public Num getBurst() {
+		return Num.getFactory().create(getBurstDouble());
+	}
+
+	public double getBurstDouble() {
+		if (isTokenBucket()) {
+			if (segment_count == 2) { // Token buckets with spot in the origin
+				return ys[1];
+			} else { // Single-segment peak rate functions have burstiness 0
+				return 0.0;
+			}
+		} else {
+			return fLimitRight(0.0);
+		}
+	}
+
+	/**
+	 * Returns the gradient to the right of the function value at x-coordinate
+	 * <code>x</code>, if <code>x&gt;=0</code>, and <code>NaN</code> if not.
+	 *
+	 * @param x
+	 *            the x-coordinate
+	 * @return the function value
+	 */
+	public Num getGradientLimitRight(Num x) {
+		int i = getSegmentLimitRight(x);
+		if (i < 0) {
+			return Num.getFactory().createNaN();
+		}
+		if (i >= segment_count) {
+			throw new IndexOutOfBoundsException("Index out of bounds (pos=" + i + ")!");
+		}
+		return Num.getFactory().create(grads[i]);
+	}
+
+	/**
+	 * Returns the gradient of the last segment.
+	 *
+	 * @return the rate of the ultimately affine part.
+	 */
+	public Num getUltAffineRate() {
+		return Num.getFactory().create(getUltAffineRateDouble());
+	}
+
+	public double getUltAffineRateDouble() {
+		return grads[segment_count - 1];
+	}
+
+	// ------------------------------------------------------------
+	// Specific curve shapes
+	// ------------------------------------------------------------
+	// Burst delay
+	public boolean isDelayedInfiniteBurst() {
+		return is_delayed_infinite_burst;
+	}
+
+	public boolean isZeroCurve() {
+		for (int i = 0; i < segment_count; i++) {
+			if (!eq(ys[i], 0.0) || !eq(grads[i], 0.0)) {
+				return false;
+			}
+		}
+		return segment_count > 0;
+	}
+
+	public boolean isZeroDelayInfiniteBurst() {
+		if (segment_count < 2 || !eq(ys[0], 0.0) || !eq(xs[1], 0.0)) {
+			return false;
+		}
+		for (int i = 1; i < segment_count; i++) {
+			if (ys[i] != Double.POSITIVE_INFINITY) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Rate latency
+	public boolean getRL_Property() {
+		decomposeIntoRateLatencies();
+		return is_rate_latency;
+	}
+
+	public void setRateLateny(boolean is_rate_latency) {
+		this.is_rate_latency = is_rate_latency;
+	}
+
+	/**
+	 * Returns the number of rate latency curves the curve can be decomposed into.
+	 *
+	 * @return the number of rate latency curves
+	 */
+	public int getRL_ComponentCount() {
+		decomposeIntoRateLatencies();
+		return rate_latencies.size();
+	}
+
+	/**
+	 * Returns the <code>i</code>the rate latency curve that this curve can be
+	 * decomposed into.
+	 *
+	 * @param i
+	 *            the number of the rate latency curve
+	 * @return the rate latency curve
+	 */
+	public Curve_DNC_Double getRL_Component(int i) {
+		decomposeIntoRateLatencies();
+		return rate_latencies.get(i);
+	}
+
+	/**
+	 * Decomposes this curve into a list of rate latency curves and stores this list
+	 * in the curve's <code>rate_latencies</code> field.<br>
+	 * Note: Curve must be convex.
+	 */
+	private void decomposeIntoRateLatencies() {
+		if (has_rate_latency_meta_info == true) {
+			return;
+		}
+
+		// Decompose into a local list first, see Curve_DNC.
+		List<Curve_DNC_Double> rate_latencies_decomposed = new ArrayList<Curve_DNC_Double>();
+		if (CalculatorConfig.getInstance().exec_service_curve_checks() && !this.isConvex()) {
+			if (this.isZeroDelayInfiniteBurst()) {
+				rate_latencies_decomposed.add(this.createRateLatency(Double.POSITIVE_INFINITY, 0.0));
+			} else {
+				throw new RuntimeException("Can only decompose convex service curves into rate latency curves.");
+			}
+		} else {
+			for (int i = 0; i < segment_count; i++) {
+				if (eq(ys[i], 0.0) && eq(grads[i], 0.0)) {
+					continue;
+				}
+				double rate = grads[i];
+				double latency = sub(xs[i], ys[i] / grads[i]);
+				if (latency < 0.0) {
+					continue;
+				}
+				rate_latencies_decomposed.add(this.createRateLatency(rate, latency));
+			}
+		}
+
+		rate_latencies = rate_latencies_decomposed;
+		is_rate_latency = rate_latencies_decomposed.size() == 1;
+
+		has_rate_latency_meta_info = true;
+	}
+
+	public void setTokenBucket(boolean is_token_bucket) {
+		this.is_token_bucket = is_token_bucket;
+	}
+
+	/**
+	 * Returns the number of token buckets the curve can be decomposed into.
+	 *
+	 * @return the number of token buckets
+	 */
+	public int getTB_ComponentCount() {
+		decomposeIntoTokenBuckets();
+		return token_buckets.size();
+	}
+
+	/**
+	 * Returns the <code>i</code>the token bucket curve that this curve can be
+	 * decomposed into.
+	 *
+	 * @param i
+	 *            the number of the token bucket
+	 * @return the token bucket
+	 */
+	public Curve_DNC_Double getTB_Component(int i) {
+		decomposeIntoTokenBuckets();
+		return token_buckets.get(i);
+	}
+
+	/**
+	 * Decomposes this curve into a list of token bucket curves and stores this list
+	 * in the curve's <code>token_buckets</code> field.<br>
+	 * Note: Curve must be concave.
+	 */
+	private void decomposeIntoTokenBuckets() {
+		if (has_token_bucket_meta_info == true) {
+			return;
+		}
+
+		if (CalculatorConfig.getInstance().exec_arrival_curve_checks() && !this.isConcave()) {
+			throw new RuntimeException("Can only decompose concave arrival curves into token buckets.");
+		}
+
+		List<Curve_DNC_Double> token_buckets_decomposed = new ArrayList<Curve_DNC_Double>();
+		for (int i = 0; i < segment_count; i++) {
+			if (isDiscontinuity(i)) {
+				continue;
+			}
+			double rate = grads[i];
+			double burst = sub(ys[i], xs[i] * grads[i]);
+			token_buckets_decomposed.add(this.createTokenBucket(rate, burst));
+		}
+
+		token_buckets = token_buckets_decomposed;
+		is_token_bucket = token_buckets_decomposed.size() == 1;
+
+		has_token_bucket_meta_info = true;
+	}
+
+	// --------------------------------------------------------------------------------------------------------------
+	// Primitive Curve Operations
+	// --------------------------------------------------------------------------------------------------------------
+	// These operations work directly on the curves' arrays. They compute the same
+	// results as their counterparts in CurvePwAffine.
+
+	/**
+	 * Removes unreal discontinuities and joins colinear segments, like
+	 * <code>CurvePwAffine.beautify(CurvePwAffine)</code>.
+	 */
+	public void beautify() {
+		int i = 0;
+		while (i < segment_count - 1) {
+			// Remove unreal discontinuity
+			if (isUnrealDiscontinuity(i)) {
+				leftopen.set(i + 1, leftopen.get(i));
+				removeSegment(i);
+				continue;
+			}
+			i++;
+		}
+
+		i = 0;
+		while (i < segment_count - 1) {
+			// Join colinear segments
+			double first_arg = sub(grads[i + 1], grads[i]);
+			double second_arg = sub(ys[i + 1], ys[i] + sub(xs[i + 1], xs[i]) * grads[i]);
+
+			if (Math.abs(first_arg) < EPSILON && Math.abs(second_arg) < EPSILON) {
+				removeSegment(i + 1);
+				if (i + 1 < segment_count && !leftopen.get(i + 1)) {
+					grads[i] = sub(ys[i + 1], ys[i]) / sub(xs[i + 1], xs[i]);
+				}
+				continue;
+			}
+			i++;
+		}
+
+		for (i = 0; i < segment_count - 1; i++) {
+			if (eq(xs[i], xs[i + 1])) {
+				grads[i] = 0.0;
+			}
+		}
+
+		clearMetaInfo();
+	}
+
+	// The function value of segment i's co-linear line at x.
+	private double segmentValueAt(int i, double x) {
+		return sub(x, xs[i]) * grads[i] + ys[i];
+	}
+
+	/**
+	 * Computes the pointwise sum, difference, minimum or maximum of the given
+	 * curves, see <code>CurvePwAffine.computeResultingCurve(...)</code>.
+	 *
+	 * @param curve1
+	 *            Input curve 1.
+	 * @param curve2
+	 *            Input curve 2.
+	 * @param operator
+	 *            Operation to be applied to the curves.
+	 * @return The resulting curve.
+	 */
+	public static CurvePwAffine computeResultingCurve(Curve_DNC_Double curve1, Curve_DNC_Double curve2,
+			CurveOperation operator) {
+		switch (operator) {
+		case ADD:
+		case SUB:
+		case MAX:
+			if (curve1.isZeroDelayInfiniteBurst() || curve2.isZeroDelayInfiniteBurst()) {
+				return instance.createZeroDelayInfiniteBurst();
+			}
+			break;
+		case MIN:
+			if (curve1.isZeroDelayInfiniteBurst()) {
+				return curve2.copy();
+			}
+			if (curve2.isZeroDelayInfiniteBurst()) {
+				return curve1.copy();
+			}
+			break;
+		default:
+		}
+
+		// Each step adds at most two segments.
+		Curve_DNC_Double result = new Curve_DNC_Double(0);
+		result.ensureCapacity(2 * (curve1.segment_count + curve2.segment_count));
+
+		double x = 0.0;
+		double x_cross;
+		boolean leftopen;
+
+		int i1 = 0;
+		int i2 = 0;
+		while (i1 < curve1.segment_count || i2 < curve2.segment_count) {
+			double x_next1 = (i1 + 1 < curve1.segment_count) ? curve1.xs[i1 + 1] : Double.POSITIVE_INFINITY;
+			double x_next2 = (i2 + 1 < curve2.segment_count) ? curve2.xs[i2 + 1] : Double.POSITIVE_INFINITY;
+			double x_next = Math.min(x_next1, x_next2);
+
+			leftopen = curve1.leftopen.get(i1) || curve2.leftopen.get(i2);
+
+			switch (operator) {
+			case ADD:
+				result.appendSegment(x, curve1.segmentValueAt(i1, x) + curve2.segmentValueAt(i2, x),
+						curve1.grads[i1] + curve2.grads[i2], leftopen);
+				break;
+			case SUB:
+				result.appendSegment(x, sub(curve1.segmentValueAt(i1, x), curve2.segmentValueAt(i2, x)),
+						sub(curve1.grads[i1], curve2.grads[i2]), leftopen);
+				break;
+			case MIN:
+			case MAX:
+				boolean max = operator == CurveOperation.MAX;
+				x_cross = LinearSegment_DNC_Double.getXIntersection(curve1.xs[i1], curve1.ys[i1], curve1.grads[i1],
+						curve2.xs[i2], curve2.ys[i2], curve2.grads[i2]);
+				if (Double.isNaN(x_cross)) {
+					x_cross = Double.POSITIVE_INFINITY;
+				}
+				result.appendMinMax(curve1, i1, curve2, i2, x, leftopen, false, max);
+				if (x < x_cross && x_cross < x_next) {
+					result.appendMinMax(curve1, i1, curve2, i2, x_cross, false, true, max);
+				}
+				break;
+			default:
+				break;
+			}
+
+			if (eq(x_next1, x_next)) {
+				i1++;
+			}
+			if (eq(x_next2, x_next)) {
+				i2++;
+			}
+			x = x_next;
+		}
+
+		result.beautify();
+		return result;
+	}
+
+	// Only used on new curves that do not have meta information yet.
+	private void appendSegment(double x, double y, double grad, boolean leftopen) {
+		ensureCapacity(segment_count + 1);
+		xs[segment_count] = x;
+		ys[segment_count] = y;
+		grads[segment_count] = grad;
+		this.leftopen.set(segment_count, leftopen);
+		segment_count++;
+	}
+
+	private void appendMinMax(Curve_DNC_Double curve1, int i1, Curve_DNC_Double curve2, int i2, double x,
+			boolean leftopen, boolean crossed, boolean max) {
+		double f1_x = curve1.segmentValueAt(i1, x);
+		double f2_x = curve2.segmentValueAt(i2, x);
+		double grad1 = curve1.grads[i1];
+		double grad2 = curve2.grads[i2];
+
+		if (crossed || Math.abs(sub(f1_x, f2_x)) < EPSILON) {
+			appendSegment(x, f1_x, max ? Math.max(grad1, grad2) : Math.min(grad1, grad2), leftopen);
+		} else if (max ? f1_x > f2_x : f1_x < f2_x) {
+			appendSegment(x, f1_x, grad1, leftopen);
+		} else {
+			appendSegment(x, f2_x, grad2, leftopen);
+		}
+	}
+
+	/**
+	 * Returns the maximum vertical deviation between the given two curves, see
+	 * <code>CurvePwAffine.getMaxVerticalDeviation(...)</code>.
+	 *
+	 * @param c1
+	 *            the first curve.
+	 * @param c2
+	 *            the second curve.
+	 * @return the value of the vertical deviation.
+	 */
+	public static double getMaxVerticalDeviation(Curve_DNC_Double c1, Curve_DNC_Double c2) {
+		if (c1.getUltAffineRateDouble() > c2.getUltAffineRateDouble()) {
+			return Double.POSITIVE_INFINITY;
+		}
+
+		double burst_c1 = c1.fLimitRight(0.0);
+		double burst_c2 = c2.fLimitRight(0.0);
+		return getMaxVerticalDeviationAtInflectionPoints(c1, c2,
+				Math.max(burst_c1, burst_c2) - Math.min(burst_c1, burst_c2));
+	}
+
+	/**
+	 * Returns the maximum of <code>lower_bound</code> and the vertical deviations
+	 * between the given two curves at their inflection points.
+	 *
+	 * @param c1
+	 *            the first curve.
+	 * @param c2
+	 *            the second curve.
+	 * @param lower_bound
+	 *            the minimum result.
+	 * @return the value of the vertical deviation.
+	 */
+	public static double getMaxVerticalDeviationAtInflectionPoints(Curve_DNC_Double c1, Curve_DNC_Double c2,
+			double lower_bound) {
+		double result = lower_bound;
+
+		// Same traversal as CurvePwAffine.computeInflectionPointsX(...)
+		int i1 = 0;
+		int i2 = 0;
+		while (i1 < c1.segment_count || i2 < c2.segment_count) {
+			double x1 = (i1 < c1.segment_count) ? c1.xs[i1] : Double.POSITIVE_INFINITY;
+			double x2 = (i2 < c2.segment_count) ? c2.xs[i2] : Double.POSITIVE_INFINITY;
+			double ip_x;
+			if (x1 < x2) {
+				ip_x = x1;
+				i1++;
+			} else if (x1 > x2) {
+				ip_x = x2;
+				i2++;
+			} else {
+				ip_x = x1;
+				i1++;
+				i2++;
+			}
+
+			result = Math.max(result, sub(c1.f(ip_x), c2.f(ip_x)));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the maximum horizontal deviation between the given two curves, see
+	 * <code>CurvePwAffine.getMaxHorizontalDeviation(...)</code>.
+	 *
+	 * @param c1
+	 *            the first curve.
+	 * @param c2
+	 *            the second curve.
+	 * @return the value of the horizontal deviation.
+	 */
+	public static double getMaxHorizontalDeviation(Curve_DNC_Double c1, Curve_DNC_Double c2) {
+		if (c1.getUltAffineRateDouble() > c2.getUltAffineRateDouble()) {
+			return Double.POSITIVE_INFINITY;
+		}
+
+		double result = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < c1.segment_count; i++) {
+			double ip_y = c1.ys[i];
+			result = Math.max(result, sub(c2.f_inv(ip_y, true), c1.f_inv(ip_y, false)));
+		}
+		for (int i = 0; i < c2.segment_count; i++) {
+			double ip_y = c2.ys[i];
+			result = Math.max(result, sub(c2.f_inv(ip_y, true), c1.f_inv(ip_y, false)));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a copy of the curve that is shifted to the right by <code>dx</code>,
+	 * see <code>CurvePwAffine.shiftRight(...)</code>.
+	 *
+	 * @param curve
+	 *            The curve to shift.
+	 * @param dx
+	 *            The offset to shift the curve.
+	 * @return The shifted curve.
+	 */
+	public static Curve_DNC_Double shiftRight(Curve_DNC_Double curve, double dx) {
+		Curve_DNC_Double curve_copy = curve.copy();
+		if (eq(dx, 0.0)) {
+			return curve_copy;
+		}
+
+		if (curve_copy.grads[0] > 0.0 || curve_copy.ys[0] > 0.0) {
+			// Add a zero segment at the front
+			curve_copy.addSegment(0, 0.0, 0.0, 0.0, false);
+		}
+
+		for (int i = 1; i < curve_copy.segment_count; i++) {
+			curve_copy.xs[i] = curve_copy.xs[i] + dx;
+		}
+
+		curve_copy.beautify();
+		return curve_copy;
+	}
+
+	/**
+	 * Returns a copy of the curve that is shifted to the left by <code>dx</code>
+	 * and clipped at the y-axis, see
+	 * <code>CurvePwAffine.shiftLeftClipping(...)</code>.
+	 *
+	 * @param curve
+	 *            The curve to shift.
+	 * @param dx
+	 *            The offset to shift the curve.
+	 * @return The shifted curve.
+	 */
+	public static Curve_DNC_Double shiftLeftClipping(Curve_DNC_Double curve, double dx) {
+		int i = curve.getSegmentDefining(dx);
+		if (i < 0) {
+			throw new IndexOutOfBoundsException("Index out of bounds (pos=" + i + ")!");
+		}
+
+		Curve_DNC_Double result = curve.copy();
+		if (result.xs[i] < dx) {
+			result.ys[i] = result.ys[i] + sub(dx, result.xs[i]) * result.grads[i];
+			result.xs[i] = dx;
+			result.leftopen.clear(i);
+		}
+		if (i > 0) {
+			result.removeSegments(0, i);
+		}
+		for (i = 0; i < result.segment_count; i++) {
+			result.xs[i] = sub(result.xs[i], dx);
+		}
+
+		return result;
+	}
+
+	// --------------------------------------------------------------------------------------------------------------
+	// Factory Implementation
+	// --------------------------------------------------------------------------------------------------------------
+
+	// ------------------------------------------------------------------------------
+	// Curve Constructors
+	// ------------------------------------------------------------------------------
+
+	// ------------------------------------------------------------
+	// DiscoDNC compliance
+	// ------------------------------------------------------------
+	public Curve_DNC_Double createCurve(List<LinearSegment> segments) {
+		Curve_DNC_Double c_double = new Curve_DNC_Double(segments.size());
+		for (int i = 0; i < segments.size(); i++) {
+			c_double.setSegmentValues(i, segments.get(i));
+		}
+		c_double.beautify();
+		return c_double;
+	}
+
+	public Curve_DNC_Double createZeroCurve() {
+		return new Curve_DNC_Double(); // Curve_DNC_Double constructor's default behavior
+	}
+
+	public Curve_DNC_Double createHorizontal(Num y) {
+		return createHorizontal(y.doubleValue());
+	}
+
+	/**
+	 * Creates a horizontal curve.
+	 *
+	 * @param y
+	 *            the y-intercept of the curve
+	 * @return a <code>Curve</code> instance
+	 */
+	public Curve_DNC_Double createHorizontal(double y) {
+		Curve_DNC_Double c_double = new Curve_DNC_Double();
+		makeHorizontal(c_double, y);
+		return c_double;
+	}
+
+	// ------------------------------------------------------------------------------
+	// Service Curve Constructors
+	// ------------------------------------------------------------------------------
+
+	// ------------------------------------------------------------
+	// DiscoDNC compliance
+	// ------------------------------------------------------------
+	public ServiceCurve_DNC_Double createServiceCurve() {
+		return new ServiceCurve_DNC_Double();
+	}
+
+	public ServiceCurve_DNC_Double createServiceCurve(int segment_count) {
+		return new ServiceCurve_DNC_Double(segment_count);
+	}
+
+	public ServiceCurve_DNC_Double createServiceCurve(String service_curve_str) throws Exception {
+		return new ServiceCurve_DNC_Double(service_curve_str);
+	}
+
+	public ServiceCurve_DNC_Double createServiceCurve(CurvePwAffine curve) {
+		return new ServiceCurve_DNC_Double(curve);
+	}
+
+	public ServiceCurve_DNC_Double createZeroService() {
+		return new ServiceCurve_DNC_Double(); // ServiceCurve_DNC_Double constructor's default behavior
+	}
+
+	/**
+	 * Creates an infinite burst curve with zero delay.
+	 *
+	 * @return a <code>ServiceCurve</code> instance
+	 */
+	public ServiceCurve_DNC_Double createZeroDelayInfiniteBurst() {
+		return createDelayedInfiniteBurst(0.0);
+	}
+
+	public ServiceCurve_DNC_Double createDelayedInfiniteBurst(Num delay) {
+		return createDelayedInfiniteBurst(delay.doubleValue());
+	}
+
+	public ServiceCurve_DNC_Double createDelayedInfiniteBurst(double delay) {
+		ServiceCurve_DNC_Double sc_double = new ServiceCurve_DNC_Double();
+		makeDelayedInfiniteBurst(sc_double, delay);
+		return sc_double;
+	}
+
+	public ServiceCurve_DNC_Double createRateLatency(Num rate, Num latency) {
+		return createRateLatency(rate.doubleValue(), latency.doubleValue());
+	}
+
+	public ServiceCurve_DNC_Double createRateLatency(double rate, double latency) {
+		ServiceCurve_DNC_Double sc_double = new ServiceCurve_DNC_Double();
+		makeRateLatency(sc_double, rate, latency);
+		return sc_double;
+	}
+
+	// ------------------------------------------------------------------------------
+	// Arrival Curve Constructors
+	// ------------------------------------------------------------------------------
+
+	// ------------------------------------------------------------
+	// DiscoDNC compliance
+	// ------------------------------------------------------------
+	public ArrivalCurve_DNC_Double createArrivalCurve() {
+		return new ArrivalCurve_DNC_Double();
+	}
+
+	public ArrivalCurve_DNC_Double createArrivalCurve(int segment_count) {
+		return new ArrivalCurve_DNC_Double(segment_count);
+	}
+
+	public ArrivalCurve_DNC_Double createArrivalCurve(String arrival_curve_str) throws Exception {
+		return new ArrivalCurve_DNC_Double(arrival_curve_str);
+	}
+
+	public ArrivalCurve_DNC_Double createArrivalCurve(CurvePwAffine curve) {
+		return new ArrivalCurve_DNC_Double(curve);
+	}
+
+	public ArrivalCurve_DNC_Double createArrivalCurve(CurvePwAffine curve, boolean remove_latency) {
+		return createArrivalCurve(CurvePwAffine.removeLatency(curve));
+	}
+
+	public ArrivalCurve_DNC_Double createZeroArrivals() {
+		return new ArrivalCurve_DNC_Double(); // ArrivalCurve_DNC_Double constructor's default behavior
+	}
+
+	public ArrivalCurve_DNC_Double createPeakArrivalRate(Num rate) {
+		return createPeakArrivalRate(rate.doubleValue());
+	}
+
+	public ArrivalCurve_DNC_Double createPeakArrivalRate(double rate) {
+		ArrivalCurve_DNC_Double ac_double = new ArrivalCurve_DNC_Double();
+		makePeakRate(ac_double, rate);
+		return ac_double;
+	}
+
+	public ArrivalCurve_DNC_Double createTokenBucket(Num rate, Num burst) {
+		return createTokenBucket(rate.doubleValue(), burst.doubleValue());
+	}
+
+	public ArrivalCurve_DNC_Double createTokenBucket(double rate, double burst) {
+		ArrivalCurve_DNC_Double ac_double = new ArrivalCurve_DNC_Double();
+		makeTokenBucket(ac_double, rate, burst);
+		return ac_double;
+	}
+
+	// ------------------------------------------------------------------------------
+	// Maximum Service Curve Constructors
+	// ------------------------------------------------------------------------------
+
+	// ------------------------------------------------------------
+	// DiscoDNC compliance
+	// ------------------------------------------------------------
+	public MaxServiceCurve_DNC_Double createMaxServiceCurve() {
+		return new MaxServiceCurve_DNC_Double();
+	}
+
+	public MaxServiceCurve_DNC_Double createMaxServiceCurve(int segment_count) {
+		return new MaxServiceCurve_DNC_Double(segment_count);
+	}
+
+	public MaxServiceCurve_DNC_Double createMaxServiceCurve(String max_service_curve_str) throws Exception {
+		return new MaxServiceCurve_DNC_Double(max_service_curve_str);
+	}
+
+	public MaxServiceCurve_DNC_Double createMaxServiceCurve(CurvePwAffine curve) {
+		return new MaxServiceCurve_DNC_Double(curve);
+	}
+
+	public MaxServiceCurve_DNC_Double createInfiniteMaxService() {
+		return createDelayedInfiniteBurstMSC(0.0);
+	}
+
+	public MaxServiceCurve_DNC_Double createZeroDelayInfiniteBurstMSC() {
+		return createDelayedInfiniteBurstMSC(0.0);
+	}
+
+	public MaxServiceCurve_DNC_Double createDelayedInfiniteBurstMSC(Num delay) {
+		return createDelayedInfiniteBurstMSC(delay.doubleValue());
+	}
+
+	public MaxServiceCurve_DNC_Double createDelayedInfiniteBurstMSC(double delay) {
+		MaxServiceCurve_DNC_Double msc_double = new MaxServiceCurve_DNC_Double();
+		makeDelayedInfiniteBurst(msc_double, delay);
+		return msc_double;
+	}
+
+	public MaxServiceCurve_DNC_Double createRateLatencyMSC(Num rate, Num latency) {
+		return createRateLatencyMSC(rate.doubleValue(), latency.doubleValue());
+	}
+
+	public MaxServiceCurve_DNC_Double createRateLatencyMSC(double rate, double latency) {
+		MaxServiceCurve_DNC_Double msc_double = new MaxServiceCurve_DNC_Double();
+		makeRateLatency(msc_double, rate, latency);
+		return msc_double;
+	}
+
+	// ------------------------------------------------------------------------------
+	// Curve assembly
+	// ------------------------------------------------------------------------------
+	private void makeSegments(Curve_DNC_Double c_double, double[] xs, double[] ys, double[] grads) {
+		c_double.detachSegmentViews();
+		c_double.xs = xs;
+		c_double.ys = ys;
+		c_double.grads = grads;
+		c_double.leftopen = new BitSet(xs.length);
+		if (xs.length > 1) {
+			c_double.leftopen.set(1, xs.length);
+		}
+		c_double.segment_count = xs.length;
+		c_double.clearMetaInfo();
+	}
+
+	private void makeHorizontal(Curve_DNC_Double c_double, double y) {
+		makeSegments(c_double, new double[] { 0.0 }, new double[] { y }, new double[] { 0.0 });
+	}
+
+	private void makeDelayedInfiniteBurst(Curve_DNC_Double c_double, double delay) {
+		if (delay < 0.0) {
+			throw new IllegalArgumentException("Delayed infinite burst curve must have delay >= 0.0");
+		}
+
+		makeSegments(c_double, new double[] { 0.0, delay }, new double[] { 0.0, Double.POSITIVE_INFINITY },
+				new double[] { 0.0, 0.0 });
+		c_double.is_delayed_infinite_burst = true;
+	}
+
+	private void makePeakRate(Curve_DNC_Double c_double, double rate) {
+		if (rate == Double.POSITIVE_INFINITY) {
+			throw new IllegalArgumentException(
+					"Peak rate with rate infinity equals a delayed infinite burst curve with delay < 0.0");
+		}
+		if (rate == 0.0) {
+			makeHorizontal(c_double, 0.0);
+			return;
+		}
+
+		makeSegments(c_double, new double[] { 0.0 }, new double[] { 0.0 }, new double[] { rate });
+		c_double.is_rate_latency = true; // with latency 0
+		c_double.is_token_bucket = true; // with burstiness 0
+	}
+
+	private void makeRateLatency(Curve_DNC_Double c_double, double rate, double latency) {
+		if (rate == Double.POSITIVE_INFINITY) {
+			makeDelayedInfiniteBurst(c_double, latency);
+			return;
+		}
+		if (rate == 0.0 || latency == Double.POSITIVE_INFINITY) {
+			makeHorizontal(c_double, 0.0);
+			return;
+		}
+		if (latency <= 0.0) {
+			makePeakRate(c_double, rate);
+			return;
+		}
+
+		makeSegments(c_double, new double[] { 0.0, latency }, new double[] { 0.0, 0.0 },
+				new double[] { 0.0, rate });
+		c_double.is_rate_latency = true;
+	}
+
+	private void makeTokenBucket(Curve_DNC_Double c_double, double rate, double burst) {
+		if (rate == Double.POSITIVE_INFINITY || burst == Double.POSITIVE_INFINITY) {
+			makeDelayedInfiniteBurst(c_double, 0.0);
+			return;
+		}
+		if (rate == 0.0) { // burst is finite
+			makeHorizontal(c_double, burst);
+			return;
+		}
+		if (burst == 0.0) {
+			makePeakRate(c_double, rate);
+			return;
+		}
+
+		makeSegments(c_double, new double[] { 0.0, 0.0 }, new double[] { 0.0, burst },
+				new double[] { 0.0, rate });
+		c_double.is_token_bucket = true;
+	}
+}
@@ -0,0 +1,338 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.curves.dnc_double;
+
+import de.uni_kl.cs.discodnc.curves.LinearSegment;
+import de.uni_kl.cs.discodnc.numbers.Num;
+import de.uni_kl.cs.discodnc.numbers.implementations.RealDoublePrecision;
+
+/**
+ * Linear segment of a <code>Curve_DNC_Double</code>. Its values are primitive
+ * doubles, <code>Num</code> objects are only created when they are accessed via
+ * the <code>LinearSegment</code> interface.
+ * <p>
+ * A segment either stands alone or it is a view on a segment of a curve, see
+ * <code>Curve_DNC_Double.getSegment(int)</code>. Changes made to a view are
+ * written through to the curve. The curve keeps the view on its segment when
+ * other segments are added or removed and detaches it when the segment itself
+ * is removed.
+ */
+public class LinearSegment_DNC_Double implements LinearSegment {
+    /**
+     * The curve this segment is a view on, <code>null</code> for stand-alone
+     * segments.
+     */
+    private Curve_DNC_Double curve;
+    private int pos;
+
+    private double x;
+    private double y;
+    private double grad;
+    private boolean leftopen;
+
+    // --------------------------------------------------------------------------------------------------------------
+    // Constructors
+    // --------------------------------------------------------------------------------------------------------------
+
+    /**
+     * A convenient constructor.
+     *
+     * @param x        The x-coordinate this segments starts at.
+     * @param y        The y-coordinate this segments starts at.
+     * @param grad     The segments gradient.
+     * @param leftopen Set the segment to be left-open.
+     */
+    public LinearSegment_DNC_Double(double x, double y, double grad, boolean leftopen) {
+        this.curve = null;
+        this.pos = -1;
+        this.x = x;
+        this.y = y;
+        this.grad = grad;
+        this.leftopen = leftopen;
+    }
+
+    public LinearSegment_DNC_Double(Num x, Num y, Num grad, boolean leftopen) {
+        this(x.doubleValue(), y.doubleValue(), grad.doubleValue(), leftopen);
+    }
+
+    public LinearSegment_DNC_Double(LinearSegment segment) {
+        this.curve = null;
+        this.pos = -1;
+        if (segment instanceof LinearSegment_DNC_Double) {
+            LinearSegment_DNC_Double segment_double = (LinearSegment_DNC_Double) segment;
+            x = segment_double.getXDouble();
+            y = segment_double.getYDouble();
+            grad = segment_double.getGradDouble();
+        } else {
+            x = segment.getX().doubleValue();
+            y = segment.getY().doubleValue();
+            grad = segment.getGrad().doubleValue();
+        }
+        leftopen = segment.isLeftopen();
+    }
+
+    public LinearSegment_DNC_Double(String segment_str) throws Exception {
+        this.curve = null;
+        this.pos = -1;
+
+        // Is this segment left-open?
+        leftopen = false;
+        switch (segment_str.charAt(0)) {
+            case '!':
+                leftopen = true;
+                segment_str = segment_str.substring(1);
+                break;
+            case '(':
+                // Formatting seems to be ok (for now at least)
+                break;
+            default:
+                throw new RuntimeException("Invalid string representation of a linear segment.");
+        }
+
+        // Remove the bracket at the front
+        segment_str = segment_str.substring(1);
+
+        String[] xy_r = segment_str.split("\\),"); // ["x,y","grad"]
+        if (xy_r.length != 2) {
+            throw new RuntimeException("Invalid string representation of a linear segment.");
+        }
+
+        String[] x_y = xy_r[0].split(",");
+        if (x_y.length != 2) {
+            throw new RuntimeException("Invalid string representation of a linear segment.");
+        }
+
+        // The values are parsed with double precision, independent of the configured
+        // number representation.
+        x = RealDoublePrecision.getInstance().create(x_y[0]).doubleValue();
+        y = RealDoublePrecision.getInstance().create(x_y[1]).doubleValue();
+        grad = RealDoublePrecision.getInstance().create(xy_r[1]).doubleValue();
+    }
+
+    protected LinearSegment_DNC_Double(Curve_DNC_Double curve, int pos) {
+        this.curve = curve;
+        this.pos = pos;
+    }
+
+    // Called by the curve when segments in front of this view were added or removed.
+    void moveTo(int pos) {
+        this.pos = pos;
+    }
+
+    // Called by the curve before the segment this view is on is removed or replaced.
+    void detach() {
+        x = curve.getSegmentX(pos);
+        y = curve.getSegmentY(pos);
+        grad = curve.getSegmentGrad(pos);
+        leftopen = curve.isSegmentLeftopen(pos);
+        curve = null;
+        pos = -1;
+    }
+
+    // --------------------------------------------------------------------------------------------------------------
+    // Primitive Accessors
+    // --------------------------------------------------------------------------------------------------------------
+
+    public double getXDouble() {
+        return curve == null ? x : curve.getSegmentX(pos);
+    }
+
+    public void setXDouble(double x) {
+        if (curve == null) {
+            this.x = x;
+        } else {
+            curve.setSegmentX(pos, x);
+        }
+    }
+
+    public double getYDouble() {
+        return curve == null ? y : curve.getSegmentY(pos);
+    }
+
+    public void setYDouble(double y) {
+        if (curve == null) {
+            this.y = y;
+        } else {
+            curve.setSegmentY(pos, y);
+        }
+    }
+
+    public double getGradDouble() {
+        return curve == null ? grad : curve.getSegmentGrad(pos);
+    }
+
+    public void setGradDouble(double grad) {
+        if (curve == null) {
+            this.grad = grad;
+        } else {
+            curve.setSegmentGrad(pos, grad);
+        }
+    }
+
+    /**
+     * Returns the function value of this linear segment at the given x-coordinate.
+     *
+     * @param x the coordinate whose function value shall be returned
+     * @return the function value
+     */
+    public double f(double x) {
+        return Curve_DNC_Double.sub(x, getXDouble()) * getGradDouble() + getYDouble();
+    }
+
+    // --------------------------------------------------------------------------------------------------------------
+    // Interface Implementations
+    // --------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Returns the function value of this linear segment at the given x-coordinate.
+     * Note that there is no test whether the function is defined at this location,
+     * but simply returns the the value of the co-linear line.
+     *
+     * @param x the coordinate whose function value shall be returned
+     * @return the function value
+     */
+    public Num f(Num x) {
+        return Num.getFactory().create(f(x.doubleValue()));
+    }
+
+    public Num getX() {
+        return Num.getFactory().create(getXDouble());
+    }
+
+    public void setX(Num x) {
+        setXDouble(x.doubleValue());
+    }
+
+    public Num getY() {
+        return Num.getFactory().create(getYDouble());
+    }
+
+    public void setY(Num y) {
+        setYDouble(y.doubleValue());
+    }
+
+    public Num getGrad() {
+        return Num.getFactory().create(getGradDouble());
+    }
+
+    public void setGrad(Num grad) {
+        setGradDouble(grad.doubleValue());
+    }
+
+    public boolean isLeftopen() {
+        return curve == null ? leftopen : curve.isSegmentLeftopen(pos);
+    }
+
+    public void setLeftopen(boolean leftopen) {
+        if (curve == null) {
+            this.leftopen = leftopen;
+        } else {
+            curve.setSegmentLeftopen(pos, leftopen);
+        }
+    }
+
+    /**
+     * Returns the x-coordinate at which a co-linear line through this segment
+     * intersects a co-linear line through the segment <code>other</code>.
+     *
+     * @param other the other segment
+     * @return the x-coordinate at which the segments cross or NaN of they are
+     * parallel
+     */
+    public Num getXIntersectionWith(LinearSegment other) {
+        LinearSegment_DNC_Double other_double = (other instanceof LinearSegment_DNC_Double)
+                ? (LinearSegment_DNC_Double) other : new LinearSegment_DNC_Double(other);
+        return Num.getFactory().create(getXIntersection(getXDouble(), getYDouble(), getGradDouble(),
+                other_double.getXDouble(), other_double.getYDouble(), other_double.getGradDouble()));
+    }
+
+    static double getXIntersection(double x1, double y1, double grad1, double x2, double y2, double grad2) {
+        double y1_origin = Curve_DNC_Double.sub(y1, x1 * grad1);
+        double y2_origin = Curve_DNC_Double.sub(y2, x2 * grad2);
+
+        // returns NaN if lines are parallel
+        return Curve_DNC_Double.sub(y2_origin, y1_origin) / Curve_DNC_Double.sub(grad1, grad2);
+    }
+
+    /**
+     * Returns a stand-alone copy of this instance.
+     *
+     * @return a copy of this instance.
+     */
+    @Override
+    public LinearSegment_DNC_Double copy() {
+        return new LinearSegment_DNC_Double(getXDouble(), getYDouble(), getGradDouble(), isLeftopen());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null || !(obj instanceof LinearSegment_DNC_Double)) {
+            return false;
+        }
+
+        LinearSegment_DNC_Double other = (LinearSegment_DNC_Double) obj;
+        return Curve_DNC_Double.eq(getXDouble(), other.getXDouble())
+                && Curve_DNC_Double.eq(getYDouble(), other.getYDouble())
+                && Curve_DNC_Double.eq(getGradDouble(), other.getGradDouble())
+                && isLeftopen() == other.isLeftopen();
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode(getXDouble(), getYDouble(), getGradDouble(), isLeftopen());
+    }
+
+    // Same hash as a LinearSegment_DNC with RealDoublePrecision numbers.
+    static int hashCode(double x, double y, double grad, boolean leftopen) {
+        int result = Double.hashCode(x);
+        result = 31 * result + Double.hashCode(y);
+        result = 31 * result + Double.hashCode(grad);
+        result = 31 * result + Boolean.hashCode(leftopen);
+        return result;
+    }
+
+    /**
+     * Returns a string representation of this linear segment.
+     *
+     * @return the linear segment represented as a string.
+     */
+    @Override
+    public String toString() {
+        return toString(getXDouble(), getYDouble(), getGradDouble(), isLeftopen());
+    }
+
+    static String toString(double x, double y, double grad, boolean leftopen) {
+        String result = "";
+        if (leftopen) {
+            result = "!";
+        }
+        result += "(" + Double.toString(x) + "," + Double.toString(y) + ")," + Double.toString(grad);
+
+        return result;
+    }
+}
@@ -94,6 +94,11 @@ public class ArrivalCurve_MPARTC_PwAffine extends Curve_MPARTC_PwAffine implemen
         return ac_copy;
     }
 
+    @Override
+    public boolean isZeroArrivals() {
+        return isZeroCurve();
+    }
+
     @Override
     public boolean equals(Object obj) {
         return (obj instanceof ArrivalCurve_MPARTC_PwAffine) && super.equals(obj);
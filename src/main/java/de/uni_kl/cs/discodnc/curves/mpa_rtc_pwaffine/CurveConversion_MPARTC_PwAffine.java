@@ -0,0 +1,86 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * disco | Distributed Computer Systems Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.curves.mpa_rtc_pwaffine;
+
+import ch.ethz.rtc.kernel.Curve;
+import ch.ethz.rtc.kernel.SegmentList;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.MaxServiceCurve;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+
+/**
+ * Creates curves from the results of RTC toolbox operations.
+ * <p>
+ * The curves are built from the RTC curve's segment list instead of its string
+ * representation that would be serialized and parsed again for every
+ * operation. Like the string representation, only the aperiodic part of the
+ * RTC curve is considered. If the current curve implementation is not MPA_RTC,
+ * e.g., DNC, the segments are copied into a curve of the current implementation.
+ */
+public final class CurveConversion_MPARTC_PwAffine {
+	private CurveConversion_MPARTC_PwAffine() {
+	}
+
+	// The RTC curve may be an operand of the operation, thus the segments are copied.
+	private static SegmentList getAperiodicSegments(Curve rtc_curve) {
+		return rtc_curve.aperiodicSegments().clone();
+	}
+
+	private static boolean isMpaRtcFactory() {
+		return CurvePwAffine.getFactory() instanceof Curve_MPARTC_PwAffine;
+	}
+
+	public static ServiceCurve createServiceCurve(Curve rtc_curve) {
+		ServiceCurve_MPARTC_PwAffine service_curve = new ServiceCurve_MPARTC_PwAffine(
+				getAperiodicSegments(rtc_curve));
+		if (isMpaRtcFactory()) {
+			return service_curve;
+		}
+		return CurvePwAffine.getFactory().createServiceCurve(service_curve);
+	}
+
+	public static ArrivalCurve createArrivalCurve(Curve rtc_curve) {
+		ArrivalCurve_MPARTC_PwAffine arrival_curve = new ArrivalCurve_MPARTC_PwAffine(
+				getAperiodicSegments(rtc_curve));
+		if (isMpaRtcFactory()) {
+			return arrival_curve;
+		}
+		return CurvePwAffine.getFactory().createArrivalCurve(arrival_curve);
+	}
+
+	public static MaxServiceCurve createMaxServiceCurve(Curve rtc_curve) {
+		MaxServiceCurve_MPARTC_PwAffine max_service_curve = new MaxServiceCurve_MPARTC_PwAffine(
+				getAperiodicSegments(rtc_curve));
+		if (isMpaRtcFactory()) {
+			return max_service_curve;
+		}
+		return CurvePwAffine.getFactory().createMaxServiceCurve(max_service_curve);
+	}
+}
@@ -579,6 +579,30 @@ public class Curve_MPARTC_PwAffine implements CurvePwAffine {
 		return is_delayed_infinite_burst;
 	}
 
+	public boolean isZeroCurve() {
+		double epsilon = RealDoublePrecision.getInstance().createEpsilon().doubleValue();
+		for (int i = 0; i < getSegmentCount(); i++) {
+			if (Math.abs(getSegmentRTC(i).y()) >= epsilon || Math.abs(getSegmentRTC(i).s()) >= epsilon) {
+				return false;
+			}
+		}
+		return getSegmentCount() > 0;
+	}
+
+	public boolean isZeroDelayInfiniteBurst() {
+		double epsilon = RealDoublePrecision.getInstance().createEpsilon().doubleValue();
+		if (getSegmentCount() < 2 || Math.abs(getSegmentRTC(0).y()) >= epsilon
+				|| Math.abs(getSegmentRTC(1).x()) >= epsilon) {
+			return false;
+		}
+		for (int i = 1; i < getSegmentCount(); i++) {
+			if (getSegmentRTC(i).y() != Double.POSITIVE_INFINITY) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	// ------------------------------------------------------------
 	// Curve manipulation
 	// ------------------------------------------------------------
@@ -618,7 +642,7 @@ public class Curve_MPARTC_PwAffine implements CurvePwAffine {
 		}
 
 		if (CalculatorConfig.getInstance().exec_service_curve_checks() && !this.isConvex()) {
-			if (this.equals(this.createZeroDelayInfiniteBurst())) {
+			if (this.isZeroDelayInfiniteBurst()) {
 				rate_latencies = new ArrayList<Curve_MPARTC_PwAffine>();
 				rate_latencies.add(this.createRateLatency(Num.getFactory().createPositiveInfinity(),
 						Num.getFactory().createZero()));
@@ -84,10 +84,18 @@ public class LinearSegment_MPARTC_PwAffine implements LinearSegment {
         rtc_segment.setX(x);
     }
 
+    public double getXDouble() {
+        return rtc_segment.x();
+    }
+
     public Num getY() {
         return Num.getFactory().create(rtc_segment.y());
     }
 
+    public double getYDouble() {
+        return rtc_segment.y();
+    }
+
     public void setY(Num y) {
         rtc_segment.setY(y.doubleValue());
     }
@@ -100,6 +108,10 @@ public class LinearSegment_MPARTC_PwAffine implements LinearSegment {
         return Num.getFactory().create(rtc_segment.s());
     }
 
+    public double getGradDouble() {
+        return rtc_segment.s();
+    }
+
     public void setGrad(Num grad) {
         rtc_segment.setS(grad.doubleValue());
     }
@@ -94,6 +94,11 @@ public class MaxServiceCurve_MPARTC_PwAffine extends Curve_MPARTC_PwAffine imple
         return msc_copy;
     }
 
+    @Override
+    public boolean isZeroService() {
+        return isZeroCurve();
+    }
+
     @Override
     public boolean equals(Object obj) {
         return (obj instanceof MaxServiceCurve_MPARTC_PwAffine) && super.equals(obj);
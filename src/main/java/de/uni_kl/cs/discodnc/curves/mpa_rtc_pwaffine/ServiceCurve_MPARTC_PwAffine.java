@@ -93,6 +93,11 @@ public class ServiceCurve_MPARTC_PwAffine extends Curve_MPARTC_PwAffine implemen
         return sc_copy;
     }
 
+    @Override
+    public boolean isZeroService() {
+        return isZeroCurve();
+    }
+
     @Override
     public boolean equals(Object obj) {
         return (obj instanceof ServiceCurve_MPARTC_PwAffine) && super.equals(obj);
@@ -33,22 +33,25 @@ package de.uni_kl.cs.discodnc.minplus;
 //import Curve;
 
 import ch.ethz.rtc.kernel.CurveMath;
-import ch.ethz.rtc.kernel.Segment;
-import ch.ethz.rtc.kernel.SegmentList;
 
 import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
 import de.uni_kl.cs.discodnc.curves.Curve;
 import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
 import de.uni_kl.cs.discodnc.curves.MaxServiceCurve;
 import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.curves.mpa_rtc_pwaffine.CurveConversion_MPARTC_PwAffine;
 import de.uni_kl.cs.discodnc.curves.mpa_rtc_pwaffine.Curve_MPARTC_PwAffine;
 import de.uni_kl.cs.discodnc.minplus.dnc.Convolution_DNC;
 import de.uni_kl.cs.discodnc.minplus.dnc.Deconvolution_DNC;
-import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics.Counter;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics.Timer;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
 import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
 import de.uni_kl.cs.discodnc.nc.CalculatorConfig.OperationImpl;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 public abstract class MinPlus {
@@ -56,10 +59,30 @@ public abstract class MinPlus {
 	// Min-Plus-Operation Dispatching
 	// --------------------------------------------------------------------------------------------------------------
 
+	/**
+	 * DNC operations work with DNC and MPA_RTC curves, NATIVE operations on DNC
+	 * and DNC_DOUBLE curves are the DNC operations. Only MPA_RTC curves with NATIVE
+	 * operations use the RTC toolbox.
+	 */
+	private static boolean nativeRtcOperations() {
+		CalculationContext context = CalculationContext.current();
+		return context.getOperationImpl() == OperationImpl.NATIVE && context.getCurveImpl() == CurveImpl.MPA_RTC;
+	}
+
 	// ------------------------------------------------------------
 	// Convolution
 	// ------------------------------------------------------------
 
+	private static int countOperands(List<? extends Curve> curves) {
+		int operands = 0;
+		for (Curve curve : curves) {
+			if (curve != null) {
+				operands++;
+			}
+		}
+		return operands;
+	}
+
 	// Service Curves
 	public static ServiceCurve convolve(ServiceCurve service_curve_1, ServiceCurve service_curve_2) throws Exception {
 		return convolve(service_curve_1, service_curve_2, false);
@@ -67,18 +90,58 @@ public abstract class MinPlus {
 
 	public static ServiceCurve convolve(ServiceCurve service_curve_1, ServiceCurve service_curve_2,
 			boolean tb_rl_optimized) throws Exception {
-		if (CalculatorConfig.getInstance().getOperationImpl().equals(OperationImpl.DNC) // DNC operations work with
-				// DNC and MPA_RTC curves
-				|| CalculatorConfig.getInstance().getCurveImpl().equals(CurveImpl.DNC)) { // NATIVE operation on
-			// DNC curves
-			return Convolution_DNC.convolve(service_curve_1, service_curve_2, tb_rl_optimized);
-
-		} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
-			ch.ethz.rtc.kernel.Curve result = CurveMath.minPlusConv(
-					((Curve_MPARTC_PwAffine) service_curve_1).getRtc_curve(),
-					((Curve_MPARTC_PwAffine) service_curve_2).getRtc_curve());
-
-			return CurvePwAffine.getFactory().createServiceCurve(result.toString());
+		AnalysisMetrics.count(Counter.CONVOLUTIONS);
+		AnalysisMetrics.recordSegments(service_curve_1);
+		AnalysisMetrics.recordSegments(service_curve_2);
+		AnalysisMetrics.startTimer(Timer.CONVOLUTION);
+		try {
+			// DNC operations work with DNC and MPA_RTC curves
+			if (!nativeRtcOperations()) {
+				return Convolution_DNC.convolve(service_curve_1, service_curve_2, tb_rl_optimized);
+
+			} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
+				ch.ethz.rtc.kernel.Curve result = CurveMath.minPlusConv(
+						((Curve_MPARTC_PwAffine) service_curve_1).getRtc_curve(),
+						((Curve_MPARTC_PwAffine) service_curve_2).getRtc_curve());
+
+				return CurveConversion_MPARTC_PwAffine.createServiceCurve(result);
+			}
+		} finally {
+			AnalysisMetrics.stopTimer(Timer.CONVOLUTION);
+		}
+	}
+
+	// Service curves of consecutive servers, e.g., along a path
+	public static ServiceCurve convolve(List<ServiceCurve> service_curves) throws Exception {
+		return convolve(service_curves, false);
+	}
+
+	public static ServiceCurve convolve(List<ServiceCurve> service_curves, boolean tb_rl_optimized)
+			throws Exception {
+		AnalysisMetrics.count(Counter.CONVOLUTIONS, countOperands(service_curves) - 1);
+		AnalysisMetrics.startTimer(Timer.CONVOLUTION);
+		try {
+			// DNC operations work with DNC and MPA_RTC curves
+			if (!nativeRtcOperations()) {
+				return Convolution_DNC.convolve(service_curves, tb_rl_optimized);
+
+			} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
+				ch.ethz.rtc.kernel.Curve result = null;
+				for (ServiceCurve service_curve : service_curves) {
+					if (service_curve == null) {
+						continue;
+					}
+					ch.ethz.rtc.kernel.Curve rtc_curve = ((Curve_MPARTC_PwAffine) service_curve).getRtc_curve();
+					result = (result == null) ? rtc_curve : CurveMath.minPlusConv(result, rtc_curve);
+				}
+				if (result == null) {
+					return CurvePwAffine.getFactory().createZeroDelayInfiniteBurst();
+				}
+
+				return CurveConversion_MPARTC_PwAffine.createServiceCurve(result);
+			}
+		} finally {
+			AnalysisMetrics.stopTimer(Timer.CONVOLUTION);
 		}
 	}
 
@@ -92,7 +155,6 @@ public abstract class MinPlus {
 
 	public static Set<ServiceCurve> convolve_SCs_SCs(Set<ServiceCurve> service_curves_1,
 			Set<ServiceCurve> service_curves_2, boolean tb_rl_optimized) throws Exception {
-
 		if (service_curves_1.isEmpty()) {
 			return service_curves_2;
 		}
@@ -100,137 +162,159 @@ public abstract class MinPlus {
 			return service_curves_1;
 		}
 
-		if (CalculatorConfig.getInstance().getOperationImpl().equals(OperationImpl.DNC) // DNC operations work with
-				// DNC and MPA_RTC curves
-				|| CalculatorConfig.getInstance().getCurveImpl().equals(CurveImpl.DNC)) { // NATIVE operation on
-			// DNC curves
-			return Convolution_DNC.convolve_SCs_SCs(service_curves_1, service_curves_2, tb_rl_optimized);
+		AnalysisMetrics.count(Counter.CONVOLUTIONS, (long) service_curves_1.size() * service_curves_2.size());
+		AnalysisMetrics.startTimer(Timer.CONVOLUTION);
+		try {
+
+			// DNC operations work with DNC and MPA_RTC curves
+			if (!nativeRtcOperations()) {
+				return Convolution_DNC.convolve_SCs_SCs(service_curves_1, service_curves_2, tb_rl_optimized);
 
-		} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
+			} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
 
-			Set<ServiceCurve> results = new HashSet<ServiceCurve>();
+				Set<ServiceCurve> results = new HashSet<ServiceCurve>();
 
-			for (ServiceCurve beta_1 : service_curves_1) {
-				for (ServiceCurve beta_2 : service_curves_2) {
+				for (ServiceCurve beta_1 : service_curves_1) {
+					for (ServiceCurve beta_2 : service_curves_2) {
 
-					Curve_MPARTC_PwAffine s11 = (Curve_MPARTC_PwAffine) beta_1;
-					Curve_MPARTC_PwAffine s12 = (Curve_MPARTC_PwAffine) beta_2;
+						Curve_MPARTC_PwAffine s11 = (Curve_MPARTC_PwAffine) beta_1;
+						Curve_MPARTC_PwAffine s12 = (Curve_MPARTC_PwAffine) beta_2;
 
-					results.add(CurvePwAffine.getFactory().createServiceCurve(
-							CurveMath.minPlusConv(s11.getRtc_curve(), s12.getRtc_curve()).toString()));
+						results.add(CurveConversion_MPARTC_PwAffine.createServiceCurve(
+								CurveMath.minPlusConv(s11.getRtc_curve(), s12.getRtc_curve())));
+					}
 				}
+				return results;
 			}
-			return results;
+		} finally {
+			AnalysisMetrics.stopTimer(Timer.CONVOLUTION);
 		}
 	}
 
 	// Arrival Curves
 	public static ArrivalCurve convolve(ArrivalCurve arrival_curve_1, ArrivalCurve arrival_curve_2) throws Exception {
-		// DNC operations work with DNC and MPA_RTC curves
-		if (CalculatorConfig.getInstance().getOperationImpl().equals(OperationImpl.DNC)
-				// NATIVE operation on DNC curves
-				|| CalculatorConfig.getInstance().getCurveImpl().equals(CurveImpl.DNC)) {
-			return Convolution_DNC.convolve(arrival_curve_1, arrival_curve_2);
-
-		} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
-			ch.ethz.rtc.kernel.Curve result = CurveMath.minPlusConv(
-					((Curve_MPARTC_PwAffine) arrival_curve_1).getRtc_curve(),
-					((Curve_MPARTC_PwAffine) arrival_curve_2).getRtc_curve());
-
-			return CurvePwAffine.getFactory().createArrivalCurve(result.toString());
+		AnalysisMetrics.count(Counter.CONVOLUTIONS);
+		AnalysisMetrics.recordSegments(arrival_curve_1);
+		AnalysisMetrics.recordSegments(arrival_curve_2);
+		AnalysisMetrics.startTimer(Timer.CONVOLUTION);
+		try {
+			// DNC operations work with DNC and MPA_RTC curves
+			if (!nativeRtcOperations()) {
+				return Convolution_DNC.convolve(arrival_curve_1, arrival_curve_2);
+
+			} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
+				ch.ethz.rtc.kernel.Curve result = CurveMath.minPlusConv(
+						((Curve_MPARTC_PwAffine) arrival_curve_1).getRtc_curve(),
+						((Curve_MPARTC_PwAffine) arrival_curve_2).getRtc_curve());
+
+				return CurveConversion_MPARTC_PwAffine.createArrivalCurve(result);
+			}
+		} finally {
+			AnalysisMetrics.stopTimer(Timer.CONVOLUTION);
 		}
 	}
 
 	public static ArrivalCurve convolve(Set<ArrivalCurve> arrival_curves) throws Exception {
-		// DNC operations work with DNC and MPA_RTC curves
-		if (CalculatorConfig.getInstance().getOperationImpl().equals(OperationImpl.DNC)
-				// NATIVE operation on DNC curves
-				|| CalculatorConfig.getInstance().getCurveImpl().equals(CurveImpl.DNC)) {
-			return Convolution_DNC.convolve(arrival_curves);
-		} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
-
-			// TODO Double check
-			if (arrival_curves == null || arrival_curves.isEmpty()) {
-				return CurvePwAffine.getFactory().createZeroArrivals();
-			}
-			if (arrival_curves.size() == 1) {
-				return arrival_curves.iterator().next().copy();
-			}
-			Segment s = new Segment(0, 0, 0);
-			SegmentList sl = new SegmentList();
-			sl.add(s);
-			ch.ethz.rtc.kernel.Curve result = new ch.ethz.rtc.kernel.Curve(sl);
-			ch.ethz.rtc.kernel.Curve ac2 = null;
-			for (ArrivalCurve arrival_curve_2 : arrival_curves) {
-				CurvePwAffine result_curves = CurvePwAffine.getFactory().createArrivalCurve(arrival_curve_2.toString());
-				Curve_MPARTC_PwAffine c = (Curve_MPARTC_PwAffine) result_curves;
-				ac2 = c.getRtc_curve();
-
-				result = CurveMath.minPlusConv(result, ac2);
-			}
+		AnalysisMetrics.count(Counter.CONVOLUTIONS, arrival_curves == null ? 0 : arrival_curves.size() - 1);
+		AnalysisMetrics.startTimer(Timer.CONVOLUTION);
+		try {
+			// DNC operations work with DNC and MPA_RTC curves
+			if (!nativeRtcOperations()) {
+				return Convolution_DNC.convolve(arrival_curves);
+			} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
+
+				// TODO Double check
+				if (arrival_curves == null || arrival_curves.isEmpty()) {
+					return CurvePwAffine.getFactory().createZeroArrivals();
+				}
+				if (arrival_curves.size() == 1) {
+					return arrival_curves.iterator().next().copy();
+				}
+				ch.ethz.rtc.kernel.Curve result = null;
+				for (ArrivalCurve arrival_curve : arrival_curves) {
+					ch.ethz.rtc.kernel.Curve rtc_curve = ((Curve_MPARTC_PwAffine) arrival_curve).getRtc_curve();
+					result = (result == null) ? rtc_curve : CurveMath.minPlusConv(result, rtc_curve);
+				}
 
-			return CurvePwAffine.getFactory().createArrivalCurve(ac2.toString());
+				return CurveConversion_MPARTC_PwAffine.createArrivalCurve(result);
+			}
+		} finally {
+			AnalysisMetrics.stopTimer(Timer.CONVOLUTION);
 		}
 	}
 
 	// Maximum Service Curves
 	public static MaxServiceCurve convolve(MaxServiceCurve max_service_curve_1, MaxServiceCurve max_service_curve_2)
 			throws Exception {
-		// DNC operations work with DNC and MPA_RTC curves
-		if (CalculatorConfig.getInstance().getOperationImpl().equals(OperationImpl.DNC)
-				// NATIVE operation on DNC curves
-				|| CalculatorConfig.getInstance().getCurveImpl().equals(CurveImpl.DNC)) {
-			return Convolution_DNC.convolve(max_service_curve_1, max_service_curve_2);
-		} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
-			ch.ethz.rtc.kernel.Curve result = CurveMath.minPlusConv(
-					((Curve_MPARTC_PwAffine) max_service_curve_1).getRtc_curve(),
-					((Curve_MPARTC_PwAffine) max_service_curve_2).getRtc_curve());
-
-			return CurvePwAffine.getFactory().createMaxServiceCurve(result.toString());
+		AnalysisMetrics.count(Counter.CONVOLUTIONS);
+		AnalysisMetrics.recordSegments(max_service_curve_1);
+		AnalysisMetrics.recordSegments(max_service_curve_2);
+		AnalysisMetrics.startTimer(Timer.CONVOLUTION);
+		try {
+			// DNC operations work with DNC and MPA_RTC curves
+			if (!nativeRtcOperations()) {
+				return Convolution_DNC.convolve(max_service_curve_1, max_service_curve_2);
+			} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
+				ch.ethz.rtc.kernel.Curve result = CurveMath.minPlusConv(
+						((Curve_MPARTC_PwAffine) max_service_curve_1).getRtc_curve(),
+						((Curve_MPARTC_PwAffine) max_service_curve_2).getRtc_curve());
+
+				return CurveConversion_MPARTC_PwAffine.createMaxServiceCurve(result);
+			}
+		} finally {
+			AnalysisMetrics.stopTimer(Timer.CONVOLUTION);
 		}
 	}
 
 	// Arrival Curves and Max Service Curves
 	public static Set<CurvePwAffine> convolve_ACs_MSC(Set<ArrivalCurve> arrival_curves,
 			MaxServiceCurve maximum_service_curve) throws Exception {
-		// DNC operations work with DNC and MPA_RTC curves
-		if (CalculatorConfig.getInstance().getOperationImpl().equals(OperationImpl.DNC)
-				// NATIVE operation on DNC curves
-				|| CalculatorConfig.getInstance().getCurveImpl().equals(CurveImpl.DNC)) {
-			return Convolution_DNC.convolve_ACs_MSC(arrival_curves, maximum_service_curve);
-		} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
-
-			Set<CurvePwAffine> results = new HashSet<CurvePwAffine>();
-
-			Curve_MPARTC_PwAffine msc_mpa_rtc = (Curve_MPARTC_PwAffine) maximum_service_curve;
-			for (ArrivalCurve alpha_tmp : arrival_curves) {
-				// Do not mind the semantics "Arrival Curve"
-				results.add(CurvePwAffine.getFactory().createArrivalCurve(CurveMath
-						.minPlusConv(((Curve_MPARTC_PwAffine) alpha_tmp).getRtc_curve(), msc_mpa_rtc.getRtc_curve())
-						.toString()));
+		AnalysisMetrics.count(Counter.CONVOLUTIONS, arrival_curves == null ? 0 : arrival_curves.size());
+		AnalysisMetrics.startTimer(Timer.CONVOLUTION);
+		try {
+			// DNC operations work with DNC and MPA_RTC curves
+			if (!nativeRtcOperations()) {
+				return Convolution_DNC.convolve_ACs_MSC(arrival_curves, maximum_service_curve);
+			} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
+
+				Set<CurvePwAffine> results = new HashSet<CurvePwAffine>();
+
+				Curve_MPARTC_PwAffine msc_mpa_rtc = (Curve_MPARTC_PwAffine) maximum_service_curve;
+				for (ArrivalCurve alpha_tmp : arrival_curves) {
+					// Do not mind the semantics "Arrival Curve"
+					results.add(CurveConversion_MPARTC_PwAffine.createArrivalCurve(CurveMath
+							.minPlusConv(((Curve_MPARTC_PwAffine) alpha_tmp).getRtc_curve(),
+									msc_mpa_rtc.getRtc_curve())));
+				}
+				return results;
 			}
-			return results;
+		} finally {
+			AnalysisMetrics.stopTimer(Timer.CONVOLUTION);
 		}
 	}
 
 	public static Set<ArrivalCurve> convolve_ACs_EGamma(Set<ArrivalCurve> arrival_curves,
 			MaxServiceCurve extra_gamma_curve) throws Exception {
-		// DNC operations work with DNC and MPA_RTC curves
-		if (CalculatorConfig.getInstance().getOperationImpl().equals(OperationImpl.DNC)
-				// NATIVE operation on DNC curves
-				|| CalculatorConfig.getInstance().getCurveImpl().equals(CurveImpl.DNC)) {
-			return Convolution_DNC.convolve_ACs_EGamma(arrival_curves, extra_gamma_curve);
-		} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
-
-			Set<ArrivalCurve> results = new HashSet<ArrivalCurve>();
-
-			Curve_MPARTC_PwAffine egamma_mpa_rtc = (Curve_MPARTC_PwAffine) extra_gamma_curve;
-			for (ArrivalCurve alpha_tmp : arrival_curves) {
-				results.add(CurvePwAffine.getFactory().createArrivalCurve(CurveMath
-						.minPlusConv(((Curve_MPARTC_PwAffine) alpha_tmp).getRtc_curve(), egamma_mpa_rtc.getRtc_curve())
-						.toString()));
+		AnalysisMetrics.count(Counter.CONVOLUTIONS, arrival_curves == null ? 0 : arrival_curves.size());
+		AnalysisMetrics.startTimer(Timer.CONVOLUTION);
+		try {
+			// DNC operations work with DNC and MPA_RTC curves
+			if (!nativeRtcOperations()) {
+				return Convolution_DNC.convolve_ACs_EGamma(arrival_curves, extra_gamma_curve);
+			} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
+
+				Set<ArrivalCurve> results = new HashSet<ArrivalCurve>();
+
+				Curve_MPARTC_PwAffine egamma_mpa_rtc = (Curve_MPARTC_PwAffine) extra_gamma_curve;
+				for (ArrivalCurve alpha_tmp : arrival_curves) {
+					results.add(CurveConversion_MPARTC_PwAffine.createArrivalCurve(CurveMath
+							.minPlusConv(((Curve_MPARTC_PwAffine) alpha_tmp).getRtc_curve(),
+									egamma_mpa_rtc.getRtc_curve())));
+				}
+				return results;
 			}
-			return results;
+		} finally {
+			AnalysisMetrics.stopTimer(Timer.CONVOLUTION);
 		}
 	}
 
@@ -244,22 +328,26 @@ public abstract class MinPlus {
 
 	public static Set<ArrivalCurve> deconvolve(Set<ArrivalCurve> arrival_curves, ServiceCurve service_curve,
 			boolean tb_rl_optimized) throws Exception {
-		// DNC operations work with DNC and MPA_RTC curves
-		if (CalculatorConfig.getInstance().getOperationImpl().equals(OperationImpl.DNC)
-				// NATIVE operation on DNC curves
-				|| CalculatorConfig.getInstance().getCurveImpl().equals(CurveImpl.DNC)) {
-			return Deconvolution_DNC.deconvolve(arrival_curves, service_curve, tb_rl_optimized);
-		} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
-
-			Set<ArrivalCurve> results = new HashSet<ArrivalCurve>();
-
-			Curve_MPARTC_PwAffine beta_mpa_rtc = (Curve_MPARTC_PwAffine) service_curve;
-			for (ArrivalCurve alpha_tmp : arrival_curves) {
-				results.add(CurvePwAffine.getFactory().createArrivalCurve(CurveMath
-						.minPlusDeconv(((Curve_MPARTC_PwAffine) alpha_tmp).getRtc_curve(), beta_mpa_rtc.getRtc_curve())
-						.toString()));
+		AnalysisMetrics.count(Counter.DECONVOLUTIONS);
+		AnalysisMetrics.startTimer(Timer.DECONVOLUTION);
+		try {
+			// DNC operations work with DNC and MPA_RTC curves
+			if (!nativeRtcOperations()) {
+				return Deconvolution_DNC.deconvolve(arrival_curves, service_curve, tb_rl_optimized);
+			} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
+
+				Set<ArrivalCurve> results = new HashSet<ArrivalCurve>();
+
+				Curve_MPARTC_PwAffine beta_mpa_rtc = (Curve_MPARTC_PwAffine) service_curve;
+				for (ArrivalCurve alpha_tmp : arrival_curves) {
+					results.add(CurveConversion_MPARTC_PwAffine.createArrivalCurve(CurveMath
+							.minPlusDeconv(((Curve_MPARTC_PwAffine) alpha_tmp).getRtc_curve(),
+									beta_mpa_rtc.getRtc_curve())));
+				}
+				return results;
 			}
-			return results;
+		} finally {
+			AnalysisMetrics.stopTimer(Timer.DECONVOLUTION);
 		}
 	}
 
@@ -270,23 +358,27 @@ public abstract class MinPlus {
 
 	public static Set<ArrivalCurve> deconvolve(Set<ArrivalCurve> arrival_curves, Set<ServiceCurve> service_curves,
 			boolean tb_rl_optimized) throws Exception {
-		// DNC operations work with DNC and MPA_RTC curves
-		if (CalculatorConfig.getInstance().getOperationImpl().equals(OperationImpl.DNC)
-				// NATIVE operation on DNC curves
-				|| CalculatorConfig.getInstance().getCurveImpl().equals(CurveImpl.DNC)) {
-			return Deconvolution_DNC.deconvolve(arrival_curves, service_curves, tb_rl_optimized);
-		} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
-
-			Set<ArrivalCurve> results = new HashSet<ArrivalCurve>();
-
-			for (ServiceCurve beta_tmp : service_curves) {
-				for (ArrivalCurve alpha_tmp : arrival_curves) {
-					results.add(CurvePwAffine.getFactory().createArrivalCurve(
-							CurveMath.minPlusDeconv(((Curve_MPARTC_PwAffine) alpha_tmp).getRtc_curve(),
-									((Curve_MPARTC_PwAffine) beta_tmp).getRtc_curve()).toString()));
+		AnalysisMetrics.count(Counter.DECONVOLUTIONS);
+		AnalysisMetrics.startTimer(Timer.DECONVOLUTION);
+		try {
+			// DNC operations work with DNC and MPA_RTC curves
+			if (!nativeRtcOperations()) {
+				return Deconvolution_DNC.deconvolve(arrival_curves, service_curves, tb_rl_optimized);
+			} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
+
+				Set<ArrivalCurve> results = new HashSet<ArrivalCurve>();
+
+				for (ServiceCurve beta_tmp : service_curves) {
+					for (ArrivalCurve alpha_tmp : arrival_curves) {
+						results.add(CurveConversion_MPARTC_PwAffine.createArrivalCurve(
+								CurveMath.minPlusDeconv(((Curve_MPARTC_PwAffine) alpha_tmp).getRtc_curve(),
+										((Curve_MPARTC_PwAffine) beta_tmp).getRtc_curve())));
+					}
 				}
+				return results;
 			}
-			return results;
+		} finally {
+			AnalysisMetrics.stopTimer(Timer.DECONVOLUTION);
 		}
 	}
 
@@ -296,41 +388,51 @@ public abstract class MinPlus {
 
 	public static ArrivalCurve deconvolve(ArrivalCurve arrival_curve, ServiceCurve service_curve,
 			boolean tb_rl_optimized) throws Exception {
-		// DNC operations work with DNC and MPA_RTC curves
-		if (CalculatorConfig.getInstance().getOperationImpl().equals(OperationImpl.DNC)
-				// NATIVE operation on DNC curves
-				|| CalculatorConfig.getInstance().getCurveImpl().equals(CurveImpl.DNC)) {
-			return Deconvolution_DNC.deconvolve(arrival_curve, service_curve);
-		} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
-
-			ch.ethz.rtc.kernel.Curve result = CurveMath.minPlusDeconv(
-					((Curve_MPARTC_PwAffine) arrival_curve).getRtc_curve(),
-					((Curve_MPARTC_PwAffine) service_curve).getRtc_curve());
-
-			return CurvePwAffine.getFactory().createArrivalCurve(result.toString());
+		AnalysisMetrics.count(Counter.DECONVOLUTIONS);
+		AnalysisMetrics.recordSegments(arrival_curve);
+		AnalysisMetrics.recordSegments(service_curve);
+		AnalysisMetrics.startTimer(Timer.DECONVOLUTION);
+		try {
+			// DNC operations work with DNC and MPA_RTC curves
+			if (!nativeRtcOperations()) {
+				return Deconvolution_DNC.deconvolve(arrival_curve, service_curve);
+			} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
+
+				ch.ethz.rtc.kernel.Curve result = CurveMath.minPlusDeconv(
+						((Curve_MPARTC_PwAffine) arrival_curve).getRtc_curve(),
+						((Curve_MPARTC_PwAffine) service_curve).getRtc_curve());
+
+				return CurveConversion_MPARTC_PwAffine.createArrivalCurve(result);
+			}
+		} finally {
+			AnalysisMetrics.stopTimer(Timer.DECONVOLUTION);
 		}
 	}
 
 	public static Set<ArrivalCurve> deconvolve_almostConcCs_SCs(Set<CurvePwAffine> curves,
 			Set<ServiceCurve> service_curves) throws Exception {
-		// DNC operations work with DNC and MPA_RTC curves
-		if (CalculatorConfig.getInstance().getOperationImpl().equals(OperationImpl.DNC)
-				// NATIVE operation on DNC curves
-				|| CalculatorConfig.getInstance().getCurveImpl().equals(CurveImpl.DNC)) {
-			return Deconvolution_DNC.deconvolve_almostConcCs_SCs(curves, service_curves);
-		} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
-
-			Set<ArrivalCurve> results = new HashSet<ArrivalCurve>();
-
-			for (ServiceCurve beta_tmp : service_curves) {
-				for (CurvePwAffine c_tmp : curves) {
-					// Do not mind the semantics "Arrival Curve"
-					results.add(CurvePwAffine.getFactory()
-							.createArrivalCurve(CurveMath.minPlusDeconv(((Curve_MPARTC_PwAffine) c_tmp).getRtc_curve(),
-									((Curve_MPARTC_PwAffine) beta_tmp).getRtc_curve()).toString()));
+		AnalysisMetrics.count(Counter.DECONVOLUTIONS);
+		AnalysisMetrics.startTimer(Timer.DECONVOLUTION);
+		try {
+			// DNC operations work with DNC and MPA_RTC curves
+			if (!nativeRtcOperations()) {
+				return Deconvolution_DNC.deconvolve_almostConcCs_SCs(curves, service_curves);
+			} else { // Must be CurveClass.MPA_RTC + OpertionClass.NATIVE
+
+				Set<ArrivalCurve> results = new HashSet<ArrivalCurve>();
+
+				for (ServiceCurve beta_tmp : service_curves) {
+					for (CurvePwAffine c_tmp : curves) {
+						// Do not mind the semantics "Arrival Curve"
+						results.add(CurveConversion_MPARTC_PwAffine.createArrivalCurve(
+								CurveMath.minPlusDeconv(((Curve_MPARTC_PwAffine) c_tmp).getRtc_curve(),
+										((Curve_MPARTC_PwAffine) beta_tmp).getRtc_curve())));
+					}
 				}
+				return results;
 			}
-			return results;
+		} finally {
+			AnalysisMetrics.stopTimer(Timer.DECONVOLUTION);
 		}
 	}
 
@@ -30,16 +30,22 @@
 package de.uni_kl.cs.discodnc.minplus.dnc;
 
 import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
-import de.uni_kl.cs.discodnc.curves.Curve;
 import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
 import de.uni_kl.cs.discodnc.curves.LinearSegment;
 import de.uni_kl.cs.discodnc.curves.MaxServiceCurve;
 import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.curves.dnc.TbRlAlgebra_DNC;
+import de.uni_kl.cs.discodnc.curves.dnc_double.ServiceCurve_DNC_Double;
 import de.uni_kl.cs.discodnc.minplus.MinPlus;
+import de.uni_kl.cs.discodnc.minplus.dnc_double.Convolution_DNC_Double;
 import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
 import de.uni_kl.cs.discodnc.numbers.Num;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
 import java.util.Set;
 
 public abstract class Convolution_DNC {
@@ -136,9 +142,18 @@ public abstract class Convolution_DNC {
             }
         }
 
-        ServiceCurve zero_service = CurvePwAffine.getFactory().createZeroService();
-        if (service_curve_1.equals(zero_service) || service_curve_2.equals(zero_service)) {
-            return zero_service;
+        if (service_curve_1.isZeroService() || service_curve_2.isZeroService()) {
+            return CurvePwAffine.getFactory().createZeroService();
+        }
+
+        ServiceCurve closed_form = TbRlAlgebra_DNC.convolve(service_curve_1, service_curve_2);
+        if (closed_form != null) {
+            return closed_form;
+        }
+
+        if (service_curve_1 instanceof ServiceCurve_DNC_Double && service_curve_2 instanceof ServiceCurve_DNC_Double) {
+            return Convolution_DNC_Double.convolve_SC_SC_Generic((ServiceCurve_DNC_Double) service_curve_1,
+                    (ServiceCurve_DNC_Double) service_curve_2);
         }
 
         ServiceCurve result = CurvePwAffine.getFactory().createServiceCurve();
@@ -208,6 +223,145 @@ public abstract class Convolution_DNC {
         return result;
     }
 
+    /**
+     * Returns the convolution of a sequence of service curves, e.g., the ones of the
+     * servers on a path. Null entries are ignored like in the pairwise convolution.
+     * The generic convolution of more than two curves, which must be convex, merges
+     * the segments of all curves by gradient in a single pass instead of creating an
+     * intermediate curve per pairwise convolution.
+     *
+     * @param service_curves  The curves to convolve.
+     * @param tb_rl_optimized Convolve the curves' rate latency approximations.
+     * @return The convolved curve.
+     */
+    public static ServiceCurve convolve(List<ServiceCurve> service_curves, boolean tb_rl_optimized) {
+        List<ServiceCurve> operands = new ArrayList<ServiceCurve>(service_curves.size());
+        boolean fold_pairwise = tb_rl_optimized;
+        for (ServiceCurve service_curve : service_curves) {
+            if (service_curve != null) {
+                operands.add(service_curve);
+                fold_pairwise = fold_pairwise || service_curve instanceof ServiceCurve_DNC_Double;
+            }
+        }
+
+        if (operands.isEmpty()) {
+            return CurvePwAffine.getFactory().createZeroDelayInfiniteBurst();
+        }
+        if (operands.size() == 1) {
+            return operands.get(0).copy();
+        }
+        if (fold_pairwise || operands.size() == 2) {
+            ServiceCurve result = convolve(operands.get(0), operands.get(1), tb_rl_optimized);
+            for (int i = 2; i < operands.size(); i++) {
+                result = convolve(result, operands.get(i), tb_rl_optimized);
+            }
+            return result;
+        }
+
+        // Delayed infinite bursts only shift the convolution of the other curves.
+        Num latency_dibs = Num.getFactory().createZero();
+        List<ServiceCurve> curves_to_merge = new ArrayList<ServiceCurve>(operands.size());
+        for (ServiceCurve service_curve : operands) {
+            if (service_curve.isDelayedInfiniteBurst()) {
+                latency_dibs = Num.getUtils().add(latency_dibs, service_curve.getLatency());
+            } else if (service_curve.isZeroService()) {
+                return CurvePwAffine.getFactory().createZeroService();
+            } else {
+                curves_to_merge.add(service_curve);
+            }
+        }
+
+        if (curves_to_merge.isEmpty()) {
+            return CurvePwAffine.getFactory().createDelayedInfiniteBurst(latency_dibs);
+        }
+        ServiceCurve result;
+        if (curves_to_merge.size() == 1) {
+            result = curves_to_merge.get(0).copy();
+        } else if (curves_to_merge.size() == 2) {
+            result = convolve_SC_SC_Generic(curves_to_merge.get(0), curves_to_merge.get(1));
+        } else {
+            result = convolve_SCs_Merge(curves_to_merge);
+        }
+        if (latency_dibs.gtZero()) {
+            return CurvePwAffine.getFactory().createServiceCurve(CurvePwAffine.shiftRight(result, latency_dibs));
+        }
+        return result;
+    }
+
+    /**
+     * Merges the segments of convex curves in the order of increasing gradient, the
+     * n-ary generalization of the loop in <code>convolve_SC_SC_Generic</code>.
+     *
+     * @param service_curves The curves to convolve, neither a delayed infinite burst nor
+     *                       zero service.
+     * @return The convolved curve.
+     */
+    private static ServiceCurve convolve_SCs_Merge(List<ServiceCurve> service_curves) {
+        int curve_count = service_curves.size();
+        int[] segment_idx = new int[curve_count];
+        Num[] segment_grads = new Num[curve_count];
+
+        List<LinearSegment> segments = new ArrayList<LinearSegment>();
+        segments.add(LinearSegment.createLinearSegment(Num.getFactory().createZero(), Num.getFactory().createZero(),
+                Num.getFactory().createZero(), false));
+
+        Num burst = Num.getFactory().createZero();
+        boolean has_burst = false;
+        for (int k = 0; k < curve_count; k++) {
+            ServiceCurve service_curve = service_curves.get(k);
+            if (service_curve.isRealDiscontinuity(0)) {
+                segment_idx[k] = 1;
+                has_burst = true;
+            }
+            burst = Num.getUtils().add(burst, service_curve.fLimitRight(Num.getFactory().getZero()));
+        }
+
+        Num x = Num.getFactory().createZero();
+        Num y = Num.getFactory().createZero();
+        if (has_burst) {
+            y = burst;
+            segments.add(LinearSegment.createLinearSegment(x, y, Num.getFactory().createZero(), true));
+        }
+
+        PriorityQueue<Integer> curves_by_grad = new PriorityQueue<Integer>(curve_count, (k_1, k_2) ->
+                segment_grads[k_1].lt(segment_grads[k_2]) ? -1 : (segment_grads[k_1].gt(segment_grads[k_2]) ? 1 : 0));
+        for (int k = 0; k < curve_count; k++) {
+            segment_grads[k] = service_curves.get(k).getSegment(segment_idx[k]).getGrad();
+            curves_by_grad.add(k);
+        }
+
+        while (!curves_by_grad.isEmpty()) {
+            int k = curves_by_grad.poll();
+            ServiceCurve service_curve = service_curves.get(k);
+            int i = segment_idx[k];
+
+            segments.get(segments.size() - 1).setGrad(segment_grads[k]);
+            if (i + 1 >= service_curve.getSegmentCount()) {
+                // The ultimately affine segment with the smallest gradient, no other
+                // segment is reached anymore.
+                break;
+            }
+
+            x = Num.getUtils().add(x, Num.getUtils().sub(service_curve.getSegment(i + 1).getX(),
+                    service_curve.getSegment(i).getX()));
+            y = Num.getUtils().add(y, Num.getUtils().sub(service_curve.getSegment(i + 1).getY(),
+                    service_curve.getSegment(i).getY()));
+            segments.add(LinearSegment.createLinearSegment(x, y, Num.getFactory().createZero(), true));
+
+            segment_idx[k]++;
+            segment_grads[k] = service_curve.getSegment(segment_idx[k]).getGrad();
+            curves_by_grad.add(k);
+        }
+
+        ServiceCurve result = CurvePwAffine.getFactory().createServiceCurve();
+        for (LinearSegment segment : segments) {
+            result.addSegment(segment);
+        }
+        CurvePwAffine.beautify(result);
+
+        return result;
+    }
+
     // Java won't let me call this method "convolve" because it does not care about
     // the Sets' types; tells that there's already another method taking the same
     // arguments.
@@ -288,20 +442,22 @@ public abstract class Convolution_DNC {
                 break;
         }
 
-        ArrivalCurve zero_arrival = CurvePwAffine.getFactory().createZeroArrivals();
-        if (arrival_curve_1.equals(zero_arrival) || arrival_curve_2.equals(zero_arrival)) {
-            return zero_arrival;
+        if (arrival_curve_1.isZeroArrivals() || arrival_curve_2.isZeroArrivals()) {
+            return CurvePwAffine.getFactory().createZeroArrivals();
         }
 
-        Curve zero_delay_infinite_burst = (Curve)CurvePwAffine.getFactory()
-                .createZeroDelayInfiniteBurst();
-        if (((Curve)arrival_curve_1).equals(zero_delay_infinite_burst)) {
+        if (arrival_curve_1.isZeroDelayInfiniteBurst()) {
             return arrival_curve_2.copy();
         }
-        if (((Curve)arrival_curve_2).equals(zero_delay_infinite_burst)) {
+        if (arrival_curve_2.isZeroDelayInfiniteBurst()) {
             return arrival_curve_1.copy();
         }
 
+        ArrivalCurve closed_form = TbRlAlgebra_DNC.min(arrival_curve_1, arrival_curve_2);
+        if (closed_form != null) {
+            return closed_form;
+        }
+
         // Arrival curves are concave curves so we can do a minimum instead of a
         // convolution here.
         ArrivalCurve convolved_arrival_curve = CurvePwAffine.getFactory()
@@ -318,9 +474,11 @@ public abstract class Convolution_DNC {
             return arrival_curves.iterator().next().copy();
         }
 
-        ArrivalCurve arrival_curve_result = (ArrivalCurve) CurvePwAffine.getFactory().createZeroDelayInfiniteBurst();
-        for (ArrivalCurve arrival_curve_2 : arrival_curves) {
-            arrival_curve_result = convolve(arrival_curve_result, arrival_curve_2);
+        // The zero delay infinite burst neutral element is a service curve, start with the first operand.
+        Iterator<ArrivalCurve> arrival_curves_iter = arrival_curves.iterator();
+        ArrivalCurve arrival_curve_result = arrival_curves_iter.next();
+        while (arrival_curves_iter.hasNext()) {
+            arrival_curve_result = convolve(arrival_curve_result, arrival_curves_iter.next());
         }
 
         return arrival_curve_result;
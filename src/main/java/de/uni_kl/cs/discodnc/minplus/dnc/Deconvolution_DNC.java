@@ -34,7 +34,10 @@ import de.uni_kl.cs.discodnc.curves.Curve;
 import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
 import de.uni_kl.cs.discodnc.curves.LinearSegment;
 import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.curves.dnc.TbRlAlgebra_DNC;
+import de.uni_kl.cs.discodnc.curves.dnc_double.Curve_DNC_Double;
 import de.uni_kl.cs.discodnc.minplus.MinPlus;
+import de.uni_kl.cs.discodnc.minplus.dnc_double.Deconvolution_DNC_Double;
 import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
 import de.uni_kl.cs.discodnc.numbers.Num;
 
@@ -138,12 +141,12 @@ public abstract class Deconvolution_DNC {
             default:
         }
 
-        if (service_curve.equals(CurvePwAffine.getFactory().createZeroDelayInfiniteBurst())
+        if (service_curve.isZeroDelayInfiniteBurst()
                 || (service_curve.isDelayedInfiniteBurst() && service_curve.getLatency().doubleValue() == 0.0)
-                || (arrival_curve.equals(CurvePwAffine.getFactory().createZeroArrivals()))) {
+                || (arrival_curve.isZeroArrivals())) {
             return arrival_curve.copy();
         }
-        if (service_curve.equals(CurvePwAffine.getFactory().createZeroService())
+        if (service_curve.isZeroService()
                 || service_curve.getLatency().equals(Num.getFactory().getPositiveInfinity())
                 || (service_curve.getUltAffineRate().eqZero()
                 && service_curve.getSegment(service_curve.getSegmentCount() - 1).getY().eqZero())) {
@@ -210,19 +213,19 @@ public abstract class Deconvolution_DNC {
             default:
         }
 
-        if (service_curve.equals(CurvePwAffine.getFactory().createZeroDelayInfiniteBurst())) {
+        if (service_curve.isZeroDelayInfiniteBurst()) {
             return arrival_curve.copy();
         }
-        if (service_curve.equals(CurvePwAffine.getFactory().createZeroService())
+        if (service_curve.isZeroService()
                 || service_curve.getLatency().equals(Num.getFactory().getPositiveInfinity())
                 || (service_curve.getUltAffineRate().eqZero() && service_curve.getSegment(1).getY().eqZero())) {
             return CurvePwAffine.getFactory().createZeroArrivals();
         }
 
         // Result: Token bucket gamma_{r,'b'} with r' = r and b' = b+r*T
-        return CurvePwAffine.getFactory().createTokenBucket(arrival_curve.getUltAffineRate().doubleValue(),
-                arrival_curve.getBurst().doubleValue()
-                        + arrival_curve.getUltAffineRate().doubleValue() * service_curve.getLatency().doubleValue());
+        Num rate = arrival_curve.getUltAffineRate();
+        return CurvePwAffine.getFactory().createTokenBucket(rate, Num.getUtils().add(arrival_curve.getBurst(),
+                Num.getUtils().mult(rate, service_curve.getLatency())));
     }
 
     /**
@@ -250,10 +253,10 @@ public abstract class Deconvolution_DNC {
         if (curve_1.getUltAffineRate().gt(curve_2.getUltAffineRate())) { // Violation of the sability constraint
             return (ArrivalCurve) CurvePwAffine.getFactory().createZeroDelayInfiniteBurst();
         }
-        if (curve_2.equals(CurvePwAffine.getFactory().createZeroDelayInfiniteBurst())) {
+        if (curve_2.isZeroDelayInfiniteBurst()) {
             return CurvePwAffine.getFactory().createArrivalCurve((CurvePwAffine) curve_1);
         }
-        if (curve_2.equals(CurvePwAffine.getFactory().createZeroService())
+        if (curve_2.isZeroCurve()
                 || curve_2.getLatency().equals(Num.getFactory().getPositiveInfinity())
                 || (curve_2.getUltAffineRate().eqZero() && curve_2.getSegment(1).getY().eqZero())) {
             return CurvePwAffine.getFactory().createZeroArrivals();
@@ -267,6 +270,16 @@ public abstract class Deconvolution_DNC {
             }
         }
 
+        ArrivalCurve closed_form = TbRlAlgebra_DNC.deconvolve(curve_1, curve_2);
+        if (closed_form != null) {
+            return closed_form;
+        }
+
+        if (curve_1 instanceof Curve_DNC_Double && curve_2 instanceof Curve_DNC_Double) {
+            return Deconvolution_DNC_Double.deconvolve_mTB_mRL((Curve_DNC_Double) curve_1,
+                    (Curve_DNC_Double) curve_2);
+        }
+
         // The arrival curve itself is in the candidates set.
         Set<Curve> result_candidates = new HashSet<Curve>(Collections.singleton(curve_1.copy()));
 
@@ -279,9 +292,14 @@ public abstract class Deconvolution_DNC {
             // above):
 
             x_inflect_beta = curve_2.getSegment(i).getX();
+            y_beta = curve_2.f(x_inflect_beta);
+            if (Num.getUtils().sub(curve_1.f(x_inflect_beta), y_beta).ltZero()) {
+                // The service curve already exceeds the arrival curve at this inflection point.
+                // As in the loop below, the candidate is dominated by the ones of smaller inflection points.
+                continue;
+            }
             candidate_tmp = CurvePwAffine.shiftLeftClipping((CurvePwAffine) curve_1, x_inflect_beta);
 
-            y_beta = curve_2.f(x_inflect_beta);
             if (y_beta.doubleValue() != 0.0) { // Need to lower the rest of the result candidate by y.
                 for (int j = 0; j < candidate_tmp.getSegmentCount(); j++) {
                     LinearSegment lin_seg = candidate_tmp.getSegment(j);
@@ -0,0 +1,100 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.minplus.dnc_double;
+
+import de.uni_kl.cs.discodnc.curves.dnc_double.Curve_DNC_Double;
+import de.uni_kl.cs.discodnc.curves.dnc_double.ServiceCurve_DNC_Double;
+
+/**
+ * Convolution of <code>Curve_DNC_Double</code> curves that works on the
+ * curves' arrays instead of <code>LinearSegment</code> and <code>Num</code>
+ * objects. It computes the same results as <code>Convolution_DNC</code>, which
+ * dispatches to this class once the special cases are handled.
+ */
+public abstract class Convolution_DNC_Double {
+
+    /**
+     * Generic convolution of two convex service curves by merging their segments
+     * in the order of increasing gradients.
+     *
+     * @param service_curve_1 The first service curve, neither null nor a special
+     *                        case handled by <code>Convolution_DNC</code>.
+     * @param service_curve_2 The second service curve, neither null nor a special
+     *                        case handled by <code>Convolution_DNC</code>.
+     * @return The convolved service curve.
+     */
+    public static ServiceCurve_DNC_Double convolve_SC_SC_Generic(ServiceCurve_DNC_Double service_curve_1,
+                                                                 ServiceCurve_DNC_Double service_curve_2) {
+        ServiceCurve_DNC_Double result = Curve_DNC_Double.getFactory().createServiceCurve();
+
+        // Functions pass though the origin
+        result.addSegment(0.0, 0.0, 0.0, false);
+
+        int i1 = (service_curve_1.isRealDiscontinuity(0)) ? 1 : 0;
+        int i2 = (service_curve_2.isRealDiscontinuity(0)) ? 1 : 0;
+        if (i1 > 0 || i2 > 0) {
+            double y = service_curve_1.fLimitRight(0.0) + service_curve_2.fLimitRight(0.0);
+            result.addSegment(0.0, y, 0.0, true);
+        }
+
+        int segment_count_1 = service_curve_1.getSegmentCount();
+        int segment_count_2 = service_curve_2.getSegmentCount();
+        while (i1 < segment_count_1 || i2 < segment_count_2) {
+            int last = result.getSegmentCount() - 1;
+            if (service_curve_1.getSegmentGrad(i1) < service_curve_2.getSegmentGrad(i2)) {
+                result.setSegmentGrad(last, service_curve_1.getSegmentGrad(i1));
+                if (i1 + 1 >= segment_count_1) {
+                    break;
+                }
+
+                appendSegmentOf(result, service_curve_1, i1);
+                i1++;
+            } else {
+                result.setSegmentGrad(last, service_curve_2.getSegmentGrad(i2));
+                if (i2 + 1 >= segment_count_2) {
+                    break;
+                }
+
+                appendSegmentOf(result, service_curve_2, i2);
+                i2++;
+            }
+        }
+
+        result.beautify();
+
+        return result;
+    }
+
+    // Appends a segment whose offset to result's last one is the length of curve's segment i.
+    private static void appendSegmentOf(Curve_DNC_Double result, Curve_DNC_Double curve, int i) {
+        int last = result.getSegmentCount() - 1;
+        double x = result.getSegmentX(last) + Curve_DNC_Double.sub(curve.getSegmentX(i + 1), curve.getSegmentX(i));
+        double y = result.getSegmentY(last) + Curve_DNC_Double.sub(curve.getSegmentY(i + 1), curve.getSegmentY(i));
+        result.addSegment(x, y, 0.0, true);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.minplus.dnc_double;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.Curve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.dnc_double.ArrivalCurve_DNC_Double;
+import de.uni_kl.cs.discodnc.curves.dnc_double.Curve_DNC_Double;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Deconvolution of <code>Curve_DNC_Double</code> curves that works on the
+ * curves' arrays instead of <code>LinearSegment</code> and <code>Num</code>
+ * objects. It computes the same results as <code>Deconvolution_DNC</code>,
+ * which dispatches to this class once the special cases are handled.
+ */
+public abstract class Deconvolution_DNC_Double {
+
+    /**
+     * Deconvolution of an almost concave curve and a convex one based on the
+     * candidate curves defined by the inflection points of both curves.
+     *
+     * @param curve_1 The almost concave curve, e.g., an arrival curve.
+     * @param curve_2 The convex curve, e.g., a service curve.
+     * @return The supremum of all candidates.
+     */
+    public static ArrivalCurve deconvolve_mTB_mRL(Curve_DNC_Double curve_1, Curve_DNC_Double curve_2) {
+        // The arrival curve itself is in the candidates set.
+        Set<Curve> result_candidates = new HashSet<Curve>(Collections.singleton(curve_1.copy()));
+
+        // Candidates resulting from the service curve's inflection points (curve_2).
+        // It's simply the vertical deviation at the inflection point followed by the
+        // arrival curve's segments (lowered by beta(inflection)).
+        Curve_DNC_Double candidate_tmp;
+        double x_inflect_beta, y_beta, y_alpha;
+        for (int i = 1; i < curve_2.getSegmentCount(); i++) { // Start at 1 to skip the arrival curve itself
+            x_inflect_beta = curve_2.getSegmentX(i);
+            y_beta = curve_2.f(x_inflect_beta);
+            if (Curve_DNC_Double.sub(curve_1.f(x_inflect_beta), y_beta) < 0.0) {
+                // The service curve already exceeds the arrival curve at this inflection point.
+                // As in the loop below, the candidate is dominated by the ones of smaller inflection points.
+                continue;
+            }
+            candidate_tmp = Curve_DNC_Double.shiftLeftClipping(curve_1, x_inflect_beta);
+
+            if (y_beta != 0.0) { // Need to lower the rest of the result candidate by y.
+                for (int j = 0; j < candidate_tmp.getSegmentCount(); j++) {
+                    candidate_tmp.setSegmentY(j, Curve_DNC_Double.sub(candidate_tmp.getSegmentY(j), y_beta));
+                }
+            }
+            result_candidates.add(candidate_tmp);
+        }
+
+        // Candidates resulting from the arrival curve's inflection points (curve_1),
+        // see Deconvolution_DNC for details.
+        double x_inflect_alpha, results_cand_burst;
+
+        for (int i = curve_1.getSegmentCount() - 1; i >= 0; i--) {
+            x_inflect_alpha = curve_1.getSegmentX(i);
+            y_alpha = curve_1.f(x_inflect_alpha);
+            y_beta = curve_2.f(x_inflect_alpha);
+            results_cand_burst = Curve_DNC_Double.sub(y_alpha, y_beta);
+
+            if (x_inflect_alpha == 0.0 || results_cand_burst < 0.0) {
+                continue;
+            }
+
+            for (int j = curve_2.getSegmentCount() - 1; j >= 0; j--) {
+                x_inflect_beta = curve_2.getSegmentX(j);
+                if (x_inflect_beta > x_inflect_alpha) {
+                    continue;
+                }
+
+                // The origin, j+1 segments and a horizontal line at the end.
+                int segment_count = j + 3;
+                ArrivalCurve_DNC_Double candidate = Curve_DNC_Double.getFactory().createArrivalCurve(segment_count);
+
+                candidate.setSegmentX(1, 0.0);
+                candidate.setSegmentY(1, results_cand_burst);
+                candidate.setSegmentGrad(1, curve_2.getSegmentGrad(j));
+
+                // The length of this segment is defined by the following one's y-coordinate:
+                double next_x_coord = Curve_DNC_Double.sub(x_inflect_alpha, x_inflect_beta);
+                double next_y_coord = results_cand_burst + next_x_coord * curve_2.getSegmentGrad(j);
+
+                // The remaining service curve segments in reverse order
+                int j_new = j;
+                for (int k = 2; k < segment_count - 1; k++) {
+                    j_new--;
+
+                    candidate.setSegmentX(k, next_x_coord);
+                    candidate.setSegmentY(k, next_y_coord);
+                    candidate.setSegmentGrad(k, curve_2.getSegmentGrad(j_new));
+
+                    double current_segment_length = Curve_DNC_Double.sub(curve_2.getSegmentX(j_new + 1),
+                            curve_2.getSegmentX(j_new));
+                    next_x_coord = next_x_coord + current_segment_length;
+                    next_y_coord = candidate.getSegmentY(k) + current_segment_length * curve_2.getSegmentGrad(j_new);
+                }
+
+                // Add a horizontal line at the end.
+                candidate.setSegmentX(segment_count - 1, next_x_coord);
+                candidate.setSegmentY(segment_count - 1, next_y_coord);
+
+                result_candidates.add(candidate);
+                break;
+            }
+        }
+
+        Iterator<Curve> candidates_iter = result_candidates.iterator();
+        CurvePwAffine sup_curve = (CurvePwAffine) candidates_iter.next();
+        while (candidates_iter.hasNext()) {
+            sup_curve = CurvePwAffine.max(sup_curve, (CurvePwAffine) candidates_iter.next());
+        }
+
+        return Curve_DNC_Double.getFactory().createArrivalCurve(sup_curve);
+    }
+}
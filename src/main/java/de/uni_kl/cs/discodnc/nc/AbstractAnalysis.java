@@ -51,6 +51,14 @@ public abstract class AbstractAnalysis {
         return getClass().getSimpleName();
     }
 
+    public AnalysisConfig getConfiguration() {
+        return configuration;
+    }
+
+    public AnalysisResults getResults() {
+        return result;
+    }
+
     // ----------------------------------------------------------------------------------------------------
     // Convenience functions to access the results object.
     // ----------------------------------------------------------------------------------------------------
@@ -73,6 +81,15 @@ public abstract class AbstractAnalysis {
         return result.getBacklogBound();
     }
 
+    /**
+     * Returns the metrics of the analysis if it was configured to collect them.
+     *
+     * @return the metrics or null
+     */
+    public AnalysisMetrics getMetrics() {
+        return result.getMetrics();
+    }
+
     /**
      * For TFA this is the whole traffic at a server because you do not separate the
      * flow of interest during analysis.
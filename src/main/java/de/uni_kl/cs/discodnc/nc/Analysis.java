@@ -29,13 +29,18 @@
 
 package de.uni_kl.cs.discodnc.nc;
 
+import de.uni_kl.cs.discodnc.nc.analyses.AllFlowsAnalysis;
+import de.uni_kl.cs.discodnc.nc.analyses.ParallelFlowAnalysis;
 import de.uni_kl.cs.discodnc.nc.analyses.PmooAnalysis;
 import de.uni_kl.cs.discodnc.nc.analyses.SeparateFlowAnalysis;
 import de.uni_kl.cs.discodnc.nc.analyses.TotalFlowAnalysis;
+import de.uni_kl.cs.discodnc.nc.analyses.TotalFlowSweepAnalysis;
 import de.uni_kl.cs.discodnc.network.Flow;
 import de.uni_kl.cs.discodnc.network.Network;
 import de.uni_kl.cs.discodnc.network.Path;
 
+import java.util.Map;
+
 public interface Analysis {
     static TotalFlowAnalysis performTfaEnd2End(Network network, Flow flow_of_interest) throws Exception {
         TotalFlowAnalysis tfa = new TotalFlowAnalysis(network);
@@ -76,6 +81,30 @@ public interface Analysis {
         return pmoo;
     }
 
+    static Map<Flow, AnalysisResults> analyseAllFlows(Network network, Analyses analysis) throws Exception {
+        return new AllFlowsAnalysis(network, analysis).performAnalysis();
+    }
+
+    static Map<Flow, AnalysisResults> analyseAllFlows(Network network, AnalysisConfig configuration,
+                                                      Analyses analysis) throws Exception {
+        return new AllFlowsAnalysis(network, configuration, analysis).performAnalysis();
+    }
+
+    static Map<Flow, AnalysisResults> analyseAllFlowsParallel(Network network, AnalysisConfig configuration,
+                                                              Analyses analysis) throws Exception {
+        return new ParallelFlowAnalysis(network, configuration, analysis).performAnalysis();
+    }
+
+    static Map<Flow, AnalysisResults> analyseAllFlowsParallel(Network network, AnalysisConfig configuration,
+                                                              Analyses analysis, int num_threads) throws Exception {
+        return new ParallelFlowAnalysis(network, configuration, analysis, num_threads).performAnalysis();
+    }
+
+    static Map<Flow, AnalysisResults> analyseAllFlowsTfaSweep(Network network, AnalysisConfig configuration)
+            throws Exception {
+        return new TotalFlowSweepAnalysis(network, configuration).performAnalysis();
+    }
+
     abstract void performAnalysis(Flow flow_of_interest) throws Exception;
 
     abstract void performAnalysis(Flow flow_of_interest, Path path) throws Exception;
@@ -47,9 +47,17 @@ public class AnalysisConfig {
     private Set<ArrivalBoundMethod> arrival_bound_methods = new HashSet<ArrivalBoundMethod>(
             Collections.singleton(ArrivalBoundMethod.PBOO_CONCATENATION));
     private boolean remove_duplicate_arrival_bounds = true;
+    private boolean prune_dominated_curves = false;
     private boolean tbrl_convolution = false;
     private boolean tbrl_deconvolution = false;
     private boolean flow_prolongation = false;
+    private boolean pmoo_parallel_enumeration = false;
+    private int flow_prolongation_variant_cap = 0;
+    private long flow_prolongation_time_budget = 0;
+    private boolean collect_metrics = false;
+    private CalculationContext calculation_context = null;
+    private ArrivalBoundCache arrival_bound_cache = null;
+    private boolean tfa_bound_cache = false;
     private boolean ab_consider_tfa_nodeBacklog = false;
     public AnalysisConfig() {
     }
@@ -139,6 +147,21 @@ public class AnalysisConfig {
         remove_duplicate_arrival_bounds = remove_duplicate_arrival_bounds_flag;
     }
 
+    /**
+     * Whether to drop arrival curves that are pointwise above and service curves
+     * that are pointwise below another candidate before combining curve sets.
+     * See DominancePruning.
+     *
+     * @return The pruning flag.
+     */
+    public boolean pruneDominatedCurves() {
+        return prune_dominated_curves;
+    }
+
+    public void setPruneDominatedCurves(boolean prune_dominated_curves_flag) {
+        prune_dominated_curves = prune_dominated_curves_flag;
+    }
+
     public boolean tbrlConvolution() {
         return tbrl_convolution;
     }
@@ -167,18 +190,136 @@ public class AnalysisConfig {
         flow_prolongation = prolong_flows;
     }
 
+    /**
+     * The maximum number of flow prolongation variants the PMOO analysis derives
+     * left-over service curves for. The unprolonged variant is always included.
+     *
+     * @return The variant cap, 0 if unlimited.
+     */
+    public int flowProlongationVariantCap() {
+        return flow_prolongation_variant_cap;
+    }
+
+    public void setFlowProlongationVariantCap(int variant_cap) {
+        flow_prolongation_variant_cap = Math.max(0, variant_cap);
+    }
+
+    /**
+     * The time in milliseconds the PMOO analysis spends on flow prolongation
+     * variants per path. The unprolonged variant is always included.
+     *
+     * @return The time budget, 0 if unlimited.
+     */
+    public long flowProlongationTimeBudget() {
+        return flow_prolongation_time_budget;
+    }
+
+    public void setFlowProlongationTimeBudget(long time_budget) {
+        flow_prolongation_time_budget = Math.max(0, time_budget);
+    }
+
     public void setAbConsiderTFANodeBacklog(boolean consider_backlog_bound) {
         ab_consider_tfa_nodeBacklog = consider_backlog_bound;
     }
 
+    /**
+     * Whether the PMOO analysis evaluates the token bucket / rate latency
+     * combinations of a left-over service curve in parallel.
+     *
+     * @return The parallel enumeration flag.
+     */
+    public boolean parallelPmooEnumeration() {
+        return pmoo_parallel_enumeration;
+    }
+
+    public void setParallelPmooEnumeration(boolean parallel_enumeration) {
+        pmoo_parallel_enumeration = parallel_enumeration;
+    }
+
+    /**
+     * Whether the analysis records counters, timers and histograms of its
+     * operations and attaches them to its results, see {@link AnalysisMetrics}.
+     *
+     * @return The metrics collection flag.
+     */
+    public boolean collectMetrics() {
+        return collect_metrics;
+    }
+
+    public void setCollectMetrics(boolean collect_metrics) {
+        this.collect_metrics = collect_metrics;
+    }
+
+    /**
+     * The calculation context the analysis binds while it is running. Without
+     * one, the analysis uses the context of the calling thread that defaults to
+     * the CalculatorConfig's.
+     *
+     * @return The calculation context, null if inherited.
+     */
+    public CalculationContext calculationContext() {
+        return calculation_context;
+    }
+
+    public void setCalculationContext(CalculationContext calculation_context) {
+        this.calculation_context = calculation_context;
+    }
+
+    /**
+     * The cache used by the arrival bound computations of analyses with this
+     * configuration. Without one, they use the cache set via
+     * ArrivalBoundDispatch.setArrivalBoundCache(...), if any.
+     * <p>
+     * Unlike the global cache, it is only shared by the analyses the
+     * configuration is handed to.
+     *
+     * @return The arrival bound cache, null if inherited.
+     */
+    public ArrivalBoundCache arrivalBoundCache() {
+        return arrival_bound_cache;
+    }
+
+    public void setArrivalBoundCache(ArrivalBoundCache arrival_bound_cache) {
+        this.arrival_bound_cache = arrival_bound_cache;
+    }
+
+    /**
+     * Whether the total flow analysis and arrival bounds capping bursts at its
+     * backlog bounds share per-server results via the network's
+     * TotalFlowBoundCache.
+     * <p>
+     * The network clears the cache on structural changes and when the curves of
+     * its servers or flows are replaced.
+     *
+     * @return The TFA bound cache flag.
+     */
+    public boolean useTotalFlowBoundCache() {
+        return tfa_bound_cache;
+    }
+
+    public void setUseTotalFlowBoundCache(boolean use_tfa_bound_cache) {
+        tfa_bound_cache = use_tfa_bound_cache;
+    }
+
     /**
      * Returns a deep copy of this analysis configuration.
      *
      * @return The copy.
      */
     public AnalysisConfig copy() { // deep copy as primitive data types are copied by value
-        return new AnalysisConfig(multiplexing_discipline, use_gamma, use_extra_gamma, arrival_bound_methods,
-                remove_duplicate_arrival_bounds, tbrl_convolution, tbrl_deconvolution, ab_consider_tfa_nodeBacklog);
+        AnalysisConfig copy = new AnalysisConfig(multiplexing_discipline, use_gamma, use_extra_gamma,
+                arrival_bound_methods, remove_duplicate_arrival_bounds, tbrl_convolution, tbrl_deconvolution,
+                ab_consider_tfa_nodeBacklog);
+        copy.flow_prolongation = flow_prolongation;
+        copy.prune_dominated_curves = prune_dominated_curves;
+        copy.pmoo_parallel_enumeration = pmoo_parallel_enumeration;
+        copy.flow_prolongation_variant_cap = flow_prolongation_variant_cap;
+        copy.flow_prolongation_time_budget = flow_prolongation_time_budget;
+        copy.collect_metrics = collect_metrics;
+        copy.calculation_context = calculation_context;
+        copy.arrival_bound_cache = arrival_bound_cache;
+        copy.tfa_bound_cache = tfa_bound_cache;
+        return copy;
     }
 
     @Override
@@ -193,6 +334,10 @@ public class AnalysisConfig {
             analysis_config_str.append(", ");
             analysis_config_str.append("remove duplicate ABs");
         }
+        if (pruneDominatedCurves()) {
+            analysis_config_str.append(", ");
+            analysis_config_str.append("prune dominated curves");
+        }
         if (tbrlConvolution()) {
             analysis_config_str.append(", ");
             analysis_config_str.append("TbRl Conv");
@@ -201,6 +346,34 @@ public class AnalysisConfig {
             analysis_config_str.append(", ");
             analysis_config_str.append("TbRl Deconv");
         }
+        if (parallelPmooEnumeration()) {
+            analysis_config_str.append(", ");
+            analysis_config_str.append("parallel PMOO enumeration");
+        }
+        if (flowProlongationVariantCap() > 0) {
+            analysis_config_str.append(", ");
+            analysis_config_str.append("FP variant cap " + flowProlongationVariantCap());
+        }
+        if (flowProlongationTimeBudget() > 0) {
+            analysis_config_str.append(", ");
+            analysis_config_str.append("FP time budget " + flowProlongationTimeBudget() + "ms");
+        }
+        if (collectMetrics()) {
+            analysis_config_str.append(", ");
+            analysis_config_str.append("collect metrics");
+        }
+        if (calculationContext() != null) {
+            analysis_config_str.append(", ");
+            analysis_config_str.append("context (" + calculationContext().toString() + ")");
+        }
+        if (arrivalBoundCache() != null) {
+            analysis_config_str.append(", ");
+            analysis_config_str.append("arrival bound cache");
+        }
+        if (useTotalFlowBoundCache()) {
+            analysis_config_str.append(", ");
+            analysis_config_str.append("TFA bound cache");
+        }
 
         return analysis_config_str.toString();
     }
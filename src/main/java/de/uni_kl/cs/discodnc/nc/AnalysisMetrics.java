@@ -0,0 +1,370 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.nc;
+
+import de.uni_kl.cs.discodnc.curves.Curve;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters, timers and histograms recorded during an analysis.
+ * <p>
+ * Collection is opt-in via AnalysisConfig.setCollectMetrics(boolean). An
+ * analysis with this flag binds a new metrics object to its thread, the
+ * operations it calls record into the metrics bound to the current thread and
+ * the analysis attaches them to its results. Analyses started within an
+ * analysis, e.g., to derive arrival bounds, record into the same metrics.
+ * <p>
+ * As long as no metrics are bound to any thread, recording costs a single
+ * volatile read.
+ * <p>
+ * Timers measure the wall-clock time of the outermost call per thread, calls
+ * nested into another call of the same phase, e.g., recursive arrival bounding,
+ * are part of the outer call's time and only increase the maximum nesting depth.
+ * Histograms count values in buckets of powers of two: bucket 0 holds the value
+ * 0, bucket i > 0 holds the values in [2^(i-1), 2^i).
+ */
+public final class AnalysisMetrics {
+	public enum Counter {
+		ARRIVAL_BOUNDS, LEFT_OVER_SERVICE_CURVES, OUTPUT_BOUNDS, CONVOLUTIONS, DECONVOLUTIONS, DELAY_BOUNDS,
+		BACKLOG_BOUNDS
+	}
+
+	public enum Timer {
+		ANALYSIS, ARRIVAL_BOUNDS, LEFT_OVER_SERVICE, OUTPUT_BOUNDS, CONVOLUTION, DECONVOLUTION
+	}
+
+	public enum Histogram {
+		/** Segments of the curves given to (de)convolutions. */
+		SEGMENT_COUNT,
+		/** Sizes of the arrival bound sets derived for a link or server. */
+		ARRIVAL_BOUND_CANDIDATES,
+		/** Sizes of the left-over service curve sets derived at a server. */
+		SERVICE_CURVE_CANDIDATES
+	}
+
+	private static final int BUCKETS = 64;
+
+	private static final AtomicInteger bound_threads = new AtomicInteger();
+	private static final ThreadLocal<Recorder> recorder = new ThreadLocal<Recorder>();
+
+	private final AtomicLongArray counters = new AtomicLongArray(Counter.values().length);
+	private final AtomicLongArray timer_nanos = new AtomicLongArray(Timer.values().length);
+	private final AtomicLongArray timer_calls = new AtomicLongArray(Timer.values().length);
+	private final AtomicLongArray timer_max_nesting = new AtomicLongArray(Timer.values().length);
+	private final AtomicLongArray histogram_buckets = new AtomicLongArray(Histogram.values().length * BUCKETS);
+	private final AtomicLongArray histogram_sums = new AtomicLongArray(Histogram.values().length);
+	private final AtomicLongArray histogram_max = new AtomicLongArray(Histogram.values().length);
+
+	public AnalysisMetrics() {
+	}
+
+	// --------------------------------------------------------------------------------------------------------------
+	// Binding to threads
+	// --------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the metrics bound to the current thread.
+	 *
+	 * @return The metrics or null if nothing is recorded on this thread.
+	 */
+	public static AnalysisMetrics current() {
+		if (bound_threads.get() == 0) {
+			return null;
+		}
+		Recorder r = recorder.get();
+		return r == null ? null : r.metrics;
+	}
+
+	/**
+	 * Starts recording an analysis. Joins the metrics already bound to the thread
+	 * or binds new ones if the configuration asks for metrics.
+	 *
+	 * @param configuration
+	 *            The analysis' configuration.
+	 * @return The metrics recording the analysis, null if there are none.
+	 */
+	public static AnalysisMetrics begin(AnalysisConfig configuration) {
+		AnalysisMetrics metrics = current();
+		if (metrics == null) {
+			if (!configuration.collectMetrics()) {
+				return null;
+			}
+			metrics = new AnalysisMetrics();
+		}
+		join(metrics);
+		startTimer(Timer.ANALYSIS);
+		return metrics;
+	}
+
+	/**
+	 * Finishes recording an analysis started with begin(AnalysisConfig).
+	 *
+	 * @param metrics
+	 *            The metrics returned by begin(AnalysisConfig).
+	 */
+	public static void end(AnalysisMetrics metrics) {
+		if (metrics == null) {
+			return;
+		}
+		stopTimer(Timer.ANALYSIS);
+		leave(metrics);
+	}
+
+	/**
+	 * Binds the metrics to the current thread, e.g., to record the work an
+	 * analysis hands to other threads. Calls must be paired with
+	 * leave(AnalysisMetrics).
+	 *
+	 * @param metrics
+	 *            The metrics to record into, nothing is bound if null.
+	 */
+	public static void join(AnalysisMetrics metrics) {
+		if (metrics == null) {
+			return;
+		}
+		Recorder r = recorder.get();
+		if (r == null) {
+			recorder.set(new Recorder(metrics));
+			bound_threads.incrementAndGet();
+		} else {
+			r.joins++;
+		}
+	}
+
+	public static void leave(AnalysisMetrics metrics) {
+		if (metrics == null) {
+			return;
+		}
+		Recorder r = recorder.get();
+		if (r == null) {
+			return;
+		}
+		if (--r.joins == 0) {
+			recorder.remove();
+			bound_threads.decrementAndGet();
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------------------------
+	// Recording
+	// --------------------------------------------------------------------------------------------------------------
+
+	private static Recorder getRecorder() {
+		if (bound_threads.get() == 0) {
+			return null;
+		}
+		return recorder.get();
+	}
+
+	public static void count(Counter counter) {
+		Recorder r = getRecorder();
+		if (r != null) {
+			r.metrics.counters.incrementAndGet(counter.ordinal());
+		}
+	}
+
+	/**
+	 * Counts several events at once, e.g., the pairwise convolutions of a set
+	 * operation.
+	 *
+	 * @param counter
+	 *            The counter to increment.
+	 * @param events
+	 *            The number of events, nothing is counted if not positive.
+	 */
+	public static void count(Counter counter, long events) {
+		if (events <= 0) {
+			return;
+		}
+		Recorder r = getRecorder();
+		if (r != null) {
+			r.metrics.counters.addAndGet(counter.ordinal(), events);
+		}
+	}
+
+	public static void record(Histogram histogram, long value) {
+		Recorder r = getRecorder();
+		if (r != null) {
+			r.metrics.add(histogram, value);
+		}
+	}
+
+	public static void recordSegments(Curve curve) {
+		Recorder r = getRecorder();
+		if (r != null) {
+			r.metrics.add(Histogram.SEGMENT_COUNT, curve.getSegmentCount());
+		}
+	}
+
+	public static void recordSize(Histogram histogram, Collection<?> collection) {
+		Recorder r = getRecorder();
+		if (r != null) {
+			r.metrics.add(histogram, collection.size());
+		}
+	}
+
+	/**
+	 * Starts the timer of a phase. Calls must be paired with stopTimer(Timer),
+	 * preferably in a finally block.
+	 *
+	 * @param timer
+	 *            The phase.
+	 */
+	public static void startTimer(Timer timer) {
+		Recorder r = getRecorder();
+		if (r == null) {
+			return;
+		}
+		int t = timer.ordinal();
+		int nesting = ++r.timer_nesting[t];
+		if (nesting == 1) {
+			r.timer_start[t] = System.nanoTime();
+		}
+		r.metrics.timer_max_nesting.accumulateAndGet(t, nesting, Math::max);
+	}
+
+	public static void stopTimer(Timer timer) {
+		Recorder r = getRecorder();
+		if (r == null) {
+			return;
+		}
+		int t = timer.ordinal();
+		if (r.timer_nesting[t] == 0) { // Started before the metrics were bound.
+			return;
+		}
+		if (--r.timer_nesting[t] == 0) {
+			r.metrics.timer_nanos.addAndGet(t, System.nanoTime() - r.timer_start[t]);
+			r.metrics.timer_calls.incrementAndGet(t);
+		}
+	}
+
+	private void add(Histogram histogram, long value) {
+		int h = histogram.ordinal();
+		int bucket = value <= 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(value);
+		histogram_buckets.incrementAndGet(h * BUCKETS + bucket);
+		histogram_sums.addAndGet(h, Math.max(0, value));
+		histogram_max.accumulateAndGet(h, value, Math::max);
+	}
+
+	// --------------------------------------------------------------------------------------------------------------
+	// Results
+	// --------------------------------------------------------------------------------------------------------------
+
+	public long getCount(Counter counter) {
+		return counters.get(counter.ordinal());
+	}
+
+	/**
+	 * @param timer
+	 *            The phase.
+	 * @return The accumulated time of the phase's outermost calls in nanoseconds.
+	 */
+	public long getTimeNanos(Timer timer) {
+		return timer_nanos.get(timer.ordinal());
+	}
+
+	public long getTimerCalls(Timer timer) {
+		return timer_calls.get(timer.ordinal());
+	}
+
+	public long getMaxNesting(Timer timer) {
+		return timer_max_nesting.get(timer.ordinal());
+	}
+
+	public long getHistogramCount(Histogram histogram) {
+		long count = 0;
+		for (long bucket_count : getHistogramBuckets(histogram)) {
+			count += bucket_count;
+		}
+		return count;
+	}
+
+	public long getHistogramSum(Histogram histogram) {
+		return histogram_sums.get(histogram.ordinal());
+	}
+
+	public long getHistogramMax(Histogram histogram) {
+		return histogram_max.get(histogram.ordinal());
+	}
+
+	/**
+	 * Returns the bucket counts of a histogram up to the highest non-empty
+	 * bucket.
+	 *
+	 * @param histogram
+	 *            The histogram.
+	 * @return The number of values in bucket 0, 1, ...
+	 */
+	public long[] getHistogramBuckets(Histogram histogram) {
+		long[] buckets = new long[BUCKETS];
+		int used = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets[i] = histogram_buckets.get(histogram.ordinal() * BUCKETS + i);
+			if (buckets[i] != 0) {
+				used = i + 1;
+			}
+		}
+		return Arrays.copyOf(buckets, used);
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer metrics_str = new StringBuffer();
+
+		for (Counter counter : Counter.values()) {
+			metrics_str.append(counter + ": " + getCount(counter) + ", ");
+		}
+		for (Timer timer : Timer.values()) {
+			if (getTimerCalls(timer) != 0) {
+				metrics_str.append(timer + " time: " + getTimeNanos(timer) / 1000000.0 + "ms, ");
+			}
+		}
+		for (Histogram histogram : Histogram.values()) {
+			metrics_str.append(histogram + ": " + Arrays.toString(getHistogramBuckets(histogram)) + ", ");
+		}
+		metrics_str.delete(metrics_str.length() - 2, metrics_str.length());
+
+		return metrics_str.toString();
+	}
+
+	// Only accessed by the thread it is bound to.
+	private static final class Recorder {
+		private final AnalysisMetrics metrics;
+		private final int[] timer_nesting = new int[Timer.values().length];
+		private final long[] timer_start = new long[Timer.values().length];
+		private int joins = 1;
+
+		private Recorder(AnalysisMetrics metrics) {
+			this.metrics = metrics;
+		}
+	}
+}
@@ -42,6 +42,7 @@ public class AnalysisResults {
 	public Map<Server, Set<ArrivalCurve>> map__server__alphas;
 	protected Num delay_bound;
 	protected Num backlog_bound;
+	protected AnalysisMetrics metrics;
 
 	public AnalysisResults() {
 		this.delay_bound = Num.getFactory().createNaN();
@@ -75,6 +76,19 @@ public class AnalysisResults {
 		this.backlog_bound = backlog_bound;
 	}
 
+	/**
+	 * Returns the metrics recorded during the analysis.
+	 *
+	 * @return The metrics or null if the analysis did not collect any.
+	 */
+	public AnalysisMetrics getMetrics() {
+		return metrics;
+	}
+
+	protected void setMetrics(AnalysisMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	public String getServerAlphasMapString() {
 		if (map__server__alphas.isEmpty()) {
 			return "{}";
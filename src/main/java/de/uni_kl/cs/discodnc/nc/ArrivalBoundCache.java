@@ -0,0 +1,382 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.nc;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.ArrivalBoundMethod;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.GammaFlag;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Link;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.Server;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Memoizes arrival bounds computed by the ArrivalBoundDispatch.
+ * <p>
+ * Entries are keyed on the link, the set of flows to bound, the flow of
+ * interest and all analysis configuration fields that influence the bound, as
+ * well as the number and curve implementation they were computed with. With
+ * server-local multiplexing, the key additionally holds the multiplexing of
+ * the servers the bounded flows cross up to the link. The key also holds the
+ * network's curve version, so entries are not returned anymore once the curves
+ * of a server or flow were replaced. The cache is bounded and evicts the least
+ * recently used entry first.
+ * <p>
+ * Network elements are compared by identity, i.e., entries computed for a
+ * network are never returned for another network instance. Yet, the cache
+ * cannot notice structural changes of a network it holds entries for. Clear it,
+ * or remove the entries of the affected links, after adding or removing
+ * servers, links or flows.
+ */
+public class ArrivalBoundCache {
+	public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+	private final int max_entries;
+	private final Map<ArrivalBoundCacheKey, Set<ArrivalCurve>> map__key__arrival_bounds;
+
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	public ArrivalBoundCache() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * @param max_entries
+	 *            Maximum number of entries before the least recently used one is
+	 *            evicted.
+	 */
+	public ArrivalBoundCache(int max_entries) {
+		if (max_entries < 1) {
+			throw new IllegalArgumentException("An arrival bound cache needs to hold at least one entry");
+		}
+		this.max_entries = max_entries;
+
+		map__key__arrival_bounds = new LinkedHashMap<ArrivalBoundCacheKey, Set<ArrivalCurve>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 4446356393429475407L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ArrivalBoundCacheKey, Set<ArrivalCurve>> eldest) {
+				if (size() > ArrivalBoundCache.this.max_entries) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * @param configuration
+	 *            The configuration the arrival bounds were computed with.
+	 * @param link
+	 *            The link the bounded flows arrive on.
+	 * @param flows_to_bound
+	 *            The bounded flows.
+	 * @param flow_of_interest
+	 *            The flow of interest that was handled with lowest priority.
+	 * @return Copies of the cached arrival bounds or null if there is no entry.
+	 */
+	public synchronized Set<ArrivalCurve> getEntry(AnalysisConfig configuration, Link link, Set<Flow> flows_to_bound,
+			Flow flow_of_interest) {
+		Set<ArrivalCurve> arrival_bounds = map__key__arrival_bounds.get(new ArrivalBoundCacheKey(configuration,
+				configuration.arrivalBoundMethods(), link, flows_to_bound, flow_of_interest));
+		if (arrival_bounds == null) {
+			misses++;
+			return null;
+		}
+
+		hits++;
+		return copyArrivalBounds(arrival_bounds);
+	}
+
+	public synchronized void addEntry(AnalysisConfig configuration, Link link, Set<Flow> flows_to_bound,
+			Flow flow_of_interest, Set<ArrivalCurve> arrival_bounds) {
+		map__key__arrival_bounds.put(new ArrivalBoundCacheKey(configuration, configuration.arrivalBoundMethods(),
+				link, flows_to_bound, flow_of_interest), copyArrivalBounds(arrival_bounds));
+	}
+
+	/**
+	 * Single flow entries for arrival bounds that are not derived by the
+	 * ArrivalBoundDispatch but directly by a specific arrival bounding method.
+	 *
+	 * @param arrival_bound_method
+	 *            The method that computed the arrival bound.
+	 * @param link
+	 *            The link the flow arrives on.
+	 * @param flow
+	 *            The bounded flow.
+	 * @return A copy of the cached arrival bound or null if there is no entry.
+	 */
+	public synchronized ArrivalCurve getEntry(ArrivalBoundMethod arrival_bound_method, Link link, Flow flow) {
+		Set<ArrivalCurve> arrival_bounds = map__key__arrival_bounds.get(new ArrivalBoundCacheKey(null,
+				Collections.singleton(arrival_bound_method), link, Collections.singleton(flow), Flow.NULL_FLOW));
+		if (arrival_bounds == null) {
+			misses++;
+			return null;
+		}
+
+		hits++;
+		return arrival_bounds.iterator().next().copy();
+	}
+
+	public synchronized void addEntry(ArrivalBoundMethod arrival_bound_method, Link link, Flow flow,
+			ArrivalCurve arrival_bound) {
+		map__key__arrival_bounds.put(
+				new ArrivalBoundCacheKey(null, Collections.singleton(arrival_bound_method), link,
+						Collections.singleton(flow), Flow.NULL_FLOW),
+				Collections.singleton(arrival_bound.copy()));
+	}
+
+	public synchronized void clear() {
+		map__key__arrival_bounds.clear();
+	}
+
+	/**
+	 * Removes all entries for arrival bounds on the given links, i.e., entries
+	 * depending on network elements that were changed.
+	 *
+	 * @param links
+	 *            The links whose entries became invalid.
+	 * @return The number of removed entries.
+	 */
+	public synchronized int removeEntries(Set<Link> links) {
+		int removed = 0;
+		Iterator<ArrivalBoundCacheKey> key_iter = map__key__arrival_bounds.keySet().iterator();
+		while (key_iter.hasNext()) {
+			if (links.contains(key_iter.next().getLink())) {
+				key_iter.remove();
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	public synchronized void resetCounters() {
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+
+	public synchronized int size() {
+		return map__key__arrival_bounds.size();
+	}
+
+	public int getMaxEntries() {
+		return max_entries;
+	}
+
+	public synchronized long numHits() {
+		return hits;
+	}
+
+	public synchronized long numMisses() {
+		return misses;
+	}
+
+	public synchronized long numEvictions() {
+		return evictions;
+	}
+
+	private static Set<ArrivalCurve> copyArrivalBounds(Set<ArrivalCurve> arrival_bounds) {
+		Set<ArrivalCurve> arrival_bounds_copy = new HashSet<ArrivalCurve>();
+		for (ArrivalCurve arrival_bound : arrival_bounds) {
+			arrival_bounds_copy.add(arrival_bound.copy());
+		}
+		return arrival_bounds_copy;
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuffer cache_str = new StringBuffer();
+
+		cache_str.append("entries: ");
+		cache_str.append(map__key__arrival_bounds.size());
+		cache_str.append("/");
+		cache_str.append(max_entries);
+		cache_str.append(", hits: ");
+		cache_str.append(hits);
+		cache_str.append(", misses: ");
+		cache_str.append(misses);
+		cache_str.append(", evictions: ");
+		cache_str.append(evictions);
+
+		return cache_str.toString();
+	}
+}
+
+class ArrivalBoundCacheKey {
+	private final Link link;
+	private final Set<Flow> flows_to_bound;
+	private final Flow flow_of_interest;
+
+	private final Set<ArrivalBoundMethod> arrival_bound_methods;
+	private final MuxDiscipline multiplexing_discipline;
+	private final GammaFlag use_gamma;
+	private final GammaFlag use_extra_gamma;
+	private final boolean remove_duplicate_arrival_bounds;
+	private final boolean prune_dominated_curves;
+	private final boolean tbrl_convolution;
+	private final boolean tbrl_deconvolution;
+	private final boolean flow_prolongation;
+	private final int flow_prolongation_variant_cap;
+	private final long flow_prolongation_time_budget;
+	private final boolean ab_consider_tfa_nodeBacklog;
+	private final Map<Server, Multiplexing> server_multiplexing;
+
+	private final long curve_version;
+
+	private final NumImpl num_implementation;
+	private final CurveImpl curve_implementation;
+
+	private final int hash;
+
+	/**
+	 * @param configuration
+	 *            null for single method entries that do not depend on the
+	 *            analysis configuration.
+	 */
+	protected ArrivalBoundCacheKey(AnalysisConfig configuration, Set<ArrivalBoundMethod> arrival_bound_methods,
+			Link link, Set<Flow> flows_to_bound, Flow flow_of_interest) {
+		this.link = link;
+		this.flows_to_bound = new HashSet<Flow>(flows_to_bound);
+		this.flow_of_interest = flow_of_interest;
+
+		this.arrival_bound_methods = new HashSet<ArrivalBoundMethod>(arrival_bound_methods);
+		if (configuration != null) {
+			multiplexing_discipline = configuration.multiplexingDiscipline();
+			use_gamma = configuration.useGamma();
+			use_extra_gamma = configuration.useExtraGamma();
+			remove_duplicate_arrival_bounds = configuration.removeDuplicateArrivalBounds();
+			prune_dominated_curves = configuration.pruneDominatedCurves();
+			tbrl_convolution = configuration.tbrlConvolution();
+			tbrl_deconvolution = configuration.tbrlDeconvolution();
+			flow_prolongation = configuration.useFlowProlongation();
+			flow_prolongation_variant_cap = configuration.flowProlongationVariantCap();
+			flow_prolongation_time_budget = configuration.flowProlongationTimeBudget();
+			ab_consider_tfa_nodeBacklog = configuration.abConsiderTFANodeBacklog();
+			server_multiplexing = getServerMultiplexing(multiplexing_discipline, link, this.flows_to_bound);
+		} else {
+			multiplexing_discipline = null;
+			use_gamma = null;
+			use_extra_gamma = null;
+			remove_duplicate_arrival_bounds = false;
+			prune_dominated_curves = false;
+			tbrl_convolution = false;
+			tbrl_deconvolution = false;
+			flow_prolongation = false;
+			flow_prolongation_variant_cap = 0;
+			flow_prolongation_time_budget = 0;
+			ab_consider_tfa_nodeBacklog = false;
+			server_multiplexing = Collections.emptyMap();
+		}
+
+		Network network = link.getSource().getNetwork();
+		curve_version = network == null ? -1 : network.getCurveVersion();
+
+		num_implementation = CalculatorConfig.getInstance().getNumImpl();
+		curve_implementation = CalculatorConfig.getInstance().getCurveImpl();
+
+		hash = Objects.hash(link, this.flows_to_bound, flow_of_interest, this.arrival_bound_methods,
+				multiplexing_discipline, use_gamma, use_extra_gamma, remove_duplicate_arrival_bounds,
+				prune_dominated_curves, tbrl_convolution, tbrl_deconvolution, flow_prolongation,
+				flow_prolongation_variant_cap, flow_prolongation_time_budget, ab_consider_tfa_nodeBacklog,
+				server_multiplexing, curve_version, num_implementation, curve_implementation);
+	}
+
+	/**
+	 * Only server-local multiplexing depends on the servers' settings. The bound
+	 * is derived at the servers the flows cross before arriving at the link.
+	 */
+	private static Map<Server, Multiplexing> getServerMultiplexing(MuxDiscipline multiplexing_discipline,
+			Link link, Set<Flow> flows_to_bound) {
+		if (multiplexing_discipline != MuxDiscipline.SERVER_LOCAL) {
+			return Collections.emptyMap();
+		}
+
+		Map<Server, Multiplexing> server_multiplexing = new HashMap<Server, Multiplexing>();
+		for (Flow flow : flows_to_bound) {
+			for (Server server : flow.getServersOnPath()) {
+				server_multiplexing.put(server, server.multiplexingDiscipline());
+				if (server == link.getSource()) {
+					break;
+				}
+			}
+		}
+		return server_multiplexing;
+	}
+
+	protected Link getLink() {
+		return link;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ArrivalBoundCacheKey)) {
+			return false;
+		}
+
+		ArrivalBoundCacheKey key = (ArrivalBoundCacheKey) obj;
+		return hash == key.hash && link.equals(key.link) && flow_of_interest == key.flow_of_interest
+				&& multiplexing_discipline == key.multiplexing_discipline && use_gamma == key.use_gamma
+				&& use_extra_gamma == key.use_extra_gamma
+				&& remove_duplicate_arrival_bounds == key.remove_duplicate_arrival_bounds
+				&& prune_dominated_curves == key.prune_dominated_curves
+				&& tbrl_convolution == key.tbrl_convolution && tbrl_deconvolution == key.tbrl_deconvolution
+				&& flow_prolongation == key.flow_prolongation
+				&& flow_prolongation_variant_cap == key.flow_prolongation_variant_cap
+				&& flow_prolongation_time_budget == key.flow_prolongation_time_budget
+				&& ab_consider_tfa_nodeBacklog == key.ab_consider_tfa_nodeBacklog
+				&& curve_version == key.curve_version && num_implementation == key.num_implementation && curve_implementation == key.curve_implementation
+				&& arrival_bound_methods.equals(key.arrival_bound_methods)
+				&& flows_to_bound.equals(key.flows_to_bound)
+				&& server_multiplexing.equals(key.server_multiplexing);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+}
@@ -32,7 +32,9 @@ import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
 import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
 import de.uni_kl.cs.discodnc.curves.ServiceCurve;
 import de.uni_kl.cs.discodnc.minplus.MinPlus;
-import de.uni_kl.cs.discodnc.misc.SetUtils;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics.Counter;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics.Histogram;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics.Timer;
 import de.uni_kl.cs.discodnc.nc.analyses.PmooAnalysis;
 import de.uni_kl.cs.discodnc.nc.analyses.SeparateFlowAnalysis;
 import de.uni_kl.cs.discodnc.nc.arrivalbounds.PbooArrivalBound_Concatenation;
@@ -41,6 +43,7 @@ import de.uni_kl.cs.discodnc.nc.arrivalbounds.PmooArrivalBound;
 import de.uni_kl.cs.discodnc.network.Flow;
 import de.uni_kl.cs.discodnc.network.Link;
 import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkSnapshot;
 import de.uni_kl.cs.discodnc.network.Server;
 
 import java.util.Collections;
@@ -49,6 +52,35 @@ import java.util.Iterator;
 import java.util.Set;
 
 public abstract class ArrivalBoundDispatch {
+	// --------------------------------------------------------------------------------------------------------------
+	// Arrival Bound Caching
+	// --------------------------------------------------------------------------------------------------------------
+
+	private static volatile ArrivalBoundCache arrival_bound_cache = null;
+
+	/**
+	 * Sets the cache shared by all analyses' arrival bound computations whose
+	 * configuration does not provide its own, see
+	 * AnalysisConfig.setArrivalBoundCache(...).
+	 * <p>
+	 * Caching is disabled by default. The cache is not cleared automatically,
+	 * i.e., call ArrivalBoundCache.clear() after changing the network.
+	 *
+	 * @param cache
+	 *            The cache to use, null disables caching.
+	 */
+	public static void setArrivalBoundCache(ArrivalBoundCache cache) {
+		arrival_bound_cache = cache;
+	}
+
+	public static ArrivalBoundCache getArrivalBoundCache() {
+		return arrival_bound_cache;
+	}
+
+	public static void disableArrivalBoundCache() {
+		arrival_bound_cache = null;
+	}
+
 	// --------------------------------------------------------------------------------------------------------------
 	// Arrival Bound Dispatching
 	// --------------------------------------------------------------------------------------------------------------
@@ -80,6 +112,33 @@ public abstract class ArrivalBoundDispatch {
 	 */
 	public static Set<ArrivalCurve> computeArrivalBounds(Network network, AnalysisConfig configuration, Server server,
 			Set<Flow> flows_to_bound, Flow flow_of_interest) throws Exception {
+		checkCyclicDependencies(network);
+		AnalysisMetrics.count(Counter.ARRIVAL_BOUNDS);
+		AnalysisMetrics.startTimer(Timer.ARRIVAL_BOUNDS);
+		try {
+			Set<ArrivalCurve> arrival_bounds = deriveArrivalBounds(network, configuration, server, flows_to_bound,
+					flow_of_interest);
+			AnalysisMetrics.recordSize(Histogram.ARRIVAL_BOUND_CANDIDATES, arrival_bounds);
+			return arrival_bounds;
+		} finally {
+			AnalysisMetrics.stopTimer(Timer.ARRIVAL_BOUNDS);
+		}
+	}
+
+	/**
+	 * Arrival bounds are derived recursively along the flows' paths. This
+	 * recursion does not terminate if the flows create cyclic dependencies, see
+	 * TotalFlowSweepAnalysis for such networks.
+	 */
+	private static void checkCyclicDependencies(Network network) throws Exception {
+		if (network.getSnapshot().hasCyclicDependencies()) {
+			throw new Exception("The flows create cyclic dependencies between servers, arrival bounds require a "
+					+ "feed-forward network");
+		}
+	}
+
+	private static Set<ArrivalCurve> deriveArrivalBounds(Network network, AnalysisConfig configuration, Server server,
+			Set<Flow> flows_to_bound, Flow flow_of_interest) throws Exception {
 		flows_to_bound.remove(flow_of_interest);
 		Set<ArrivalCurve> arrival_bounds = new HashSet<ArrivalCurve>(
 				Collections.singleton(CurvePwAffine.getFactory().createZeroArrivals()));
@@ -87,15 +146,16 @@ public abstract class ArrivalBoundDispatch {
 			return arrival_bounds;
 		}
 
-		Set<Flow> f_server = network.getFlows(server);
-		Set<Flow> f_xfcaller_server = SetUtils.getIntersection(f_server, flows_to_bound);
+		NetworkSnapshot snapshot = network.getSnapshot();
+		Set<Flow> f_server = snapshot.getFlows(server);
+		Set<Flow> f_xfcaller_server = snapshot.getIntersection(f_server, flows_to_bound);
 		if (f_xfcaller_server.isEmpty()) {
 			return arrival_bounds;
 		}
 
 		// Get cross-traffic originating in server
-		Set<Flow> f_xfcaller_sourceflows_server = SetUtils.getIntersection(f_xfcaller_server,
-				network.getSourceFlows(server));
+		Set<Flow> f_xfcaller_sourceflows_server = snapshot.getIntersection(f_xfcaller_server,
+				snapshot.getSourceFlows(server));
 		f_xfcaller_sourceflows_server.remove(flow_of_interest);
 		ArrivalCurve alpha_xfcaller_sourceflows_server = network.getSourceFlowArrivalCurve(server,
 				f_xfcaller_sourceflows_server); // Will at least be a zeroArrivalCurve
@@ -110,11 +170,11 @@ public abstract class ArrivalBoundDispatch {
 		Set<ArrivalCurve> arrival_bounds_link;
 		Set<ArrivalCurve> arrival_bounds_link_permutations = new HashSet<ArrivalCurve>();
 
-		Iterator<Link> in_link_iter = network.getInLinks(server).iterator();
+		Iterator<Link> in_link_iter = snapshot.getInLinks(server).iterator();
 		while (in_link_iter.hasNext()) {
 
 			Link in_l = in_link_iter.next();
-			Set<Flow> f_xfcaller_in_l = SetUtils.getIntersection(network.getFlows(in_l), f_xfcaller_server);
+			Set<Flow> f_xfcaller_in_l = snapshot.getIntersection(snapshot.getFlows(in_l), f_xfcaller_server);
 			f_xfcaller_in_l.remove(flow_of_interest);
 
 			if (f_xfcaller_in_l.isEmpty()) { // Do not check links without flows of interest
@@ -137,6 +197,10 @@ public abstract class ArrivalBoundDispatch {
 			arrival_bounds.clear();
 			arrival_bounds.addAll(arrival_bounds_link_permutations);
 			arrival_bounds_link_permutations.clear();
+
+			if (configuration.pruneDominatedCurves()) {
+				arrival_bounds = DominancePruning.pruneArrivalCurves(arrival_bounds);
+			}
 		}
 
 		return arrival_bounds;
@@ -144,35 +208,56 @@ public abstract class ArrivalBoundDispatch {
 
 	public static Set<ArrivalCurve> computeArrivalBounds(Network network, AnalysisConfig configuration, Link link,
 			Set<Flow> flows_to_bound, Flow flow_of_interest) throws Exception {
+		checkCyclicDependencies(network);
+		AnalysisMetrics.count(Counter.ARRIVAL_BOUNDS);
+		AnalysisMetrics.startTimer(Timer.ARRIVAL_BOUNDS);
+		try {
+			Set<ArrivalCurve> arrival_bounds = deriveArrivalBounds(network, configuration, link, flows_to_bound,
+					flow_of_interest);
+			AnalysisMetrics.recordSize(Histogram.ARRIVAL_BOUND_CANDIDATES, arrival_bounds);
+			return arrival_bounds;
+		} finally {
+			AnalysisMetrics.stopTimer(Timer.ARRIVAL_BOUNDS);
+		}
+	}
+
+	private static Set<ArrivalCurve> deriveArrivalBounds(Network network, AnalysisConfig configuration, Link link,
+			Set<Flow> flows_to_bound, Flow flow_of_interest) throws Exception {
 		flows_to_bound.remove(flow_of_interest);
 		if (flows_to_bound.isEmpty()) {
 			return new HashSet<ArrivalCurve>(Collections.singleton(CurvePwAffine.getFactory().createZeroArrivals()));
 		}
 
+		ArrivalBoundCache cache = configuration.arrivalBoundCache() != null ? configuration.arrivalBoundCache()
+				: arrival_bound_cache;
+		if (cache != null) {
+			Set<ArrivalCurve> arrival_bounds_cached = cache.getEntry(configuration, link, flows_to_bound,
+					flow_of_interest);
+			if (arrival_bounds_cached != null) {
+				return arrival_bounds_cached;
+			}
+		}
+
 		Set<ArrivalCurve> arrival_bounds_xfcaller = new HashSet<ArrivalCurve>();
 
+		// Every computation gets its own arrival bound instance. The shared singletons'
+		// network and configuration would otherwise be overwritten by concurrent analyses.
 		for (AnalysisConfig.ArrivalBoundMethod arrival_bound_method : configuration.arrivalBoundMethods()) {
 			Set<ArrivalCurve> arrival_bounds_tmp = new HashSet<ArrivalCurve>();
 
 			switch (arrival_bound_method) {
 			case PBOO_PER_HOP:
-				PbooArrivalBound_PerHop pboo_per_hop = PbooArrivalBound_PerHop.getInstance();
-				pboo_per_hop.setNetwork(network);
-				pboo_per_hop.setConfiguration(configuration);
+				PbooArrivalBound_PerHop pboo_per_hop = new PbooArrivalBound_PerHop(network, configuration);
 				arrival_bounds_tmp = pboo_per_hop.computeArrivalBound(link, flows_to_bound, flow_of_interest);
 				break;
 
 			case PBOO_CONCATENATION:
-				PbooArrivalBound_Concatenation pboo_concatenation = PbooArrivalBound_Concatenation.getInstance();
-				pboo_concatenation.setNetwork(network);
-				pboo_concatenation.setConfiguration(configuration);
+				PbooArrivalBound_Concatenation pboo_concatenation = new PbooArrivalBound_Concatenation(network, configuration);
 				arrival_bounds_tmp = pboo_concatenation.computeArrivalBound(link, flows_to_bound, flow_of_interest);
 				break;
 
 			case PMOO:
-				PmooArrivalBound pmoo_arrival_bound = PmooArrivalBound.getInstance();
-				pmoo_arrival_bound.setNetwork(network);
-				pmoo_arrival_bound.setConfiguration(configuration);
+				PmooArrivalBound pmoo_arrival_bound = new PmooArrivalBound(network, configuration);
 				arrival_bounds_tmp = pmoo_arrival_bound.computeArrivalBound(link, flows_to_bound, flow_of_interest);
 				break;
 
@@ -216,6 +301,14 @@ public abstract class ArrivalBoundDispatch {
 			addArrivalBounds(configuration, arrival_bounds_tmp, arrival_bounds_xfcaller);
 		}
 
+		if (configuration.pruneDominatedCurves()) {
+			arrival_bounds_xfcaller = DominancePruning.pruneArrivalCurves(arrival_bounds_xfcaller);
+		}
+
+		if (cache != null) {
+			cache.addEntry(configuration, link, flows_to_bound, flow_of_interest, arrival_bounds_xfcaller);
+		}
+
 		return arrival_bounds_xfcaller;
 	}
 
@@ -0,0 +1,333 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.nc;
+
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.OperationImpl;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The number, curve and operation implementation as well as the checks that
+ * number and curve operations use. A context is immutable, derive a new one
+ * with the with*-methods.
+ * <p>
+ * Operations use the context bound to the current thread. If there is none,
+ * they use the CalculatorConfig's context, i.e., the CalculatorConfig singleton
+ * remains the default. An analysis binds the context of its AnalysisConfig
+ * while it is running, see AnalysisConfig.setCalculationContext(CalculationContext).
+ * Thus, analyses with different contexts can run concurrently in separate
+ * threads. Curves must be created in the context they are analyzed in, e.g.,
+ * create the network while the context is bound:
+ * <pre>
+ * CalculationContext previous_context = CalculationContext.bind(context);
+ * try {
+ *     ...
+ * } finally {
+ *     CalculationContext.restore(previous_context);
+ * }
+ * </pre>
+ * As long as no context is bound to any thread, looking up the current context
+ * costs two volatile reads.
+ */
+public final class CalculationContext {
+	private static final AtomicInteger bound_threads = new AtomicInteger();
+	private static final ThreadLocal<CalculationContext> bound_context = new ThreadLocal<CalculationContext>();
+
+	private final NumImpl num_impl;
+	private final CurveImpl curve_impl;
+	private final OperationImpl operation_impl;
+	private final boolean arrival_curve_checks;
+	private final boolean service_curve_checks;
+	private final boolean max_service_curve_checks;
+	private final boolean fifo_mux_checks;
+	private final boolean deconvolution_checks;
+	private final boolean curve_interning;
+	private final boolean tbrl_closed_forms;
+
+	// Resolved on first use as the factories' initialization may itself ask for
+	// the current context. Racing threads resolve the same singletons.
+	private Num num_factory;
+	private CurvePwAffine curve_factory;
+
+	/**
+	 * Creates a context without checks, without curve interning and with the
+	 * token bucket / rate latency closed forms, i.e., the CalculatorConfig's
+	 * defaults.
+	 *
+	 * @param num_impl
+	 *            The number implementation.
+	 * @param curve_impl
+	 *            The curve implementation.
+	 * @param operation_impl
+	 *            The operation implementation.
+	 */
+	public CalculationContext(NumImpl num_impl, CurveImpl curve_impl, OperationImpl operation_impl) {
+		this(num_impl, curve_impl, operation_impl, false, false, false, false, false, false, true);
+	}
+
+	CalculationContext(NumImpl num_impl, CurveImpl curve_impl, OperationImpl operation_impl,
+			boolean arrival_curve_checks, boolean service_curve_checks, boolean max_service_curve_checks,
+			boolean fifo_mux_checks, boolean deconvolution_checks, boolean curve_interning,
+			boolean tbrl_closed_forms) {
+		this.num_impl = num_impl;
+		this.curve_impl = curve_impl;
+		this.operation_impl = operation_impl;
+		this.arrival_curve_checks = arrival_curve_checks;
+		this.service_curve_checks = service_curve_checks;
+		this.max_service_curve_checks = max_service_curve_checks;
+		this.fifo_mux_checks = fifo_mux_checks;
+		this.deconvolution_checks = deconvolution_checks;
+		this.curve_interning = curve_interning;
+		this.tbrl_closed_forms = tbrl_closed_forms;
+	}
+
+	// --------------------------------------------------------------------------------------------------------------
+	// Binding to threads
+	// --------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Returns the context bound to the current thread or, if there is none, the
+	 * CalculatorConfig's context.
+	 *
+	 * @return The current context.
+	 */
+	public static CalculationContext current() {
+		if (bound_threads.get() != 0) {
+			CalculationContext context = bound_context.get();
+			if (context != null) {
+				return context;
+			}
+		}
+		return CalculatorConfig.getInstance().getDefaultContext();
+	}
+
+	/**
+	 * @return The context bound to the current thread, null if there is none.
+	 */
+	public static CalculationContext bound() {
+		if (bound_threads.get() == 0) {
+			return null;
+		}
+		return bound_context.get();
+	}
+
+	/**
+	 * Binds the context to the current thread. Calls must be paired with
+	 * restore(CalculationContext).
+	 *
+	 * @param context
+	 *            The context to bind, null keeps the current binding.
+	 * @return The previously bound context, to be restored later.
+	 */
+	public static CalculationContext bind(CalculationContext context) {
+		CalculationContext previous_context = bound();
+		if (context != null) {
+			set(context, previous_context);
+		}
+		return previous_context;
+	}
+
+	/**
+	 * Restores the binding replaced by bind(CalculationContext).
+	 *
+	 * @param previous_context
+	 *            The context returned by bind(CalculationContext).
+	 */
+	public static void restore(CalculationContext previous_context) {
+		set(previous_context, bound());
+	}
+
+	private static void set(CalculationContext context, CalculationContext current_context) {
+		if (context == current_context) {
+			return;
+		}
+		if (context == null) {
+			bound_context.remove();
+			bound_threads.decrementAndGet();
+		} else {
+			bound_context.set(context);
+			if (current_context == null) {
+				bound_threads.incrementAndGet();
+			}
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------------------------
+	// Implementations and factories
+	// --------------------------------------------------------------------------------------------------------------
+
+	public NumImpl getNumImpl() {
+		return num_impl;
+	}
+
+	public CurveImpl getCurveImpl() {
+		return curve_impl;
+	}
+
+	public OperationImpl getOperationImpl() {
+		return operation_impl;
+	}
+
+	public Num getNumFactory() {
+		Num factory = num_factory;
+		if (factory == null) {
+			factory = Num.getFactory(num_impl);
+			num_factory = factory;
+		}
+		return factory;
+	}
+
+	public CurvePwAffine getCurveFactory() {
+		CurvePwAffine factory = curve_factory;
+		if (factory == null) {
+			factory = CurvePwAffine.getFactory(curve_impl);
+			// Null while the factory's class is being initialized.
+			if (factory != null) {
+				curve_factory = factory;
+			}
+		}
+		return factory;
+	}
+
+	// --------------------------------------------------------------------------------------------------------------
+	// Checks
+	// --------------------------------------------------------------------------------------------------------------
+
+	public boolean exec_arrival_curve_checks() {
+		return arrival_curve_checks;
+	}
+
+	public boolean exec_service_curve_checks() {
+		return service_curve_checks;
+	}
+
+	public boolean exec_max_service_curve_checks() {
+		return max_service_curve_checks;
+	}
+
+	public boolean exec_fifo_mux_checks() {
+		return fifo_mux_checks;
+	}
+
+	public boolean exec_deconvolution_checks() {
+		return deconvolution_checks;
+	}
+
+	public boolean exec_curve_interning() {
+		return curve_interning;
+	}
+
+	public boolean exec_tbrl_closed_forms() {
+		return tbrl_closed_forms;
+	}
+
+	// --------------------------------------------------------------------------------------------------------------
+	// Derived contexts
+	// --------------------------------------------------------------------------------------------------------------
+
+	public CalculationContext withNumImpl(NumImpl num_impl) {
+		return new CalculationContext(num_impl, curve_impl, operation_impl, arrival_curve_checks,
+				service_curve_checks, max_service_curve_checks, fifo_mux_checks, deconvolution_checks, curve_interning,
+				tbrl_closed_forms);
+	}
+
+	public CalculationContext withCurveImpl(CurveImpl curve_impl) {
+		return new CalculationContext(num_impl, curve_impl, operation_impl, arrival_curve_checks,
+				service_curve_checks, max_service_curve_checks, fifo_mux_checks, deconvolution_checks, curve_interning,
+				tbrl_closed_forms);
+	}
+
+	public CalculationContext withOperationImpl(OperationImpl operation_impl) {
+		return new CalculationContext(num_impl, curve_impl, operation_impl, arrival_curve_checks,
+				service_curve_checks, max_service_curve_checks, fifo_mux_checks, deconvolution_checks, curve_interning,
+				tbrl_closed_forms);
+	}
+
+	/**
+	 * @param checks
+	 *            Enables or disables all curve and operation checks.
+	 * @return The derived context.
+	 */
+	public CalculationContext withChecks(boolean checks) {
+		return new CalculationContext(num_impl, curve_impl, operation_impl, checks, checks, checks, checks, checks,
+				curve_interning, tbrl_closed_forms);
+	}
+
+	public CalculationContext withCurveInterning(boolean curve_interning) {
+		return new CalculationContext(num_impl, curve_impl, operation_impl, arrival_curve_checks,
+				service_curve_checks, max_service_curve_checks, fifo_mux_checks, deconvolution_checks, curve_interning,
+				tbrl_closed_forms);
+	}
+
+	public CalculationContext withTbRlClosedForms(boolean tbrl_closed_forms) {
+		return new CalculationContext(num_impl, curve_impl, operation_impl, arrival_curve_checks,
+				service_curve_checks, max_service_curve_checks, fifo_mux_checks, deconvolution_checks, curve_interning,
+				tbrl_closed_forms);
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer context_str = new StringBuffer();
+
+		context_str.append(num_impl.toString());
+		context_str.append(", ");
+		context_str.append(curve_impl.toString());
+		context_str.append(", ");
+		context_str.append(operation_impl.toString());
+		context_str.append(" operations");
+
+		if (arrival_curve_checks) {
+			context_str.append(", AC checks");
+		}
+		if (service_curve_checks) {
+			context_str.append(", SC checks");
+		}
+		if (max_service_curve_checks) {
+			context_str.append(", MSC checks");
+		}
+		if (fifo_mux_checks) {
+			context_str.append(", FIFO checks");
+		}
+		if (deconvolution_checks) {
+			context_str.append(", deconv checks");
+		}
+		if (curve_interning) {
+			context_str.append(", interned curves");
+		}
+		if (!tbrl_closed_forms) {
+			context_str.append(", generic TB/RL operations");
+		}
+
+		return context_str.toString();
+	}
+}
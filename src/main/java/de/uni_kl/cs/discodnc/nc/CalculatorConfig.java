@@ -30,18 +30,43 @@ package de.uni_kl.cs.discodnc.nc;
 
 import java.io.File;
 
+/**
+ * The calculator configuration is global and provides the default
+ * CalculationContext. Number and curve operations read the context bound to
+ * the current thread and fall back to this default, thus, the getters return
+ * the current context's settings whereas the setters change the default. It may
+ * be read concurrently, e.g., by a ParallelFlowAnalysis, but it must not be
+ * changed while analyses relying on the default are running.
+ */
 public final class CalculatorConfig {
 	private static CalculatorConfig instance = new CalculatorConfig();
-	private NumImpl NUM_IMPLEMENTATION = NumImpl.REAL_DOUBLE_PRECISION;
-	private CurveImpl CURVE_IMPLEMENTATION = CurveImpl.DNC;
-	private OperationImpl OPERATION_IMPLEMENTATION = OperationImpl.DNC;
+	private volatile NumImpl NUM_IMPLEMENTATION = NumImpl.REAL_DOUBLE_PRECISION;
+	private volatile CurveImpl CURVE_IMPLEMENTATION = CurveImpl.DNC;
+	private volatile OperationImpl OPERATION_IMPLEMENTATION = OperationImpl.DNC;
 	private boolean ARRIVAL_CURVE_CHECKS = false;
 	private boolean SERVICE_CURVE_CHECKS = false;
 	private boolean MAX_SERVICE_CURVE_CHECKS = false;
 	private boolean FIFO_MUX_CHECKS = false;
 	private boolean DECONVOLUTION_CHECKS = false;
+	private volatile boolean CURVE_INTERNING = false;
+	private volatile boolean TBRL_CLOSED_FORMS = true;
+	private volatile CalculationContext default_context;
 
 	protected CalculatorConfig() {
+		updateDefaultContext();
+	}
+
+	private void updateDefaultContext() {
+		default_context = new CalculationContext(NUM_IMPLEMENTATION, CURVE_IMPLEMENTATION, OPERATION_IMPLEMENTATION,
+				ARRIVAL_CURVE_CHECKS, SERVICE_CURVE_CHECKS, MAX_SERVICE_CURVE_CHECKS, FIFO_MUX_CHECKS,
+				DECONVOLUTION_CHECKS, CURVE_INTERNING, TBRL_CLOSED_FORMS);
+	}
+
+	/**
+	 * @return The context used by threads without a bound context.
+	 */
+	public CalculationContext getDefaultContext() {
+		return default_context;
 	}
 
 	public static CalculatorConfig getInstance() {
@@ -49,7 +74,7 @@ public final class CalculatorConfig {
 	}
 
 	public NumImpl getNumImpl() {
-		return NUM_IMPLEMENTATION;
+		return CalculationContext.current().getNumImpl();
 	}
 
 	public boolean setNumImpl(NumImpl num_impl) {
@@ -57,12 +82,13 @@ public final class CalculatorConfig {
 			return false;
 		} else {
 			NUM_IMPLEMENTATION = num_impl;
+			updateDefaultContext();
 			return true;
 		}
 	}
 
 	public CurveImpl getCurveImpl() {
-		return CURVE_IMPLEMENTATION;
+		return CalculationContext.current().getCurveImpl();
 	}
 
 	private void checkMPARTC() throws RuntimeException {
@@ -82,16 +108,18 @@ public final class CalculatorConfig {
 			return false;
 		}
 		CURVE_IMPLEMENTATION = curve_impl;
+		updateDefaultContext();
 		return true;
 	}
 
 	public OperationImpl getOperationImpl() {
-		return OPERATION_IMPLEMENTATION;
+		return CalculationContext.current().getOperationImpl();
 	}
 
 	public void setOperationImpl(OperationImpl operation_impl) {
 		checkMPARTC();
 		OPERATION_IMPLEMENTATION = operation_impl;
+		updateDefaultContext();
 	}
 
 	public void disableAllChecks() {
@@ -100,6 +128,7 @@ public final class CalculatorConfig {
 		MAX_SERVICE_CURVE_CHECKS = false;
 		FIFO_MUX_CHECKS = false;
 		DECONVOLUTION_CHECKS = false;
+		updateDefaultContext();
 	}
 
 	public void enableAllChecks() {
@@ -108,26 +137,67 @@ public final class CalculatorConfig {
 		MAX_SERVICE_CURVE_CHECKS = true;
 		FIFO_MUX_CHECKS = true;
 		DECONVOLUTION_CHECKS = true;
+		updateDefaultContext();
 	}
 
 	public boolean exec_arrival_curve_checks() {
-		return ARRIVAL_CURVE_CHECKS;
+		return CalculationContext.current().exec_arrival_curve_checks();
 	}
 
 	public boolean exec_service_curve_checks() {
-		return SERVICE_CURVE_CHECKS;
+		return CalculationContext.current().exec_service_curve_checks();
 	}
 
 	public boolean exec_max_service_curve_checks() {
-		return MAX_SERVICE_CURVE_CHECKS;
+		return CalculationContext.current().exec_max_service_curve_checks();
 	}
 
 	public boolean exec_fifo_mux_checks() {
-		return FIFO_MUX_CHECKS;
+		return CalculationContext.current().exec_fifo_mux_checks();
 	}
 
 	public boolean exec_deconvolution_checks() {
-		return DECONVOLUTION_CHECKS;
+		return CalculationContext.current().exec_deconvolution_checks();
+	}
+
+	/**
+	 * Makes the DNC curve factory return shared, immutable instances for the
+	 * zero / infinite sentinel curves and for token buckets, rate latencies and
+	 * the other basic shapes. Modifying such a curve throws an
+	 * UnsupportedOperationException, use a copy instead.
+	 */
+	public void enableCurveInterning() {
+		CURVE_INTERNING = true;
+		updateDefaultContext();
+	}
+
+	public void disableCurveInterning() {
+		CURVE_INTERNING = false;
+		updateDefaultContext();
+	}
+
+	public boolean exec_curve_interning() {
+		return CalculationContext.current().exec_curve_interning();
+	}
+
+	/**
+	 * Lets the DNC operations compute in closed form on the token bucket and rate
+	 * latency parameters of curves that are a minimum of token buckets or a maximum
+	 * of rate latencies. Enabled by default, disabling it forces the generic,
+	 * segment-based algorithms.
+	 */
+	public void enableTbRlClosedForms() {
+		TBRL_CLOSED_FORMS = true;
+		updateDefaultContext();
+	}
+
+	public void disableTbRlClosedForms() {
+		TBRL_CLOSED_FORMS = false;
+		updateDefaultContext();
+	}
+
+	public boolean exec_tbrl_closed_forms() {
+		return CalculationContext.current().exec_tbrl_closed_forms();
 	}
 
 	@Override
@@ -158,16 +228,28 @@ public final class CalculatorConfig {
 			calculator_config_str.append(", ");
 			calculator_config_str.append("deconv checks");
 		}
+		if (exec_curve_interning()) {
+			calculator_config_str.append(", ");
+			calculator_config_str.append("interned curves");
+		}
+		if (!exec_tbrl_closed_forms()) {
+			calculator_config_str.append(", ");
+			calculator_config_str.append("generic TB/RL operations");
+		}
 
 		return calculator_config_str.toString();
 	}
 
 	public enum NumImpl {
-		REAL_SINGLE_PRECISION, REAL_DOUBLE_PRECISION, RATIONAL_INTEGER, RATIONAL_BIGINTEGER
+		REAL_SINGLE_PRECISION, REAL_DOUBLE_PRECISION, RATIONAL_INTEGER, RATIONAL_BIGINTEGER, RATIONAL_LONG
 	}
 
+	/**
+	 * DNC_DOUBLE curves store their segments as primitive doubles and always
+	 * compute with double precision. Use them with REAL_DOUBLE_PRECISION numbers.
+	 */
 	public enum CurveImpl {
-		DNC, MPA_RTC
+		DNC, DNC_DOUBLE, MPA_RTC
 	}
 
 	public enum OperationImpl {
@@ -0,0 +1,212 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.nc;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes dominated curves from the candidate sets an analysis carries along.
+ * <p>
+ * All bounds are monotone in their inputs: a smaller arrival curve and a larger
+ * service curve never result in a worse bound. Thus, an arrival curve that is
+ * pointwise above another candidate cannot contribute to the best bound and
+ * neither can a service curve that is pointwise below another one. Pruning
+ * these candidates before combining sets keeps the cross products small without
+ * changing the analysis results.
+ * <p>
+ * Enabled via AnalysisConfig.setPruneDominatedCurves(boolean). The counters are
+ * shared by all analyses.
+ */
+public final class DominancePruning {
+	private static final AtomicLong arrival_curves_checked = new AtomicLong();
+	private static final AtomicLong arrival_curves_pruned = new AtomicLong();
+	private static final AtomicLong service_curves_checked = new AtomicLong();
+	private static final AtomicLong service_curves_pruned = new AtomicLong();
+
+	private DominancePruning() {
+	}
+
+	/**
+	 * Returns the arrival curves that are not pointwise above another one of the
+	 * given arrival curves. Of equal curves, only one is kept.
+	 *
+	 * @param arrival_curves
+	 *            The candidate arrival curves.
+	 * @return A new set of non-dominated arrival curves.
+	 */
+	public static Set<ArrivalCurve> pruneArrivalCurves(Set<ArrivalCurve> arrival_curves) {
+		if (arrival_curves.size() < 2) {
+			return arrival_curves;
+		}
+
+		List<ArrivalCurve> non_dominated = new ArrayList<ArrivalCurve>(arrival_curves.size());
+		for (ArrivalCurve candidate : arrival_curves) {
+			addIfNotDominated(candidate, non_dominated, true);
+		}
+
+		arrival_curves_checked.addAndGet(arrival_curves.size());
+		arrival_curves_pruned.addAndGet(arrival_curves.size() - non_dominated.size());
+		return new HashSet<ArrivalCurve>(non_dominated);
+	}
+
+	/**
+	 * Returns the service curves that are not pointwise below another one of the
+	 * given service curves. Of equal curves, only one is kept.
+	 *
+	 * @param service_curves
+	 *            The candidate service curves.
+	 * @return A new set of non-dominated service curves.
+	 */
+	public static Set<ServiceCurve> pruneServiceCurves(Set<ServiceCurve> service_curves) {
+		if (service_curves.size() < 2) {
+			return service_curves;
+		}
+
+		List<ServiceCurve> non_dominated = new ArrayList<ServiceCurve>(service_curves.size());
+		for (ServiceCurve candidate : service_curves) {
+			addIfNotDominated(candidate, non_dominated, false);
+		}
+
+		service_curves_checked.addAndGet(service_curves.size());
+		service_curves_pruned.addAndGet(service_curves.size() - non_dominated.size());
+		return new HashSet<ServiceCurve>(non_dominated);
+	}
+
+	/**
+	 * @param smaller_is_better
+	 *            true for arrival curves, false for service curves.
+	 */
+	private static <T extends CurvePwAffine> void addIfNotDominated(T candidate, List<T> non_dominated,
+			boolean smaller_is_better) {
+		for (T curve : non_dominated) {
+			if (smaller_is_better ? isBelowOrEqual(curve, candidate) : isBelowOrEqual(candidate, curve)) {
+				return;
+			}
+		}
+
+		Iterator<T> non_dominated_iter = non_dominated.iterator();
+		while (non_dominated_iter.hasNext()) {
+			T curve = non_dominated_iter.next();
+			if (smaller_is_better ? isBelowOrEqual(candidate, curve) : isBelowOrEqual(curve, candidate)) {
+				non_dominated_iter.remove();
+			}
+		}
+		non_dominated.add(candidate);
+	}
+
+	/**
+	 * Checks whether curve c1 is less than or equal to curve c2 for all x &ge; 0.
+	 * <p>
+	 * Between two subsequent inflection points of either curve, both curves are
+	 * affine. It thus suffices to compare the values in the inflection points as
+	 * well as the limits from the right and left of them, plus the ultimate rates.
+	 * Curves with infinite values are not compared, i.e., they are never
+	 * considered dominated.
+	 *
+	 * @param c1
+	 *            The potentially smaller curve.
+	 * @param c2
+	 *            The potentially larger curve.
+	 * @return True if c1 &le; c2 holds everywhere.
+	 */
+	public static boolean isBelowOrEqual(CurvePwAffine c1, CurvePwAffine c2) {
+		if (hasInfiniteValues(c1) || hasInfiniteValues(c2)) {
+			return false;
+		}
+		if (c1.getUltAffineRate().gt(c2.getUltAffineRate())) {
+			return false;
+		}
+
+		List<Num> xcoords = CurvePwAffine.computeInflectionPointsX(c1, c2);
+		for (int i = 0; i < xcoords.size(); i++) {
+			Num x = xcoords.get(i);
+			if (c1.f(x).gt(c2.f(x))) {
+				return false;
+			}
+
+			Num y1_right = c1.fLimitRight(x);
+			Num y2_right = c2.fLimitRight(x);
+			if (y1_right.gt(y2_right)) {
+				return false;
+			}
+
+			// The limit from the left of the next inflection point
+			if (i + 1 < xcoords.size()) {
+				Num dx = Num.getUtils().sub(xcoords.get(i + 1), x);
+				Num y1_left = Num.getUtils().add(y1_right, Num.getUtils().mult(c1.getGradientLimitRight(x), dx));
+				Num y2_left = Num.getUtils().add(y2_right, Num.getUtils().mult(c2.getGradientLimitRight(x), dx));
+				if (y1_left.gt(y2_left)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean hasInfiniteValues(CurvePwAffine curve) {
+		for (int i = 0; i < curve.getSegmentCount(); i++) {
+			if (curve.getSegment(i).getY().isInfinite() || curve.getSegment(i).getGrad().isInfinite()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public static long numArrivalCurvesChecked() {
+		return arrival_curves_checked.get();
+	}
+
+	public static long numArrivalCurvesPruned() {
+		return arrival_curves_pruned.get();
+	}
+
+	public static long numServiceCurvesChecked() {
+		return service_curves_checked.get();
+	}
+
+	public static long numServiceCurvesPruned() {
+		return service_curves_pruned.get();
+	}
+
+	public static void resetCounters() {
+		arrival_curves_checked.set(0);
+		arrival_curves_pruned.set(0);
+		service_curves_checked.set(0);
+		service_curves_pruned.set(0);
+	}
+}
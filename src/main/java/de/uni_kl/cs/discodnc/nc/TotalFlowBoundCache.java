@@ -0,0 +1,316 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.nc;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.ArrivalBoundMethod;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.GammaFlag;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkSnapshot;
+import de.uni_kl.cs.discodnc.network.Server;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Memoizes the per-server results of the total flow analysis within a network.
+ * <p>
+ * Entries are grouped by the analysis configuration fields that influence the
+ * arrival bounds at a server, as well as the number and curve implementation
+ * they were computed with, and then keyed on the server. Server-local
+ * multiplexing and maximum service curve settings are part of the key, too,
+ * as they can be changed without notifying the network. Every network holds
+ * its own cache that it clears on structural changes, i.e., when adding or
+ * removing servers, links or flows, and when the service curves of a server or
+ * the arrival curve of a flow are replaced.
+ * <p>
+ * Analyses only use the cache if their configuration enables it, see
+ * AnalysisConfig.useTotalFlowBoundCache(). Then, the TotalFlowAnalysis adds an
+ * entry for every server it derives bounds at.
+ * Arrival bounds capping bursts at the TFA backlog bound look them up, so a
+ * server is not analyzed again for every arrival bound of its outgoing flows.
+ */
+public class TotalFlowBoundCache {
+	private final Map<TotalFlowBoundCacheKey, Map<Server, TotalFlowBounds>> map__key__server_bounds;
+
+	private final Network network;
+
+	private long hits = 0;
+	private long misses = 0;
+
+	/**
+	 * @param network
+	 *            The network whose servers' bounds are cached.
+	 */
+	public TotalFlowBoundCache(Network network) {
+		map__key__server_bounds = new HashMap<TotalFlowBoundCacheKey, Map<Server, TotalFlowBounds>>();
+		this.network = network;
+	}
+
+	/**
+	 * @param configuration
+	 *            The configuration the bounds were computed with.
+	 * @param server
+	 *            The analyzed server.
+	 * @return The cached bounds or null if there is no entry.
+	 */
+	public synchronized TotalFlowBounds getEntry(AnalysisConfig configuration, Server server) {
+		Map<Server, TotalFlowBounds> map__server__bounds = map__key__server_bounds
+				.get(new TotalFlowBoundCacheKey(configuration, network.getSnapshot()));
+		TotalFlowBounds bounds = map__server__bounds == null ? null : map__server__bounds.get(server);
+		if (bounds == null) {
+			misses++;
+		} else {
+			hits++;
+		}
+		return bounds;
+	}
+
+	public synchronized void addEntry(AnalysisConfig configuration, Server server, Set<ArrivalCurve> arrival_bounds,
+			Set<Num> delay_bounds, Set<Num> backlog_bounds) {
+		TotalFlowBoundCacheKey key = new TotalFlowBoundCacheKey(configuration, network.getSnapshot());
+		Map<Server, TotalFlowBounds> map__server__bounds = map__key__server_bounds.get(key);
+		if (map__server__bounds == null) {
+			map__server__bounds = new HashMap<Server, TotalFlowBounds>();
+			map__key__server_bounds.put(key, map__server__bounds);
+		}
+
+		map__server__bounds.put(server, new TotalFlowBounds(copyArrivalCurves(arrival_bounds),
+				copyNums(delay_bounds), copyNums(backlog_bounds)));
+	}
+
+	private static Set<ArrivalCurve> copyArrivalCurves(Set<ArrivalCurve> arrival_curves) {
+		Set<ArrivalCurve> arrival_curves_copy = new HashSet<ArrivalCurve>();
+		for (ArrivalCurve arrival_curve : arrival_curves) {
+			arrival_curves_copy.add(arrival_curve.copy());
+		}
+		return arrival_curves_copy;
+	}
+
+	private static Set<Num> copyNums(Set<Num> nums) {
+		Set<Num> nums_copy = new HashSet<Num>();
+		for (Num num : nums) {
+			nums_copy.add(num.copy());
+		}
+		return nums_copy;
+	}
+
+	public synchronized void clear() {
+		map__key__server_bounds.clear();
+	}
+
+	public synchronized void resetCounters() {
+		hits = 0;
+		misses = 0;
+	}
+
+	/**
+	 * @return The number of cached server entries over all configurations.
+	 */
+	public synchronized int size() {
+		int size = 0;
+		for (Map<Server, TotalFlowBounds> map__server__bounds : map__key__server_bounds.values()) {
+			size += map__server__bounds.size();
+		}
+		return size;
+	}
+
+	public synchronized long numHits() {
+		return hits;
+	}
+
+	public synchronized long numMisses() {
+		return misses;
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuffer cache_str = new StringBuffer();
+
+		cache_str.append("entries: ");
+		cache_str.append(size());
+		cache_str.append(", hits: ");
+		cache_str.append(hits);
+		cache_str.append(", misses: ");
+		cache_str.append(misses);
+
+		return cache_str.toString();
+	}
+
+	/**
+	 * The total flow analysis' bounds at a server. Getters return copies.
+	 */
+	public static final class TotalFlowBounds {
+		private final Set<ArrivalCurve> arrival_bounds;
+		private final Set<Num> delay_bounds;
+		private final Set<Num> backlog_bounds;
+
+		private TotalFlowBounds(Set<ArrivalCurve> arrival_bounds, Set<Num> delay_bounds, Set<Num> backlog_bounds) {
+			this.arrival_bounds = arrival_bounds;
+			this.delay_bounds = delay_bounds;
+			this.backlog_bounds = backlog_bounds;
+		}
+
+		/**
+		 * @return The arrival bounds of all flows at the server.
+		 */
+		public Set<ArrivalCurve> getArrivalBounds() {
+			return copyArrivalCurves(arrival_bounds);
+		}
+
+		/**
+		 * @return The delay bounds, one per arrival bound.
+		 */
+		public Set<Num> getDelayBounds() {
+			return copyNums(delay_bounds);
+		}
+
+		/**
+		 * @return The backlog bounds, one per arrival bound.
+		 */
+		public Set<Num> getBacklogBounds() {
+			return copyNums(backlog_bounds);
+		}
+	}
+}
+
+class TotalFlowBoundCacheKey {
+	private final Set<ArrivalBoundMethod> arrival_bound_methods;
+	private final MuxDiscipline multiplexing_discipline;
+	private final GammaFlag use_gamma;
+	private final GammaFlag use_extra_gamma;
+	private final boolean remove_duplicate_arrival_bounds;
+	private final boolean prune_dominated_curves;
+	private final boolean tbrl_convolution;
+	private final boolean tbrl_deconvolution;
+	private final boolean flow_prolongation;
+	private final int flow_prolongation_variant_cap;
+	private final boolean ab_consider_tfa_nodeBacklog;
+
+	// Settings of all servers in snapshot order, empty unless the configuration
+	// defers to them. Servers upstream of the analyzed one influence its arrival
+	// bounds, those of other flows' paths the TFA backlog bounds capping them.
+	private final List<Multiplexing> server_multiplexing;
+	private final List<Boolean> server_gamma;
+	private final List<Boolean> server_extra_gamma;
+
+	private final NumImpl num_implementation;
+	private final CurveImpl curve_implementation;
+
+	private final int hash;
+
+	protected TotalFlowBoundCacheKey(AnalysisConfig configuration, NetworkSnapshot snapshot) {
+		arrival_bound_methods = new HashSet<ArrivalBoundMethod>(configuration.arrivalBoundMethods());
+		multiplexing_discipline = configuration.multiplexingDiscipline();
+		use_gamma = configuration.useGamma();
+		use_extra_gamma = configuration.useExtraGamma();
+		remove_duplicate_arrival_bounds = configuration.removeDuplicateArrivalBounds();
+		prune_dominated_curves = configuration.pruneDominatedCurves();
+		tbrl_convolution = configuration.tbrlConvolution();
+		tbrl_deconvolution = configuration.tbrlDeconvolution();
+		flow_prolongation = configuration.useFlowProlongation();
+		flow_prolongation_variant_cap = configuration.flowProlongationVariantCap();
+		ab_consider_tfa_nodeBacklog = configuration.abConsiderTFANodeBacklog();
+
+		List<Multiplexing> multiplexing = Collections.emptyList();
+		List<Boolean> gamma = Collections.emptyList();
+		List<Boolean> extra_gamma = Collections.emptyList();
+		if (multiplexing_discipline == MuxDiscipline.SERVER_LOCAL) {
+			multiplexing = new ArrayList<Multiplexing>(snapshot.numServers());
+		}
+		if (use_gamma == GammaFlag.SERVER_LOCAL) {
+			gamma = new ArrayList<Boolean>(snapshot.numServers());
+		}
+		if (use_extra_gamma == GammaFlag.SERVER_LOCAL) {
+			extra_gamma = new ArrayList<Boolean>(snapshot.numServers());
+		}
+		for (int i = 0; i < snapshot.numServers(); i++) {
+			Server server = snapshot.getServer(i);
+			if (multiplexing_discipline == MuxDiscipline.SERVER_LOCAL) {
+				multiplexing.add(server.multiplexingDiscipline());
+			}
+			if (use_gamma == GammaFlag.SERVER_LOCAL) {
+				gamma.add(server.useGamma());
+			}
+			if (use_extra_gamma == GammaFlag.SERVER_LOCAL) {
+				extra_gamma.add(server.useExtraGamma());
+			}
+		}
+		server_multiplexing = multiplexing;
+		server_gamma = gamma;
+		server_extra_gamma = extra_gamma;
+
+		num_implementation = CalculatorConfig.getInstance().getNumImpl();
+		curve_implementation = CalculatorConfig.getInstance().getCurveImpl();
+
+		hash = Objects.hash(arrival_bound_methods, multiplexing_discipline, use_gamma, use_extra_gamma,
+				remove_duplicate_arrival_bounds, prune_dominated_curves, tbrl_convolution, tbrl_deconvolution,
+				flow_prolongation, flow_prolongation_variant_cap, ab_consider_tfa_nodeBacklog, server_multiplexing,
+				server_gamma, server_extra_gamma, num_implementation, curve_implementation);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof TotalFlowBoundCacheKey)) {
+			return false;
+		}
+
+		TotalFlowBoundCacheKey key = (TotalFlowBoundCacheKey) obj;
+		return hash == key.hash && multiplexing_discipline == key.multiplexing_discipline
+				&& use_gamma == key.use_gamma && use_extra_gamma == key.use_extra_gamma
+				&& remove_duplicate_arrival_bounds == key.remove_duplicate_arrival_bounds
+				&& prune_dominated_curves == key.prune_dominated_curves
+				&& tbrl_convolution == key.tbrl_convolution && tbrl_deconvolution == key.tbrl_deconvolution
+				&& flow_prolongation == key.flow_prolongation
+				&& flow_prolongation_variant_cap == key.flow_prolongation_variant_cap
+				&& ab_consider_tfa_nodeBacklog == key.ab_consider_tfa_nodeBacklog
+				&& num_implementation == key.num_implementation && curve_implementation == key.curve_implementation
+				&& arrival_bound_methods.equals(key.arrival_bound_methods)
+				&& server_multiplexing.equals(key.server_multiplexing) && server_gamma.equals(key.server_gamma)
+				&& server_extra_gamma.equals(key.server_extra_gamma);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.nc.analyses;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.misc.Pair;
+import de.uni_kl.cs.discodnc.nc.Analysis.Analyses;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics;
+import de.uni_kl.cs.discodnc.nc.AnalysisResults;
+import de.uni_kl.cs.discodnc.nc.ArrivalBoundCache;
+import de.uni_kl.cs.discodnc.nc.ArrivalBoundDispatch;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.Server;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounds all flows of a network with a single analysis and shares intermediate
+ * results between the flows of interest.
+ * <p>
+ * Servers are processed in topological order. TFA derives the bounds of every
+ * server once and then assembles each flow's bounds from the servers on its
+ * path. SFA and PMOO still need to derive a left-over service curve per flow of
+ * interest, yet, all flows share the arrival bounds computed at the links. If
+ * neither the configuration nor the ArrivalBoundDispatch provide a cache, the
+ * analyses are handed a new one for the duration of the analysis.
+ * <p>
+ * Like the single flow analyses, it binds the configuration's calculation
+ * context and records metrics if the configuration asks for them.
+ */
+public class AllFlowsAnalysis {
+    private Network network;
+    private AnalysisConfig configuration;
+    private Analyses analysis;
+
+    private Map<Flow, AnalysisResults> map__flow__results;
+    private AnalysisMetrics metrics;
+
+    @SuppressWarnings("unused")
+    private AllFlowsAnalysis() {
+    }
+
+    public AllFlowsAnalysis(Network network, Analyses analysis) {
+        this(network, new AnalysisConfig(), analysis);
+    }
+
+    public AllFlowsAnalysis(Network network, AnalysisConfig configuration, Analyses analysis) {
+        this.network = network;
+        this.configuration = configuration;
+        this.analysis = analysis;
+        this.map__flow__results = new LinkedHashMap<Flow, AnalysisResults>();
+    }
+
+    /**
+     * @return Mapping from each flow to its results, iterated in the order the
+     *         flows were analyzed.
+     * @throws Exception
+     *             The flows have cyclic dependencies or one of the analyses
+     *             failed.
+     */
+    public Map<Flow, AnalysisResults> performAnalysis() throws Exception {
+        map__flow__results.clear();
+
+        CalculationContext previous_context = CalculationContext.bind(configuration.calculationContext());
+        metrics = AnalysisMetrics.begin(configuration);
+        try {
+            analyze();
+        } finally {
+            AnalysisMetrics.end(metrics);
+            CalculationContext.restore(previous_context);
+        }
+
+        return map__flow__results;
+    }
+
+    private void analyze() throws Exception {
+        List<Server> servers_sorted = network.getServersTopologicallySorted();
+
+        AnalysisConfig configuration_cached = configuration;
+        if (configuration.arrivalBoundCache() == null && ArrivalBoundDispatch.getArrivalBoundCache() == null) {
+            configuration_cached = configuration.copy();
+            configuration_cached.setArrivalBoundCache(new ArrivalBoundCache());
+        }
+
+        switch (analysis) {
+            case TFA:
+                performTfa(servers_sorted, configuration_cached);
+                break;
+
+            case SFA:
+            case PMOO:
+            default:
+                performPerFlowAnalysis(servers_sorted, configuration_cached);
+                break;
+        }
+    }
+
+    private void performTfa(List<Server> servers_sorted, AnalysisConfig configuration) throws Exception {
+        TotalFlowAnalysis tfa = new TotalFlowAnalysis(network, configuration);
+
+        Map<Server, Pair<Num>> map__server__D_B = new HashMap<Server, Pair<Num>>();
+        for (Server server : servers_sorted) {
+            if (network.getSnapshot().getFlows(server).isEmpty()) {
+                continue;
+            }
+            map__server__D_B.put(server, tfa.deriveBoundsAtServer(server));
+        }
+
+        Map<Server, Set<ArrivalCurve>> map__server__alphas_tfa = tfa.getServerAlphasMap();
+        Map<Server, Set<Num>> map__server__D_server_tfa = tfa.getServerDelayBoundMap();
+        Map<Server, Set<Num>> map__server__B_server_tfa = tfa.getServerBacklogBoundMap();
+
+        for (Flow flow : getFlowsSorted(servers_sorted)) {
+            Num delay_bound = Num.getFactory().createZero();
+            Num backlog_bound = Num.getFactory().createZero();
+
+            Map<Server, Set<ArrivalCurve>> map__server__alphas = new HashMap<Server, Set<ArrivalCurve>>();
+            Map<Server, Set<Num>> map__server__D_server = new HashMap<Server, Set<Num>>();
+            Map<Server, Set<Num>> map__server__B_server = new HashMap<Server, Set<Num>>();
+
+            for (Server server : flow.getPath().getServers()) {
+                Pair<Num> min_D_B = map__server__D_B.get(server);
+
+                delay_bound = Num.getUtils().add(delay_bound, min_D_B.getFirst());
+                backlog_bound = Num.getUtils().max(backlog_bound, min_D_B.getSecond());
+
+                map__server__alphas.put(server, new HashSet<ArrivalCurve>(map__server__alphas_tfa.get(server)));
+                map__server__D_server.put(server, new HashSet<Num>(map__server__D_server_tfa.get(server)));
+                map__server__B_server.put(server, new HashSet<Num>(map__server__B_server_tfa.get(server)));
+            }
+
+            TotalFlowResults results = new TotalFlowResults(delay_bound, map__server__D_server, backlog_bound,
+                    map__server__B_server, map__server__alphas);
+            results.setMetrics(metrics);
+            map__flow__results.put(flow, results);
+        }
+    }
+
+    private void performPerFlowAnalysis(List<Server> servers_sorted, AnalysisConfig configuration)
+            throws Exception {
+        for (Flow flow : getFlowsSorted(servers_sorted)) {
+            if (analysis == Analyses.PMOO) {
+                PmooAnalysis pmoo = new PmooAnalysis(network, configuration);
+                pmoo.performAnalysis(flow);
+                map__flow__results.put(flow, pmoo.getResults());
+            } else {
+                SeparateFlowAnalysis sfa = new SeparateFlowAnalysis(network, configuration);
+                sfa.performAnalysis(flow);
+                map__flow__results.put(flow, sfa.getResults());
+            }
+        }
+    }
+
+    /**
+     * Flows are ordered by the topological position of their sink, i.e., flows
+     * ending further upstream are analyzed first and their arrival bounds can be
+     * reused by flows crossing more servers. Ties are broken by the flow id.
+     */
+    private List<Flow> getFlowsSorted(List<Server> servers_sorted) {
+        Map<Server, Integer> map__server__position = new HashMap<Server, Integer>();
+        int position = 0;
+        for (Server server : servers_sorted) {
+            map__server__position.put(server, position);
+            position++;
+        }
+
+        List<Flow> flows_sorted = new ArrayList<Flow>(network.getFlows());
+        flows_sorted.sort(Comparator.comparingInt((Flow flow) -> map__server__position.get(flow.getSink()))
+                .thenComparingInt(Flow::getId));
+        return flows_sorted;
+    }
+
+    public Map<Flow, AnalysisResults> getResults() {
+        return map__flow__results;
+    }
+
+    public AnalysisResults getResults(Flow flow) {
+        return map__flow__results.get(flow);
+    }
+
+    /**
+     * @return The metrics of the last performAnalysis() call, shared by all
+     *         flows' results, or null if the configuration did not ask for them.
+     */
+    public AnalysisMetrics getMetrics() {
+        return metrics;
+    }
+}
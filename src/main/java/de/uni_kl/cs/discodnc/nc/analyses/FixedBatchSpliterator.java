@@ -0,0 +1,107 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2005 - 2007 Frank A. Zdarsky
+ * Copyright (C) 2008 - 2010 Andreas Kiefer
+ * Copyright (C) 2011 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.nc.analyses;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over an iterator of unknown size that splits off batches of a
+ * fixed size.
+ * <p>
+ * Spliterators.spliteratorUnknownSize doubles the batch size with every split,
+ * i.e., a parallel stream pulls thousands of elements ahead of their
+ * processing. For expensive elements produced lazily, fixed small batches keep
+ * the number of elements in flight in the order of the parallelism.
+ *
+ * @param <T> The type of the elements.
+ */
+class FixedBatchSpliterator<T> implements Spliterator<T> {
+    private final Iterator<? extends T> iterator;
+    private final int batch_size;
+    private final int characteristics;
+
+    /**
+     * @param iterator        The elements.
+     * @param batch_size      The number of elements split off at once.
+     * @param characteristics The characteristics of the elements, SIZED and
+     *                        SUBSIZED are only set for the batches.
+     */
+    FixedBatchSpliterator(Iterator<? extends T> iterator, int batch_size, int characteristics) {
+        if (batch_size < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batch_size);
+        }
+        this.iterator = iterator;
+        this.batch_size = batch_size;
+        this.characteristics = characteristics & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (!iterator.hasNext()) {
+            return false;
+        }
+        action.accept(iterator.next());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        while (iterator.hasNext()) {
+            action.accept(iterator.next());
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        Object[] batch = new Object[batch_size];
+        int size = 0;
+        while (size < batch_size && iterator.hasNext()) {
+            batch[size++] = iterator.next();
+        }
+        if (size == 0) {
+            return null;
+        }
+        return Spliterators.spliterator(batch, 0, size, characteristics);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+}
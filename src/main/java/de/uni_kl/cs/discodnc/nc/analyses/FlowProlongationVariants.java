@@ -0,0 +1,244 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2005 - 2007 Frank A. Zdarsky
+ * Copyright (C) 2008 - 2010 Andreas Kiefer
+ * Copyright (C) 2011 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.nc.analyses;
+
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Link;
+import de.uni_kl.cs.discodnc.network.Path;
+import de.uni_kl.cs.discodnc.network.Server;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Lazily enumerates the interference patterns of the flow prolongation, i.e.,
+ * the groupings of cross-flows per sub-path after moving any combination of
+ * prolongable flow aggregates to one of their longer sub-paths.
+ * <p>
+ * A move is only valid if the sub-path prolonged to still contains flows that
+ * enter it via the same link as the moved aggregate. Otherwise there is no
+ * aggregation effect to gain. Each aggregate is moved at most once, the moves are
+ * decided one aggregate after the other in a depth-first manner, so only the
+ * current pattern needs to be kept. Patterns are created in a fresh map when
+ * returned. The original pattern is always returned first.
+ * <p>
+ * Patterns already returned are recognized by a signature holding the cross-flows
+ * of every sub-path. The enumeration ends after the given number of patterns or
+ * once the time budget is used up. Both limits are disabled with 0. As every
+ * pattern results in valid left-over service curves, stopping early only loses
+ * tightness.
+ */
+class FlowProlongationVariants implements Iterator<Map<Path, Set<Flow>>> {
+    private final List<Path> subpaths;
+    private final List<Flow> cross_flows;
+
+    // Current pattern, the flows of every sub-path.
+    private final List<Set<Flow>> subpath_flows;
+
+    // The prolongable aggregates: flows, original sub-path, alternative sub-paths and
+    // the link the flows enter the sub-paths' common source through.
+    private final List<Set<Flow>> aggregates;
+    private final int[] aggregate_subpath;
+    private final int[][] aggregate_prolongations;
+    private final Link[] aggregate_inlinks;
+
+    // Chosen prolongation per aggregate, 0 is the original sub-path.
+    private final int[] choices;
+    private int decided = 0;
+
+    private final Set<BitSet> signatures = new HashSet<BitSet>();
+    private final int cap;
+    private final long deadline;
+
+    private Map<Path, Set<Flow>> next = null;
+    private boolean started = false;
+    private int count = 0;
+
+    FlowProlongationVariants(Map<Path, Set<Flow>> xtx_subpath_grouped, Map<Set<Flow>, LinkedList<Path>> prolongations,
+                             int cap, long time_budget) throws Exception {
+        subpaths = new ArrayList<Path>(xtx_subpath_grouped.keySet());
+        subpath_flows = new ArrayList<Set<Flow>>();
+        Set<Flow> cross_flows_distinct = new LinkedHashSet<Flow>();
+        for (Path subpath : subpaths) {
+            Set<Flow> flows = xtx_subpath_grouped.get(subpath);
+            subpath_flows.add(new HashSet<Flow>(flows));
+            cross_flows_distinct.addAll(flows);
+        }
+        cross_flows = new ArrayList<Flow>(cross_flows_distinct);
+
+        int aggregate_count = prolongations.size();
+        aggregates = new ArrayList<Set<Flow>>(aggregate_count);
+        aggregate_subpath = new int[aggregate_count];
+        aggregate_prolongations = new int[aggregate_count][];
+        aggregate_inlinks = new Link[aggregate_count];
+
+        int a = 0;
+        for (Entry<Set<Flow>, LinkedList<Path>> xf_prolongations : prolongations.entrySet()) {
+            LinkedList<Path> prolongable_paths = xf_prolongations.getValue();
+            if (prolongable_paths.size() == 1) {
+                throw new Exception("Something strange went wrong during flow prolongation");
+            }
+
+            Set<Flow> xfs = xf_prolongations.getKey();
+            aggregates.add(xfs);
+            aggregate_subpath[a] = subpaths.indexOf(prolongable_paths.getFirst()); // Original path is first.
+            aggregate_prolongations[a] = new int[prolongable_paths.size() - 1];
+            for (int i = 1; i < prolongable_paths.size(); i++) {
+                aggregate_prolongations[a][i - 1] = subpaths.indexOf(prolongable_paths.get(i));
+            }
+            Server subpaths_src = prolongable_paths.getFirst().getSource();
+            aggregate_inlinks[a] = xfs.iterator().next().getPrecedingLink(subpaths_src);
+            a++;
+        }
+
+        choices = new int[aggregate_count];
+        this.cap = cap;
+        this.deadline = (time_budget > 0) ? System.currentTimeMillis() + time_budget : Long.MAX_VALUE;
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        if (next == null) {
+            next = computeNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public synchronized Map<Path, Set<Flow>> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Map<Path, Set<Flow>> variant = next;
+        next = null;
+        return variant;
+    }
+
+    /**
+     * @return Whether the time budget is used up.
+     */
+    boolean isOverBudget() {
+        return System.currentTimeMillis() > deadline;
+    }
+
+    private Map<Path, Set<Flow>> computeNext() {
+        do {
+            if (count > 0 && ((cap > 0 && count >= cap) || isOverBudget())) {
+                return null;
+            }
+            if (!started) {
+                started = true;
+            } else if (!backtrack()) {
+                return null;
+            }
+            // Keep the remaining aggregates on their original sub-paths.
+            while (decided < choices.length) {
+                choices[decided++] = 0;
+            }
+        } while (!signatures.add(getSignature()));
+
+        count++;
+        Map<Path, Set<Flow>> variant = new HashMap<Path, Set<Flow>>();
+        for (int p = 0; p < subpaths.size(); p++) {
+            variant.put(subpaths.get(p), new HashSet<Flow>(subpath_flows.get(p)));
+        }
+        return variant;
+    }
+
+    /**
+     * Reverts the deepest moves until an aggregate can be moved to its next valid
+     * prolongation.
+     *
+     * @return false if all combinations were enumerated.
+     */
+    private boolean backtrack() {
+        while (decided > 0) {
+            int a = --decided;
+            if (choices[a] > 0) {
+                move(a, aggregate_prolongations[a][choices[a] - 1], aggregate_subpath[a]);
+            }
+            for (int c = choices[a] + 1; c <= aggregate_prolongations[a].length; c++) {
+                int subpath_new = aggregate_prolongations[a][c - 1];
+                if (hasAggregationPotential(a, subpath_new)) {
+                    move(a, aggregate_subpath[a], subpath_new);
+                    choices[a] = c;
+                    decided++;
+                    return true;
+                }
+            }
+            choices[a] = 0;
+        }
+        return false;
+    }
+
+    private void move(int a, int subpath_from, int subpath_to) {
+        subpath_flows.get(subpath_from).removeAll(aggregates.get(a));
+        subpath_flows.get(subpath_to).addAll(aggregates.get(a));
+    }
+
+    private boolean hasAggregationPotential(int a, int subpath_new) {
+        // Prolonging to an empty set will not cause aggregation effects.
+        Server subpaths_src = subpaths.get(subpath_new).getSource();
+        for (Flow f : subpath_flows.get(subpath_new)) {
+            try {
+                if (f.getPrecedingLink(subpaths_src).equals(aggregate_inlinks[a])) {
+                    return true;
+                }
+            } catch (Exception e) {
+                // getPrecedingLink throws if f originates in subpaths_src.
+            }
+        }
+        return false;
+    }
+
+    private BitSet getSignature() {
+        BitSet signature = new BitSet(subpaths.size() * cross_flows.size());
+        for (int p = 0; p < subpaths.size(); p++) {
+            Set<Flow> flows = subpath_flows.get(p);
+            for (int f = 0; f < cross_flows.size(); f++) {
+                if (flows.contains(cross_flows.get(f))) {
+                    signature.set(p * cross_flows.size() + f);
+                }
+            }
+        }
+        return signature;
+    }
+}
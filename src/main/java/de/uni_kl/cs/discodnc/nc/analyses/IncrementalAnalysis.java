@@ -0,0 +1,336 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.nc.analyses;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.nc.Analysis.Analyses;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
+import de.uni_kl.cs.discodnc.nc.AnalysisResults;
+import de.uni_kl.cs.discodnc.nc.ArrivalBoundCache;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Link;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.Server;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the results of an analysis of all flows up to date while flows are
+ * added to and removed from the network, e.g., in an admission control loop.
+ * <p>
+ * A flow's bounds only depend on the traffic at the servers on its path and,
+ * recursively, at the servers the cross-traffic crossed before joining these
+ * servers. For every flow, these servers are tracked. Adding or removing a flow
+ * thus only invalidates the results of flows depending on a server of the
+ * changed flow's path. Arrival bounds are cached and only those on links
+ * downstream of the changed flow's path are discarded. The cache is handed to
+ * the analyses with their configuration, i.e., it is not shared with other
+ * analyses.
+ * <p>
+ * Flows must be added and removed via this class. Other changes to the network
+ * require a new call of performAnalysis().
+ */
+public class IncrementalAnalysis {
+    private Network network;
+    private AnalysisConfig configuration;
+    private Analyses analysis;
+
+    private ArrivalBoundCache arrival_bound_cache = new ArrivalBoundCache();
+    private AnalysisConfig configuration_cached;
+
+    private Map<Flow, AnalysisResults> map__flow__results;
+    private Map<Flow, Set<Server>> map__flow__servers_depending_on;
+    private Map<Server, Set<Flow>> map__server__flows_depending;
+
+    private int flows_recomputed = 0;
+    private int arrival_bounds_invalidated = 0;
+
+    @SuppressWarnings("unused")
+    private IncrementalAnalysis() {
+    }
+
+    public IncrementalAnalysis(Network network, Analyses analysis) {
+        this(network, new AnalysisConfig(), analysis);
+    }
+
+    public IncrementalAnalysis(Network network, AnalysisConfig configuration, Analyses analysis) {
+        this.network = network;
+        this.configuration = configuration;
+        this.analysis = analysis;
+        this.map__flow__results = new LinkedHashMap<Flow, AnalysisResults>();
+        this.map__flow__servers_depending_on = new HashMap<Flow, Set<Server>>();
+        this.map__server__flows_depending = new HashMap<Server, Set<Flow>>();
+    }
+
+    /**
+     * Analyzes all flows of the network from scratch.
+     *
+     * @return Mapping from each flow to its results.
+     * @throws Exception
+     *             One of the analyses failed.
+     */
+    public Map<Flow, AnalysisResults> performAnalysis() throws Exception {
+        map__flow__results.clear();
+        map__flow__servers_depending_on.clear();
+        map__server__flows_depending.clear();
+        arrival_bound_cache.clear();
+
+        Set<Flow> flows = network.getFlows();
+        for (Flow flow : flows) {
+            addDependencies(flow);
+        }
+        analyzeFlows(flows);
+        arrival_bounds_invalidated = 0;
+
+        return map__flow__results;
+    }
+
+    /**
+     * Adds a flow to the network and updates the results of all flows it
+     * influences.
+     *
+     * @param arrival_curve
+     *            The new flow's arrival curve.
+     * @param path
+     *            The new flow's path given as a list of servers.
+     * @return The flow created and added to the network.
+     * @throws Exception
+     *             Could not add the flow to the network or one of the analyses
+     *             failed.
+     */
+    public Flow addFlow(ArrivalCurve arrival_curve, List<Server> path) throws Exception {
+        // Only flows depending on servers the new flow crosses see different traffic
+        Set<Flow> flows_affected = getFlowsDependingOn(path);
+
+        Flow flow_new = network.addFlow(arrival_curve, path);
+        flows_affected.add(flow_new);
+
+        update(flows_affected, path);
+        return flow_new;
+    }
+
+    /**
+     * Removes a flow from the network and updates the results of all flows it
+     * influenced.
+     *
+     * @param flow
+     *            The flow to remove.
+     * @throws Exception
+     *             The flow is not in the network or one of the analyses failed.
+     */
+    public void removeFlow(Flow flow) throws Exception {
+        List<Server> path = flow.getPath().getServers();
+        Set<Flow> flows_affected = getFlowsDependingOn(path);
+
+        network.removeFlow(flow);
+
+        flows_affected.remove(flow);
+        removeDependencies(flow);
+        map__flow__results.remove(flow);
+
+        update(flows_affected, path);
+    }
+
+    private void update(Set<Flow> flows_affected, List<Server> path_changed) throws Exception {
+        for (Flow flow : flows_affected) {
+            removeDependencies(flow);
+            addDependencies(flow);
+        }
+
+        Set<Link> links_invalidated = getLinksDownstream(path_changed);
+        arrival_bounds_invalidated = arrival_bound_cache.removeEntries(links_invalidated);
+
+        analyzeFlows(flows_affected);
+    }
+
+    private void analyzeFlows(Set<Flow> flows) throws Exception {
+        configuration_cached = configuration.copy();
+        configuration_cached.setArrivalBoundCache(arrival_bound_cache);
+
+        for (Flow flow : flows) {
+            map__flow__results.put(flow, analyzeFlow(flow));
+        }
+
+        flows_recomputed = flows.size();
+    }
+
+    private AnalysisResults analyzeFlow(Flow flow) throws Exception {
+        switch (analysis) {
+            case TFA:
+                TotalFlowAnalysis tfa = new TotalFlowAnalysis(network, configuration_cached);
+                tfa.performAnalysis(flow);
+                return tfa.getResults();
+
+            case SFA:
+                SeparateFlowAnalysis sfa = new SeparateFlowAnalysis(network, configuration_cached);
+                sfa.performAnalysis(flow);
+                return sfa.getResults();
+
+            case PMOO:
+            default:
+                PmooAnalysis pmoo = new PmooAnalysis(network, configuration_cached);
+                pmoo.performAnalysis(flow);
+                return pmoo.getResults();
+        }
+    }
+
+    // --------------------------------------------------------------------------------------------------------------
+    // Dependency Tracking
+    // --------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Returns the servers whose traffic can influence the given flow's bounds:
+     * the servers on its path and, recursively, all servers crossed by the flows
+     * at these servers before they arrive there.
+     *
+     * @param flow
+     *            The flow.
+     * @return The servers the flow's bounds depend on.
+     */
+    public Set<Server> getServersDependingOn(Flow flow) {
+        Set<Server> servers_depending_on = new HashSet<Server>(flow.getPath().getServers());
+
+        LinkedList<Server> servers_to_check = new LinkedList<Server>(servers_depending_on);
+        while (!servers_to_check.isEmpty()) {
+            Server server = servers_to_check.removeFirst();
+            for (Flow flow_server : network.getFlows(server)) {
+                for (Server server_upstream : flow_server.getPath().getServers()) {
+                    if (server_upstream == server) {
+                        break;
+                    }
+                    if (servers_depending_on.add(server_upstream)) {
+                        servers_to_check.add(server_upstream);
+                    }
+                }
+            }
+        }
+
+        return servers_depending_on;
+    }
+
+    /**
+     * @param servers
+     *            Servers with changed traffic.
+     * @return The flows whose bounds depend on at least one of the servers.
+     */
+    public Set<Flow> getFlowsDependingOn(Collection<Server> servers) {
+        Set<Flow> flows_depending = new HashSet<Flow>();
+        for (Server server : servers) {
+            Set<Flow> flows_depending_server = map__server__flows_depending.get(server);
+            if (flows_depending_server != null) {
+                flows_depending.addAll(flows_depending_server);
+            }
+        }
+        return flows_depending;
+    }
+
+    private void addDependencies(Flow flow) {
+        Set<Server> servers_depending_on = getServersDependingOn(flow);
+        map__flow__servers_depending_on.put(flow, servers_depending_on);
+
+        for (Server server : servers_depending_on) {
+            Set<Flow> flows_depending = map__server__flows_depending.get(server);
+            if (flows_depending == null) {
+                flows_depending = new HashSet<Flow>();
+                map__server__flows_depending.put(server, flows_depending);
+            }
+            flows_depending.add(flow);
+        }
+    }
+
+    private void removeDependencies(Flow flow) {
+        Set<Server> servers_depending_on = map__flow__servers_depending_on.remove(flow);
+        if (servers_depending_on == null) {
+            return;
+        }
+
+        for (Server server : servers_depending_on) {
+            Set<Flow> flows_depending = map__server__flows_depending.get(server);
+            flows_depending.remove(flow);
+            if (flows_depending.isEmpty()) {
+                map__server__flows_depending.remove(server);
+            }
+        }
+    }
+
+    /**
+     * Traffic changes propagate along the links only, i.e., arrival bounds on
+     * links not reachable from the changed servers remain valid.
+     */
+    private Set<Link> getLinksDownstream(Collection<Server> servers) {
+        Set<Server> servers_downstream = new HashSet<Server>(servers);
+        Set<Link> links_downstream = new HashSet<Link>();
+
+        LinkedList<Server> servers_to_check = new LinkedList<Server>(servers_downstream);
+        while (!servers_to_check.isEmpty()) {
+            for (Link link : network.getOutLinks(servers_to_check.removeFirst())) {
+                links_downstream.add(link);
+                if (servers_downstream.add(link.getDest())) {
+                    servers_to_check.add(link.getDest());
+                }
+            }
+        }
+
+        return links_downstream;
+    }
+
+    // --------------------------------------------------------------------------------------------------------------
+    // Results
+    // --------------------------------------------------------------------------------------------------------------
+
+    public Map<Flow, AnalysisResults> getResults() {
+        return map__flow__results;
+    }
+
+    public AnalysisResults getResults(Flow flow) {
+        return map__flow__results.get(flow);
+    }
+
+    /**
+     * @return The number of flows analyzed by the last call of performAnalysis,
+     *         addFlow or removeFlow.
+     */
+    public int numFlowsRecomputed() {
+        return flows_recomputed;
+    }
+
+    /**
+     * @return The number of cached arrival bounds discarded by the last call of
+     *         addFlow or removeFlow.
+     */
+    public int numArrivalBoundsInvalidated() {
+        return arrival_bounds_invalidated;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.nc.analyses;
+
+import de.uni_kl.cs.discodnc.nc.Analysis.Analyses;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
+import de.uni_kl.cs.discodnc.nc.AnalysisResults;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.Server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Bounds the flows of a network with one end-to-end analysis per flow that are
+ * executed in parallel.
+ * <p>
+ * Every task uses its own analysis instance and the ArrivalBoundDispatch
+ * creates new arrival bound instances per computation, i.e., the network and
+ * the analysis configuration are only read. Neither of them, nor the
+ * CalculatorConfig, must be changed while the analysis is running. The tasks
+ * run in the calculation context of the configuration or, if it has none, in
+ * the context bound to the calling thread.
+ */
+public class ParallelFlowAnalysis {
+    private Network network;
+    private AnalysisConfig configuration;
+    private Analyses analysis;
+    private int num_threads;
+
+    private Map<Flow, AnalysisResults> map__flow__results;
+
+    @SuppressWarnings("unused")
+    private ParallelFlowAnalysis() {
+    }
+
+    public ParallelFlowAnalysis(Network network, Analyses analysis) {
+        this(network, new AnalysisConfig(), analysis);
+    }
+
+    public ParallelFlowAnalysis(Network network, AnalysisConfig configuration, Analyses analysis) {
+        this(network, configuration, analysis, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelFlowAnalysis(Network network, AnalysisConfig configuration, Analyses analysis,
+                                int num_threads) {
+        if (num_threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive");
+        }
+
+        this.network = network;
+        this.configuration = configuration;
+        this.analysis = analysis;
+        this.num_threads = num_threads;
+        this.map__flow__results = new LinkedHashMap<Flow, AnalysisResults>();
+    }
+
+    public int getNumThreads() {
+        return num_threads;
+    }
+
+    public Map<Flow, AnalysisResults> performAnalysis() throws Exception {
+        return performAnalysis(network.getFlows());
+    }
+
+    /**
+     * @param flows_of_interest
+     *            The flows to bound.
+     * @return Mapping from each flow to its results, iterated in the order of the
+     *         flow ids.
+     * @throws Exception
+     *             One of the analyses failed or the CalculatorConfig was changed
+     *             during the analysis.
+     */
+    public Map<Flow, AnalysisResults> performAnalysis(Collection<Flow> flows_of_interest) throws Exception {
+        map__flow__results.clear();
+
+        List<Flow> flows_sorted = new ArrayList<Flow>(flows_of_interest);
+        flows_sorted.sort(Comparator.comparingInt(Flow::getId));
+
+        CalculationContext previous_context = CalculationContext.bind(configuration.calculationContext());
+        try {
+            analyzeFlows(flows_sorted);
+        } finally {
+            CalculationContext.restore(previous_context);
+        }
+
+        return map__flow__results;
+    }
+
+    private void analyzeFlows(List<Flow> flows_sorted) throws Exception {
+        NumImpl num_impl = CalculatorConfig.getInstance().getNumImpl();
+        CurveImpl curve_impl = CalculatorConfig.getInstance().getCurveImpl();
+
+        prepareSharedCurves();
+
+        CalculationContext context = CalculationContext.bound();
+        ForkJoinPool pool = new ForkJoinPool(num_threads);
+        try {
+            List<Future<AnalysisResults>> results_futures = new ArrayList<Future<AnalysisResults>>();
+            for (Flow flow : flows_sorted) {
+                results_futures.add(pool.submit(() -> {
+                    CalculationContext previous_context = CalculationContext.bind(context);
+                    try {
+                        return analyzeFlow(flow);
+                    } finally {
+                        CalculationContext.restore(previous_context);
+                    }
+                }));
+            }
+
+            for (int i = 0; i < flows_sorted.size(); i++) {
+                map__flow__results.put(flows_sorted.get(i), getResult(results_futures.get(i)));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Without a bound context, the workers read the CalculatorConfig's default.
+        if (num_impl != CalculatorConfig.getInstance().getNumImpl()
+                || curve_impl != CalculatorConfig.getInstance().getCurveImpl()) {
+            throw new Exception("The CalculatorConfig was changed during the parallel analysis");
+        }
+    }
+
+    private AnalysisResults analyzeFlow(Flow flow_of_interest) throws Exception {
+        switch (analysis) {
+            case TFA:
+                TotalFlowAnalysis tfa = new TotalFlowAnalysis(network, configuration);
+                tfa.performAnalysis(flow_of_interest);
+                return tfa.getResults();
+
+            case SFA:
+                SeparateFlowAnalysis sfa = new SeparateFlowAnalysis(network, configuration);
+                sfa.performAnalysis(flow_of_interest);
+                return sfa.getResults();
+
+            case PMOO:
+            default:
+                PmooAnalysis pmoo = new PmooAnalysis(network, configuration);
+                pmoo.performAnalysis(flow_of_interest);
+                return pmoo.getResults();
+        }
+    }
+
+    private AnalysisResults getResult(Future<AnalysisResults> result_future) throws Exception {
+        try {
+            return result_future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Servers hand out their maximum service curve without copying it and copying
+     * the service and arrival curves reads the decompositions of the originals,
+     * i.e., all of them are shared by the tasks. The curves publish their lazily
+     * computed decompositions safely, nonetheless we compute them once up front
+     * instead of letting the tasks race to do so.
+     */
+    private void prepareSharedCurves() {
+        for (Server server : network.getServers()) {
+            server.getMaxServiceCurve().isRateLatency();
+            server.getServiceCurve();
+        }
+        for (Flow flow : network.getFlows()) {
+            flow.getArrivalCurve();
+        }
+    }
+
+    public Map<Flow, AnalysisResults> getResults() {
+        return map__flow__results;
+    }
+
+    public AnalysisResults getResults(Flow flow) {
+        return map__flow__results.get(flow);
+    }
+}
@@ -38,6 +38,9 @@ import de.uni_kl.cs.discodnc.nc.Analysis;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.DominancePruning;
 import de.uni_kl.cs.discodnc.nc.bounds.Bound;
 import de.uni_kl.cs.discodnc.network.Flow;
 import de.uni_kl.cs.discodnc.network.Link;
@@ -55,6 +58,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.math3.util.Pair;
 
@@ -81,10 +87,10 @@ public class PmooAnalysis extends AbstractAnalysis implements Analysis {
      * according to the PMOO approach and returns the result.
      * <p>
      * It first decomposes all arrival curves (service curves) into token buckets
-     * (rate latency curves), enumerates over all combinations of token buckets and
-     * rate latency curves, and calls <code>computePartialPMOOServiceCurve()</code>
-     * for each combination. The total PMOO service curve is the maximum of all
-     * partial service curves.
+     * (rate latency curves) and enumerates over the combinations of token buckets
+     * and rate latency curves, see <code>PmooServiceCurveEnumeration</code>. The
+     * total PMOO service curve is the maximum of all partial service curves as
+     * computed by <code>computePartialPMOOServiceCurve()</code>.
      *
      * @param path                   The Path traversed for which a PMOO left-over service curve will
      *                               be computed.
@@ -93,70 +99,7 @@ public class PmooAnalysis extends AbstractAnalysis implements Analysis {
      * @return The PMOO service curve
      */
     public static ServiceCurve getServiceCurve(Path path, List<Flow> cross_flow_substitutes) {
-        // Create a flow-->tb_iter map
-        Map<Flow, Integer> flow_tb_iter_map = new HashMap<Flow, Integer>();
-        for (Flow f : cross_flow_substitutes) {
-            flow_tb_iter_map.put(f, Integer.valueOf(0));
-        }
-        // Create a list of rl_iters
-        int number_servers = path.getServers().size();
-        ServiceCurve[] service_curves = new ServiceCurve[number_servers];
-        int[] server_rl_iters = new int[number_servers];
-        int[] server_rl_counts = new int[number_servers];
-        int i = 0;
-        for (Server server : path.getServers()) {
-            ServiceCurve service_curve = server.getServiceCurve();
-            service_curves[i] = service_curve;
-            server_rl_iters[i] = 0;
-            server_rl_counts[i] = service_curve.getRL_ComponentCount();
-            i++;
-        }
-
-        ServiceCurve beta_total = CurvePwAffine.getFactory().createZeroService();
-
-        boolean more_combinations = true;
-        while (more_combinations) {
-            // Compute service curve for this combination
-            ServiceCurve beta = computePartialPMOOServiceCurve(path, service_curves, cross_flow_substitutes,
-                    flow_tb_iter_map, server_rl_iters);
-            if (!beta.equals(CurvePwAffine.getFactory().createZeroService())) {
-                beta_total = CurvePwAffine.max(beta_total, beta);
-            }
-
-            // First check whether there are more combinations of flow TBs
-            more_combinations = false;
-            Flow f;
-            ArrivalCurve f_bound;
-            for (Entry<Flow, Integer> entry : flow_tb_iter_map.entrySet()) {
-                f = entry.getKey();
-                f_bound = f.getArrivalCurve();
-
-                i = flow_tb_iter_map.get(f).intValue();
-                if (i + 1 < f_bound.getTB_ComponentCount()) {
-                    flow_tb_iter_map.put(f, Integer.valueOf(i + 1));
-                    more_combinations = true;
-                    break;
-                } else {
-                    flow_tb_iter_map.put(f, Integer.valueOf(0));
-                }
-            }
-
-            // If not, check whether there are more combinations of server RLs
-            if (!more_combinations) {
-                for (i = 0; i < server_rl_iters.length; i++) {
-                    int j = server_rl_iters[i];
-                    if (j + 1 < server_rl_counts[i]) {
-                        server_rl_iters[i] = j;
-                        more_combinations = true;
-                        break;
-                    } else {
-                        server_rl_iters[i] = 0;
-                    }
-                }
-            }
-        }
-
-        return beta_total;
+        return new PmooServiceCurveEnumeration(path, cross_flow_substitutes).enumerate(false);
     }
 
     /**
@@ -271,6 +214,18 @@ public class PmooAnalysis extends AbstractAnalysis implements Analysis {
     }
 
     public void performAnalysis(Flow flow_of_interest, Path path) throws Exception {
+        CalculationContext previous_context = CalculationContext.bind(configuration.calculationContext());
+        AnalysisMetrics metrics = AnalysisMetrics.begin(configuration);
+        try {
+            analyze(flow_of_interest, path);
+        } finally {
+            AnalysisMetrics.end(metrics);
+            CalculationContext.restore(previous_context);
+        }
+        ((PmooResults) result).setMetrics(metrics);
+    }
+
+    private void analyze(Flow flow_of_interest, Path path) throws Exception {
         if (configuration.multiplexingDiscipline() == MuxDiscipline.GLOBAL_FIFO) {
             throw new Exception("PMOO analysis is not available for FIFO multiplexing nodes");
         }
@@ -331,141 +286,63 @@ public class PmooAnalysis extends AbstractAnalysis implements Analysis {
             return xtxSubpathBetas(flow_of_interest, path, xtx_subpath_grouped_original);
         }
 
-        // Create the set of cross-flow groupings, starting from the one for unprolonged
-        // flows.
-        Set<Map<Path, Set<Flow>>> xtx_subpath_grouped_incl_prolongation = new HashSet<Map<Path, Set<Flow>>>();
-        xtx_subpath_grouped_incl_prolongation.add(xtx_subpath_grouped_original);
-
-        // General way it works:
-        // Permutations of all alternatives (see the code below ):
-        // - iterate over all the sets above
-        // - iterate over the results set
-        // - merge into a temporary results set (prevents concurrent modification
-        // exception)
-        // - replace results set with temporary one
-        // - start over with the outer iteration
-
-        // Move the individual cross flows around the xtx groups.
-        for (Entry<Set<Flow>, LinkedList<Path>> xf_prolongations : prolongations.entrySet()) {
-
-            LinkedList<Path> prolongable_paths = xf_prolongations.getValue();
-            if (prolongable_paths.size() == 1) {
-                throw new Exception("Something strange went wrong during flow prolongation");
-            }
+        // The interference patterns are created lazily, starting with the one for
+        // unprolonged flows, and derived left-over betas in parallel. The number of
+        // patterns grows exponentially with the prolongable flow aggregates, so the
+        // enumeration can be limited by the configuration. Patterns are handed to the
+        // workers one by one, only about one pattern per worker is created ahead.
+        FlowProlongationVariants variants = new FlowProlongationVariants(xtx_subpath_grouped_original,
+                prolongations, configuration.flowProlongationVariantCap(),
+                configuration.flowProlongationTimeBudget());
 
-            Set<Flow> xfs = xf_prolongations.getKey();
-            Path common_path_old = prolongable_paths.getFirst(); // Original path needs to be always first.
-            Path common_path_new;
-            Server subpaths_src;
-
-            // Every moving is defined by a prolonged flow aggregate's path.
-            // Start counting at 1 because the first element (at position 0) is the original
-            // interference path.
-            for (int i = 1; i <= prolongable_paths.size() - 1; i++) {
-                common_path_new = prolongable_paths.get(i);
-
-                // Each potential move of a flow generates a new set of xtx_subpath_groupings .
-                // They are merged into a temporary results set to prevent concurrent
-                // modification exceptions.
-                // Yes, we need a set of mappings because each mapping will be a unique
-                // interference patter no derive a left-over beta for.
-                Set<Map<Path, Set<Flow>>> xtx_subpath_grouped_incl_prolongation_tmp = new HashSet<Map<Path, Set<Flow>>>();
-
-                for (Map<Path, Set<Flow>> interference_pattern : xtx_subpath_grouped_incl_prolongation) { // At the
-                    // beginning,
-                    // only the
-                    // original
-                    // interference
-                    // pattern
-                    // is in
-                    // here.
-                    // Prevent the original from getting lost because its sink is not part of
-                    // xf_prolongations's Server list.
-                    xtx_subpath_grouped_incl_prolongation_tmp.add(interference_pattern);
-
-                    // The general idea is to copy the map and modify the two mappings of interest
-                    // only.
-                    // Yet, the copy we need is deeper than constructing a new map or using
-                    // clone()-functionality.
-                    // We need a new map where a) the key can be the same path object as in to old
-                    // map and
-                    // b) the value is a new map with the old flow objects.
-                    // Constructing this copy will require a loop -- the following loop we use for
-                    // an "in situ" modification we need.
-                    Map<Path, Set<Flow>> interference_pattern_new = new HashMap<Path, Set<Flow>>();
-                    boolean add = true;
-                    for (Entry<Path, Set<Flow>> interference_entry : interference_pattern.entrySet()) {
-
-                        Path key_path = interference_entry.getKey();
-                        Set<Flow> value_flows = new HashSet<Flow>(interference_entry.getValue());
-
-                        if (key_path.equals(common_path_old)) {
-                            if (!value_flows.removeAll(xfs)) { // The flows have already been moved -> skip this one.
-                                add = false;
-                                continue;
-                            }
-                            interference_pattern_new.put(key_path, value_flows);
-                        } else if (key_path.equals(common_path_new)) {
-                            if (value_flows.isEmpty()) { // Prolonging to an empty set will not cause aggregation
-                                // effects.
-                                add = false;
-                                continue;
-                            }
-
-                            boolean aggr_potential = false;
-                            subpaths_src = common_path_new.getSource();
-                            Link inlink_xfs = xfs.iterator().next().getPrecedingLink(subpaths_src);
-                            Link inlink_subpath_flows;
-                            for (Flow f : value_flows) {
-                                try {
-                                    inlink_subpath_flows = f.getPrecedingLink(subpaths_src);
-                                    if (inlink_subpath_flows.equals(inlink_xfs)) {
-                                        aggr_potential = true;
-                                        continue;
-                                    }
-                                } catch (Exception e) {
-                                } // There's an exception thrown by getPrecedingLink if f is originating in
-                                // subpaths_src
-                            }
-
-                            if (!aggr_potential) {
-                                add = false;
-                                continue;
-                            }
-
-                            value_flows.addAll(xfs);
-                            interference_pattern_new.put(key_path, value_flows);
-                        } else {
-                            interference_pattern_new.put(key_path, value_flows);
-                        }
+        Set<ServiceCurve> betas_e2e = new HashSet<ServiceCurve>();
+        addBetas(betas_e2e, xtxSubpathBetas(flow_of_interest, path, variants.next()));
+
+        AtomicReference<Exception> error = new AtomicReference<Exception>();
+        AnalysisMetrics metrics = AnalysisMetrics.current();
+        CalculationContext context = CalculationContext.bound();
+        StreamSupport.stream(new FixedBatchSpliterator<Map<Path, Set<Flow>>>(variants, 1, Spliterator.NONNULL), true)
+                .forEach(xtx_subpath_grouped -> {
+                    if (error.get() != null || variants.isOverBudget()) {
+                        return;
                     }
-
-                    if (add) {
-                        xtx_subpath_grouped_incl_prolongation_tmp.add(interference_pattern_new);
+                    CalculationContext previous_context = CalculationContext.bind(context);
+                    AnalysisMetrics.join(metrics);
+                    try {
+                        addBetas(betas_e2e, xtxSubpathBetas(flow_of_interest, path, xtx_subpath_grouped));
+                    } catch (Exception e) {
+                        error.compareAndSet(null, e);
+                    } finally {
+                        AnalysisMetrics.leave(metrics);
+                        CalculationContext.restore(previous_context);
                     }
-                }
-                xtx_subpath_grouped_incl_prolongation = xtx_subpath_grouped_incl_prolongation_tmp;
-            }
+                });
+        if (error.get() != null) {
+            throw error.get();
         }
 
-        // Next, get the left-over betas for every prolongation variant.
-        Set<ServiceCurve> betas_e2e = Collections.synchronizedSet(new HashSet<ServiceCurve>());
-
-        xtx_subpath_grouped_incl_prolongation.parallelStream().forEach(xtx_subpath_grouped -> {
-            try {
-                betas_e2e.addAll(xtxSubpathBetas(flow_of_interest, path, xtx_subpath_grouped));
-            } catch (Exception e) {
-                System.out.println();
-                e.printStackTrace();
-            }
-        });
-
         if (betas_e2e.isEmpty()) {
             betas_e2e.add(CurvePwAffine.getFactory().createZeroService());
         }
         return betas_e2e;
     }
 
+    /**
+     * Adds the left-over betas of a prolongation variant. Variants are evaluated
+     * concurrently, dominated betas are removed right away if requested.
+     *
+     * @param betas_e2e The betas of the variants derived so far.
+     * @param betas_variant The betas of another variant.
+     */
+    private void addBetas(Set<ServiceCurve> betas_e2e, Set<ServiceCurve> betas_variant) {
+        synchronized (betas_e2e) {
+            betas_e2e.addAll(betas_variant);
+            if (configuration.pruneDominatedCurves()) {
+                betas_e2e.retainAll(DominancePruning.pruneServiceCurves(betas_e2e));
+            }
+        }
+    }
+
     private Map<Set<Flow>, LinkedList<Path>> getProlongationsToSubpaths(Path path,
                                                                         Map<Path, Set<Flow>> xtx_subpath_grouped_original) throws Exception {
         Map<Server, Set<Path>> paths_starting_in_s = new HashMap<Server, Set<Path>>();
@@ -644,17 +521,25 @@ public class PmooAnalysis extends AbstractAnalysis implements Analysis {
             cross_flow_substitutes_set.addAll(arrival_bounds_link_permutations);
             arrival_bounds_link_permutations.clear();
 
-            if (result.map__server__alphas.get(entry.getKey().getSource()) == null) {
-                result.map__server__alphas.put(entry.getKey().getSource(), alphas_xf_group);
-            } else {
-                result.map__server__alphas.get(entry.getKey().getSource()).addAll(alphas_xf_group);
+            // Prolongation variants are evaluated concurrently, so the results must not share
+            // alphas_xf_group with this derivation.
+            synchronized (result) {
+                if (result.map__server__alphas.get(entry.getKey().getSource()) == null) {
+                    result.map__server__alphas.put(entry.getKey().getSource(),
+                            new HashSet<ArrivalCurve>(alphas_xf_group));
+                } else {
+                    result.map__server__alphas.get(entry.getKey().getSource()).addAll(alphas_xf_group);
+                }
             }
         }
 
         // Derive the left-over service curves
         ServiceCurve null_service = CurvePwAffine.getFactory().createZeroService();
         for (List<Flow> xtx_substitutes : cross_flow_substitutes_set) {
-            ServiceCurve beta_e2e = PmooAnalysis.getServiceCurve(path, xtx_substitutes);
+            PmooServiceCurveEnumeration enumeration = new PmooServiceCurveEnumeration(path, xtx_substitutes);
+            ServiceCurve beta_e2e = enumeration.enumerate(configuration.parallelPmooEnumeration());
+            ((PmooResults) result).addEnumeratedCombinations(enumeration.getCombinationsVisited(),
+                    enumeration.getCombinationsPruned());
 
             if (!beta_e2e.equals(null_service)) {
                 betas_e2e.add(beta_e2e); // Adding to the set, not adding up the curves
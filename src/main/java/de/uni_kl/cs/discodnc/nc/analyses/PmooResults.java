@@ -32,6 +32,7 @@ package de.uni_kl.cs.discodnc.nc.analyses;
 
 import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
 import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics;
 import de.uni_kl.cs.discodnc.nc.AnalysisResults;
 import de.uni_kl.cs.discodnc.network.Server;
 import de.uni_kl.cs.discodnc.numbers.Num;
@@ -42,6 +43,9 @@ import java.util.Set;
 public class PmooResults extends AnalysisResults {
     protected Set<ServiceCurve> betas_e2e;
 
+    private long combinations_visited = 0;
+    private long combinations_pruned = 0;
+
     protected PmooResults() {
     }
 
@@ -62,4 +66,35 @@ public class PmooResults extends AnalysisResults {
     protected void setBacklogBound(Num backlog_bound) {
         super.setBacklogBound(backlog_bound);
     }
+
+    @Override
+    protected void setMetrics(AnalysisMetrics metrics) {
+        super.setMetrics(metrics);
+    }
+
+    /**
+     * Returns the number of token bucket / rate latency combinations whose partial
+     * left-over service curve was derived.
+     *
+     * @return The number of visited combinations.
+     */
+    public synchronized long getCombinationsVisited() {
+        return combinations_visited;
+    }
+
+    /**
+     * Returns the number of token bucket / rate latency combinations that were cut
+     * off because they could not raise the left-over service curve.
+     *
+     * @return The number of pruned combinations.
+     */
+    public synchronized long getCombinationsPruned() {
+        return combinations_pruned;
+    }
+
+    // Synchronized as flow prolongation variants are evaluated in parallel.
+    protected synchronized void addEnumeratedCombinations(long visited, long pruned) {
+        combinations_visited += visited;
+        combinations_pruned += pruned;
+    }
 }
\ No newline at end of file
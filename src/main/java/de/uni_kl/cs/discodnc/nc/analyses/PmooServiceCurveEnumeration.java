@@ -0,0 +1,370 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2005 - 2007 Frank A. Zdarsky
+ * Copyright (C) 2008 - 2010 Andreas Kiefer
+ * Copyright (C) 2011 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.nc.analyses;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Path;
+import de.uni_kl.cs.discodnc.network.Server;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Enumerates the combinations of token bucket components of the cross-flow
+ * substitutes and rate latency components of the servers on a path to derive the
+ * PMOO left-over service curve, i.e., the maximum of all partial rate latency
+ * curves (cf. <code>PmooAnalysis.computePartialPMOOServiceCurve</code>).
+ * <p>
+ * The combinations are enumerated depth-first, server by server, deciding the
+ * token bucket of a flow at the first server it is present at. A partial
+ * combination can only result in curves below the rate latency curve with the
+ * smallest left-over rate so far and the latency derived from the bursts and
+ * latencies so far. The whole subtree is pruned if this curve cannot raise the
+ * running maximum or if a server has no left-over rate.
+ * <p>
+ * Combinations are counted as visited if their partial curve was derived and as
+ * pruned if they were cut off before, the two counters sum up to the total
+ * number of combinations.
+ */
+class PmooServiceCurveEnumeration {
+    private final int flow_count;
+    private final int server_count;
+
+    private final Num[][] tb_rates;
+    private final Num[][] tb_bursts;
+    private final Num[][] rl_rates;
+    private final Num[][] rl_latencies;
+
+    // Flows present at every server, in the order of the cross-flow substitutes.
+    private final int[][] flows_at_server;
+    private final boolean stable;
+
+    // Decision variables in enumeration order, flows are encoded as -(f + 1).
+    private final int[] decisions;
+    // Number of combinations of the decisions from the respective index on.
+    private final long[] combinations_from;
+
+    private long combinations_visited = 0;
+    private long combinations_pruned = 0;
+
+    PmooServiceCurveEnumeration(Path path, List<Flow> cross_flow_substitutes) {
+        List<Server> servers = path.getServers();
+        server_count = servers.size();
+        flow_count = cross_flow_substitutes.size();
+
+        tb_rates = new Num[flow_count][];
+        tb_bursts = new Num[flow_count][];
+        for (int f = 0; f < flow_count; f++) {
+            ArrivalCurve bound = cross_flow_substitutes.get(f).getArrivalCurve();
+            int tb_count = Math.max(1, bound.getTB_ComponentCount());
+            tb_rates[f] = new Num[tb_count];
+            tb_bursts[f] = new Num[tb_count];
+            for (int k = 0; k < tb_count; k++) {
+                CurvePwAffine current_tb = bound.getTB_Component(k);
+                tb_rates[f][k] = current_tb.getUltAffineRate();
+                tb_bursts[f][k] = current_tb.getBurst();
+            }
+        }
+
+        rl_rates = new Num[server_count][];
+        rl_latencies = new Num[server_count][];
+        for (int i = 0; i < server_count; i++) {
+            ServiceCurve service_curve = servers.get(i).getServiceCurve();
+            int rl_count = Math.max(1, service_curve.getRL_ComponentCount());
+            rl_rates[i] = new Num[rl_count];
+            rl_latencies[i] = new Num[rl_count];
+            for (int j = 0; j < rl_count; j++) {
+                CurvePwAffine current_rl = service_curve.getRL_Component(j);
+                rl_rates[i][j] = current_rl.getUltAffineRate();
+                rl_latencies[i][j] = current_rl.getLatency();
+            }
+        }
+
+        // The flows present at a server do not depend on the combination. Same
+        // bookkeeping as in computePartialPMOOServiceCurve.
+        flows_at_server = new int[server_count][];
+        int[] first_server = new int[flow_count];
+        Arrays.fill(first_server, -1);
+        boolean stable_servers = true;
+        Set<Integer> present_flows = new HashSet<Integer>();
+        for (int i = 0; i < server_count; i++) {
+            Server s = servers.get(i);
+            double sum_r_at_s = 0.0;
+            for (int f = 0; f < flow_count; f++) {
+                Flow flow = cross_flow_substitutes.get(f);
+                if (flow.getPath().getServers().contains(s)) {
+                    present_flows.add(f);
+                    sum_r_at_s += flow.getArrivalCurve().getUltAffineRate().doubleValue();
+                }
+            }
+            if (sum_r_at_s >= s.getServiceCurve().getUltAffineRate().doubleValue()) {
+                stable_servers = false;
+            }
+
+            List<Integer> present_flows_sorted = new ArrayList<Integer>(present_flows);
+            present_flows_sorted.sort(null);
+            flows_at_server[i] = new int[present_flows_sorted.size()];
+            for (int k = 0; k < flows_at_server[i].length; k++) {
+                int f = present_flows_sorted.get(k);
+                flows_at_server[i][k] = f;
+                if (first_server[f] < 0) {
+                    first_server[f] = i;
+                }
+            }
+
+            Set<Integer> leaving_flows = new HashSet<Integer>();
+            for (int f : present_flows) {
+                if (servers.indexOf(cross_flow_substitutes.get(f).getSink()) <= i) {
+                    leaving_flows.add(f);
+                }
+            }
+            present_flows.removeAll(leaving_flows);
+        }
+        stable = stable_servers;
+
+        // Decide a flow's token bucket right before the first server it is present
+        // at, flows that are present nowhere only contribute their burst.
+        decisions = new int[flow_count + server_count];
+        int d = 0;
+        for (int i = 0; i < server_count; i++) {
+            for (int f = 0; f < flow_count; f++) {
+                if (first_server[f] == i) {
+                    decisions[d++] = -(f + 1);
+                }
+            }
+            decisions[d++] = i;
+        }
+        for (int f = 0; f < flow_count; f++) {
+            if (first_server[f] < 0) {
+                decisions[d++] = -(f + 1);
+            }
+        }
+
+        combinations_from = new long[decisions.length + 1];
+        combinations_from[decisions.length] = 1;
+        for (d = decisions.length - 1; d >= 0; d--) {
+            combinations_from[d] = saturatedMult(combinations_from[d + 1], getChoiceCount(d));
+        }
+    }
+
+    /**
+     * Derives the PMOO left-over service curve.
+     *
+     * @param parallel Evaluate the choices of the first decision in parallel.
+     * @return The maximum of all partial PMOO service curves.
+     */
+    ServiceCurve enumerate(boolean parallel) {
+        if (!stable || decisions.length == 0) {
+            combinations_pruned += combinations_from[0];
+            return CurvePwAffine.getFactory().createZeroService();
+        }
+
+        List<Branch> branches;
+        if (parallel && getChoiceCount(0) > 1) {
+            CalculationContext context = CalculationContext.bound();
+            branches = IntStream.range(0, getChoiceCount(0)).parallel().mapToObj(c -> {
+                CalculationContext previous_context = CalculationContext.bind(context);
+                try {
+                    Branch branch = new Branch();
+                    branch.choose(0, c, Num.getFactory().createZero(), Num.getFactory().createZero(),
+                            Num.getFactory().createZero(), Num.getFactory().createPositiveInfinity());
+                    return branch;
+                } finally {
+                    CalculationContext.restore(previous_context);
+                }
+            }).collect(Collectors.toList());
+        } else {
+            Branch branch = new Branch();
+            branch.enumerate(0, Num.getFactory().createZero(), Num.getFactory().createZero(),
+                    Num.getFactory().createZero(), Num.getFactory().createPositiveInfinity());
+            branches = new ArrayList<Branch>();
+            branches.add(branch);
+        }
+
+        ServiceCurve beta_total = CurvePwAffine.getFactory().createZeroService();
+        for (Branch branch : branches) {
+            combinations_visited += branch.visited;
+            combinations_pruned += branch.pruned;
+            if (!branch.beta_max.isZeroService()) {
+                beta_total = branches.size() == 1 ? branch.beta_max : CurvePwAffine.max(beta_total, branch.beta_max);
+            }
+        }
+        return beta_total;
+    }
+
+    long getCombinationsVisited() {
+        return combinations_visited;
+    }
+
+    long getCombinationsPruned() {
+        return combinations_pruned;
+    }
+
+    private int getChoiceCount(int d) {
+        return decisions[d] < 0 ? tb_rates[-decisions[d] - 1].length : rl_rates[decisions[d]].length;
+    }
+
+    private static long saturatedMult(long a, long b) {
+        if (a != 0 && b > Long.MAX_VALUE / a) {
+            return Long.MAX_VALUE;
+        }
+        return a * b;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        return (a > Long.MAX_VALUE - b) ? Long.MAX_VALUE : a + b;
+    }
+
+    /**
+     * The state of a depth-first enumeration: the current choices, the maximum of
+     * the partial curves found so far and the counters.
+     */
+    private class Branch {
+        private final int[] tb_iters = new int[flow_count];
+        private ServiceCurve beta_max = CurvePwAffine.getFactory().createZeroService();
+        private long visited = 0;
+        private long pruned = 0;
+
+        private void enumerate(int d, Num latencies, Num latency_terms, Num bursts, Num rate) {
+            if (d == decisions.length) {
+                visitCombination(latencies, latency_terms, rate);
+                return;
+            }
+            for (int c = 0; c < getChoiceCount(d); c++) {
+                choose(d, c, latencies, latency_terms, bursts, rate);
+            }
+        }
+
+        private void choose(int d, int c, Num latencies, Num latency_terms, Num bursts, Num rate) {
+            Num compute = Num.getUtils();
+
+            if (decisions[d] < 0) {
+                int f = -decisions[d] - 1;
+                tb_iters[f] = c;
+                enumerate(d + 1, latencies, latency_terms, compute.add(bursts, tb_bursts[f][c]), rate);
+                return;
+            }
+
+            int i = decisions[d];
+
+            Num sum_r = Num.getFactory().createZero();
+            for (int f : flows_at_server[i]) {
+                sum_r = compute.add(sum_r, tb_rates[f][tb_iters[f]]);
+            }
+            Num Ri = compute.sub(rl_rates[i][c], sum_r);
+            if (Ri.leqZero()) {
+                pruned = saturatedAdd(pruned, combinations_from[d + 1]);
+                return;
+            }
+
+            latencies = compute.add(latencies, rl_latencies[i][c]);
+            latency_terms = compute.add(latency_terms, compute.mult(sum_r, rl_latencies[i][c]));
+            rate = compute.min(rate, Ri);
+
+            // Rates can only decrease and latencies only increase with further decisions.
+            if (d + 1 < decisions.length && !rate.equals(Num.getFactory().getPositiveInfinity())) {
+                Num latency_bound = compute.add(latencies, compute.div(compute.add(bursts, latency_terms), rate));
+                if (isDominated(rate, latency_bound)) {
+                    pruned = saturatedAdd(pruned, combinations_from[d + 1]);
+                    return;
+                }
+            }
+            enumerate(d + 1, latencies, latency_terms, bursts, rate);
+        }
+
+        private void visitCombination(Num latencies, Num latency_terms, Num rate) {
+            visited++;
+            Num compute = Num.getUtils();
+
+            // Sum up the bursts in the order of the substitutes like
+            // computePartialPMOOServiceCurve does.
+            Num sum_bursts = Num.getFactory().createZero();
+            for (int f = 0; f < flow_count; f++) {
+                sum_bursts = compute.add(sum_bursts, tb_bursts[f][tb_iters[f]]);
+            }
+            Num T = compute.add(latencies, compute.div(compute.add(sum_bursts, latency_terms), rate));
+
+            ServiceCurve beta;
+            if (T == Num.getFactory().getPositiveInfinity()) {
+                return;
+            } else if (rate == Num.getFactory().getPositiveInfinity()) {
+                beta = CurvePwAffine.getFactory().createDelayedInfiniteBurst(T);
+            } else {
+                if (isDominated(rate, T)) {
+                    return;
+                }
+                beta = CurvePwAffine.getFactory().createRateLatency(rate, T);
+            }
+            if (!beta.isZeroService()) {
+                beta_max = CurvePwAffine.max(beta_max, beta);
+            }
+        }
+
+        /**
+         * Checks whether the rate latency curve is below the current maximum. The
+         * maximum of rate latency curves is convex, so it suffices to compare at the
+         * latency and the maximum's inflection points after it.
+         */
+        private boolean isDominated(Num rate, Num latency) {
+            if (beta_max.isZeroService() || beta_max.getUltAffineRate().lt(rate)) {
+                return false;
+            }
+
+            List<Num> xcoords = new ArrayList<Num>();
+            xcoords.add(latency);
+            for (int k = 0; k < beta_max.getSegmentCount(); k++) {
+                Num x = beta_max.getSegment(k).getX();
+                if (x.gt(latency)) {
+                    xcoords.add(x);
+                }
+            }
+            Num[] xs = xcoords.toArray(new Num[0]);
+            Num[] ys = beta_max.f(xs);
+            Num compute = Num.getUtils();
+            for (int k = 0; k < xs.length; k++) {
+                if (ys[k].lt(compute.mult(rate, compute.sub(xs[k], latency)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -34,21 +34,26 @@ import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
 import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
 import de.uni_kl.cs.discodnc.curves.ServiceCurve;
 import de.uni_kl.cs.discodnc.minplus.MinPlus;
-import de.uni_kl.cs.discodnc.misc.SetUtils;
 import de.uni_kl.cs.discodnc.nc.AbstractAnalysis;
 import de.uni_kl.cs.discodnc.nc.Analysis;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
 import de.uni_kl.cs.discodnc.nc.ArrivalBoundDispatch;
+import de.uni_kl.cs.discodnc.nc.DominancePruning;
 import de.uni_kl.cs.discodnc.nc.bounds.Bound;
 import de.uni_kl.cs.discodnc.network.Flow;
 import de.uni_kl.cs.discodnc.network.Link;
 import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkSnapshot;
 import de.uni_kl.cs.discodnc.network.Path;
 import de.uni_kl.cs.discodnc.network.Server;
 import de.uni_kl.cs.discodnc.numbers.Num;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -92,6 +97,18 @@ public class SeparateFlowAnalysis extends AbstractAnalysis implements Analysis {
     }
 
     public void performAnalysis(Flow flow_of_interest, Path path) throws Exception {
+        CalculationContext previous_context = CalculationContext.bind(configuration.calculationContext());
+        AnalysisMetrics metrics = AnalysisMetrics.begin(configuration);
+        try {
+            analyze(flow_of_interest, path);
+        } finally {
+            AnalysisMetrics.end(metrics);
+            CalculationContext.restore(previous_context);
+        }
+        ((SeparateFlowResults) result).setMetrics(metrics);
+    }
+
+    private void analyze(Flow flow_of_interest, Path path) throws Exception {
         ((SeparateFlowResults) result).betas_e2e = getServiceCurves(flow_of_interest, path,
                 Collections.singleton(flow_of_interest));
 
@@ -125,6 +142,9 @@ public class SeparateFlowAnalysis extends AbstractAnalysis implements Analysis {
             throws Exception {
         Set<ServiceCurve> betas_lofoi_path = new HashSet<ServiceCurve>();
         Set<ServiceCurve> betas_lofoi_s;
+        // Consecutive servers with a single left-over service curve are convolved
+        // at once instead of creating an intermediate curve per server.
+        List<ServiceCurve> betas_lofoi_chain = new ArrayList<ServiceCurve>();
 
         // This version iterates over the servers on the path and computes the the
         // service curve set hop-by-hop
@@ -134,6 +154,7 @@ public class SeparateFlowAnalysis extends AbstractAnalysis implements Analysis {
         // analysis's way.
 
         // Convolve all left over service curves, server by server
+        NetworkSnapshot snapshot = network.getSnapshot();
         Link link_from_prev_s;
         Path foi_path = flow_of_interest.getPath();
         for (Server server : path.getServers()) {
@@ -149,7 +170,7 @@ public class SeparateFlowAnalysis extends AbstractAnalysis implements Analysis {
             f_xfoi_server.removeAll(flows_to_serve);
             f_xfoi_server.remove(flow_of_interest);
 
-            Set<Flow> f_xfoi_server_path = SetUtils.getIntersection(f_xfoi_server, network.getFlows(link_from_prev_s));
+            Set<Flow> f_xfoi_server_path = snapshot.getIntersection(f_xfoi_server, snapshot.getFlows(link_from_prev_s));
 
             // Convert f_xfoi_server to f_xfoi_server_offpath
             f_xfoi_server.removeAll(f_xfoi_server_path);
@@ -170,16 +191,48 @@ public class SeparateFlowAnalysis extends AbstractAnalysis implements Analysis {
                         alpha_xfois.add(CurvePwAffine.add(arrival_curve_path, arrival_curve_offpath));
                     }
                 }
+                if (configuration.pruneDominatedCurves()) {
+                    alpha_xfois = DominancePruning.pruneArrivalCurves(alpha_xfois);
+                }
 
                 // Calculate the left-over service curve for the flow of interest
                 betas_lofoi_s = Bound.leftOverService(configuration, server, alpha_xfois);
+                if (configuration.pruneDominatedCurves()) {
+                    betas_lofoi_s = DominancePruning.pruneServiceCurves(betas_lofoi_s);
+                }
 
                 result.map__server__alphas.put(server, alpha_xfois);
             }
             ((SeparateFlowResults) result).map__server__betas_lo.put(server, betas_lofoi_s);
 
+            if (betas_lofoi_s.size() == 1) {
+                betas_lofoi_chain.add(betas_lofoi_s.iterator().next());
+                continue;
+            }
+            betas_lofoi_path = convolveChain(betas_lofoi_path, betas_lofoi_chain);
             betas_lofoi_path = MinPlus.convolve_SCs_SCs(betas_lofoi_path, betas_lofoi_s,
                     configuration.tbrlConvolution());
+            if (configuration.pruneDominatedCurves()) {
+                betas_lofoi_path = DominancePruning.pruneServiceCurves(betas_lofoi_path);
+            }
+        }
+        return convolveChain(betas_lofoi_path, betas_lofoi_chain);
+    }
+
+    private Set<ServiceCurve> convolveChain(Set<ServiceCurve> betas_lofoi_path, List<ServiceCurve> betas_lofoi_chain)
+            throws Exception {
+        if (betas_lofoi_chain.isEmpty()) {
+            return betas_lofoi_path;
+        }
+
+        Set<ServiceCurve> beta_lofoi_chain = new HashSet<ServiceCurve>();
+        beta_lofoi_chain.add(MinPlus.convolve(betas_lofoi_chain, configuration.tbrlConvolution()));
+        betas_lofoi_chain.clear();
+
+        betas_lofoi_path = MinPlus.convolve_SCs_SCs(betas_lofoi_path, beta_lofoi_chain,
+                configuration.tbrlConvolution());
+        if (configuration.pruneDominatedCurves()) {
+            betas_lofoi_path = DominancePruning.pruneServiceCurves(betas_lofoi_path);
         }
         return betas_lofoi_path;
     }
@@ -32,6 +32,7 @@ package de.uni_kl.cs.discodnc.nc.analyses;
 
 import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
 import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics;
 import de.uni_kl.cs.discodnc.nc.AnalysisResults;
 import de.uni_kl.cs.discodnc.network.Server;
 import de.uni_kl.cs.discodnc.numbers.Num;
@@ -71,6 +72,11 @@ public class SeparateFlowResults extends AnalysisResults {
         super.setBacklogBound(backlog_bound);
     }
 
+    @Override
+    protected void setMetrics(AnalysisMetrics metrics) {
+        super.setMetrics(metrics);
+    }
+
     public String getServerLeftOverBetasMapString() {
         if (map__server__betas_lo.isEmpty()) {
             return "{}";
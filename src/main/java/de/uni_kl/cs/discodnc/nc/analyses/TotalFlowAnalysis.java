@@ -38,8 +38,12 @@ import de.uni_kl.cs.discodnc.nc.Analysis;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
 import de.uni_kl.cs.discodnc.nc.bounds.Bound;
 import de.uni_kl.cs.discodnc.nc.ArrivalBoundDispatch;
+import de.uni_kl.cs.discodnc.nc.TotalFlowBoundCache;
+import de.uni_kl.cs.discodnc.nc.TotalFlowBoundCache.TotalFlowBounds;
 import de.uni_kl.cs.discodnc.network.Flow;
 import de.uni_kl.cs.discodnc.network.Network;
 import de.uni_kl.cs.discodnc.network.Path;
@@ -72,6 +76,18 @@ public class TotalFlowAnalysis extends AbstractAnalysis implements Analysis {
     }
 
     public void performAnalysis(Flow flow_of_interest, Path path) throws Exception {
+        CalculationContext previous_context = CalculationContext.bind(configuration.calculationContext());
+        AnalysisMetrics metrics = AnalysisMetrics.begin(configuration);
+        try {
+            analyze(flow_of_interest, path);
+        } finally {
+            AnalysisMetrics.end(metrics);
+            CalculationContext.restore(previous_context);
+        }
+        ((TotalFlowResults) result).setMetrics(metrics);
+    }
+
+    private void analyze(Flow flow_of_interest, Path path) throws Exception {
         Num delay_bound = Num.getFactory().createZero();
         Num backlog_bound = Num.getFactory().createZero();
 
@@ -87,6 +103,23 @@ public class TotalFlowAnalysis extends AbstractAnalysis implements Analysis {
     }
 
     public Pair<Num> deriveBoundsAtServer(Server server) throws Exception {
+        TotalFlowBoundCache cache = null;
+        TotalFlowBounds bounds_cached = null;
+        if (configuration.useTotalFlowBoundCache()) {
+            cache = network.getTotalFlowBoundCache();
+            bounds_cached = cache.getEntry(configuration, server);
+        }
+        if (bounds_cached != null) {
+            Set<Num> delay_bounds_server = bounds_cached.getDelayBounds();
+            Set<Num> backlog_bounds_server = bounds_cached.getBacklogBounds();
+
+            ((TotalFlowResults) result).map__server__alphas.put(server, bounds_cached.getArrivalBounds());
+            ((TotalFlowResults) result).map__server__D_server.put(server, delay_bounds_server);
+            ((TotalFlowResults) result).map__server__B_server.put(server, backlog_bounds_server);
+
+            return new Pair<Num>(min(delay_bounds_server), min(backlog_bounds_server));
+        }
+
         // Here's the difference to SFA:
         // TFA needs the arrival bound of all flows at the server, including the flow of
         // interest.
@@ -114,7 +147,7 @@ public class TotalFlowAnalysis extends AbstractAnalysis implements Analysis {
 
             // Is this a single flow, i.e., does fifo per micro flow hold?
             boolean fifo_per_micro_flow = false;
-            if (network.getFlows(server).size() == 1) {
+            if (network.getSnapshot().getFlows(server).size() == 1) {
                 fifo_per_micro_flow = true;
             }
 
@@ -136,10 +169,23 @@ public class TotalFlowAnalysis extends AbstractAnalysis implements Analysis {
         ((TotalFlowResults) result).map__server__alphas.put(server, alphas_server);
         ((TotalFlowResults) result).map__server__D_server.put(server, delay_bounds_server);
         ((TotalFlowResults) result).map__server__B_server.put(server, backlog_bounds_server);
+        if (cache != null) {
+            cache.addEntry(configuration, server, alphas_server, delay_bounds_server, backlog_bounds_server);
+        }
 
         return new Pair<Num>(delay_bound_s__min, backlog_bound_s__min);
     }
 
+    private static Num min(Set<Num> bounds) {
+        Num bound_min = Num.getFactory().getPositiveInfinity();
+        for (Num bound : bounds) {
+            if (bound.leq(bound_min)) {
+                bound_min = bound;
+            }
+        }
+        return bound_min;
+    }
+
     public Map<Server, Set<Num>> getServerDelayBoundMap() {
         return ((TotalFlowResults) result).map__server__D_server;
     }
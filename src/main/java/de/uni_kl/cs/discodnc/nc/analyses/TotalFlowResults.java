@@ -31,6 +31,7 @@
 package de.uni_kl.cs.discodnc.nc.analyses;
 
 import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics;
 import de.uni_kl.cs.discodnc.nc.AnalysisResults;
 import de.uni_kl.cs.discodnc.network.Server;
 import de.uni_kl.cs.discodnc.numbers.Num;
@@ -92,6 +93,11 @@ public class TotalFlowResults extends AnalysisResults {
         super.setBacklogBound(backlog_bound);
     }
 
+    @Override
+    protected void setMetrics(AnalysisMetrics metrics) {
+        super.setMetrics(metrics);
+    }
+
     public String getServerBacklogBoundMapString() {
         if (map__server__B_server.isEmpty()) {
             return "{}";
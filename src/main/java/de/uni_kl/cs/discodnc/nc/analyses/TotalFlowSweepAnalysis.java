@@ -0,0 +1,653 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.nc.analyses;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.LinearSegment;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.misc.Pair;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.AnalysisResults;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.bounds.Bound;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Link;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkSnapshot;
+import de.uni_kl.cs.discodnc.network.Server;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounds all flows of a network with a single sweep over its servers in
+ * topological order.
+ * <p>
+ * Each server derives the delay and backlog bound of its aggregate arrivals
+ * like the TotalFlowAnalysis does. Instead of bounding the arrivals at a server
+ * recursively, the sweep forwards arrival curves from server to server, per
+ * flow and per link: flows leave a server with their arrival curve deconvolved
+ * with the server's left-over service curve, bounded by the server's delay bound
+ * in addition. Thus, every server is bounded exactly once and each flow's bounds
+ * are assembled from the servers on its path.
+ * <p>
+ * The output bounds are derived hop by hop like PBOO_PER_HOP does, honoring
+ * the configured multiplexing, gamma flags and TbRl deconvolution. The
+ * configured arrival bound methods are not used as they bound arrivals across
+ * several hops. For methods other than PBOO_PER_HOP, e.g., the default
+ * PBOO_CONCATENATION or PMOO, the sweep's bounds are valid yet may be looser
+ * than the TotalFlowAnalysis'.
+ * <p>
+ * Servers whose flows depend on each other cyclically, see
+ * Network.getCyclicDependencies(), are bounded by a fixed-point iteration. The
+ * flows enter such a component with their arrival curves not delayed by any of
+ * its servers. Each iteration bounds the component's servers and forwards the
+ * arrival curves, so the delay bounds grow monotonically towards the least
+ * fixed point. The iteration stops once no delay bound grows by more than the
+ * relative convergence tolerance. It diverges if a server becomes unstable or
+ * the growth of the delay bounds does not decrease for
+ * {@value #DIVERGENCE_ITERATIONS} iterations in a row.
+ * <p>
+ * Approaching the fixed point from below, the iteration stops short of it. It
+ * only converges if the arrival curves, inflated by the fixed-point margin, are
+ * mapped to arrival curves that do not exceed them. The least fixed point then
+ * lies below the inflated arrival curves and the component's servers are
+ * bounded with them. Otherwise, the iteration diverges. Servers of components
+ * that diverge or reach the iteration cap, as well as the servers downstream of
+ * them, are not bounded.
+ */
+public class TotalFlowSweepAnalysis {
+    public static final int DIVERGENCE_ITERATIONS = 16;
+
+    private Network network;
+    private AnalysisConfig configuration;
+    private double convergence_tolerance = 1e-6;
+    private double fixed_point_margin = 1e-3;
+    private int iteration_cap = 1000;
+
+    private Map<Server, List<FlowHop>> map__server__hops;
+    private Map<Flow, ArrivalCurve[]> map__flow__alphas;
+    private Map<Link, ArrivalCurve> map__link__alpha;
+
+    private Map<Server, Pair<Num>> map__server__D_B;
+    private Map<Server, ArrivalCurve> map__server__alpha;
+    private Map<Flow, AnalysisResults> map__flow__results;
+
+    private List<List<Server>> cyclic_components;
+    private List<Integer> iteration_counts;
+    private List<FixedPoint> fixed_points;
+
+    @SuppressWarnings("unused")
+    private TotalFlowSweepAnalysis() {
+    }
+
+    public TotalFlowSweepAnalysis(Network network) {
+        this(network, new AnalysisConfig());
+    }
+
+    public TotalFlowSweepAnalysis(Network network, AnalysisConfig configuration) {
+        this.network = network;
+        this.configuration = configuration;
+        this.map__server__hops = new HashMap<Server, List<FlowHop>>();
+        this.map__flow__alphas = new HashMap<Flow, ArrivalCurve[]>();
+        this.map__link__alpha = new HashMap<Link, ArrivalCurve>();
+        this.map__server__D_B = new HashMap<Server, Pair<Num>>();
+        this.map__server__alpha = new HashMap<Server, ArrivalCurve>();
+        this.map__flow__results = new LinkedHashMap<Flow, AnalysisResults>();
+        this.cyclic_components = new ArrayList<List<Server>>();
+        this.iteration_counts = new ArrayList<Integer>();
+        this.fixed_points = new ArrayList<FixedPoint>();
+    }
+
+    public double getConvergenceTolerance() {
+        return convergence_tolerance;
+    }
+
+    /**
+     * @param convergence_tolerance
+     *            The growth of a delay bound, relative to the bound, below which
+     *            the fixed-point iteration stops.
+     */
+    public void setConvergenceTolerance(double convergence_tolerance) {
+        if (!(convergence_tolerance > 0)) {
+            throw new IllegalArgumentException("The convergence tolerance must be positive");
+        }
+        this.convergence_tolerance = convergence_tolerance;
+    }
+
+    public double getFixedPointMargin() {
+        return fixed_point_margin;
+    }
+
+    /**
+     * @param fixed_point_margin
+     *            The inflation of the arrival curves to verify the fixed point
+     *            with. Their bursts grow by this fraction.
+     */
+    public void setFixedPointMargin(double fixed_point_margin) {
+        if (!(fixed_point_margin > 0)) {
+            throw new IllegalArgumentException("The fixed-point margin must be positive");
+        }
+        this.fixed_point_margin = fixed_point_margin;
+    }
+
+    public int getIterationCap() {
+        return iteration_cap;
+    }
+
+    /**
+     * @param iteration_cap
+     *            The maximum number of iterations per cyclic component.
+     */
+    public void setIterationCap(int iteration_cap) {
+        if (iteration_cap < 1) {
+            throw new IllegalArgumentException("The iteration cap must be positive");
+        }
+        this.iteration_cap = iteration_cap;
+    }
+
+    /**
+     * @return Mapping from each flow to its results, iterated in the order of the
+     *         flow ids.
+     * @throws Exception
+     *             A bound cannot be derived.
+     */
+    public Map<Flow, AnalysisResults> performAnalysis() throws Exception {
+        map__server__hops.clear();
+        map__flow__alphas.clear();
+        map__link__alpha.clear();
+        map__server__D_B.clear();
+        map__server__alpha.clear();
+        map__flow__results.clear();
+        cyclic_components.clear();
+        iteration_counts.clear();
+        fixed_points.clear();
+
+        CalculationContext previous_context = CalculationContext.bind(configuration.calculationContext());
+        try {
+            initializeHops();
+
+            NetworkSnapshot snapshot = network.getSnapshot();
+            for (List<Server> component : snapshot.getStronglyConnectedComponents(true)) {
+                if (snapshot.isCyclic(component, true)) {
+                    iterate(component);
+                } else {
+                    boundServer(component.get(0));
+                }
+            }
+
+            assembleFlowResults();
+        } finally {
+            CalculationContext.restore(previous_context);
+        }
+
+        return map__flow__results;
+    }
+
+    /**
+     * Every flow starts with its arrival curve at all hops of its path and every
+     * link with the sum of its flows' arrival curves. Hops and links inside a
+     * cyclic component keep them until they are reached by the iteration.
+     */
+    private void initializeHops() {
+        for (Flow flow : network.getFlows()) {
+            List<Server> path_servers = flow.getPath().getServers();
+            List<Link> path_links = flow.getPath().getLinks();
+            ArrivalCurve[] alphas = new ArrivalCurve[path_servers.size()];
+            for (int hop = 0; hop < alphas.length; hop++) {
+                alphas[hop] = flow.getArrivalCurve();
+
+                List<FlowHop> hops_server = map__server__hops.get(path_servers.get(hop));
+                if (hops_server == null) {
+                    hops_server = new ArrayList<FlowHop>();
+                    map__server__hops.put(path_servers.get(hop), hops_server);
+                }
+                hops_server.add(new FlowHop(flow, hop, hop > 0 ? path_links.get(hop - 1) : null,
+                        hop < path_links.size() ? path_links.get(hop) : null));
+            }
+            map__flow__alphas.put(flow, alphas);
+
+            for (Link link : path_links) {
+                ArrivalCurve alpha_link = map__link__alpha.get(link);
+                map__link__alpha.put(link, alpha_link == null ? flow.getArrivalCurve()
+                        : CurvePwAffine.add(alpha_link, flow.getArrivalCurve()));
+            }
+        }
+    }
+
+    private void iterate(List<Server> component) throws Exception {
+        Map<Server, Num> map__server__D_previous = new HashMap<Server, Num>();
+        double growth_previous = Double.POSITIVE_INFINITY;
+        int growth_not_decreasing = 0;
+
+        FixedPoint fixed_point = FixedPoint.ITERATION_CAP;
+        int iterations = 0;
+        while (iterations < iteration_cap) {
+            iterations++;
+
+            boolean converged = true;
+            double growth = 0;
+            for (Server server : component) {
+                Num delay_bound = boundServer(server);
+                if (delay_bound.isInfinite() || delay_bound.isNaN()) {
+                    fixed_point = FixedPoint.DIVERGED;
+                    break;
+                }
+
+                Num delay_bound_previous = map__server__D_previous.put(server, delay_bound);
+                if (delay_bound_previous == null) {
+                    converged = false;
+                    continue;
+                }
+                double growth_server = delay_bound.doubleValue() - delay_bound_previous.doubleValue();
+                if (growth_server > convergence_tolerance * delay_bound.doubleValue()) {
+                    converged = false;
+                }
+                growth += growth_server;
+            }
+            if (fixed_point == FixedPoint.DIVERGED) {
+                break;
+            }
+            if (converged) {
+                fixed_point = verifyFixedPoint(component)
+                        ? FixedPoint.CONVERGED : FixedPoint.DIVERGED;
+                break;
+            }
+
+            if (iterations > 2 && growth >= (1 - convergence_tolerance) * growth_previous) {
+                growth_not_decreasing++;
+                if (growth_not_decreasing >= DIVERGENCE_ITERATIONS) {
+                    fixed_point = FixedPoint.DIVERGED;
+                    break;
+                }
+            } else {
+                growth_not_decreasing = 0;
+            }
+            growth_previous = growth;
+        }
+
+        if (fixed_point != FixedPoint.CONVERGED) {
+            for (Server server : component) {
+                setUnbounded(server);
+            }
+        }
+
+        cyclic_components.add(component);
+        iteration_counts.add(iterations);
+        fixed_points.add(fixed_point);
+    }
+
+    /**
+     * Inflates the arrival curves inside the component and bounds every server
+     * with them. The fixed point is verified if no server forwards arrival curves
+     * into the component that exceed the inflated ones.
+     *
+     * @return Whether the fixed point is verified.
+     */
+    private boolean verifyFixedPoint(List<Server> component) throws Exception {
+        Set<Server> servers = new HashSet<Server>(component);
+        Num margin = Num.getFactory().create(fixed_point_margin);
+
+        Map<Flow, ArrivalCurve[]> map__flow__alphas_inflated = new HashMap<Flow, ArrivalCurve[]>();
+        Map<Link, ArrivalCurve> map__link__alpha_inflated = new HashMap<Link, ArrivalCurve>();
+        for (Server server : component) {
+            for (FlowHop flow_hop : map__server__hops.get(server)) {
+                if (flow_hop.link_in == null || !servers.contains(flow_hop.link_in.getSource())) {
+                    continue;
+                }
+                ArrivalCurve[] alphas = map__flow__alphas.get(flow_hop.flow);
+                map__flow__alphas_inflated.computeIfAbsent(flow_hop.flow,
+                        flow -> new ArrivalCurve[alphas.length])[flow_hop.hop] = inflate(alphas[flow_hop.hop], margin);
+                if (!map__link__alpha_inflated.containsKey(flow_hop.link_in)) {
+                    map__link__alpha_inflated.put(flow_hop.link_in,
+                            inflate(map__link__alpha.get(flow_hop.link_in), margin));
+                }
+            }
+        }
+
+        for (Server server : component) {
+            // Every server is bounded with the inflated arrival curves, not with the
+            // ones forwarded by the servers before it.
+            for (Map.Entry<Flow, ArrivalCurve[]> entry : map__flow__alphas_inflated.entrySet()) {
+                ArrivalCurve[] alphas = map__flow__alphas.get(entry.getKey());
+                for (int hop = 0; hop < alphas.length; hop++) {
+                    if (entry.getValue()[hop] != null) {
+                        alphas[hop] = entry.getValue()[hop];
+                    }
+                }
+            }
+            map__link__alpha.putAll(map__link__alpha_inflated);
+
+            Num delay_bound = boundServer(server);
+            if (delay_bound.isInfinite() || delay_bound.isNaN()) {
+                return false;
+            }
+
+            for (FlowHop flow_hop : map__server__hops.get(server)) {
+                if (flow_hop.link_out == null || !servers.contains(flow_hop.link_out.getDest())) {
+                    continue;
+                }
+                if (exceeds(map__flow__alphas.get(flow_hop.flow)[flow_hop.hop + 1],
+                        map__flow__alphas_inflated.get(flow_hop.flow)[flow_hop.hop + 1])
+                        || exceeds(map__link__alpha.get(flow_hop.link_out),
+                        map__link__alpha_inflated.get(flow_hop.link_out))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The arrival curve raised by the margin's fraction of its burst
+     *         everywhere but in the origin.
+     */
+    private static ArrivalCurve inflate(ArrivalCurve alpha, Num margin) {
+        Num burst_margin = Num.getUtils().mult(alpha.getBurst(), margin);
+        if (!burst_margin.gtZero()) {
+            return alpha;
+        }
+
+        // Arrival curves with a burst start with a spot in the origin.
+        List<LinearSegment> segments = new ArrayList<LinearSegment>();
+        for (int i = 0; i < alpha.getSegmentCount(); i++) {
+            LinearSegment segment = alpha.getSegment(i);
+            segments.add(LinearSegment.createLinearSegment(segment.getX(),
+                    i == 0 ? segment.getY() : Num.getUtils().add(segment.getY(), burst_margin), segment.getGrad(),
+                    segment.isLeftopen()));
+        }
+        return CurvePwAffine.getFactory().createArrivalCurve(CurvePwAffine.getFactory().createCurve(segments));
+    }
+
+    /**
+     * @return Whether the first arrival curve lies above the second one anywhere.
+     */
+    private static boolean exceeds(ArrivalCurve alpha, ArrivalCurve alpha_bound) {
+        if (alpha.getUltAffineRate().gt(alpha_bound.getUltAffineRate())) {
+            return true;
+        }
+        for (Num x : CurvePwAffine.computeInflectionPointsX(alpha, alpha_bound)) {
+            if (alpha.f(x).gt(alpha_bound.f(x)) || alpha.fLimitRight(x).gt(alpha_bound.fLimitRight(x))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Derives the server's bounds from the current arrival curves of its flows
+     * and forwards them to the flows' next hops.
+     *
+     * @return The server's delay bound.
+     */
+    private Num boundServer(Server server) throws Exception {
+        List<FlowHop> hops_server = map__server__hops.get(server);
+        if (hops_server == null) {
+            return Num.getFactory().createZero();
+        }
+
+        ArrivalCurve alpha_server = computeArrivalBound(hops_server);
+        if (alpha_server == null) {
+            setUnbounded(server);
+            return Num.getFactory().createPositiveInfinity();
+        }
+
+        Pair<Num> D_B = deriveBoundsAtServer(server, alpha_server, network.getSnapshot().getFlows(server).size() == 1);
+        map__server__alpha.put(server, alpha_server);
+        map__server__D_B.put(server, D_B);
+
+        forwardArrivalCurves(server, hops_server, D_B.getFirst());
+        return D_B.getFirst();
+    }
+
+    private void setUnbounded(Server server) throws Exception {
+        map__server__D_B.put(server, new Pair<Num>(Num.getFactory().createPositiveInfinity(),
+                Num.getFactory().createPositiveInfinity()));
+
+        List<FlowHop> hops_server = map__server__hops.get(server);
+        if (hops_server != null) {
+            forwardArrivalCurves(server, hops_server, Num.getFactory().createPositiveInfinity());
+        }
+    }
+
+    private Pair<Num> deriveBoundsAtServer(Server server, ArrivalCurve alpha_server, boolean fifo_per_micro_flow)
+            throws Exception {
+        ServiceCurve beta_server = server.getServiceCurve();
+
+        Num backlog_bound = Bound.backlog(alpha_server, beta_server);
+
+        Num delay_bound;
+        if (configuration.multiplexingDiscipline() == MuxDiscipline.GLOBAL_FIFO
+                || (configuration.multiplexingDiscipline() == MuxDiscipline.SERVER_LOCAL
+                && server.multiplexingDiscipline() == Multiplexing.FIFO)
+                || fifo_per_micro_flow) {
+            delay_bound = Bound.delayFIFO(alpha_server, beta_server);
+        } else {
+            delay_bound = Bound.delayARB(alpha_server, beta_server);
+        }
+
+        return new Pair<Num>(delay_bound, backlog_bound);
+    }
+
+    /**
+     * Bounds the aggregate arrivals of the given flow hops at their server. The
+     * flows entering the server over the same link are bounded by the sum of their
+     * arrival curves as well as by the arrival curve of all flows on the link.
+     *
+     * @return The arrival curve or null if a flow is not bounded anymore.
+     */
+    private ArrivalCurve computeArrivalBound(List<FlowHop> flow_hops) {
+        // Arrival curves are dropped behind unstable servers.
+        ArrivalCurve alpha_sources = CurvePwAffine.getFactory().createZeroArrivals();
+        Map<Link, ArrivalCurve> map__link__alpha_hops = new LinkedHashMap<Link, ArrivalCurve>();
+        for (FlowHop flow_hop : flow_hops) {
+            ArrivalCurve alpha_flow = map__flow__alphas.get(flow_hop.flow)[flow_hop.hop];
+            if (alpha_flow == null) {
+                return null;
+            }
+            if (flow_hop.link_in == null) {
+                alpha_sources = CurvePwAffine.add(alpha_sources, alpha_flow);
+            } else {
+                ArrivalCurve alpha_link = map__link__alpha_hops.get(flow_hop.link_in);
+                map__link__alpha_hops.put(flow_hop.link_in,
+                        alpha_link == null ? alpha_flow : CurvePwAffine.add(alpha_link, alpha_flow));
+            }
+        }
+
+        ArrivalCurve alpha = alpha_sources;
+        for (Map.Entry<Link, ArrivalCurve> entry : map__link__alpha_hops.entrySet()) {
+            ArrivalCurve alpha_link = map__link__alpha.get(entry.getKey());
+            alpha = CurvePwAffine.add(alpha,
+                    alpha_link == null ? entry.getValue() : CurvePwAffine.min(entry.getValue(), alpha_link));
+        }
+        return alpha;
+    }
+
+    /**
+     * Bounds the output of the flows leaving the server over each link, as a whole
+     * and per flow. Flows leaving an unstable server are not bounded anymore.
+     */
+    private void forwardArrivalCurves(Server server, List<FlowHop> hops_server, Num delay_bound) throws Exception {
+        boolean bounded = !delay_bound.isInfinite() && !delay_bound.isNaN();
+
+        Map<Link, List<FlowHop>> map__link__hops = new LinkedHashMap<Link, List<FlowHop>>();
+        for (FlowHop flow_hop : hops_server) {
+            if (flow_hop.link_out != null) {
+                map__link__hops.computeIfAbsent(flow_hop.link_out, link -> new ArrayList<FlowHop>()).add(flow_hop);
+            }
+        }
+
+        for (Map.Entry<Link, List<FlowHop>> entry : map__link__hops.entrySet()) {
+            if (!bounded) {
+                map__link__alpha.remove(entry.getKey());
+                for (FlowHop flow_hop : entry.getValue()) {
+                    map__flow__alphas.get(flow_hop.flow)[flow_hop.hop + 1] = null;
+                }
+                continue;
+            }
+
+            ArrivalCurve alpha_link = computeOutputBound(server, entry.getValue(), hops_server, delay_bound);
+            map__link__alpha.put(entry.getKey(), alpha_link);
+            for (FlowHop flow_hop : entry.getValue()) {
+                map__flow__alphas.get(flow_hop.flow)[flow_hop.hop + 1] = entry.getValue().size() == 1 ? alpha_link
+                        : CurvePwAffine.min(alpha_link, computeOutputBound(server,
+                                Collections.singletonList(flow_hop), hops_server, delay_bound));
+            }
+        }
+    }
+
+    /**
+     * Bounds the output of the given flow hops like the PBOO per-hop arrival bound
+     * does: their arrival curve is deconvolved with the server's left-over service
+     * curve w.r.t. the server's other flows. In addition, the flows experience at
+     * most the server's delay bound, i.e., their output is also bounded by their
+     * arrival curve shifted to the left by this bound and forced through the
+     * origin again. The result is the minimum of these bounds.
+     */
+    private ArrivalCurve computeOutputBound(Server server, List<FlowHop> flow_hops, List<FlowHop> hops_server,
+                                           Num delay_bound) throws Exception {
+        List<FlowHop> hops_xflows = new ArrayList<FlowHop>(hops_server);
+        hops_xflows.removeAll(flow_hops);
+
+        ArrivalCurve alpha = computeArrivalBound(flow_hops);
+        ArrivalCurve alpha_output = CurvePwAffine.getFactory().createArrivalCurve(
+                CurvePwAffine.shiftLeftClipping(alpha, delay_bound));
+
+        Set<ServiceCurve> betas_lo = Bound.leftOverService(configuration, server,
+                Collections.singleton(computeArrivalBound(hops_xflows)));
+        if (betas_lo.size() == 1 && betas_lo.iterator().next().isZeroService()) {
+            return alpha_output;
+        }
+        for (ArrivalCurve alpha_lo : Bound.output(configuration, Collections.singleton(alpha), server, betas_lo)) {
+            alpha_output = CurvePwAffine.min(alpha_output, alpha_lo);
+        }
+        return alpha_output;
+    }
+
+    private void assembleFlowResults() {
+        List<Flow> flows_sorted = new ArrayList<Flow>(network.getFlows());
+        flows_sorted.sort(Comparator.comparingInt(Flow::getId));
+
+        for (Flow flow : flows_sorted) {
+            Num delay_bound = Num.getFactory().createZero();
+            Num backlog_bound = Num.getFactory().createZero();
+
+            Map<Server, Set<ArrivalCurve>> map__server__alphas = new HashMap<Server, Set<ArrivalCurve>>();
+            Map<Server, Set<Num>> map__server__D_server = new HashMap<Server, Set<Num>>();
+            Map<Server, Set<Num>> map__server__B_server = new HashMap<Server, Set<Num>>();
+
+            for (Server server : flow.getPath().getServers()) {
+                Pair<Num> D_B = map__server__D_B.get(server);
+
+                delay_bound = Num.getUtils().add(delay_bound, D_B.getFirst());
+                backlog_bound = Num.getUtils().max(backlog_bound, D_B.getSecond());
+
+                map__server__alphas.put(server, new HashSet<ArrivalCurve>(
+                        Collections.singleton(map__server__alpha.get(server))));
+                map__server__D_server.put(server, new HashSet<Num>(Collections.singleton(D_B.getFirst())));
+                map__server__B_server.put(server, new HashSet<Num>(Collections.singleton(D_B.getSecond())));
+            }
+
+            map__flow__results.put(flow, new TotalFlowResults(delay_bound, map__server__D_server, backlog_bound,
+                    map__server__B_server, map__server__alphas));
+        }
+    }
+
+    /**
+     * @return Mapping from each server with flows to its delay and backlog bound.
+     */
+    public Map<Server, Pair<Num>> getServerBounds() {
+        return map__server__D_B;
+    }
+
+    /**
+     * @return The components with cyclic dependencies in the order they were
+     *         iterated.
+     */
+    public List<List<Server>> getCyclicComponents() {
+        return cyclic_components;
+    }
+
+    /**
+     * @return The number of iterations per cyclic component.
+     */
+    public List<Integer> getIterationCounts() {
+        return iteration_counts;
+    }
+
+    /**
+     * @return The outcome of the iteration per cyclic component.
+     */
+    public List<FixedPoint> getFixedPoints() {
+        return fixed_points;
+    }
+
+    /**
+     * @return Whether the iteration converged in all cyclic components.
+     */
+    public boolean isConverged() {
+        return !fixed_points.contains(FixedPoint.DIVERGED) && !fixed_points.contains(FixedPoint.ITERATION_CAP);
+    }
+
+    public Map<Flow, AnalysisResults> getResults() {
+        return map__flow__results;
+    }
+
+    public AnalysisResults getResults(Flow flow) {
+        return map__flow__results.get(flow);
+    }
+
+    public enum FixedPoint {
+        CONVERGED, DIVERGED, ITERATION_CAP
+    }
+
+    private static final class FlowHop {
+        private final Flow flow;
+        private final int hop;
+        private final Link link_in;
+        private final Link link_out;
+
+        private FlowHop(Flow flow, int hop, Link link_in, Link link_out) {
+            this.flow = flow;
+            this.hop = hop;
+            this.link_in = link_in;
+            this.link_out = link_out;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.nc.analyses;
+
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.nc.Analysis.Analyses;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
+import de.uni_kl.cs.discodnc.nc.AnalysisResults;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.OperationImpl;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Link;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.Server;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounds all flows of a network with double precision numbers first and
+ * re-verifies the critical flows with an exact number implementation.
+ * <p>
+ * A flow is critical if its delay or backlog bound from the screening phase is
+ * within the margin of the respective deadline, i.e., the double precision
+ * bound cannot decide whether the deadline is met. Flows without deadlines are
+ * screened only. The screening uses an AllFlowsAnalysis, the re-verification
+ * analyzes each critical flow separately.
+ * <p>
+ * Each phase runs on a copy of the network whose curves are re-created from
+ * their string representation in the phase's calculation context. Thus, the
+ * exact phase starts from the parameters the network was defined with, not
+ * from their double precision approximation, as long as these parameters are
+ * decimal or rational numbers. The copy is omitted if the network's curves
+ * already match the phase's context. Results refer to the servers of the
+ * network they were derived in.
+ */
+public class TwoPhaseFlowAnalysis {
+    private Network network;
+    private AnalysisConfig configuration;
+    private Analyses analysis;
+    private NumImpl exact_num_impl;
+    private double margin;
+
+    private Map<Flow, Double> map__flow__delay_deadline;
+    private Map<Flow, Double> map__flow__backlog_deadline;
+
+    private Map<Flow, AnalysisResults> map__flow__screening_results;
+    private Map<Flow, AnalysisResults> map__flow__exact_results;
+
+    @SuppressWarnings("unused")
+    private TwoPhaseFlowAnalysis() {
+    }
+
+    public TwoPhaseFlowAnalysis(Network network, AnalysisConfig configuration, Analyses analysis) {
+        this(network, configuration, analysis, NumImpl.RATIONAL_BIGINTEGER, 0.1);
+    }
+
+    /**
+     * @param network
+     *            The network to analyze.
+     * @param configuration
+     *            The analysis configuration of both phases.
+     * @param analysis
+     *            The analysis of both phases.
+     * @param exact_num_impl
+     *            The number implementation of the re-verification.
+     * @param margin
+     *            The distance to a deadline, relative to the deadline, that
+     *            makes a flow critical.
+     */
+    public TwoPhaseFlowAnalysis(Network network, AnalysisConfig configuration, Analyses analysis,
+                                NumImpl exact_num_impl, double margin) {
+        if (margin < 0) {
+            throw new IllegalArgumentException("The margin must not be negative");
+        }
+
+        this.network = network;
+        this.configuration = configuration;
+        this.analysis = analysis;
+        this.exact_num_impl = exact_num_impl;
+        this.margin = margin;
+        this.map__flow__delay_deadline = new HashMap<Flow, Double>();
+        this.map__flow__backlog_deadline = new HashMap<Flow, Double>();
+        this.map__flow__screening_results = new LinkedHashMap<Flow, AnalysisResults>();
+        this.map__flow__exact_results = new LinkedHashMap<Flow, AnalysisResults>();
+    }
+
+    public void setDelayDeadline(Flow flow, double deadline) {
+        map__flow__delay_deadline.put(flow, deadline);
+    }
+
+    public void setBacklogDeadline(Flow flow, double deadline) {
+        map__flow__backlog_deadline.put(flow, deadline);
+    }
+
+    /**
+     * @return Mapping from each flow to its results, the exact ones if the flow
+     *         was re-verified.
+     * @throws Exception
+     *             The server graph is not feed-forward, one of the analyses
+     *             failed or the network's curves cannot be re-created.
+     */
+    public Map<Flow, AnalysisResults> performAnalysis() throws Exception {
+        map__flow__screening_results.clear();
+        map__flow__exact_results.clear();
+
+        CalculationContext context = configuration.calculationContext();
+        if (context == null) {
+            context = CalculationContext.current();
+        }
+
+        CalculationContext context_screening = context.withNumImpl(NumImpl.REAL_DOUBLE_PRECISION);
+        if (context.getCurveImpl() == CurveImpl.DNC_DOUBLE || context.getCurveImpl() == CurveImpl.MPA_RTC) {
+            context_screening = context; // Both compute with doubles
+        }
+        CalculationContext context_exact = context.withNumImpl(exact_num_impl).withCurveImpl(CurveImpl.DNC)
+                .withOperationImpl(OperationImpl.DNC);
+
+        performScreening(context, context_screening);
+
+        Set<Flow> critical_flows = getCriticalFlows();
+        if (!critical_flows.isEmpty()) {
+            performReverification(context, context_exact, critical_flows);
+        }
+
+        return getResults();
+    }
+
+    private void performScreening(CalculationContext context, CalculationContext context_screening)
+            throws Exception {
+        AnalysisConfig configuration_screening = configuration.copy();
+        configuration_screening.setCalculationContext(context_screening);
+
+        CalculationContext previous_context = CalculationContext.bind(context_screening);
+        try {
+            Map<Flow, Flow> map__flow__flow_screening = new HashMap<Flow, Flow>();
+            Network network_screening = copyNetwork(context, context_screening, map__flow__flow_screening);
+
+            AllFlowsAnalysis all_flows = new AllFlowsAnalysis(network_screening, configuration_screening, analysis);
+            all_flows.performAnalysis();
+
+            for (Flow flow : getFlowsSorted()) {
+                map__flow__screening_results.put(flow, all_flows.getResults(map__flow__flow_screening.get(flow)));
+            }
+        } finally {
+            CalculationContext.restore(previous_context);
+        }
+    }
+
+    private void performReverification(CalculationContext context, CalculationContext context_exact,
+                                       Set<Flow> critical_flows) throws Exception {
+        AnalysisConfig configuration_exact = configuration.copy();
+        configuration_exact.setCalculationContext(context_exact);
+
+        CalculationContext previous_context = CalculationContext.bind(context_exact);
+        try {
+            Map<Flow, Flow> map__flow__flow_exact = new HashMap<Flow, Flow>();
+            Network network_exact = copyNetwork(context, context_exact, map__flow__flow_exact);
+
+            for (Flow flow : critical_flows) {
+                map__flow__exact_results.put(flow,
+                        analyzeFlow(network_exact, configuration_exact, map__flow__flow_exact.get(flow)));
+            }
+        } finally {
+            CalculationContext.restore(previous_context);
+        }
+    }
+
+    private AnalysisResults analyzeFlow(Network network, AnalysisConfig configuration, Flow flow_of_interest)
+            throws Exception {
+        switch (analysis) {
+            case TFA:
+                TotalFlowAnalysis tfa = new TotalFlowAnalysis(network, configuration);
+                tfa.performAnalysis(flow_of_interest);
+                return tfa.getResults();
+
+            case SFA:
+                SeparateFlowAnalysis sfa = new SeparateFlowAnalysis(network, configuration);
+                sfa.performAnalysis(flow_of_interest);
+                return sfa.getResults();
+
+            case PMOO:
+            default:
+                PmooAnalysis pmoo = new PmooAnalysis(network, configuration);
+                pmoo.performAnalysis(flow_of_interest);
+                return pmoo.getResults();
+        }
+    }
+
+    /**
+     * Servers, links and flows are added in the order of their ids such that the
+     * copy's ids match the network's unless elements were removed from it.
+     */
+    private Network copyNetwork(CalculationContext context, CalculationContext context_copy,
+                                Map<Flow, Flow> map__flow__flow_copy) throws Exception {
+        if (context.getNumImpl() == context_copy.getNumImpl()
+                && context.getCurveImpl() == context_copy.getCurveImpl()) {
+            for (Flow flow : network.getFlows()) {
+                map__flow__flow_copy.put(flow, flow);
+            }
+            return network;
+        }
+
+        CurvePwAffine factory = context_copy.getCurveFactory();
+        Network network_copy = new Network();
+
+        List<Server> servers = new ArrayList<Server>(network.getServers());
+        servers.sort(Comparator.comparingInt(Server::getId));
+        Map<Server, Server> map__server__server_copy = new HashMap<Server, Server>();
+        for (Server server : servers) {
+            map__server__server_copy.put(server, network_copy.addServer(server.getAlias(),
+                    factory.createServiceCurve(server.getServiceCurve().toString()),
+                    factory.createMaxServiceCurve(server.getMaxServiceCurve().toString()),
+                    server.multiplexingDiscipline(), server.useGamma(), server.useExtraGamma()));
+        }
+
+        List<Link> links = new ArrayList<Link>(network.getLinks());
+        links.sort(Comparator.comparingInt(Link::getId));
+        Map<Link, Link> map__link__link_copy = new HashMap<Link, Link>();
+        for (Link link : links) {
+            map__link__link_copy.put(link, network_copy.addLink(link.getAlias(),
+                    map__server__server_copy.get(link.getSource()), map__server__server_copy.get(link.getDest())));
+        }
+
+        for (Flow flow : getFlowsSorted()) {
+            List<Link> path_links_copy = new ArrayList<Link>();
+            for (Link link : flow.getLinksOnPath()) {
+                path_links_copy.add(map__link__link_copy.get(link));
+            }
+
+            Flow flow_copy;
+            if (path_links_copy.isEmpty()) {
+                flow_copy = network_copy.addFlow(flow.getAlias(),
+                        factory.createArrivalCurve(flow.getArrivalCurve().toString()),
+                        map__server__server_copy.get(flow.getSource()));
+            } else {
+                flow_copy = network_copy.addFlow(flow.getAlias(),
+                        factory.createArrivalCurve(flow.getArrivalCurve().toString()), path_links_copy);
+            }
+            map__flow__flow_copy.put(flow, flow_copy);
+        }
+
+        return network_copy;
+    }
+
+    private List<Flow> getFlowsSorted() {
+        List<Flow> flows_sorted = new ArrayList<Flow>(network.getFlows());
+        flows_sorted.sort(Comparator.comparingInt(Flow::getId));
+        return flows_sorted;
+    }
+
+    /**
+     * @return The flows whose screening bounds are within the margin of a
+     *         deadline, in the order of their ids.
+     */
+    public Set<Flow> getCriticalFlows() {
+        Set<Flow> critical_flows = new LinkedHashSet<Flow>();
+        for (Map.Entry<Flow, AnalysisResults> entry : map__flow__screening_results.entrySet()) {
+            AnalysisResults results = entry.getValue();
+            if (isCritical(results.getDelayBound(), map__flow__delay_deadline.get(entry.getKey()))
+                    || isCritical(results.getBacklogBound(), map__flow__backlog_deadline.get(entry.getKey()))) {
+                critical_flows.add(entry.getKey());
+            }
+        }
+        return critical_flows;
+    }
+
+    private boolean isCritical(Num bound, Double deadline) {
+        if (deadline == null || bound.isInfinite() || bound.isNaN()) {
+            return false;
+        }
+        return Math.abs(bound.doubleValue() - deadline) <= margin * Math.abs(deadline);
+    }
+
+    /**
+     * @param flow
+     *            The flow of interest.
+     * @return Whether the flow's bounds meet its deadlines, decided by the exact
+     *         bounds if the flow was re-verified.
+     */
+    public boolean meetsDeadlines(Flow flow) {
+        AnalysisResults results = getResults(flow);
+        return meetsDeadline(results.getDelayBound(), map__flow__delay_deadline.get(flow))
+                && meetsDeadline(results.getBacklogBound(), map__flow__backlog_deadline.get(flow));
+    }
+
+    private boolean meetsDeadline(Num bound, Double deadline) {
+        if (deadline == null) {
+            return true;
+        }
+        if (bound.isInfinite() || bound.isNaN()) {
+            return false;
+        }
+        return bound.leq(bound.create(deadline));
+    }
+
+    public Map<Flow, AnalysisResults> getResults() {
+        Map<Flow, AnalysisResults> map__flow__results = new LinkedHashMap<Flow, AnalysisResults>();
+        for (Flow flow : map__flow__screening_results.keySet()) {
+            map__flow__results.put(flow, getResults(flow));
+        }
+        return map__flow__results;
+    }
+
+    public AnalysisResults getResults(Flow flow) {
+        AnalysisResults results = map__flow__exact_results.get(flow);
+        if (results == null) {
+            results = map__flow__screening_results.get(flow);
+        }
+        return results;
+    }
+
+    public AnalysisResults getScreeningResults(Flow flow) {
+        return map__flow__screening_results.get(flow);
+    }
+
+    /**
+     * @param flow
+     *            The flow of interest.
+     * @return The flow's exact results, null if it was not critical.
+     */
+    public AnalysisResults getExactResults(Flow flow) {
+        return map__flow__exact_results.get(flow);
+    }
+}
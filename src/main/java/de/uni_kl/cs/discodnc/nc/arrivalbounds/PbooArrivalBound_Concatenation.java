@@ -32,16 +32,17 @@ import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
 import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
 import de.uni_kl.cs.discodnc.curves.ServiceCurve;
 import de.uni_kl.cs.discodnc.minplus.MinPlus;
-import de.uni_kl.cs.discodnc.misc.SetUtils;
 import de.uni_kl.cs.discodnc.nc.AbstractArrivalBound;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
 import de.uni_kl.cs.discodnc.nc.ArrivalBound;
 import de.uni_kl.cs.discodnc.nc.ArrivalBoundDispatch;
+import de.uni_kl.cs.discodnc.nc.TotalFlowBoundCache.TotalFlowBounds;
 import de.uni_kl.cs.discodnc.nc.analyses.TotalFlowAnalysis;
 import de.uni_kl.cs.discodnc.nc.bounds.Bound;
 import de.uni_kl.cs.discodnc.network.Flow;
 import de.uni_kl.cs.discodnc.network.Link;
 import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkSnapshot;
 import de.uni_kl.cs.discodnc.network.Path;
 import de.uni_kl.cs.discodnc.network.Server;
 import de.uni_kl.cs.discodnc.numbers.Num;
@@ -80,8 +81,9 @@ public class PbooArrivalBound_Concatenation extends AbstractArrivalBound impleme
 		// Get the servers on common sub-path of f_xfcaller flows crossing link
 		// loi == location of interference
 		Server loi = link.getDest();
-		Set<Flow> f_loi = network.getFlows(loi);
-		Set<Flow> f_xfcaller_loi = SetUtils.getIntersection(f_loi, f_xfcaller);
+		NetworkSnapshot snapshot = network.getSnapshot();
+		Set<Flow> f_loi = snapshot.getFlows(loi);
+		Set<Flow> f_xfcaller_loi = snapshot.getIntersection(f_loi, f_xfcaller);
 		f_xfcaller_loi.remove(flow_of_interest);
 		if (f_xfcaller_loi.size() == 0) {
 			return alphas_xfcaller;
@@ -114,8 +116,8 @@ public class PbooArrivalBound_Concatenation extends AbstractArrivalBound impleme
 			f_xxfcaller_server.removeAll(f_xfcaller);
 			f_xxfcaller_server.remove(flow_of_interest);
 
-			Set<Flow> f_xxfcaller_server_path = SetUtils.getIntersection(f_xxfcaller_server,
-					network.getFlows(link_from_prev_s));
+			Set<Flow> f_xxfcaller_server_path = snapshot.getIntersection(f_xxfcaller_server,
+					snapshot.getFlows(link_from_prev_s));
 
 			// Convert f_xfoi_server to f_xfoi_server_offpath
 			f_xxfcaller_server.removeAll(f_xxfcaller_server_path);
@@ -140,7 +142,7 @@ public class PbooArrivalBound_Concatenation extends AbstractArrivalBound impleme
 			// Check if there's any service left on this path. If not, the set only contains
 			// a null-service curve.
 			if (betas_lo_s.size() == 1
-					&& betas_lo_s.iterator().next().equals(CurvePwAffine.getFactory().createZeroService())) {
+					&& betas_lo_s.iterator().next().isZeroService()) {
 				System.out.println("No service left over during PBOO arrival bounding!");
 				alphas_xfcaller.clear();
 				alphas_xfcaller.add(CurvePwAffine.getFactory()
@@ -164,10 +166,20 @@ public class PbooArrivalBound_Concatenation extends AbstractArrivalBound impleme
 
 		if (configuration.abConsiderTFANodeBacklog()) {
 			Server last_hop_xtx = link.getSource();
-			TotalFlowAnalysis tfa = new TotalFlowAnalysis(network, configuration);
-			tfa.deriveBoundsAtServer(last_hop_xtx);
+			TotalFlowBounds tfa_bounds = null;
+			if (configuration.useTotalFlowBoundCache()) {
+				tfa_bounds = network.getTotalFlowBoundCache().getEntry(configuration, last_hop_xtx);
+			}
 
-			Set<Num> tfa_backlog_bounds = tfa.getServerBacklogBoundMap().get(last_hop_xtx);
+			Set<Num> tfa_backlog_bounds;
+			if (tfa_bounds != null) {
+				tfa_backlog_bounds = tfa_bounds.getBacklogBounds();
+			} else {
+				// Adds the bounds to the network's cache, if used, for subsequent arrival bounds.
+				TotalFlowAnalysis tfa = new TotalFlowAnalysis(network, configuration);
+				tfa.deriveBoundsAtServer(last_hop_xtx);
+				tfa_backlog_bounds = tfa.getServerBacklogBoundMap().get(last_hop_xtx);
+			}
 			Num tfa_backlog_bound_min = Num.getFactory().getPositiveInfinity();
 
 			for (Num tfa_backlog_bound : tfa_backlog_bounds) {
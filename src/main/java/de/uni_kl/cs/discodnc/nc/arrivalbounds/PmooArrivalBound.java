@@ -32,7 +32,6 @@ package de.uni_kl.cs.discodnc.nc.arrivalbounds;
 import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
 import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
 import de.uni_kl.cs.discodnc.curves.ServiceCurve;
-import de.uni_kl.cs.discodnc.misc.SetUtils;
 import de.uni_kl.cs.discodnc.nc.AbstractArrivalBound;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
@@ -44,6 +43,7 @@ import de.uni_kl.cs.discodnc.nc.bounds.Bound;
 import de.uni_kl.cs.discodnc.network.Flow;
 import de.uni_kl.cs.discodnc.network.Link;
 import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkSnapshot;
 import de.uni_kl.cs.discodnc.network.Path;
 import de.uni_kl.cs.discodnc.network.Server;
 
@@ -101,8 +101,9 @@ public class PmooArrivalBound extends AbstractArrivalBound implements ArrivalBou
 		// Get the common sub-path of f_xfcaller flows crossing the given link
 		// loi == location of interference
 		Server loi = link.getDest();
-		Set<Flow> f_loi = network.getFlows(loi);
-		Set<Flow> f_xfcaller_loi = SetUtils.getIntersection(f_loi, f_xfcaller);
+		NetworkSnapshot snapshot = network.getSnapshot();
+		Set<Flow> f_loi = snapshot.getFlows(loi);
+		Set<Flow> f_xfcaller_loi = snapshot.getIntersection(f_loi, f_xfcaller);
 		f_xfcaller_loi.remove(flow_of_interest);
 		if (f_xfcaller_loi.isEmpty()) {
 			return alphas_xfcaller;
@@ -32,21 +32,29 @@ import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
 import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
 import de.uni_kl.cs.discodnc.curves.ServiceCurve;
 import de.uni_kl.cs.discodnc.minplus.MinPlus;
-import de.uni_kl.cs.discodnc.misc.SetUtils;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.ArrivalBoundMethod;
+import de.uni_kl.cs.discodnc.nc.ArrivalBoundCache;
 import de.uni_kl.cs.discodnc.network.Flow;
 import de.uni_kl.cs.discodnc.network.Link;
 import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkSnapshot;
 import de.uni_kl.cs.discodnc.network.Server;
 
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
+// We use a cache here that stores arrival bounds for single flows
+// on specific links.
+// See
+// "Boosting Sensor Network Calculus by Thoroughly Bounding Cross-Traffic"
+// (Steffen Bondorf and Jens B. Schmitt),
+// in Proc. 34th IEEE International Conference on Computer Communications
+// (INFOCOM 2015).
+// for more details.
 public class PmooArrivalBound_SinkTreeTbRl { //extends AbstractArrivalBound {
     private static PmooArrivalBound_SinkTreeTbRl instance = new PmooArrivalBound_SinkTreeTbRl();
     protected Network network;
-    private PmooSinkTreeTbRlABCache ab_cache = new PmooSinkTreeTbRlABCache();
+    private ArrivalBoundCache ab_cache = new ArrivalBoundCache();
 
     private PmooArrivalBound_SinkTreeTbRl() {
     }
@@ -60,7 +68,7 @@ public class PmooArrivalBound_SinkTreeTbRl { //extends AbstractArrivalBound {
     }
 
     public void clearCache() {
-        ab_cache = new PmooSinkTreeTbRlABCache();
+        ab_cache = new ArrivalBoundCache();
     }
 
     /**
@@ -79,7 +87,8 @@ public class PmooArrivalBound_SinkTreeTbRl { //extends AbstractArrivalBound {
         Set<ArrivalCurve> result = new HashSet<ArrivalCurve>();
 
         // Get flows of interest
-        Set<Flow> f_xfcaller_server = SetUtils.getIntersection(f_xfcaller, network.getFlows(link));
+        NetworkSnapshot snapshot = network.getSnapshot();
+        Set<Flow> f_xfcaller_server = snapshot.getIntersection(f_xfcaller, snapshot.getFlows(link));
         f_xfcaller_server.remove(flow_of_interest);
         if (f_xfcaller_server.isEmpty()) {
             return result;
@@ -96,7 +105,7 @@ public class PmooArrivalBound_SinkTreeTbRl { //extends AbstractArrivalBound {
             R = 0.0;
             B = 0.0;
 
-            arrival_bound = ab_cache.getEntry(link, f);
+            arrival_bound = ab_cache.getEntry(ArrivalBoundMethod.PMOO_SINKTREE_TBRL, link, f);
             if (arrival_bound != null) {
                 R = arrival_bound.getUltAffineRate().doubleValue();
                 B = arrival_bound.getBurst().doubleValue();
@@ -111,7 +120,8 @@ public class PmooArrivalBound_SinkTreeTbRl { //extends AbstractArrivalBound {
                 }
                 B += R * sum_T;
 
-                ab_cache.addEntry(link, f, CurvePwAffine.getFactory().createTokenBucket(R, B));
+                ab_cache.addEntry(ArrivalBoundMethod.PMOO_SINKTREE_TBRL, link, f,
+                        CurvePwAffine.getFactory().createTokenBucket(R, B));
             }
             sum_R += R;
             sum_B += B;
@@ -137,7 +147,8 @@ public class PmooArrivalBound_SinkTreeTbRl { //extends AbstractArrivalBound {
         Set<ArrivalCurve> result = new HashSet<ArrivalCurve>();
 
         // Get flows of interest
-        Set<Flow> f_xfcaller_server = SetUtils.getIntersection(f_xfcaller, network.getFlows(link));
+        NetworkSnapshot snapshot = network.getSnapshot();
+        Set<Flow> f_xfcaller_server = snapshot.getIntersection(f_xfcaller, snapshot.getFlows(link));
         f_xfcaller_server.remove(flow_of_interest);
 
         if (f_xfcaller_server.isEmpty()) {
@@ -148,7 +159,7 @@ public class PmooArrivalBound_SinkTreeTbRl { //extends AbstractArrivalBound {
         ArrivalCurve arrival_bound_f = CurvePwAffine.getFactory().createZeroArrivals();
         ServiceCurve sc_s_subpath = CurvePwAffine.getFactory().createZeroDelayInfiniteBurst();
         for (Flow f : f_xfcaller_server) {
-            arrival_bound_f = ab_cache.getEntry(link, f);
+            arrival_bound_f = ab_cache.getEntry(ArrivalBoundMethod.PMOO_SINKTREE_TBRL_CONV, link, f);
             if (arrival_bound_f == null) {
                 sc_s_subpath = CurvePwAffine.getFactory().createZeroDelayInfiniteBurst();
                 for (Server s : f.getSubPath(f.getSource(), link.getSource()).getServers()) {
@@ -160,7 +171,7 @@ public class PmooArrivalBound_SinkTreeTbRl { //extends AbstractArrivalBound {
                 // generic
                 // deconvolution
             }
-            ab_cache.addEntry(link, f, arrival_bound_f);
+            ab_cache.addEntry(ArrivalBoundMethod.PMOO_SINKTREE_TBRL_CONV, link, f, arrival_bound_f);
             arrival_bound = CurvePwAffine.add(arrival_bound, arrival_bound_f);
         }
 
@@ -185,7 +196,8 @@ public class PmooArrivalBound_SinkTreeTbRl { //extends AbstractArrivalBound {
         Set<ArrivalCurve> result = new HashSet<ArrivalCurve>();
 
         // Get flows of interest
-        Set<Flow> f_xfcaller_server = SetUtils.getIntersection(f_xfcaller, network.getFlows(link));
+        NetworkSnapshot snapshot = network.getSnapshot();
+        Set<Flow> f_xfcaller_server = snapshot.getIntersection(f_xfcaller, snapshot.getFlows(link));
         f_xfcaller_server.remove(flow_of_interest);
 
         if (f_xfcaller_server.isEmpty()) {
@@ -196,7 +208,7 @@ public class PmooArrivalBound_SinkTreeTbRl { //extends AbstractArrivalBound {
         ArrivalCurve arrival_bound_f = CurvePwAffine.getFactory().createZeroArrivals();
         ServiceCurve sc_s_subpath = CurvePwAffine.getFactory().createZeroDelayInfiniteBurst();
         for (Flow f : f_xfcaller_server) {
-            arrival_bound_f = ab_cache.getEntry(link, f);
+            arrival_bound_f = ab_cache.getEntry(ArrivalBoundMethod.PMOO_SINKTREE_TBRL_CONV_TBRL_DECONV, link, f);
             if (arrival_bound_f == null) {
                 sc_s_subpath = CurvePwAffine.getFactory().createZeroDelayInfiniteBurst();
                 for (Server s : f.getSubPath(f.getSource(), link.getSource()).getServers()) {
@@ -206,7 +218,7 @@ public class PmooArrivalBound_SinkTreeTbRl { //extends AbstractArrivalBound {
                 arrival_bound_f = MinPlus.deconvolve(f.getArrivalCurve(), sc_s_subpath, true); // true -> tb, rl
                 // optimized
             }
-            ab_cache.addEntry(link, f, arrival_bound_f);
+            ab_cache.addEntry(ArrivalBoundMethod.PMOO_SINKTREE_TBRL_CONV_TBRL_DECONV, link, f, arrival_bound_f);
             arrival_bound = CurvePwAffine.add(arrival_bound, arrival_bound_f);
         }
 
@@ -232,7 +244,8 @@ public class PmooArrivalBound_SinkTreeTbRl { //extends AbstractArrivalBound {
         Set<ArrivalCurve> result = new HashSet<ArrivalCurve>();
 
         // Get flows of interest
-        Set<Flow> f_xfcaller_server = SetUtils.getIntersection(f_xfcaller, network.getFlows(link));
+        NetworkSnapshot snapshot = network.getSnapshot();
+        Set<Flow> f_xfcaller_server = snapshot.getIntersection(f_xfcaller, snapshot.getFlows(link));
         f_xfcaller_server.remove(flow_of_interest);
         if (f_xfcaller_server.size() == 0) {
             return result;
@@ -256,39 +269,3 @@ public class PmooArrivalBound_SinkTreeTbRl { //extends AbstractArrivalBound {
         return result;
     }
 }
-
-// We use a specialized cache here that stores arrival bounds for single flows
-// on specific links.
-// See
-// "Boosting Sensor Network Calculus by Thoroughly Bounding Cross-Traffic"
-// (Steffen Bondorf and Jens B. Schmitt),
-// in Proc. 34th IEEE International Conference on Computer Communications
-// (INFOCOM 2015).
-// for more details.
-class PmooSinkTreeTbRlABCache {
-    Map<Link, Map<Flow, ArrivalCurve>> map__link__entries = new HashMap<Link, Map<Flow, ArrivalCurve>>();
-
-    protected ArrivalCurve getEntry(Link link, Flow flow) {
-        Map<Flow, ArrivalCurve> entries_link = map__link__entries.get(link);
-        if (entries_link != null) {
-            return entries_link.get(flow);
-        } else {
-            // Anticipated following addEntry
-            entries_link = new HashMap<Flow, ArrivalCurve>();
-            map__link__entries.put(link, entries_link);
-
-            return null;
-        }
-    }
-
-    protected void addEntry(Link link, Flow flow, ArrivalCurve arrival_bound) {
-        Map<Flow, ArrivalCurve> entries_link = map__link__entries.get(link);
-        if (entries_link == null) {
-            entries_link = new HashMap<Flow, ArrivalCurve>();
-            map__link__entries.put(link, entries_link);
-            entries_link = map__link__entries.get(link);
-        }
-
-        entries_link.put(flow, arrival_bound);
-    }
-}
@@ -32,6 +32,8 @@ package de.uni_kl.cs.discodnc.nc.bounds;
 import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
 import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
 import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.curves.dnc.TbRlAlgebra_DNC;
+import de.uni_kl.cs.discodnc.curves.dnc_double.Curve_DNC_Double;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
 import de.uni_kl.cs.discodnc.nc.arrivalbounds.PmooArrivalBound_SinkTreeTbRl;
 import de.uni_kl.cs.discodnc.network.Flow;
@@ -40,20 +42,18 @@ import de.uni_kl.cs.discodnc.network.Network;
 import de.uni_kl.cs.discodnc.network.Server;
 import de.uni_kl.cs.discodnc.numbers.Num;
 
-import java.util.ArrayList;
-
 public class Backlog {
 	private Backlog() {
 	}
 
 	public static Num derive(ArrivalCurve arrival_curve, ServiceCurve service_curve) {
-		if (arrival_curve.equals(CurvePwAffine.getFactory().createZeroArrivals())) {
+		if (arrival_curve.isZeroArrivals()) {
 			return Num.getFactory().createZero();
 		}
 		if (service_curve.isDelayedInfiniteBurst()) {
 			return arrival_curve.f(service_curve.getLatency());
 		}
-		if (service_curve.equals(CurvePwAffine.getFactory().createZeroService()) // We know from above that the
+		if (service_curve.isZeroService() // We know from above that the
 				// arrivals are not zero.
 				|| arrival_curve.getUltAffineRate().gt(service_curve.getUltAffineRate())) {
 			return Num.getFactory().createPositiveInfinity();
@@ -70,13 +70,25 @@ public class Backlog {
 		// Solution:
 		// Start with the burst as minimum vertical deviation
 
-		Num result = arrival_curve.fLimitRight(Num.getFactory().getZero());
+		Num closed_form = TbRlAlgebra_DNC.backlog(arrival_curve, service_curve);
+		if (closed_form != null) {
+			return closed_form;
+		}
 
-		ArrayList<Num> xcoords = CurvePwAffine.computeInflectionPointsX(arrival_curve, service_curve);
-		for (int i = 0; i < xcoords.size(); i++) {
-			Num ip_x = ((Num) xcoords.get(i));
+		if (arrival_curve instanceof Curve_DNC_Double && service_curve instanceof Curve_DNC_Double) {
+			Curve_DNC_Double arrival_curve_double = (Curve_DNC_Double) arrival_curve;
+			return Num.getFactory().create(Curve_DNC_Double.getMaxVerticalDeviationAtInflectionPoints(
+					arrival_curve_double, (Curve_DNC_Double) service_curve, arrival_curve_double.fLimitRight(0.0)));
+		}
+
+		Num result = arrival_curve.fLimitRight(Num.getFactory().getZero());
 
-			Num backlog = Num.getUtils().sub(arrival_curve.f(ip_x), service_curve.f(ip_x));
+		// The inflection points are sorted, each curve is evaluated in a single pass.
+		Num[] xcoords = CurvePwAffine.computeInflectionPointsX(arrival_curve, service_curve).toArray(new Num[0]);
+		Num[] arrival_ys = arrival_curve.f(xcoords);
+		Num[] service_ys = service_curve.f(xcoords);
+		for (int i = 0; i < xcoords.length; i++) {
+			Num backlog = Num.getUtils().sub(arrival_ys[i], service_ys[i]);
 			result = Num.getUtils().max(result, backlog);
 		}
 		return result;
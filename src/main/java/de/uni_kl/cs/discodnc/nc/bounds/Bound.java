@@ -30,6 +30,9 @@ package de.uni_kl.cs.discodnc.nc.bounds;
 import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
 import de.uni_kl.cs.discodnc.curves.ServiceCurve;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics.Counter;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics.Timer;
 import de.uni_kl.cs.discodnc.network.Network;
 import de.uni_kl.cs.discodnc.network.Path;
 import de.uni_kl.cs.discodnc.network.Server;
@@ -50,6 +53,7 @@ public final class Bound {
 //                || CalculatorConfig.getInstance().getCurveImpl().equals(CalculatorConfig.CurveImpl.DNC)) {
 //            return Backlog.derive(arrival_curve, service_curve);
 //        }
+        AnalysisMetrics.count(Counter.BACKLOG_BOUNDS);
         return Backlog.derive(arrival_curve,service_curve);
 
         // TODO: Sample of envisioned future solution, exemplified by (potentially incomplete) RTC MPA toolbox calls.
@@ -85,6 +89,7 @@ public final class Bound {
 //                || CalculatorConfig.getInstance().getCurveImpl().equals(CalculatorConfig.CurveImpl.DNC)) {
 //            return Backlog.derivePmooSinkTreeTbRl(tree, root, sink_tree_ab);
 //        }
+        AnalysisMetrics.count(Counter.BACKLOG_BOUNDS);
         return Backlog.derivePmooSinkTreeTbRl(tree, root, sink_tree_ab);
     }
 
@@ -93,6 +98,7 @@ public final class Bound {
 //                || CalculatorConfig.getInstance().getCurveImpl().equals(CalculatorConfig.CurveImpl.DNC)) {
 //            return Delay.deriveARB(arrival_curve, service_curve);
 //        }
+        AnalysisMetrics.count(Counter.DELAY_BOUNDS);
         return Delay.deriveARB(arrival_curve, service_curve);
     }
 
@@ -101,6 +107,7 @@ public final class Bound {
 //                || CalculatorConfig.getInstance().getCurveImpl().equals(CalculatorConfig.CurveImpl.DNC)) {
 //            return Delay.deriveFIFO(arrival_curve, service_curve);
 //        }
+        AnalysisMetrics.count(Counter.DELAY_BOUNDS);
         return Delay.deriveFIFO(arrival_curve, service_curve);
     }
 
@@ -168,7 +175,13 @@ public final class Bound {
 //                || CalculatorConfig.getInstance().getCurveImpl().equals(CalculatorConfig.CurveImpl.DNC)) {
 //            return Output.compute(configuration, arrival_curves, server);
 //        }
-        return Output.compute(configuration, arrival_curves, server);
+        AnalysisMetrics.count(Counter.OUTPUT_BOUNDS);
+        AnalysisMetrics.startTimer(Timer.OUTPUT_BOUNDS);
+        try {
+            return Output.compute(configuration, arrival_curves, server);
+        } finally {
+            AnalysisMetrics.stopTimer(Timer.OUTPUT_BOUNDS);
+        }
     }
 
     public static Set<ArrivalCurve> output(AnalysisConfig configuration, Set<ArrivalCurve> arrival_curves,
@@ -177,7 +190,13 @@ public final class Bound {
 //                || CalculatorConfig.getInstance().getCurveImpl().equals(CalculatorConfig.CurveImpl.DNC)) {
 //            return Output.compute(configuration, arrival_curves, server, betas_lo);
 //        }
-        return Output.compute(configuration, arrival_curves, server, betas_lo);
+        AnalysisMetrics.count(Counter.OUTPUT_BOUNDS);
+        AnalysisMetrics.startTimer(Timer.OUTPUT_BOUNDS);
+        try {
+            return Output.compute(configuration, arrival_curves, server, betas_lo);
+        } finally {
+            AnalysisMetrics.stopTimer(Timer.OUTPUT_BOUNDS);
+        }
     }
 
     public static Set<ArrivalCurve> output(AnalysisConfig configuration, Set<ArrivalCurve> arrival_curves, Path path,
@@ -186,6 +205,12 @@ public final class Bound {
 //                || CalculatorConfig.getInstance().getCurveImpl().equals(CalculatorConfig.CurveImpl.DNC)) {
 //            return Output.compute(configuration, arrival_curves, path, betas_lo);
 //        }
-        return Output.compute(configuration, arrival_curves, path, betas_lo);
+        AnalysisMetrics.count(Counter.OUTPUT_BOUNDS);
+        AnalysisMetrics.startTimer(Timer.OUTPUT_BOUNDS);
+        try {
+            return Output.compute(configuration, arrival_curves, path, betas_lo);
+        } finally {
+            AnalysisMetrics.stopTimer(Timer.OUTPUT_BOUNDS);
+        }
     }
 }
@@ -32,6 +32,8 @@ package de.uni_kl.cs.discodnc.nc.bounds;
 import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
 import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
 import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.curves.dnc.TbRlAlgebra_DNC;
+import de.uni_kl.cs.discodnc.curves.dnc_double.Curve_DNC_Double;
 import de.uni_kl.cs.discodnc.numbers.Num;
 
 public class Delay {
@@ -39,7 +41,7 @@ public class Delay {
     }
 
     private static Num deriveForSpecialCurves(ArrivalCurve arrival_curve, ServiceCurve service_curve) {
-        if (arrival_curve.equals(CurvePwAffine.getFactory().createZeroArrivals())) {
+        if (arrival_curve.isZeroArrivals()) {
             return Num.getFactory().createZero();
         }
         if (service_curve.isDelayedInfiniteBurst()) {
@@ -48,7 +50,7 @@ public class Delay {
             // would not be sensible.
             return service_curve.getLatency().copy();
         }
-        if (service_curve.equals(CurvePwAffine.getFactory().createZeroService()) // We know from above that the
+        if (service_curve.isZeroService() // We know from above that the
                 // arrivals are not zero.
                 || arrival_curve.getUltAffineRate().gt(service_curve.getUltAffineRate())) {
             return Num.getFactory().createPositiveInfinity();
@@ -73,6 +75,16 @@ public class Delay {
             return result;
         }
 
+        result = TbRlAlgebra_DNC.delayFIFO(arrival_curve, service_curve);
+        if (result != null) {
+            return result;
+        }
+
+        if (arrival_curve instanceof Curve_DNC_Double && service_curve instanceof Curve_DNC_Double) {
+            return Num.getFactory().create(Math.max(0.0, Curve_DNC_Double.getMaxHorizontalDeviation(
+                    (Curve_DNC_Double) arrival_curve, (Curve_DNC_Double) service_curve)));
+        }
+
         result = Num.getFactory().createNegativeInfinity();
         for (int i = 0; i < arrival_curve.getSegmentCount(); i++) {
             Num ip_y = arrival_curve.getSegment(i).getY();
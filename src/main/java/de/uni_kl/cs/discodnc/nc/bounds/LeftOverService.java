@@ -32,9 +32,14 @@ package de.uni_kl.cs.discodnc.nc.bounds;
 import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
 import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
 import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.curves.dnc.TbRlAlgebra_DNC;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics.Counter;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics.Histogram;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics.Timer;
 import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
 import de.uni_kl.cs.discodnc.network.Server;
 import de.uni_kl.cs.discodnc.numbers.Num;
@@ -49,29 +54,40 @@ public final class LeftOverService {
 
     public static Set<ServiceCurve> compute(AnalysisConfig configuration, Server server,
                                             Set<ArrivalCurve> arrival_curves) {
+        Set<ServiceCurve> results;
         if (configuration.multiplexingDiscipline() == MuxDiscipline.GLOBAL_FIFO
                 || (configuration.multiplexingDiscipline() == MuxDiscipline.SERVER_LOCAL
                 && server.multiplexingDiscipline() == Multiplexing.FIFO)) {
-            return fifoMux(server.getServiceCurve(), arrival_curves);
+            results = fifoMux(server.getServiceCurve(), arrival_curves);
         } else {
-            return LeftOverService.arbMux(server.getServiceCurve(), arrival_curves);
+            results = LeftOverService.arbMux(server.getServiceCurve(), arrival_curves);
         }
+        AnalysisMetrics.recordSize(Histogram.SERVICE_CURVE_CANDIDATES, results);
+        return results;
     }
 
     public static Set<ServiceCurve> compute(AnalysisConfig configuration, ServiceCurve service_curve,
                                             Set<ArrivalCurve> arrival_curves) {
+        Set<ServiceCurve> results;
         if (configuration.multiplexingDiscipline() == MuxDiscipline.GLOBAL_FIFO) {
-            return LeftOverService.fifoMux(service_curve, arrival_curves);
+            results = LeftOverService.fifoMux(service_curve, arrival_curves);
         } else {
-            return LeftOverService.arbMux(service_curve, arrival_curves);
+            results = LeftOverService.arbMux(service_curve, arrival_curves);
         }
+        AnalysisMetrics.recordSize(Histogram.SERVICE_CURVE_CANDIDATES, results);
+        return results;
     }
 
     public static Set<ServiceCurve> fifoMux(ServiceCurve service_curve, Set<ArrivalCurve> arrival_curves) {
         Set<ServiceCurve> results = new HashSet<ServiceCurve>();
 
-        for (ArrivalCurve alpha : arrival_curves) {
-            results.add(fifoMux(service_curve, alpha));
+        AnalysisMetrics.startTimer(Timer.LEFT_OVER_SERVICE);
+        try {
+            for (ArrivalCurve alpha : arrival_curves) {
+                results.add(fifoMux(service_curve, alpha));
+            }
+        } finally {
+            AnalysisMetrics.stopTimer(Timer.LEFT_OVER_SERVICE);
         }
 
         return results;
@@ -94,11 +110,12 @@ public final class LeftOverService {
      * @return The FIFO service curve
      */
     public static ServiceCurve fifoMux(ServiceCurve service_curve, ArrivalCurve arrival_curve) {
-        if (arrival_curve.equals(CurvePwAffine.getFactory().createZeroArrivals())
-                || service_curve.equals(CurvePwAffine.getFactory().createZeroDelayInfiniteBurst())) {
+        AnalysisMetrics.count(Counter.LEFT_OVER_SERVICE_CURVES);
+        if (arrival_curve.isZeroArrivals()
+                || service_curve.isZeroDelayInfiniteBurst()) {
             return service_curve.copy();
         }
-        if (service_curve.equals(CurvePwAffine.getFactory().createZeroService())) {
+        if (service_curve.isZeroService()) {
             return CurvePwAffine.getFactory().createZeroService();
         }
 
@@ -141,8 +158,13 @@ public final class LeftOverService {
     public static Set<ServiceCurve> arbMux(ServiceCurve service_curve, Set<ArrivalCurve> arrival_curves) {
         Set<ServiceCurve> results = new HashSet<ServiceCurve>();
 
-        for (ArrivalCurve alpha : arrival_curves) {
-            results.add(arbMux(service_curve, alpha));
+        AnalysisMetrics.startTimer(Timer.LEFT_OVER_SERVICE);
+        try {
+            for (ArrivalCurve alpha : arrival_curves) {
+                results.add(arbMux(service_curve, alpha));
+            }
+        } finally {
+            AnalysisMetrics.stopTimer(Timer.LEFT_OVER_SERVICE);
         }
 
         return results;
@@ -158,14 +180,20 @@ public final class LeftOverService {
      * @return The FIFO service curve
      */
     public static ServiceCurve arbMux(ServiceCurve service_curve, ArrivalCurve arrival_curve) {
-        if (arrival_curve.equals(CurvePwAffine.getFactory().createZeroArrivals())
-                || service_curve.equals(CurvePwAffine.getFactory().createZeroDelayInfiniteBurst())) {
+        AnalysisMetrics.count(Counter.LEFT_OVER_SERVICE_CURVES);
+        if (arrival_curve.isZeroArrivals()
+                || service_curve.isZeroDelayInfiniteBurst()) {
             return service_curve.copy();
         }
-        if (service_curve.equals(CurvePwAffine.getFactory().createZeroService())) {
+        if (service_curve.isZeroService()) {
             return CurvePwAffine.getFactory().createZeroService();
         }
 
+        ServiceCurve closed_form = TbRlAlgebra_DNC.leftOverArb(service_curve, arrival_curve);
+        if (closed_form != null) {
+            return closed_form;
+        }
+
         return CurvePwAffine.getFactory().createServiceCurve(
                 CurvePwAffine.boundAtXAxis(CurvePwAffine.sub(service_curve, arrival_curve)));
     }
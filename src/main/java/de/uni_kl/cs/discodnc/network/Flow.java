@@ -56,6 +56,10 @@ public class Flow {
      * The link path the flow traverses incl explicit sink
      */
     private Path path;
+    /**
+     * The network the flow was added to, notified about changes of its arrival curve
+     */
+    private Network network;
 
     /**
      * @param id    The flow's id (unique).
@@ -93,8 +97,15 @@ public class Flow {
         return result;
     }
 
+    void setNetwork(Network network) {
+        this.network = network;
+    }
+
     public boolean setArrivalCurve(ArrivalCurve arrival_curve) {
         this.arrival_curve = arrival_curve;
+        if (network != null) {
+            network.curvesChanged();
+        }
         return true;
     }
 
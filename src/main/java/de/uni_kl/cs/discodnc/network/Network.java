@@ -34,19 +34,23 @@ import de.uni_kl.cs.discodnc.curves.MaxServiceCurve;
 import de.uni_kl.cs.discodnc.curves.ServiceCurve;
 import de.uni_kl.cs.discodnc.misc.SetUtils;
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.nc.TotalFlowBoundCache;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Servers in a network object correspond to buffers that may be shared by
@@ -93,6 +97,15 @@ public class Network {
 	private String flow_default_name_prefix = "f";
 	private int flow_id_counter = 0;
 
+	// Created on demand, dropped by every structural change
+	private volatile NetworkSnapshot snapshot;
+
+	// Cleared by every structural change and every change of a server's or flow's curves
+	private final TotalFlowBoundCache tfa_bound_cache = new TotalFlowBoundCache(this);
+
+	// Incremented by every change of a server's or flow's curves
+	private final AtomicLong curve_version = new AtomicLong();
+
 	public Network() {
 		servers = new HashSet<Server>();
 		links = new HashSet<Link>();
@@ -110,6 +123,8 @@ public class Network {
 	}
 
 	private void remove(Set<Server> servers_to_remove, Set<Link> links_to_remove, Set<Flow> flows_to_remove) {
+		structureChanged();
+
 		// Make sure that you do not remove a map's key before the according entries:
 		// (flows before servers and links) & (links before servers)
 
@@ -157,6 +172,64 @@ public class Network {
 		}
 	}
 
+	/**
+	 * Returns an immutable, integer-indexed snapshot of the network's servers,
+	 * links and flows. The snapshot is created on the first call after a
+	 * modification of the network and shared until the next one.
+	 *
+	 * @return The snapshot of the network's current structure.
+	 */
+	public NetworkSnapshot getSnapshot() {
+		NetworkSnapshot current = snapshot;
+		if (current == null) {
+			synchronized (this) {
+				current = snapshot;
+				if (current == null) {
+					current = new NetworkSnapshot(servers, links, flows);
+					snapshot = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Returns the cache of per-server total flow analysis bounds in this network.
+	 * Analyses use it if enabled in their configuration. It is cleared when
+	 * servers, links or flows are added or removed as well as when the curves of
+	 * a server or flow are replaced.
+	 *
+	 * @return The network's TFA bound cache.
+	 */
+	public TotalFlowBoundCache getTotalFlowBoundCache() {
+		return tfa_bound_cache;
+	}
+
+	private void structureChanged() {
+		snapshot = null;
+		tfa_bound_cache.clear();
+	}
+
+	/**
+	 * Called by the network's servers and flows after their curves were replaced.
+	 * The structure, and thus the snapshot, remains valid.
+	 */
+	void curvesChanged() {
+		curve_version.incrementAndGet();
+		tfa_bound_cache.clear();
+	}
+
+	/**
+	 * Returns a counter that is incremented whenever the service curves of one of
+	 * the network's servers or the arrival curve of one of its flows are replaced.
+	 * Caches outside the network make it part of their keys.
+	 *
+	 * @return The version of the network's curves.
+	 */
+	public long getCurveVersion() {
+		return curve_version.get();
+	}
+
 	// --------------------------------------------------------------------------------------------
 	// Servers
 	// --------------------------------------------------------------------------------------------
@@ -251,6 +324,9 @@ public class Network {
 	}
 
 	private void updateServerAdditionInternally(Server new_server) {
+		structureChanged();
+		new_server.setNetwork(this);
+
 		map__server__in_links.put(new_server, new HashSet<Link>());
 		map__server__out_links.put(new_server, new HashSet<Link>());
 
@@ -348,6 +424,91 @@ public class Network {
 		return sinks;
 	}
 
+	/**
+	 * Returns the servers in a topological order of the flow dependencies, i.e.,
+	 * every server is preceded by all servers it is reachable from via links
+	 * crossed by flows. Links without flows do not constrain the order, so the
+	 * server graph may contain cycles as long as no flows close them. Ties are
+	 * broken by the server id.
+	 *
+	 * @return The topologically sorted servers.
+	 * @throws Exception
+	 *             The flows have cyclic dependencies, see
+	 *             {@link #getCyclicDependencies()}.
+	 */
+	public List<Server> getServersTopologicallySorted() throws Exception {
+		NetworkSnapshot snapshot = getSnapshot();
+		if (!snapshot.getCyclicComponents(true).isEmpty()) {
+			throw new Exception("The flows have cyclic dependencies");
+		}
+
+		List<Server> servers_sorted = new LinkedList<Server>();
+
+		Map<Server, Integer> map__server__in_degree = new HashMap<Server, Integer>();
+		PriorityQueue<Server> servers_ready = new PriorityQueue<Server>(Math.max(1, servers.size()),
+				Comparator.comparingInt(Server::getId));
+		for (Server s : servers) {
+			int in_degree = 0;
+			for (Link l : snapshot.getInLinks(s)) {
+				if (!snapshot.getFlows(l).isEmpty()) {
+					in_degree++;
+				}
+			}
+			map__server__in_degree.put(s, in_degree);
+			if (in_degree == 0) {
+				servers_ready.add(s);
+			}
+		}
+
+		while (!servers_ready.isEmpty()) {
+			Server s = servers_ready.poll();
+			servers_sorted.add(s);
+
+			for (Link l : snapshot.getOutLinks(s)) {
+				if (snapshot.getFlows(l).isEmpty()) {
+					continue;
+				}
+				Server successor = l.getDest();
+				int in_degree = map__server__in_degree.get(successor) - 1;
+				map__server__in_degree.put(successor, in_degree);
+				if (in_degree == 0) {
+					servers_ready.add(successor);
+				}
+			}
+		}
+
+		return servers_sorted;
+	}
+
+	/**
+	 * @return Whether the server graph is free of cycles.
+	 */
+	public boolean isFeedForward() {
+		return getSnapshot().getCyclicComponents(false).isEmpty();
+	}
+
+	/**
+	 * Returns the sets of servers that lie on a common cycle of the server graph,
+	 * i.e., its strongly connected components that contain a cycle.
+	 *
+	 * @return The cyclic components, ordered topologically, their servers are
+	 *         ordered by id.
+	 */
+	public List<List<Server>> getCyclicComponents() {
+		return getSnapshot().getCyclicComponents(false);
+	}
+
+	/**
+	 * Like getCyclicComponents() but only considers the links crossed by flows.
+	 * The analyses deriving arrival bounds recursively require the flows to be
+	 * free of such cyclic dependencies.
+	 *
+	 * @return The components with cyclic dependencies.
+	 */
+	public List<List<Server>> getCyclicDependencies() {
+		return getSnapshot().getCyclicComponents(true);
+	}
+
 	public int degree(Server s) {
 		return inDegree(s) + outDegree(s);
 	}
@@ -471,6 +632,8 @@ public class Network {
 			Link new_link = new Link(link_id_counter, alias, source, destination);
 			link_id_counter++;
 
+			structureChanged();
+
 			map__link__flows.put(new_link, new HashSet<Flow>());
 
 			map__server__in_links.get(destination).add(new_link);
@@ -507,16 +670,17 @@ public class Network {
 	 *             No link from src to snk found in this network.
 	 */
 	public Link findLink(Server src, Server dest) throws Exception {
-		Set<Link> connecting_link_as_set = SetUtils.getIntersection(getInLinks(dest), getOutLinks(src));
-		if (connecting_link_as_set.isEmpty()) {
-			throw new Exception("No link between " + src.toString() + " and " + dest.toString() + " found.");
-		} else {
-			if (connecting_link_as_set.size() > 1) {
-				throw new Exception("Too many links between " + src.toString() + " and " + dest.toString() + " found.");
-			} else {
-				return connecting_link_as_set.iterator().next();
+		// Scans the internal set instead of intersecting copies, called for every hop
+		// when adding flows and per server in the analyses
+		Set<Link> out_links_src = map__server__out_links.get(src);
+		if (out_links_src != null) {
+			for (Link l : out_links_src) {
+				if (l.getDest().equals(dest)) {
+					return l;
+				}
 			}
 		}
+		throw new Exception("No link between " + src.toString() + " and " + dest.toString() + " found.");
 	}
 
 	// ---------------------------------------------------------------------------------------------
@@ -655,8 +819,11 @@ public class Network {
 		}
 
 		Flow new_flow = new Flow(flow_id_counter, alias, arrival_curve.copy(), path);
+		new_flow.setNetwork(this);
 		flow_id_counter++;
 
+		structureChanged();
+
 		flows.add(new_flow);
 		map__server__source_flows.get(path.getSource()).add(new_flow);
 
@@ -1189,7 +1356,7 @@ public class Network {
 		for (int i = common_dest_index_f - 1; i >= 0; i--) { // -1 excludes server_common_dest
 			Server split_candidate = f_path.getServers().get(i);
 
-			if (getFlows(split_candidate).containsAll(flows_of_interest)) {
+			if (getSnapshot().getFlows(split_candidate).containsAll(flows_of_interest)) {
 				split = split_candidate;
 			} else {
 				break;
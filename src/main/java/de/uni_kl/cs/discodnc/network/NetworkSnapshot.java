@@ -0,0 +1,603 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2011 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+
+package de.uni_kl.cs.discodnc.network;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable, integer-indexed view of a network's structure.
+ * <p>
+ * Servers, links and flows are numbered densely. Adjacency is stored in
+ * compressed sparse row arrays, the flows at a server or link are stored in bit
+ * sets. Queries return unmodifiable views backed by these arrays instead of
+ * copies and intersections of flow sets are bitwise operations.
+ * <p>
+ * Snapshots are created by Network.getSnapshot() and remain valid until the
+ * network is modified. They are safe to share between concurrent analyses.
+ */
+public final class NetworkSnapshot {
+	private final Server[] servers;
+	private final Link[] links;
+	private final Flow[] flows;
+
+	private final Map<Server, Integer> map__server__index;
+	private final Map<Link, Integer> map__link__index;
+	private final Map<Flow, Integer> map__flow__index;
+
+	// Compressed sparse row adjacency: the links of server i are
+	// *_link_indices[ *_link_offsets[i] ... *_link_offsets[i+1] - 1 ]
+	private final int[] in_link_offsets;
+	private final int[] in_link_indices;
+	private final int[] out_link_offsets;
+	private final int[] out_link_indices;
+	private final int[] link_dest_indices;
+
+	private final FlowSet[] server_flows;
+	private final FlowSet[] server_source_flows;
+	private final FlowSet[] link_flows;
+
+	private final FlowSet empty_flows;
+
+	// Computed on demand, strongly connected components of the links with flows
+	private volatile List<List<Server>> cyclic_dependencies;
+
+	NetworkSnapshot(Collection<Server> servers, Collection<Link> links, Collection<Flow> flows) {
+		this.servers = servers.toArray(new Server[servers.size()]);
+		this.links = links.toArray(new Link[links.size()]);
+		this.flows = flows.toArray(new Flow[flows.size()]);
+
+		// Ids are unique within a network, a sorted numbering is reproducible
+		Arrays.sort(this.servers, Comparator.comparingInt(Server::getId));
+		Arrays.sort(this.links, Comparator.comparingInt(Link::getId));
+		Arrays.sort(this.flows, Comparator.comparingInt(Flow::getId));
+
+		map__server__index = new IdentityHashMap<Server, Integer>(this.servers.length);
+		for (int i = 0; i < this.servers.length; i++) {
+			map__server__index.put(this.servers[i], Integer.valueOf(i));
+		}
+		map__link__index = new HashMap<Link, Integer>(this.links.length * 2);
+		for (int i = 0; i < this.links.length; i++) {
+			map__link__index.put(this.links[i], Integer.valueOf(i));
+		}
+		map__flow__index = new IdentityHashMap<Flow, Integer>(this.flows.length);
+		for (int i = 0; i < this.flows.length; i++) {
+			map__flow__index.put(this.flows[i], Integer.valueOf(i));
+		}
+
+		int num_servers = this.servers.length;
+		in_link_offsets = new int[num_servers + 1];
+		out_link_offsets = new int[num_servers + 1];
+		int[] link_src = new int[this.links.length];
+		int[] link_dest = new int[this.links.length];
+		link_dest_indices = link_dest;
+		for (int i = 0; i < this.links.length; i++) {
+			link_src[i] = map__server__index.get(this.links[i].getSource());
+			link_dest[i] = map__server__index.get(this.links[i].getDest());
+			out_link_offsets[link_src[i] + 1]++;
+			in_link_offsets[link_dest[i] + 1]++;
+		}
+		for (int i = 0; i < num_servers; i++) {
+			out_link_offsets[i + 1] += out_link_offsets[i];
+			in_link_offsets[i + 1] += in_link_offsets[i];
+		}
+		in_link_indices = new int[this.links.length];
+		out_link_indices = new int[this.links.length];
+		int[] in_link_fill = new int[num_servers];
+		int[] out_link_fill = new int[num_servers];
+		for (int i = 0; i < this.links.length; i++) {
+			out_link_indices[out_link_offsets[link_src[i]] + out_link_fill[link_src[i]]++] = i;
+			in_link_indices[in_link_offsets[link_dest[i]] + in_link_fill[link_dest[i]]++] = i;
+		}
+
+		BitSet[] server_flow_bits = new BitSet[num_servers];
+		BitSet[] server_source_flow_bits = new BitSet[num_servers];
+		BitSet[] link_flow_bits = new BitSet[this.links.length];
+		for (int i = 0; i < num_servers; i++) {
+			server_flow_bits[i] = new BitSet(this.flows.length);
+			server_source_flow_bits[i] = new BitSet(this.flows.length);
+		}
+		for (int i = 0; i < this.links.length; i++) {
+			link_flow_bits[i] = new BitSet(this.flows.length);
+		}
+		for (int i = 0; i < this.flows.length; i++) {
+			Path path = this.flows[i].getPath();
+			server_source_flow_bits[map__server__index.get(path.getSource())].set(i);
+			for (Server s : path.getServers()) {
+				server_flow_bits[map__server__index.get(s)].set(i);
+			}
+			for (Link l : path.getLinks()) {
+				link_flow_bits[map__link__index.get(l)].set(i);
+			}
+		}
+
+		server_flows = new FlowSet[num_servers];
+		server_source_flows = new FlowSet[num_servers];
+		for (int i = 0; i < num_servers; i++) {
+			server_flows[i] = new FlowSet(server_flow_bits[i]);
+			server_source_flows[i] = new FlowSet(server_source_flow_bits[i]);
+		}
+		link_flows = new FlowSet[this.links.length];
+		for (int i = 0; i < this.links.length; i++) {
+			link_flows[i] = new FlowSet(link_flow_bits[i]);
+		}
+		empty_flows = new FlowSet(new BitSet(0));
+	}
+
+	// --------------------------------------------------------------------------------------------
+	// Indices
+	// --------------------------------------------------------------------------------------------
+	public int numServers() {
+		return servers.length;
+	}
+
+	public int numLinks() {
+		return links.length;
+	}
+
+	public int numFlows() {
+		return flows.length;
+	}
+
+	/**
+	 * @param server
+	 *            A server.
+	 * @return The server's index or -1 if it is not part of this snapshot.
+	 */
+	public int indexOf(Server server) {
+		Integer index = map__server__index.get(server);
+		return index == null ? -1 : index.intValue();
+	}
+
+	/**
+	 * @param link
+	 *            A link.
+	 * @return The link's index or -1 if it is not part of this snapshot.
+	 */
+	public int indexOf(Link link) {
+		Integer index = map__link__index.get(link);
+		return index == null ? -1 : index.intValue();
+	}
+
+	/**
+	 * @param flow
+	 *            A flow.
+	 * @return The flow's index or -1 if it is not part of this snapshot.
+	 */
+	public int indexOf(Flow flow) {
+		Integer index = map__flow__index.get(flow);
+		return index == null ? -1 : index.intValue();
+	}
+
+	public Server getServer(int index) {
+		return servers[index];
+	}
+
+	public Link getLink(int index) {
+		return links[index];
+	}
+
+	public Flow getFlow(int index) {
+		return flows[index];
+	}
+
+	// --------------------------------------------------------------------------------------------
+	// Adjacency
+	// --------------------------------------------------------------------------------------------
+	/**
+	 * @param server
+	 *            The server whose incoming links are returned.
+	 * @return Unmodifiable view on the incoming links of the server.
+	 */
+	public List<Link> getInLinks(Server server) {
+		int index = indexOf(server);
+		if (index == -1) {
+			return Collections.emptyList();
+		}
+		return new LinkList(in_link_indices, in_link_offsets[index], in_link_offsets[index + 1]);
+	}
+
+	/**
+	 * @param server
+	 *            The server whose outgoing links are returned.
+	 * @return Unmodifiable view on the outgoing links of the server.
+	 */
+	public List<Link> getOutLinks(Server server) {
+		int index = indexOf(server);
+		if (index == -1) {
+			return Collections.emptyList();
+		}
+		return new LinkList(out_link_indices, out_link_offsets[index], out_link_offsets[index + 1]);
+	}
+
+	/**
+	 * @param src
+	 *            The link's source.
+	 * @param dest
+	 *            The link's destination.
+	 * @return The link from src to dest or null if there is none.
+	 */
+	public Link findLink(Server src, Server dest) {
+		int index_src = indexOf(src);
+		if (index_src == -1) {
+			return null;
+		}
+		for (int i = out_link_offsets[index_src]; i < out_link_offsets[index_src + 1]; i++) {
+			Link link = links[out_link_indices[i]];
+			if (link.getDest() == dest) {
+				return link;
+			}
+		}
+		return null;
+	}
+
+	// --------------------------------------------------------------------------------------------
+	// Cycles
+	// --------------------------------------------------------------------------------------------
+	/**
+	 * Returns the strongly connected components of the server graph in a
+	 * topological order of the graph they condense to, i.e., every component is
+	 * preceded by all components it is reachable from. The servers of a component
+	 * are ordered by their id.
+	 * <p>
+	 * Tarjan's algorithm is run iteratively such that large cycles do not
+	 * overflow the stack.
+	 *
+	 * @param flow_links_only
+	 *            Ignore the links that are not crossed by any flow.
+	 * @return The strongly connected components.
+	 */
+	public List<List<Server>> getStronglyConnectedComponents(boolean flow_links_only) {
+		int num_servers = servers.length;
+		int[] index = new int[num_servers];
+		int[] low_link = new int[num_servers];
+		boolean[] on_stack = new boolean[num_servers];
+		int[] stack = new int[num_servers];
+		int stack_size = 0;
+		int[] call_stack = new int[num_servers];
+		int[] call_stack_next_link = new int[num_servers];
+		int call_stack_size;
+		int next_index = 1; // 0 marks unvisited servers
+
+		List<List<Server>> components = new ArrayList<List<Server>>();
+		for (int root = 0; root < num_servers; root++) {
+			if (index[root] != 0) {
+				continue;
+			}
+
+			index[root] = next_index;
+			low_link[root] = next_index;
+			next_index++;
+			stack[stack_size++] = root;
+			on_stack[root] = true;
+			call_stack[0] = root;
+			call_stack_next_link[0] = out_link_offsets[root];
+			call_stack_size = 1;
+
+			while (call_stack_size > 0) {
+				int v = call_stack[call_stack_size - 1];
+				if (call_stack_next_link[call_stack_size - 1] < out_link_offsets[v + 1]) {
+					int link = out_link_indices[call_stack_next_link[call_stack_size - 1]++];
+					if (flow_links_only && link_flows[link].isEmpty()) {
+						continue;
+					}
+					int w = link_dest_indices[link];
+					if (index[w] == 0) {
+						index[w] = next_index;
+						low_link[w] = next_index;
+						next_index++;
+						stack[stack_size++] = w;
+						on_stack[w] = true;
+						call_stack[call_stack_size] = w;
+						call_stack_next_link[call_stack_size] = out_link_offsets[w];
+						call_stack_size++;
+					} else if (on_stack[w]) {
+						low_link[v] = Math.min(low_link[v], index[w]);
+					}
+					continue;
+				}
+
+				call_stack_size--;
+				if (call_stack_size > 0) {
+					int u = call_stack[call_stack_size - 1];
+					low_link[u] = Math.min(low_link[u], low_link[v]);
+				}
+				if (low_link[v] == index[v]) {
+					List<Server> component = new ArrayList<Server>();
+					int w;
+					do {
+						w = stack[--stack_size];
+						on_stack[w] = false;
+						component.add(servers[w]);
+					} while (w != v);
+					component.sort(Comparator.comparingInt(Server::getId));
+					components.add(component);
+				}
+			}
+		}
+
+		// Tarjan's algorithm completes components in reverse topological order
+		Collections.reverse(components);
+		return components;
+	}
+
+	/**
+	 * @param flow_links_only
+	 *            Ignore the links that are not crossed by any flow.
+	 * @return The strongly connected components that contain a cycle, ordered
+	 *         like getStronglyConnectedComponents(boolean).
+	 */
+	public List<List<Server>> getCyclicComponents(boolean flow_links_only) {
+		if (!flow_links_only) {
+			return filterCyclic(getStronglyConnectedComponents(false), false);
+		}
+
+		List<List<Server>> components = cyclic_dependencies;
+		if (components == null) {
+			components = Collections.unmodifiableList(filterCyclic(getStronglyConnectedComponents(true), true));
+			cyclic_dependencies = components;
+		}
+		return components;
+	}
+
+	private List<List<Server>> filterCyclic(List<List<Server>> components, boolean flow_links_only) {
+		List<List<Server>> components_cyclic = new ArrayList<List<Server>>();
+		for (List<Server> component : components) {
+			if (isCyclic(component, flow_links_only)) {
+				components_cyclic.add(component);
+			}
+		}
+		return components_cyclic;
+	}
+
+	/**
+	 * @param component
+	 *            A strongly connected component.
+	 * @param flow_links_only
+	 *            Ignore the links that are not crossed by any flow.
+	 * @return Whether the component contains a cycle.
+	 */
+	public boolean isCyclic(List<Server> component, boolean flow_links_only) {
+		return component.size() > 1 || hasSelfLink(component.get(0), flow_links_only);
+	}
+
+	private boolean hasSelfLink(Server server, boolean flow_links_only) {
+		int index = indexOf(server);
+		for (int i = out_link_offsets[index]; i < out_link_offsets[index + 1]; i++) {
+			int link = out_link_indices[i];
+			if (link_dest_indices[link] == index && !(flow_links_only && link_flows[link].isEmpty())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The flows create cyclic dependencies if the links they cross form a cycle.
+	 * Arrival bounds derived recursively along the flows' paths do not terminate
+	 * in this case.
+	 *
+	 * @return Whether the flows create cyclic dependencies between servers.
+	 */
+	public boolean hasCyclicDependencies() {
+		return !getCyclicComponents(true).isEmpty();
+	}
+
+	// --------------------------------------------------------------------------------------------
+	// Flows
+	// --------------------------------------------------------------------------------------------
+	/**
+	 * @param server
+	 *            A server.
+	 * @return Unmodifiable view on the flows crossing the server.
+	 */
+	public Set<Flow> getFlows(Server server) {
+		int index = indexOf(server);
+		return index == -1 ? empty_flows : server_flows[index];
+	}
+
+	/**
+	 * @param server
+	 *            A server.
+	 * @return Unmodifiable view on the flows originating at the server.
+	 */
+	public Set<Flow> getSourceFlows(Server server) {
+		int index = indexOf(server);
+		return index == -1 ? empty_flows : server_source_flows[index];
+	}
+
+	/**
+	 * @param link
+	 *            A link, may be null.
+	 * @return Unmodifiable view on the flows crossing the link.
+	 */
+	public Set<Flow> getFlows(Link link) {
+		if (link == null) {
+			return empty_flows;
+		}
+		int index = indexOf(link);
+		return index == -1 ? empty_flows : link_flows[index];
+	}
+
+	/**
+	 * Returns the intersection of the two sets as a new, modifiable set like
+	 * SetUtils.getIntersection does. Views created by this snapshot are
+	 * intersected bitwise, other sets are probed with the smaller one.
+	 *
+	 * @param s1
+	 *            A set of flows.
+	 * @param s2
+	 *            Another set of flows.
+	 * @return The intersection set.
+	 */
+	public Set<Flow> getIntersection(Set<Flow> s1, Set<Flow> s2) {
+		if (s1 == null || s2 == null) {
+			return new HashSet<Flow>();
+		}
+
+		if (isOwnView(s1) && isOwnView(s2)) {
+			BitSet intersection = (BitSet) ((FlowSet) s1).bits.clone();
+			intersection.and(((FlowSet) s2).bits);
+			return toHashSet(intersection);
+		}
+
+		Set<Flow> smaller = s1.size() <= s2.size() ? s1 : s2;
+		Set<Flow> larger = smaller == s1 ? s2 : s1;
+		Set<Flow> result = new HashSet<Flow>();
+		for (Flow f : smaller) {
+			if (larger.contains(f)) {
+				result.add(f);
+			}
+		}
+		return result;
+	}
+
+	private boolean isOwnView(Set<Flow> flows) {
+		return flows instanceof FlowSet && ((FlowSet) flows).getSnapshot() == this;
+	}
+
+	private Set<Flow> toHashSet(BitSet bits) {
+		Set<Flow> result = new HashSet<Flow>();
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+			result.add(flows[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Set of flows backed by a bit set over the snapshot's flow indices.
+	 */
+	private final class FlowSet extends AbstractSet<Flow> {
+		private final BitSet bits;
+		private final int size;
+
+		private FlowSet(BitSet bits) {
+			this.bits = bits;
+			this.size = bits.cardinality();
+		}
+
+		private NetworkSnapshot getSnapshot() {
+			return NetworkSnapshot.this;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return size == 0;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Flow)) {
+				return false;
+			}
+			int index = indexOf((Flow) o);
+			return index != -1 && bits.get(index);
+		}
+
+		@Override
+		public boolean containsAll(Collection<?> c) {
+			if (c instanceof FlowSet && ((FlowSet) c).getSnapshot() == NetworkSnapshot.this) {
+				BitSet missing = (BitSet) ((FlowSet) c).bits.clone();
+				missing.andNot(bits);
+				return missing.isEmpty();
+			}
+			return super.containsAll(c);
+		}
+
+		@Override
+		public Iterator<Flow> iterator() {
+			return new Iterator<Flow>() {
+				private int next = bits.nextSetBit(0);
+
+				@Override
+				public boolean hasNext() {
+					return next >= 0;
+				}
+
+				@Override
+				public Flow next() {
+					if (next < 0) {
+						throw new NoSuchElementException();
+					}
+					Flow flow = flows[next];
+					next = bits.nextSetBit(next + 1);
+					return flow;
+				}
+			};
+		}
+	}
+
+	/**
+	 * Unmodifiable list of links given by a range of a CSR index array.
+	 */
+	private final class LinkList extends AbstractList<Link> {
+		private final int[] link_indices;
+		private final int from;
+		private final int to;
+
+		private LinkList(int[] link_indices, int from, int to) {
+			this.link_indices = link_indices;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Link get(int index) {
+			if (index < 0 || from + index >= to) {
+				throw new IndexOutOfBoundsException(Integer.toString(index));
+			}
+			return links[link_indices[from + index]];
+		}
+
+		@Override
+		public int size() {
+			return to - from;
+		}
+	}
+}
@@ -188,12 +188,12 @@ public class Path {
     }
 
     private ServiceCurve getServiceCurve(Collection<Server> servers) throws Exception {
-        ServiceCurve service_curve_total = CurvePwAffine.getFactory().createZeroDelayInfiniteBurstMSC();
+        List<ServiceCurve> service_curves = new LinkedList<ServiceCurve>();
         for (Server s : servers) {
-            service_curve_total = MinPlus.convolve(service_curve_total, s.getServiceCurve());
+            service_curves.add(s.getServiceCurve());
         }
 
-        return service_curve_total;
+        return MinPlus.convolve(service_curves);
     }
 
     /**
@@ -60,6 +60,11 @@ public class Server {
 
     private Multiplexing multiplexing = Multiplexing.ARBITRARY;
 
+    /**
+     * The network the server was added to, notified about changes of its curves
+     */
+    private Network network;
+
     @SuppressWarnings("unused")
     private Server() {
     }
@@ -97,8 +102,26 @@ public class Server {
         return id;
     }
 
+    /**
+     * @return The network the server was added to.
+     */
+    public Network getNetwork() {
+        return network;
+    }
+
+    void setNetwork(Network network) {
+        this.network = network;
+    }
+
+    private void curvesChanged() {
+        if (network != null) {
+            network.curvesChanged();
+        }
+    }
+
     public boolean setServiceCurve(ServiceCurve service_curve) {
         this.service_curve = service_curve;
+        curvesChanged();
         return true;
     }
 
@@ -126,6 +149,7 @@ public class Server {
         this.use_gamma = true;
         this.use_extra_gamma = true;
 
+        curvesChanged();
         return true;
     }
 
@@ -136,6 +160,7 @@ public class Server {
         use_gamma = false;
         use_extra_gamma = false;
 
+        curvesChanged();
         return true;
     }
 
@@ -0,0 +1,324 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2011 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+
+package de.uni_kl.cs.discodnc.network.io;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.LinearSegment;
+import de.uni_kl.cs.discodnc.curves.MaxServiceCurve;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Link;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.Server;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned binary format for networks.
+ * <p>
+ * The format is a header (magic number and version) followed by the number of
+ * servers, links and flows and the respective records. Servers are referenced
+ * by their position in the file, they are written in the order of their ids.
+ * Numbers are stored as a tag for the special values followed by the IEEE 754
+ * double or, for rational numbers, by their numerator and denominator. The
+ * latter are written as length-prefixed two's-complement byte arrays. Version 1
+ * files without rational numbers can still be read.
+ * <p>
+ * Reading and writing stream the records, there is no intermediate
+ * representation of the network. Curves are created with the factories of the
+ * current CalculatorConfig.
+ */
+public final class NetworkBinaryFormat {
+	public static final int MAGIC = 0x444E434E; // "DNCN"
+	public static final int VERSION = 2;
+
+	private static final byte NUM_FINITE = 0;
+	private static final byte NUM_POSITIVE_INFINITY = 1;
+	private static final byte NUM_NEGATIVE_INFINITY = 2;
+	private static final byte NUM_NAN = 3;
+	private static final byte NUM_RATIONAL = 4;
+
+	private NetworkBinaryFormat() {
+	}
+
+	public static void save(Network network, File file) throws IOException {
+		try (OutputStream out = new FileOutputStream(file)) {
+			write(network, out);
+		}
+	}
+
+	public static Network load(File file) throws Exception {
+		try (InputStream in = new FileInputStream(file)) {
+			return read(in);
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+	// Writing
+	// --------------------------------------------------------------------------------------------
+	/**
+	 * Writes the network to the stream. The stream is flushed but not closed.
+	 *
+	 * @param network
+	 *            The network to write.
+	 * @param out
+	 *            The stream to write to.
+	 * @throws IOException
+	 *             Writing to the stream failed.
+	 */
+	public static void write(Network network, OutputStream out) throws IOException {
+		DataOutputStream data_out = new DataOutputStream(new BufferedOutputStream(out));
+
+		List<Server> servers = new ArrayList<Server>(network.getServers());
+		servers.sort(Comparator.comparingInt(Server::getId));
+		List<Link> links = new ArrayList<Link>(network.getLinks());
+		links.sort(Comparator.comparingInt(Link::getId));
+		List<Flow> flows = new ArrayList<Flow>(network.getFlows());
+		flows.sort(Comparator.comparingInt(Flow::getId));
+
+		Map<Server, Integer> map__server__index = new HashMap<Server, Integer>();
+		for (int i = 0; i < servers.size(); i++) {
+			map__server__index.put(servers.get(i), i);
+		}
+
+		data_out.writeInt(MAGIC);
+		data_out.writeShort(VERSION);
+		data_out.writeInt(servers.size());
+		data_out.writeInt(links.size());
+		data_out.writeInt(flows.size());
+
+		for (Server server : servers) {
+			data_out.writeUTF(server.getAlias());
+			data_out.writeByte(server.multiplexingDiscipline().ordinal());
+			data_out.writeBoolean(server.useGamma());
+			data_out.writeBoolean(server.useExtraGamma());
+			writeCurve(data_out, server.getServiceCurve());
+			writeCurve(data_out, server.getMaxServiceCurve());
+		}
+
+		for (Link link : links) {
+			data_out.writeUTF(link.getAlias());
+			data_out.writeInt(map__server__index.get(link.getSource()));
+			data_out.writeInt(map__server__index.get(link.getDest()));
+		}
+
+		for (Flow flow : flows) {
+			data_out.writeUTF(flow.getAlias());
+			writeCurve(data_out, flow.getArrivalCurve());
+
+			List<Server> path = flow.getPath().getServers();
+			data_out.writeInt(path.size());
+			for (Server server : path) {
+				data_out.writeInt(map__server__index.get(server));
+			}
+		}
+
+		data_out.flush();
+	}
+
+	private static void writeCurve(DataOutputStream data_out, CurvePwAffine curve) throws IOException {
+		data_out.writeInt(curve.getSegmentCount());
+		for (int i = 0; i < curve.getSegmentCount(); i++) {
+			LinearSegment segment = curve.getSegment(i);
+			writeNum(data_out, segment.getX());
+			writeNum(data_out, segment.getY());
+			writeNum(data_out, segment.getGrad());
+			data_out.writeBoolean(segment.isLeftopen());
+		}
+	}
+
+	private static void writeNum(DataOutputStream data_out, Num num) throws IOException {
+		BigInteger[] fraction = RationalNums.getFraction(num);
+		if (fraction != null) {
+			data_out.writeByte(NUM_RATIONAL);
+			writeBigInteger(data_out, fraction[0]);
+			writeBigInteger(data_out, fraction[1]);
+		} else {
+			writeNum(data_out, num.doubleValue());
+		}
+	}
+
+	private static void writeNum(DataOutputStream data_out, double num) throws IOException {
+		if (Double.isNaN(num)) {
+			data_out.writeByte(NUM_NAN);
+		} else if (Double.isInfinite(num)) {
+			data_out.writeByte(num > 0 ? NUM_POSITIVE_INFINITY : NUM_NEGATIVE_INFINITY);
+		} else {
+			data_out.writeByte(NUM_FINITE);
+			data_out.writeDouble(num);
+		}
+	}
+
+	private static void writeBigInteger(DataOutputStream data_out, BigInteger big) throws IOException {
+		byte[] bytes = big.toByteArray();
+		data_out.writeInt(bytes.length);
+		data_out.write(bytes);
+	}
+
+	// --------------------------------------------------------------------------------------------
+	// Reading
+	// --------------------------------------------------------------------------------------------
+	/**
+	 * Reads a network from the stream. The stream is not closed.
+	 *
+	 * @param in
+	 *            The stream to read from.
+	 * @return The network.
+	 * @throws Exception
+	 *             The stream does not contain a network in a supported version of
+	 *             the format or the network is inconsistent.
+	 */
+	public static Network read(InputStream in) throws Exception {
+		DataInputStream data_in = new DataInputStream(new BufferedInputStream(in));
+
+		if (data_in.readInt() != MAGIC) {
+			throw new Exception("Not a DiscoDNC binary network file");
+		}
+		int version = data_in.readUnsignedShort();
+		if (version < 1 || version > VERSION) {
+			throw new Exception("Unsupported binary network format version " + version);
+		}
+
+		int num_servers = data_in.readInt();
+		int num_links = data_in.readInt();
+		int num_flows = data_in.readInt();
+
+		Network network = new Network();
+		Multiplexing[] multiplexings = Multiplexing.values();
+
+		Server[] servers = new Server[num_servers];
+		for (int i = 0; i < num_servers; i++) {
+			String alias = data_in.readUTF();
+			int mux = data_in.readByte();
+			if (mux < 0 || mux >= multiplexings.length) {
+				throw new Exception("Invalid multiplexing discipline of server " + alias);
+			}
+			boolean use_gamma = data_in.readBoolean();
+			boolean use_extra_gamma = data_in.readBoolean();
+			ServiceCurve service_curve = CurvePwAffine.getFactory().createServiceCurve(readCurve(data_in));
+			MaxServiceCurve max_service_curve = CurvePwAffine.getFactory()
+					.createMaxServiceCurve(readCurve(data_in));
+
+			servers[i] = network.addServer(alias, service_curve, max_service_curve, multiplexings[mux], use_gamma,
+					use_extra_gamma);
+		}
+
+		for (int i = 0; i < num_links; i++) {
+			String alias = data_in.readUTF();
+			Server source = getServer(servers, data_in.readInt());
+			Server destination = getServer(servers, data_in.readInt());
+			network.addLink(alias, source, destination);
+		}
+
+		for (int i = 0; i < num_flows; i++) {
+			String alias = data_in.readUTF();
+			ArrivalCurve arrival_curve = CurvePwAffine.getFactory().createArrivalCurve(readCurve(data_in));
+
+			int path_length = data_in.readInt();
+			List<Server> path = new ArrayList<Server>(path_length);
+			for (int j = 0; j < path_length; j++) {
+				path.add(getServer(servers, data_in.readInt()));
+			}
+			network.addFlow(alias, arrival_curve, path);
+		}
+
+		return network;
+	}
+
+	private static Server getServer(Server[] servers, int index) throws Exception {
+		if (index < 0 || index >= servers.length) {
+			throw new Exception("Reference to unknown server " + index);
+		}
+		return servers[index];
+	}
+
+	private static CurvePwAffine readCurve(DataInputStream data_in) throws IOException {
+		int segment_count = data_in.readInt();
+		List<LinearSegment> segments = new ArrayList<LinearSegment>(segment_count);
+		for (int i = 0; i < segment_count; i++) {
+			Num x = readNum(data_in);
+			Num y = readNum(data_in);
+			Num grad = readNum(data_in);
+			segments.add(LinearSegment.createLinearSegment(x, y, grad, data_in.readBoolean()));
+		}
+		return CurvePwAffine.getFactory().createCurve(segments);
+	}
+
+	private static Num readNum(DataInputStream data_in) throws IOException {
+		byte tag = data_in.readByte();
+		switch (tag) {
+		case NUM_FINITE:
+			return Num.getFactory().create(data_in.readDouble());
+		case NUM_POSITIVE_INFINITY:
+			return Num.getFactory().createPositiveInfinity();
+		case NUM_NEGATIVE_INFINITY:
+			return Num.getFactory().createNegativeInfinity();
+		case NUM_NAN:
+			return Num.getFactory().createNaN();
+		case NUM_RATIONAL:
+			BigInteger num = readBigInteger(data_in);
+			BigInteger den = readBigInteger(data_in);
+			if (den.signum() <= 0) {
+				throw new IOException("Invalid denominator " + den);
+			}
+			return RationalNums.create(num, den);
+		default:
+			throw new IOException("Invalid number tag " + tag);
+		}
+	}
+
+	private static BigInteger readBigInteger(DataInputStream data_in) throws IOException {
+		int length = data_in.readInt();
+		if (length <= 0) {
+			throw new IOException("Invalid length of a big integer " + length);
+		}
+		byte[] bytes = new byte[length];
+		data_in.readFully(bytes);
+		return new BigInteger(bytes);
+	}
+}
@@ -0,0 +1,740 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2011 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+
+package de.uni_kl.cs.discodnc.network.io;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.LinearSegment;
+import de.uni_kl.cs.discodnc.curves.MaxServiceCurve;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Link;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.Server;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON format for networks:
+ * 
+ * <pre>
+ * { "format": "DiscoDNC network", "version": 2,
+ *   "servers": [ { "alias": "s0", "multiplexing": "ARBITRARY", "use_gamma": true, "use_extra_gamma": true,
+ *                  "service_curve": [ [x, y, grad, leftopen], ... ], "max_service_curve": [ ... ] }, ... ],
+ *   "links": [ { "alias": "l0", "source": 0, "destination": 1 }, ... ],
+ *   "flows": [ { "alias": "f0", "arrival_curve": [ ... ], "path": [0, 1] }, ... ] }
+ * </pre>
+ * 
+ * Servers are referenced by their position in the servers array, they are
+ * written in the order of their ids. Infinite values and NaN are given as the
+ * strings "Infinity", "-Infinity" and "NaN". Rational numbers are written
+ * exactly, integers as integer literals and fractions as strings like "1 / 3".
+ * Version 1 files without rational numbers can still be read.
+ * <p>
+ * The reader is a streaming one that adds every record to the network as soon
+ * as it is complete. Therefore, servers need to precede links and links need
+ * to precede flows. Unknown members are skipped.
+ */
+public final class NetworkJsonFormat {
+	public static final String FORMAT = "DiscoDNC network";
+	public static final int VERSION = 2;
+
+	private NetworkJsonFormat() {
+	}
+
+	public static void save(Network network, File file) throws IOException {
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+			write(network, writer);
+		}
+	}
+
+	public static Network load(File file) throws Exception {
+		try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+			return read(reader);
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+	// Writing
+	// --------------------------------------------------------------------------------------------
+	/**
+	 * Writes the network to the writer. The writer is flushed but not closed.
+	 *
+	 * @param network
+	 *            The network to write.
+	 * @param writer
+	 *            The writer to write to.
+	 * @throws IOException
+	 *             Writing failed.
+	 */
+	public static void write(Network network, Writer writer) throws IOException {
+		Writer out = new BufferedWriter(writer);
+
+		List<Server> servers = new ArrayList<Server>(network.getServers());
+		servers.sort(Comparator.comparingInt(Server::getId));
+		List<Link> links = new ArrayList<Link>(network.getLinks());
+		links.sort(Comparator.comparingInt(Link::getId));
+		List<Flow> flows = new ArrayList<Flow>(network.getFlows());
+		flows.sort(Comparator.comparingInt(Flow::getId));
+
+		Map<Server, Integer> map__server__index = new HashMap<Server, Integer>();
+		for (int i = 0; i < servers.size(); i++) {
+			map__server__index.put(servers.get(i), i);
+		}
+
+		out.write("{\n\"format\": ");
+		writeString(out, FORMAT);
+		out.write(",\n\"version\": ");
+		out.write(Integer.toString(VERSION));
+
+		out.write(",\n\"servers\": [");
+		for (int i = 0; i < servers.size(); i++) {
+			Server server = servers.get(i);
+			out.write(i == 0 ? "\n" : ",\n");
+			out.write("{\"alias\": ");
+			writeString(out, server.getAlias());
+			out.write(", \"multiplexing\": ");
+			writeString(out, server.multiplexingDiscipline().name());
+			out.write(", \"use_gamma\": ");
+			out.write(server.useGamma() ? "true" : "false");
+			out.write(", \"use_extra_gamma\": ");
+			out.write(server.useExtraGamma() ? "true" : "false");
+			out.write(", \"service_curve\": ");
+			writeCurve(out, server.getServiceCurve());
+			out.write(", \"max_service_curve\": ");
+			writeCurve(out, server.getMaxServiceCurve());
+			out.write('}');
+		}
+		out.write("\n]");
+
+		out.write(",\n\"links\": [");
+		for (int i = 0; i < links.size(); i++) {
+			Link link = links.get(i);
+			out.write(i == 0 ? "\n" : ",\n");
+			out.write("{\"alias\": ");
+			writeString(out, link.getAlias());
+			out.write(", \"source\": ");
+			out.write(Integer.toString(map__server__index.get(link.getSource())));
+			out.write(", \"destination\": ");
+			out.write(Integer.toString(map__server__index.get(link.getDest())));
+			out.write('}');
+		}
+		out.write("\n]");
+
+		out.write(",\n\"flows\": [");
+		for (int i = 0; i < flows.size(); i++) {
+			Flow flow = flows.get(i);
+			out.write(i == 0 ? "\n" : ",\n");
+			out.write("{\"alias\": ");
+			writeString(out, flow.getAlias());
+			out.write(", \"arrival_curve\": ");
+			writeCurve(out, flow.getArrivalCurve());
+			out.write(", \"path\": [");
+			List<Server> path = flow.getPath().getServers();
+			for (int j = 0; j < path.size(); j++) {
+				if (j > 0) {
+					out.write(", ");
+				}
+				out.write(Integer.toString(map__server__index.get(path.get(j))));
+			}
+			out.write("]}");
+		}
+		out.write("\n]\n}\n");
+
+		out.flush();
+	}
+
+	private static void writeCurve(Writer out, CurvePwAffine curve) throws IOException {
+		out.write('[');
+		for (int i = 0; i < curve.getSegmentCount(); i++) {
+			LinearSegment segment = curve.getSegment(i);
+			if (i > 0) {
+				out.write(", ");
+			}
+			out.write('[');
+			writeNum(out, segment.getX());
+			out.write(", ");
+			writeNum(out, segment.getY());
+			out.write(", ");
+			writeNum(out, segment.getGrad());
+			out.write(segment.isLeftopen() ? ", true]" : ", false]");
+		}
+		out.write(']');
+	}
+
+	private static void writeNum(Writer out, Num num) throws IOException {
+		BigInteger[] fraction = RationalNums.getFraction(num);
+		if (fraction == null) {
+			writeNum(out, num.doubleValue());
+		} else if (fraction[1].equals(BigInteger.ONE)) {
+			out.write(fraction[0].toString());
+		} else {
+			out.write('"');
+			out.write(fraction[0].toString());
+			out.write(" / ");
+			out.write(fraction[1].toString());
+			out.write('"');
+		}
+	}
+
+	private static void writeNum(Writer out, double num) throws IOException {
+		if (Double.isNaN(num)) {
+			out.write("\"NaN\"");
+		} else if (Double.isInfinite(num)) {
+			out.write(num > 0 ? "\"Infinity\"" : "\"-Infinity\"");
+		} else {
+			out.write(Double.toString(num));
+		}
+	}
+
+	private static void writeString(Writer out, String str) throws IOException {
+		out.write('"');
+		for (int i = 0; i < str.length(); i++) {
+			char c = str.charAt(i);
+			switch (c) {
+			case '"':
+				out.write("\\\"");
+				break;
+			case '\\':
+				out.write("\\\\");
+				break;
+			case '\n':
+				out.write("\\n");
+				break;
+			case '\r':
+				out.write("\\r");
+				break;
+			case '\t':
+				out.write("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					out.write(String.format("\\u%04x", (int) c));
+				} else {
+					out.write(c);
+				}
+			}
+		}
+		out.write('"');
+	}
+
+	// --------------------------------------------------------------------------------------------
+	// Reading
+	// --------------------------------------------------------------------------------------------
+	/**
+	 * Reads a network from the reader. The reader is not closed.
+	 *
+	 * @param reader
+	 *            The reader to read from.
+	 * @return The network.
+	 * @throws Exception
+	 *             The input is not valid JSON, not in a supported version of the
+	 *             format or the network is inconsistent.
+	 */
+	public static Network read(Reader reader) throws Exception {
+		JsonTokenizer in = new JsonTokenizer(reader);
+		Network network = new Network();
+		List<Server> servers = new ArrayList<Server>();
+
+		// 0: servers may follow, 1: links may follow, 2: flows may follow, 3: done
+		int section = 0;
+
+		in.expect('{');
+		if (!in.consumeIf('}')) {
+			do {
+				String key = in.readString();
+				in.expect(':');
+				switch (key) {
+				case "format":
+					if (!FORMAT.equals(in.readString())) {
+						throw new Exception("Not a DiscoDNC JSON network");
+					}
+					break;
+				case "version":
+					int version = in.readInt();
+					if (version < 1 || version > VERSION) {
+						throw new Exception("Unsupported JSON network format version " + version);
+					}
+					break;
+				case "servers":
+					section = checkSection(section, 0, key);
+					in.expect('[');
+					if (!in.consumeIf(']')) {
+						do {
+							servers.add(readServer(in, network));
+						} while (in.consumeIf(','));
+						in.expect(']');
+					}
+					break;
+				case "links":
+					section = checkSection(section, 1, key);
+					in.expect('[');
+					if (!in.consumeIf(']')) {
+						do {
+							readLink(in, network, servers);
+						} while (in.consumeIf(','));
+						in.expect(']');
+					}
+					break;
+				case "flows":
+					section = checkSection(section, 2, key);
+					in.expect('[');
+					if (!in.consumeIf(']')) {
+						do {
+							readFlow(in, network, servers);
+						} while (in.consumeIf(','));
+						in.expect(']');
+					}
+					break;
+				default:
+					in.skipValue();
+				}
+			} while (in.consumeIf(','));
+			in.expect('}');
+		}
+
+		return network;
+	}
+
+	private static int checkSection(int section_current, int section_next, String key) throws Exception {
+		if (section_current > section_next) {
+			throw new Exception("Member \"" + key + "\" must precede the ones it is referenced by");
+		}
+		return section_next + 1;
+	}
+
+	private static Server readServer(JsonTokenizer in, Network network) throws Exception {
+		String alias = null;
+		Multiplexing multiplexing = Multiplexing.ARBITRARY;
+		boolean use_gamma = true;
+		boolean use_extra_gamma = true;
+		ServiceCurve service_curve = null;
+		MaxServiceCurve max_service_curve = null;
+
+		in.expect('{');
+		if (!in.consumeIf('}')) {
+			do {
+				String key = in.readString();
+				in.expect(':');
+				switch (key) {
+				case "alias":
+					alias = in.readString();
+					break;
+				case "multiplexing":
+					multiplexing = Multiplexing.valueOf(in.readString());
+					break;
+				case "use_gamma":
+					use_gamma = in.readBoolean();
+					break;
+				case "use_extra_gamma":
+					use_extra_gamma = in.readBoolean();
+					break;
+				case "service_curve":
+					service_curve = CurvePwAffine.getFactory().createServiceCurve(readCurve(in));
+					break;
+				case "max_service_curve":
+					max_service_curve = CurvePwAffine.getFactory().createMaxServiceCurve(readCurve(in));
+					break;
+				default:
+					in.skipValue();
+				}
+			} while (in.consumeIf(','));
+			in.expect('}');
+		}
+
+		if (service_curve == null) {
+			throw new Exception("Server without service curve");
+		}
+		if (max_service_curve == null) {
+			max_service_curve = CurvePwAffine.getFactory().createZeroDelayInfiniteBurstMSC();
+		}
+		if (alias == null) {
+			return network.addServer(service_curve, max_service_curve, multiplexing, use_gamma, use_extra_gamma);
+		}
+		return network.addServer(alias, service_curve, max_service_curve, multiplexing, use_gamma,
+				use_extra_gamma);
+	}
+
+	private static void readLink(JsonTokenizer in, Network network, List<Server> servers) throws Exception {
+		String alias = null;
+		Server source = null;
+		Server destination = null;
+
+		in.expect('{');
+		if (!in.consumeIf('}')) {
+			do {
+				String key = in.readString();
+				in.expect(':');
+				switch (key) {
+				case "alias":
+					alias = in.readString();
+					break;
+				case "source":
+					source = getServer(servers, in.readInt());
+					break;
+				case "destination":
+					destination = getServer(servers, in.readInt());
+					break;
+				default:
+					in.skipValue();
+				}
+			} while (in.consumeIf(','));
+			in.expect('}');
+		}
+
+		if (source == null || destination == null) {
+			throw new Exception("Link without source or destination");
+		}
+		if (alias == null) {
+			network.addLink(source, destination);
+		} else {
+			network.addLink(alias, source, destination);
+		}
+	}
+
+	private static void readFlow(JsonTokenizer in, Network network, List<Server> servers) throws Exception {
+		String alias = null;
+		ArrivalCurve arrival_curve = null;
+		List<Server> path = new ArrayList<Server>();
+
+		in.expect('{');
+		if (!in.consumeIf('}')) {
+			do {
+				String key = in.readString();
+				in.expect(':');
+				switch (key) {
+				case "alias":
+					alias = in.readString();
+					break;
+				case "arrival_curve":
+					arrival_curve = CurvePwAffine.getFactory().createArrivalCurve(readCurve(in));
+					break;
+				case "path":
+					in.expect('[');
+					if (!in.consumeIf(']')) {
+						do {
+							path.add(getServer(servers, in.readInt()));
+						} while (in.consumeIf(','));
+						in.expect(']');
+					}
+					break;
+				default:
+					in.skipValue();
+				}
+			} while (in.consumeIf(','));
+			in.expect('}');
+		}
+
+		if (arrival_curve == null || path.isEmpty()) {
+			throw new Exception("Flow without arrival curve or path");
+		}
+		if (alias == null) {
+			network.addFlow(arrival_curve, path);
+		} else {
+			network.addFlow(alias, arrival_curve, path);
+		}
+	}
+
+	private static Server getServer(List<Server> servers, int index) throws Exception {
+		if (index < 0 || index >= servers.size()) {
+			throw new Exception("Reference to unknown server " + index);
+		}
+		return servers.get(index);
+	}
+
+	private static CurvePwAffine readCurve(JsonTokenizer in) throws Exception {
+		List<LinearSegment> segments = new ArrayList<LinearSegment>();
+
+		in.expect('[');
+		if (!in.consumeIf(']')) {
+			do {
+				in.expect('[');
+				Num x = in.readNum();
+				in.expect(',');
+				Num y = in.readNum();
+				in.expect(',');
+				Num grad = in.readNum();
+				in.expect(',');
+				boolean leftopen = in.readBoolean();
+				in.expect(']');
+				segments.add(LinearSegment.createLinearSegment(x, y, grad, leftopen));
+			} while (in.consumeIf(','));
+			in.expect(']');
+		}
+
+		if (segments.isEmpty()) {
+			throw new Exception("Curve without segments");
+		}
+		return CurvePwAffine.getFactory().createCurve(segments);
+	}
+
+	/**
+	 * Minimal pull tokenizer reading the JSON input character by character.
+	 */
+	private static final class JsonTokenizer {
+		private final Reader reader;
+		private final StringBuilder buffer = new StringBuilder();
+		private int next;
+		private int line = 1;
+
+		private JsonTokenizer(Reader reader) throws IOException {
+			this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+			advance();
+		}
+
+		private void advance() throws IOException {
+			next = reader.read();
+			if (next == '\n') {
+				line++;
+			}
+		}
+
+		private void skipWhitespace() throws IOException {
+			while (next == ' ' || next == '\t' || next == '\n' || next == '\r') {
+				advance();
+			}
+		}
+
+		private Exception error(String expected) {
+			String found = next == -1 ? "end of input" : "'" + (char) next + "'";
+			return new Exception("Invalid JSON network in line " + line + ": expected " + expected + " but found "
+					+ found);
+		}
+
+		private void expect(char c) throws Exception {
+			skipWhitespace();
+			if (next != c) {
+				throw error("'" + c + "'");
+			}
+			advance();
+		}
+
+		private boolean consumeIf(char c) throws IOException {
+			skipWhitespace();
+			if (next == c) {
+				advance();
+				return true;
+			}
+			return false;
+		}
+
+		private String readString() throws Exception {
+			expect('"');
+			buffer.setLength(0);
+			while (next != '"') {
+				if (next == -1) {
+					throw error("'\"'");
+				}
+				if (next == '\\') {
+					advance();
+					switch (next) {
+					case 'n':
+						buffer.append('\n');
+						break;
+					case 'r':
+						buffer.append('\r');
+						break;
+					case 't':
+						buffer.append('\t');
+						break;
+					case 'b':
+						buffer.append('\b');
+						break;
+					case 'f':
+						buffer.append('\f');
+						break;
+					case 'u':
+						int code_point = 0;
+						for (int i = 0; i < 4; i++) {
+							advance();
+							int digit = Character.digit(next, 16);
+							if (digit == -1) {
+								throw error("hex digit");
+							}
+							code_point = code_point * 16 + digit;
+						}
+						buffer.append((char) code_point);
+						break;
+					case -1:
+						throw error("escaped character");
+					default: // '"', '\\' and '/'
+						buffer.append((char) next);
+					}
+				} else {
+					buffer.append((char) next);
+				}
+				advance();
+			}
+			advance();
+			return buffer.toString();
+		}
+
+		private boolean readBoolean() throws Exception {
+			skipWhitespace();
+			if (next == 't') {
+				readLiteral("true");
+				return true;
+			}
+			readLiteral("false");
+			return false;
+		}
+
+		private void readLiteral(String literal) throws Exception {
+			for (int i = 0; i < literal.length(); i++) {
+				if (next != literal.charAt(i)) {
+					throw error(literal);
+				}
+				advance();
+			}
+		}
+
+		private void readNumberChars() throws Exception {
+			skipWhitespace();
+			buffer.setLength(0);
+			while (next == '-' || next == '+' || next == '.' || next == 'e' || next == 'E'
+					|| (next >= '0' && next <= '9')) {
+				buffer.append((char) next);
+				advance();
+			}
+			if (buffer.length() == 0) {
+				throw error("number");
+			}
+		}
+
+		private int readInt() throws Exception {
+			readNumberChars();
+			try {
+				return Integer.parseInt(buffer.toString());
+			} catch (NumberFormatException e) {
+				throw error("integer");
+			}
+		}
+
+		private Num readNum() throws Exception {
+			skipWhitespace();
+			if (next == '"') {
+				String special = readString();
+				switch (special) {
+				case "Infinity":
+					return Num.getFactory().createPositiveInfinity();
+				case "-Infinity":
+					return Num.getFactory().createNegativeInfinity();
+				case "NaN":
+					return Num.getFactory().createNaN();
+				default:
+					return readFraction(special);
+				}
+			}
+			readNumberChars();
+			String num_str = buffer.toString();
+			try {
+				if (num_str.indexOf('.') == -1 && num_str.indexOf('e') == -1 && num_str.indexOf('E') == -1) {
+					return RationalNums.create(new BigInteger(num_str), BigInteger.ONE);
+				}
+				return Num.getFactory().create(Double.parseDouble(num_str));
+			} catch (NumberFormatException e) {
+				throw error("number");
+			}
+		}
+
+		private Num readFraction(String fraction) throws Exception {
+			String[] num_den = fraction.split(" / ");
+			if (num_den.length == 2) {
+				try {
+					BigInteger den = new BigInteger(num_den[1]);
+					if (den.signum() > 0) {
+						return RationalNums.create(new BigInteger(num_den[0]), den);
+					}
+				} catch (NumberFormatException e) {
+					// Reported below
+				}
+			}
+			throw new Exception("Invalid JSON network in line " + line + ": invalid number " + fraction);
+		}
+
+		private void skipValue() throws Exception {
+			skipWhitespace();
+			switch (next) {
+			case '"':
+				readString();
+				break;
+			case '{':
+				advance();
+				if (!consumeIf('}')) {
+					do {
+						readString();
+						expect(':');
+						skipValue();
+					} while (consumeIf(','));
+					expect('}');
+				}
+				break;
+			case '[':
+				advance();
+				if (!consumeIf(']')) {
+					do {
+						skipValue();
+					} while (consumeIf(','));
+					expect(']');
+				}
+				break;
+			case 't':
+				readLiteral("true");
+				break;
+			case 'f':
+				readLiteral("false");
+				break;
+			case 'n':
+				readLiteral("null");
+				break;
+			default:
+				readNumberChars();
+			}
+		}
+	}
+}
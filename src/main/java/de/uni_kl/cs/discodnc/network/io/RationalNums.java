@@ -0,0 +1,92 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2011 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package de.uni_kl.cs.discodnc.network.io;
+
+import de.uni_kl.cs.discodnc.numbers.Num;
+import de.uni_kl.cs.discodnc.numbers.implementations.RationalBigInt;
+import de.uni_kl.cs.discodnc.numbers.implementations.RationalInt;
+import de.uni_kl.cs.discodnc.numbers.implementations.RationalLong;
+
+import org.apache.commons.math3.fraction.BigFraction;
+
+import java.math.BigInteger;
+
+/**
+ * Exact numerator / denominator access to the rational number implementations
+ * for the network formats.
+ */
+final class RationalNums {
+	private RationalNums() {
+	}
+
+	/**
+	 * @param num
+	 *            A number.
+	 * @return The numerator and denominator of a finite rational number, null for
+	 *         other numbers.
+	 */
+	static BigInteger[] getFraction(Num num) {
+		if (num instanceof RationalInt) {
+			RationalInt rational = (RationalInt) num;
+			return new BigInteger[] { rational.getNumerator(), rational.getDenominator() };
+		}
+		if (num instanceof RationalBigInt) {
+			RationalBigInt rational = (RationalBigInt) num;
+			return new BigInteger[] { rational.getNumerator(), rational.getDenominator() };
+		}
+		if (num instanceof RationalLong) {
+			RationalLong rational = (RationalLong) num;
+			return new BigInteger[] { rational.getNumerator(), rational.getDenominator() };
+		}
+		return null;
+	}
+
+	/**
+	 * Creates num / den with the current number factory. Number implementations
+	 * that are not rational ones get the closest double.
+	 *
+	 * @param num
+	 *            Numerator.
+	 * @param den
+	 *            Denominator, not zero.
+	 * @return The new number.
+	 */
+	static Num create(BigInteger num, BigInteger den) {
+		Num factory = Num.getFactory();
+		if (factory instanceof RationalInt) {
+			return ((RationalInt) factory).create(num, den);
+		}
+		if (factory instanceof RationalBigInt) {
+			return ((RationalBigInt) factory).create(num, den);
+		}
+		if (factory instanceof RationalLong) {
+			return ((RationalLong) factory).create(num, den);
+		}
+		return factory.create(new BigFraction(num, den).doubleValue());
+	}
+}
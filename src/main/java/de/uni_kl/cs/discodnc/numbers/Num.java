@@ -28,9 +28,11 @@
 
 package de.uni_kl.cs.discodnc.numbers;
 
-import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
 import de.uni_kl.cs.discodnc.numbers.implementations.RationalBigInt;
 import de.uni_kl.cs.discodnc.numbers.implementations.RationalInt;
+import de.uni_kl.cs.discodnc.numbers.implementations.RationalLong;
 import de.uni_kl.cs.discodnc.numbers.implementations.RealDoublePrecision;
 import de.uni_kl.cs.discodnc.numbers.implementations.RealSinglePrecision;
 import de.uni_kl.cs.discodnc.numbers.values.NaN;
@@ -47,13 +49,19 @@ public interface Num {
     final Num POSITIVE_INFINITY = new PositiveInfinity();
 
     public static Num getFactory() {
-        switch (CalculatorConfig.getInstance().getNumImpl()) {
+        return CalculationContext.current().getNumFactory();
+    }
+
+    public static Num getFactory(NumImpl num_impl) {
+        switch (num_impl) {
             case REAL_SINGLE_PRECISION:
                 return RealSinglePrecision.getInstance();
             case RATIONAL_INTEGER:
                 return RationalInt.getInstance();
             case RATIONAL_BIGINTEGER:
                 return RationalBigInt.getInstance();
+            case RATIONAL_LONG:
+                return RationalLong.getInstance();
             case REAL_DOUBLE_PRECISION:
             default:
                 return RealDoublePrecision.getInstance();
@@ -61,17 +69,7 @@ public interface Num {
     }
 
     public static Num getUtils() {
-        switch (CalculatorConfig.getInstance().getNumImpl()) {
-            case REAL_SINGLE_PRECISION:
-                return RealSinglePrecision.getInstance();
-            case RATIONAL_INTEGER:
-                return RationalInt.getInstance();
-            case RATIONAL_BIGINTEGER:
-                return RationalBigInt.getInstance();
-            case REAL_DOUBLE_PRECISION:
-            default:
-                return RealDoublePrecision.getInstance();
-        }
+        return CalculationContext.current().getNumFactory();
     }
 
     double doubleValue();
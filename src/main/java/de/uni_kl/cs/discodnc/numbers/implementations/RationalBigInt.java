@@ -229,7 +229,7 @@ public class RationalBigInt implements Num {
 
     @Override
     public boolean eq(double num) {
-        return this.doubleValue() - num <= RealDoublePrecision.getInstance().createEpsilon().doubleValue();
+        return Math.abs(this.doubleValue() - num) <= RealDoublePrecision.getInstance().createEpsilon().doubleValue();
     }
 
     public boolean equals(RationalBigInt num) {
@@ -254,6 +254,20 @@ public class RationalBigInt implements Num {
         return value.hashCode();
     }
 
+    /**
+     * @return The numerator of the reduced fraction.
+     */
+    public BigInteger getNumerator() {
+        return value.getNumerator();
+    }
+
+    /**
+     * @return The positive denominator of the reduced fraction.
+     */
+    public BigInteger getDenominator() {
+        return value.getDenominator();
+    }
+
     @Override
     public String toString() {
         return value.toString();
@@ -341,6 +355,21 @@ public class RationalBigInt implements Num {
         return new RationalBigInt(num, den);
     }
 
+    /**
+     * Creates the value num / den.
+     *
+     * @param num Numerator.
+     * @param den Denominator.
+     * @return The new number.
+     */
+    public Num create(BigInteger num, BigInteger den) {
+        if (den.signum() == 0) { // division by integer 0 throws an arithmetic exception
+            throw new ArithmeticException("/ by zero");
+        }
+
+        return new RationalBigInt(num, den);
+    }
+
     public Num create(String num_str) throws Exception {
         if (num_str.equals("Infinity")) {
             return createPositiveInfinity();
@@ -34,8 +34,11 @@ import de.uni_kl.cs.discodnc.numbers.values.NaN;
 import de.uni_kl.cs.discodnc.numbers.values.NegativeInfinity;
 import de.uni_kl.cs.discodnc.numbers.values.PositiveInfinity;
 
+import org.apache.commons.math3.fraction.BigFraction;
 import org.apache.commons.math3.fraction.Fraction;
 
+import java.math.BigInteger;
+
 /**
  * Wrapper class around org.apache.commons.math3.fraction.Fraction introducing
  * special values like positive / negative infinity and NaN as well as operators
@@ -248,6 +251,20 @@ public class RationalInt implements Num {
         return value.hashCode();
     }
 
+    /**
+     * @return The numerator of the reduced fraction.
+     */
+    public BigInteger getNumerator() {
+        return BigInteger.valueOf(value.getNumerator());
+    }
+
+    /**
+     * @return The positive denominator of the reduced fraction.
+     */
+    public BigInteger getDenominator() {
+        return BigInteger.valueOf(value.getDenominator());
+    }
+
     @Override
     public String toString() {
         return value.toString();
@@ -335,6 +352,21 @@ public class RationalInt implements Num {
         return new RationalInt(num, den);
     }
 
+    /**
+     * Creates the value num / den. Fractions exceeding the integer range are
+     * approximated like doubles are.
+     *
+     * @param num Numerator.
+     * @param den Denominator.
+     * @return The new number.
+     */
+    public Num create(BigInteger num, BigInteger den) {
+        if (num.bitLength() < 32 && den.bitLength() < 32) {
+            return create(num.intValue(), den.intValue());
+        }
+        return create(new BigFraction(num, den).doubleValue());
+    }
+
     public Num create(String num_str) throws Exception {
         if (num_str.equals("Infinity")) {
             return createPositiveInfinity();
@@ -0,0 +1,805 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2016 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc.numbers.implementations;
+
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
+import de.uni_kl.cs.discodnc.numbers.Num;
+import de.uni_kl.cs.discodnc.numbers.values.NaN;
+import de.uni_kl.cs.discodnc.numbers.values.NegativeInfinity;
+import de.uni_kl.cs.discodnc.numbers.values.PositiveInfinity;
+
+import org.apache.commons.math3.fraction.BigFraction;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * Exact rational numbers stored as a reduced fraction of two primitive longs.
+ * <p>
+ * The arithmetic is overflow-checked. An operation whose result does not fit
+ * into longs is computed with org.apache.commons.math3.fraction.BigFraction and
+ * only this single value is stored as a BigFraction. Values are demoted to longs
+ * again as soon as they fit, i.e., every value has a unique representation. In
+ * contrast to RationalInt there is no overflow exception and in contrast to
+ * RationalBigInt the common case does not allocate BigIntegers.
+ * <p>
+ * Special values like positive / negative infinity and NaN are handled by the
+ * shared extra values.
+ * <p>
+ * As the arithmetic is exact, equals(Object) is exact as well and consistent
+ * with hashCode(). Only eq(double) compares with an epsilon.
+ */
+public class RationalLong implements Num {
+    private static final RationalLong EPSILON_RATIONAL = new RationalLong(1, 1000000);
+    private static RationalLong instance = new RationalLong();
+
+    // Reduced, den > 0, neither is Long.MIN_VALUE. Only valid if big == null.
+    private long num;
+    private long den;
+    private BigFraction big;
+
+    private Num POSITIVE_INFINITY = null;
+    private Num NEGATIVE_INFINITY = null;
+    private Num NaN = null;
+    private Num ZERO = null;
+    private Num EPSILON = null;
+
+    private RationalLong() {
+        num = 0;
+        den = 1;
+    }
+
+    /**
+     * @param num Numerator.
+     * @param den Denominator, positive.
+     */
+    private RationalLong(long num, long den) {
+        this.num = num;
+        this.den = den;
+    }
+
+    private RationalLong(BigFraction big) {
+        this.big = big;
+    }
+
+    public static RationalLong getInstance() {
+        return instance;
+    }
+
+    // --------------------------------------------------------------------------------------------------------------
+    // Internal Representation
+    // --------------------------------------------------------------------------------------------------------------
+
+    private static long gcd(long a, long b) {
+        a = Math.abs(a);
+        b = Math.abs(b);
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * Creates the value num / den, any sign of den and Long.MIN_VALUE are
+     * allowed.
+     */
+    private static RationalLong valueOf(long num, long den) {
+        if (num == Long.MIN_VALUE || den == Long.MIN_VALUE) {
+            return valueOf(new BigFraction(BigInteger.valueOf(num), BigInteger.valueOf(den)));
+        }
+        if (den < 0) {
+            num = -num;
+            den = -den;
+        }
+        long gcd = gcd(num, den);
+        if (gcd > 1) {
+            num /= gcd;
+            den /= gcd;
+        }
+        return new RationalLong(num, den);
+    }
+
+    /**
+     * Demotes to longs if possible. BigFraction is always reduced with a positive
+     * denominator.
+     */
+    private static RationalLong valueOf(BigFraction big) {
+        BigInteger big_num = big.getNumerator();
+        BigInteger big_den = big.getDenominator();
+        if (big_num.bitLength() < 63 && big_den.bitLength() < 63) {
+            return new RationalLong(big_num.longValue(), big_den.longValue());
+        }
+        return new RationalLong(big);
+    }
+
+    private boolean isBig() {
+        return big != null;
+    }
+
+    private BigFraction toBigFraction() {
+        if (big != null) {
+            return big;
+        }
+        return new BigFraction(BigInteger.valueOf(num), BigInteger.valueOf(den));
+    }
+
+    private int signum() {
+        return big != null ? big.getNumerator().signum() : Long.signum(num);
+    }
+
+    private int compareTo(RationalLong other) {
+        if (big == null && other.big == null) {
+            if (den == other.den) {
+                return Long.compare(num, other.num);
+            }
+            try {
+                return Long.compare(Math.multiplyExact(num, other.den), Math.multiplyExact(other.num, den));
+            } catch (ArithmeticException e) {
+                // Fall through to the exact comparison
+            }
+        }
+        return toBigFraction().compareTo(other.toBigFraction());
+    }
+
+    private static RationalLong add(RationalLong r1, RationalLong r2) {
+        if (!r1.isBig() && !r2.isBig()) {
+            try {
+                if (r1.den == r2.den) {
+                    return valueOf(Math.addExact(r1.num, r2.num), r1.den);
+                }
+                long gcd = gcd(r1.den, r2.den);
+                long den1_reduced = r1.den / gcd;
+                long den2_reduced = r2.den / gcd;
+                return valueOf(
+                        Math.addExact(Math.multiplyExact(r1.num, den2_reduced),
+                                Math.multiplyExact(r2.num, den1_reduced)),
+                        Math.multiplyExact(r1.den, den2_reduced));
+            } catch (ArithmeticException e) {
+                // Fall through to the exact computation
+            }
+        }
+        return valueOf(r1.toBigFraction().add(r2.toBigFraction()));
+    }
+
+    private static RationalLong negate(RationalLong r) {
+        if (r.isBig()) {
+            return valueOf(r.big.negate());
+        }
+        return new RationalLong(-r.num, r.den); // MIN_VALUE is never stored
+    }
+
+    private static RationalLong mult(RationalLong r1, RationalLong r2) {
+        if (!r1.isBig() && !r2.isBig()) {
+            try {
+                // Cross-reduce first, the result is reduced as well then
+                long gcd_1 = gcd(r1.num, r2.den);
+                long gcd_2 = gcd(r2.num, r1.den); // Both are at least 1, denominators are positive
+                return valueOf(Math.multiplyExact(r1.num / gcd_1, r2.num / gcd_2),
+                        Math.multiplyExact(r1.den / gcd_2, r2.den / gcd_1));
+            } catch (ArithmeticException e) {
+                // Fall through to the exact computation
+            }
+        }
+        return valueOf(r1.toBigFraction().multiply(r2.toBigFraction()));
+    }
+
+    private static RationalLong reciprocal(RationalLong r) {
+        if (r.isBig()) {
+            return valueOf(new BigFraction(r.big.getDenominator(), r.big.getNumerator()));
+        }
+        return valueOf(r.den, r.num);
+    }
+
+    // --------------------------------------------------------------------------------------------------------------
+    // Num Interface Implementations
+    // --------------------------------------------------------------------------------------------------------------
+
+    public boolean eqZero() {
+        return signum() == 0;
+    }
+
+    public boolean gt(Num num) {
+        if (num instanceof NaN) {
+            return false;
+        }
+        if (num instanceof PositiveInfinity) {
+            return false;
+        }
+        if (num instanceof NegativeInfinity) {
+            return true;
+        }
+
+        return compareTo((RationalLong) num) > 0;
+    }
+
+    public boolean gtZero() {
+        return signum() > 0;
+    }
+
+    public boolean geq(Num num) {
+        if (num instanceof NaN) {
+            return false;
+        }
+        if (num instanceof PositiveInfinity) {
+            return false;
+        }
+        if (num instanceof NegativeInfinity) {
+            return true;
+        }
+
+        return compareTo((RationalLong) num) >= 0;
+    }
+
+    public boolean geqZero() {
+        return signum() >= 0;
+    }
+
+    public boolean lt(Num num) {
+        if (num instanceof NaN) {
+            return false;
+        }
+        if (num instanceof PositiveInfinity) {
+            return true;
+        }
+        if (num instanceof NegativeInfinity) {
+            return false;
+        }
+
+        return compareTo((RationalLong) num) < 0;
+    }
+
+    public boolean ltZero() {
+        return signum() < 0;
+    }
+
+    public boolean leq(Num num) {
+        if (num instanceof NaN) {
+            return false;
+        }
+        if (num instanceof PositiveInfinity) {
+            return true;
+        }
+        if (num instanceof NegativeInfinity) {
+            return false;
+        }
+
+        return compareTo((RationalLong) num) <= 0;
+    }
+
+    public boolean leqZero() {
+        return signum() <= 0;
+    }
+
+    public boolean isFinite() {
+        return true;
+    }
+
+    public boolean isInfinite() {
+        return false; // Handled by extraValues
+    }
+
+    public boolean isNaN() {
+        return false; // Handled by extraValues
+    }
+
+    @Override
+    public double doubleValue() {
+        if (big != null) {
+            return toDouble(big);
+        }
+        // Exact operands give a correctly rounded result
+        if (Math.abs(num) <= (1L << 53) && den <= (1L << 53)) {
+            return (double) num / (double) den;
+        }
+        return toDouble(toBigFraction());
+    }
+
+    /**
+     * BigFraction.doubleValue() divides the doubles of numerator and denominator,
+     * i.e., it returns 0 or NaN once one of them exceeds the double range. The
+     * decimal quotient keeps enough digits for the closest double.
+     */
+    private static double toDouble(BigFraction fraction) {
+        return new BigDecimal(fraction.getNumerator())
+                .divide(new BigDecimal(fraction.getDenominator()), MathContext.DECIMAL128).doubleValue();
+    }
+
+    // --------------------------------------------------------------------------------------------------------------
+    // Factory Interface Implementations
+    // --------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public Num copy() {
+        if (big != null) {
+            return new RationalLong(big);
+        }
+        return new RationalLong(num, den);
+    }
+
+    @Override
+    public boolean eq(double num) {
+        return Math.abs(this.doubleValue() - num) <= RealDoublePrecision.getInstance().createEpsilon().doubleValue();
+    }
+
+    /**
+     * Exact comparison in contrast to eq(double). Values have a unique
+     * representation, so this is consistent with hashCode().
+     *
+     * @param num The number to compare with.
+     * @return Whether both numbers have the same value.
+     */
+    public boolean equals(RationalLong num) {
+        return this.compareTo(num) == 0;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null || !(obj instanceof RationalLong)) {
+            return false;
+        } else {
+            return equals(((RationalLong) obj));
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        if (big != null) {
+            return big.hashCode();
+        }
+        return 31 * Long.hashCode(num) + Long.hashCode(den);
+    }
+
+    /**
+     * @return The numerator of the reduced fraction.
+     */
+    public BigInteger getNumerator() {
+        return toBigFraction().getNumerator();
+    }
+
+    /**
+     * @return The positive denominator of the reduced fraction.
+     */
+    public BigInteger getDenominator() {
+        return toBigFraction().getDenominator();
+    }
+
+    @Override
+    public String toString() {
+        if (big != null) {
+            return big.toString();
+        }
+        if (den == 1) {
+            return Long.toString(num);
+        }
+        return num + " / " + den;
+    }
+
+    public Num getPositiveInfinity() {
+        if (POSITIVE_INFINITY == null) {
+            POSITIVE_INFINITY = createPositiveInfinity();
+        }
+        return POSITIVE_INFINITY;
+    }
+
+    public Num createPositiveInfinity() {
+        return new PositiveInfinity();
+    }
+
+    public Num getNegativeInfinity() {
+        if (NEGATIVE_INFINITY == null) {
+            NEGATIVE_INFINITY = createNegativeInfinity();
+        }
+        return NEGATIVE_INFINITY;
+    }
+
+    public Num createNegativeInfinity() {
+        return new NegativeInfinity();
+    }
+
+    public Num getNaN() {
+        if (NaN == null) {
+            NaN = createNaN();
+        }
+        return NaN;
+    }
+
+    public Num createNaN() {
+        return new NaN();
+    }
+
+    public Num getZero() {
+        if (ZERO == null) {
+            ZERO = createZero();
+        }
+        return ZERO;
+    }
+
+    public Num createZero() {
+        return new RationalLong(0, 1);
+    }
+
+    public Num getEpsilon() {
+        if (EPSILON == null) {
+            EPSILON = createEpsilon();
+        }
+        return EPSILON;
+    }
+
+    public Num createEpsilon() {
+        return EPSILON_RATIONAL;
+    }
+
+    public Num create(int num) {
+        return new RationalLong(num, 1);
+    }
+
+    /**
+     * Converts the double exactly, i.e., the result is the binary fraction
+     * m * 2^e represented by the double's bits.
+     */
+    public Num create(double value) {
+        // non IEEE 754 floating point data types
+        if (value == Double.POSITIVE_INFINITY) {
+            return createPositiveInfinity();
+        }
+        if (value == Double.NEGATIVE_INFINITY) {
+            return createNegativeInfinity();
+        }
+        if (Double.isNaN(value)) {
+            return createNaN();
+        }
+        if (value == 0.0) {
+            return new RationalLong(0, 1);
+        }
+
+        long bits = Double.doubleToLongBits(value);
+        int biased_exponent = (int) ((bits >> 52) & 0x7ffL);
+        long mantissa = bits & 0x000fffffffffffffL;
+        int exponent;
+        if (biased_exponent == 0) { // subnormal
+            exponent = -1074;
+        } else {
+            mantissa |= 0x0010000000000000L;
+            exponent = biased_exponent - 1075;
+        }
+
+        int trailing_zeros = Long.numberOfTrailingZeros(mantissa);
+        mantissa >>= trailing_zeros;
+        exponent += trailing_zeros;
+        if (value < 0) {
+            mantissa = -mantissa;
+        }
+
+        // The mantissa has at most 53 bits
+        if (exponent >= 0 && exponent <= 9) {
+            return new RationalLong(mantissa << exponent, 1);
+        }
+        if (exponent < 0 && exponent >= -62) {
+            return new RationalLong(mantissa, 1L << -exponent);
+        }
+        // Not BigFraction(double), it drops the lowest bit of subnormals
+        if (exponent > 0) {
+            return valueOf(new BigFraction(BigInteger.valueOf(mantissa).shiftLeft(exponent)));
+        }
+        return valueOf(new BigFraction(BigInteger.valueOf(mantissa), BigInteger.ONE.shiftLeft(-exponent)));
+    }
+
+    public Num create(int num, int den) {
+        if (den == 0) { // division by integer 0 throws an arithmetic exception
+            throw new ArithmeticException("/ by zero");
+        }
+        return valueOf(num, den);
+    }
+
+    /**
+     * Creates the value num / den.
+     *
+     * @param num Numerator.
+     * @param den Denominator.
+     * @return The new number.
+     */
+    public Num create(BigInteger num, BigInteger den) {
+        if (den.signum() == 0) { // division by integer 0 throws an arithmetic exception
+            throw new ArithmeticException("/ by zero");
+        }
+        return valueOf(new BigFraction(num, den));
+    }
+
+    public Num create(String num_str) throws Exception {
+        if (num_str.equals("Infinity")) {
+            return createPositiveInfinity();
+        }
+        if (num_str.equals("-Infinity")) {
+            return createNegativeInfinity();
+        }
+        if (num_str.equals("NaN") || num_str.equals("NA")) {
+            return createNaN();
+        }
+
+        boolean fraction_indicator = num_str.contains(" / ");
+        boolean double_based = num_str.contains(".");
+
+        if (fraction_indicator && double_based) {
+            throw new Exception("Invalid string representation of a number based on "
+                    + CalculatorConfig.getInstance().getNumImpl().toString() + ": " + num_str);
+        }
+
+        try {
+            // either an integer of something strange
+            if (!fraction_indicator && !double_based) {
+                return valueOf(new BigFraction(new BigInteger(num_str), BigInteger.ONE));
+            }
+
+            if (fraction_indicator) {
+                String[] num_den = num_str.split(" / "); // ["num","den"]
+                if (num_den.length != 2) {
+                    throw new Exception("Invalid string representation of a number based on "
+                            + CalculatorConfig.getInstance().getNumImpl().toString() + ": " + num_str);
+                }
+
+                BigInteger den = new BigInteger(num_den[1]);
+                if (den.signum() != 0) {
+                    return valueOf(new BigFraction(new BigInteger(num_den[0]), den));
+                } else {
+                    return createNaN();
+                }
+            }
+
+            if (double_based) {
+                return create(Double.parseDouble(num_str));
+            }
+        } catch (Exception e) {
+            throw new Exception("Invalid string representation of a number based on "
+                    + CalculatorConfig.getInstance().getNumImpl().toString() + ": " + num_str);
+        }
+
+        // This code should not be reachable because all the operations above either
+        // succeed such that we can return a number
+        // of raise an exception of some kind. Yet, Java does not get this and thus
+        // complains if there's no "finalizing statement".
+        throw new Exception("Invalid string representation of a number based on "
+                + CalculatorConfig.getInstance().getNumImpl().toString() + ": " + num_str);
+    }
+
+    // --------------------------------------------------------------------------------------------------------------
+    // Utils Interface Implementations
+    // --------------------------------------------------------------------------------------------------------------
+
+    public Num add(Num num1, Num num2) {
+        if (num1 instanceof NaN || num2 instanceof NaN
+                || (num1 instanceof PositiveInfinity && num2 instanceof NegativeInfinity)
+                || (num1 instanceof NegativeInfinity && num2 instanceof PositiveInfinity)) {
+            return new NaN();
+        }
+        if (num1 instanceof PositiveInfinity || num2 instanceof PositiveInfinity) { // other num is not negative
+            // infinity
+            return new PositiveInfinity();
+        }
+        if (num1 instanceof NegativeInfinity || num2 instanceof NegativeInfinity) { // other num is not positive
+            // infinity
+            return new NegativeInfinity();
+        }
+
+        return add((RationalLong) num1, (RationalLong) num2);
+    }
+
+    public Num sub(Num num1, Num num2) {
+        if (num1 instanceof NaN || num2 instanceof NaN
+                || (num1 instanceof PositiveInfinity && num2 instanceof PositiveInfinity)
+                || (num1 instanceof NegativeInfinity && num2 instanceof NegativeInfinity)) {
+            return new NaN();
+        }
+        if (num1 instanceof PositiveInfinity // num2 is not positive infinity
+                || num2 instanceof NegativeInfinity) { // num1 is not negative infinity
+            return new PositiveInfinity();
+        }
+        if (num1 instanceof NegativeInfinity // num2 is not negative infinity
+                || num2 instanceof PositiveInfinity) { // num1 is not positive infinity
+            return new NegativeInfinity();
+        }
+
+        return add((RationalLong) num1, negate((RationalLong) num2));
+    }
+
+    public Num mult(Num num1, Num num2) {
+        if (num1 instanceof NaN || num2 instanceof NaN) {
+            return new NaN();
+        }
+        if (num1 instanceof PositiveInfinity) {
+            if (num2.ltZero() || num2 instanceof NegativeInfinity) {
+                return new NegativeInfinity();
+            } else {
+                return new PositiveInfinity();
+            }
+        }
+        if (num2 instanceof PositiveInfinity) {
+            if (num1.ltZero() || num1 instanceof NegativeInfinity) {
+                return new NegativeInfinity();
+            } else {
+                return new PositiveInfinity();
+            }
+        }
+        if (num1 instanceof NegativeInfinity) {
+            if (num2.ltZero() || num2 instanceof NegativeInfinity) {
+                return new PositiveInfinity();
+            } else {
+                return new NegativeInfinity();
+            }
+        }
+        if (num2 instanceof NegativeInfinity) {
+            if (num1.ltZero() || num1 instanceof NegativeInfinity) {
+                return new PositiveInfinity();
+            } else {
+                return new NegativeInfinity();
+            }
+        }
+
+        return mult((RationalLong) num1, (RationalLong) num2);
+    }
+
+    public Num div(Num num1, Num num2) {
+        if (num1 instanceof NaN || num2 instanceof NaN
+                || ((num1 instanceof PositiveInfinity || num1 instanceof NegativeInfinity)
+                && (num2 instanceof PositiveInfinity || num2 instanceof NegativeInfinity))) { // two infinities
+            // in the
+            // division
+            return new NaN();
+        }
+        if (num1 instanceof PositiveInfinity) { // positive infinity divided by some finite value
+            if (num2.ltZero()) {
+                return new NegativeInfinity();
+            } else {
+                return new PositiveInfinity();
+            }
+        }
+        if (num1 instanceof NegativeInfinity) { // negative infinity divided by some finite value
+            if (num2.ltZero()) {
+                return new PositiveInfinity();
+            } else {
+                return new NegativeInfinity();
+            }
+        }
+        if (num2 instanceof PositiveInfinity || num2 instanceof NegativeInfinity) { // finite value divided by infinity
+            return new RationalLong(0, 1);
+        }
+
+        if (((RationalLong) num2).eqZero()) {
+            return new PositiveInfinity();
+        } else {
+            return mult((RationalLong) num1, reciprocal((RationalLong) num2));
+        }
+    }
+
+    public Num abs(Num num) {
+        if (num instanceof NaN) {
+            return new NaN();
+        }
+        if (num instanceof PositiveInfinity || num instanceof NegativeInfinity) {
+            return new PositiveInfinity();
+        }
+
+        RationalLong r = (RationalLong) num;
+        return r.signum() < 0 ? negate(r) : r;
+    }
+
+    public Num diff(Num num1, Num num2) {
+        if (num1 instanceof NaN || num2 instanceof NaN) {
+            return new NaN();
+        }
+        if (num1 instanceof PositiveInfinity || num2 instanceof PositiveInfinity || num1 instanceof NegativeInfinity
+                || num2 instanceof NegativeInfinity) {
+            return new PositiveInfinity();
+        }
+
+        return sub(max(num1, num2), min(num1, num2));
+    }
+
+    public Num max(Num num1, Num num2) {
+        if (num1 instanceof NaN || num2 instanceof NaN) {
+            return new NaN();
+        }
+        if (num1 instanceof PositiveInfinity || num2 instanceof PositiveInfinity) {
+            return new PositiveInfinity();
+        }
+        if (num1 instanceof NegativeInfinity) {
+            return num2.copy();
+        }
+        if (num2 instanceof NegativeInfinity) {
+            return num1.copy();
+        }
+
+        if (((RationalLong) num1).compareTo((RationalLong) num2) >= 0) {
+            return num1;
+        } else {
+            return num2;
+        }
+    }
+
+    public Num min(Num num1, Num num2) {
+        if (num1 instanceof NaN || num2 instanceof NaN) {
+            return new NaN();
+        }
+        if (num1 instanceof NegativeInfinity || num2 instanceof NegativeInfinity) {
+            return new NegativeInfinity();
+        }
+        if (num1 instanceof PositiveInfinity) {
+            return num2.copy();
+        }
+        if (num2 instanceof PositiveInfinity) {
+            return num1.copy();
+        }
+
+        if (((RationalLong) num1).compareTo((RationalLong) num2) <= 0) {
+            return num1;
+        } else {
+            return num2;
+        }
+    }
+
+    public Num negate(Num num) {
+        if (num instanceof NaN) {
+            return new NaN();
+        }
+        if (num instanceof PositiveInfinity) {
+            return new NegativeInfinity();
+        }
+        if (num instanceof NegativeInfinity) {
+            return new PositiveInfinity();
+        }
+
+        return negate((RationalLong) num);
+    }
+
+    public boolean isFinite(Num num) {
+        if (num instanceof RationalLong) { // Only stores finite values
+            return true;
+        } else {
+            return false; // NaN is neither finite nor infinite
+        }
+    }
+
+    public boolean isInfinite(Num num) {
+        if ((num instanceof PositiveInfinity) || (num instanceof NegativeInfinity)) {
+            return true;
+        } else {
+            return false; // NaN is neither finite nor infinite
+        }
+    }
+
+    public boolean isNaN(Num num) {
+        if (num instanceof NaN) {
+            return true;
+        } else {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.nc.AbstractAnalysis;
+import de.uni_kl.cs.discodnc.nc.Analysis;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.ArrivalBoundMethod;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.AnalysisResults;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.OperationImpl;
+import de.uni_kl.cs.discodnc.nc.analyses.AllFlowsAnalysis;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkFactory;
+import de.uni_kl.cs.discodnc.network.Server;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AllFlowsAnalysis_Test {
+	private AllFlowsAnalysis_Test() {
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void boundsMatchSingleFlowAnalyses(DncTestConfig test_config) throws Exception {
+		if (test_config.mux_discipline == Multiplexing.FIFO) {
+			if (test_config.arrivalBoundMethods().contains(ArrivalBoundMethod.PMOO)) {
+				return; // FIFO multiplexing does not allow for PMOO arrival bounding
+			}
+			test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_FIFO);
+		} else {
+			test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+		}
+
+		List<NetworkFactory> network_factories = new ArrayList<NetworkFactory>();
+		network_factories.add(new S_1SC_10F_10AC_Network());
+		network_factories.add(new TA_3S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new TR_7S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new FF_4S_1SC_4F_1AC_4P_Network());
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			for (NetworkFactory network_factory : network_factories) {
+				network_factory.reinitializeCurves();
+				Network network = network_factory.createNetwork();
+
+				for (Analysis.Analyses analysis : Analysis.Analyses.values()) {
+					if (analysis == Analysis.Analyses.PMOO && test_config.mux_discipline == Multiplexing.FIFO) {
+						continue; // PMOO is not available for FIFO multiplexing
+					}
+
+					Map<Flow, AnalysisResults> results = new AllFlowsAnalysis(network, test_config, analysis)
+							.performAnalysis();
+					assertEquals(network.getFlows(), results.keySet());
+
+					for (Flow flow : network.getFlows()) {
+						AbstractAnalysis single_flow = performAnalysis(network, test_config, analysis, flow);
+						assertEquals(single_flow.getDelayBound(), results.get(flow).getDelayBound(),
+								analysis + " delay of " + flow);
+						assertEquals(single_flow.getBacklogBound(), results.get(flow).getBacklogBound(),
+								analysis + " backlog of " + flow);
+					}
+				}
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void usesCalculationContext(DncTestConfig test_config) throws Exception {
+		if (test_config.mux_discipline == Multiplexing.FIFO) {
+			return; // PMOO is not available for FIFO multiplexing
+		}
+		test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			NumImpl num_impl = test_config.getNumImpl() == NumImpl.RATIONAL_BIGINTEGER
+					? NumImpl.REAL_DOUBLE_PRECISION : NumImpl.RATIONAL_BIGINTEGER;
+			CalculationContext context = new CalculationContext(num_impl, CurveImpl.DNC, OperationImpl.DNC);
+			AnalysisConfig configuration = test_config.copy();
+			configuration.setCalculationContext(context);
+
+			// The network's curves must be created in the context they are analyzed in.
+			Network network;
+			CalculationContext previous_context = CalculationContext.bind(context);
+			try {
+				network = new FF_4S_1SC_4F_1AC_4P_Network().getNetwork();
+			} finally {
+				CalculationContext.restore(previous_context);
+			}
+
+			for (Analysis.Analyses analysis : Analysis.Analyses.values()) {
+				Map<Flow, AnalysisResults> results = new AllFlowsAnalysis(network, configuration, analysis)
+						.performAnalysis();
+
+				for (Flow flow : network.getFlows()) {
+					Num delay_bound = results.get(flow).getDelayBound();
+					assertEquals(Num.getFactory(num_impl).getClass(), delay_bound.getClass());
+					assertEquals(performAnalysis(network, configuration, analysis, flow).getDelayBound(),
+							delay_bound);
+				}
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void allowsServerCyclesWithoutFlows(DncTestConfig test_config) throws Exception {
+		if (test_config.mux_discipline == Multiplexing.FIFO) {
+			if (test_config.arrivalBoundMethods().contains(ArrivalBoundMethod.PMOO)) {
+				return; // FIFO multiplexing does not allow for PMOO arrival bounding
+			}
+			test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_FIFO);
+		} else {
+			test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+		}
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			// The link s1 -> s2 closes a cycle in the server graph but no flow crosses it,
+			// so the flows depend on each other in the order s2, s0, s1.
+			Network network = new Network();
+			ServiceCurve service_curve = CurvePwAffine.getFactory().createRateLatency(20, 20);
+			Server s0 = network.addServer(service_curve);
+			Server s1 = network.addServer(service_curve);
+			Server s2 = network.addServer(service_curve);
+			network.addLink(s2, s0);
+			network.addLink(s0, s1);
+			network.addLink(s1, s2);
+
+			ArrivalCurve arrival_curve = CurvePwAffine.getFactory().createTokenBucket(5, 25);
+			network.addFlow(arrival_curve, Arrays.asList(s2, s0, s1));
+			network.addFlow(arrival_curve, Arrays.asList(s0, s1));
+			network.addFlow(arrival_curve, s0);
+
+			assertFalse(network.isFeedForward());
+			assertEquals(Arrays.asList(s2, s0, s1), network.getServersTopologicallySorted());
+
+			for (Analysis.Analyses analysis : Analysis.Analyses.values()) {
+				if (analysis == Analysis.Analyses.PMOO && test_config.mux_discipline == Multiplexing.FIFO) {
+					continue; // PMOO is not available for FIFO multiplexing
+				}
+
+				Map<Flow, AnalysisResults> results = new AllFlowsAnalysis(network, test_config, analysis)
+						.performAnalysis();
+				assertEquals(network.getFlows(), results.keySet());
+
+				for (Flow flow : network.getFlows()) {
+					AbstractAnalysis single_flow = performAnalysis(network, test_config, analysis, flow);
+					assertEquals(single_flow.getDelayBound(), results.get(flow).getDelayBound(),
+							analysis + " delay of " + flow);
+					assertEquals(single_flow.getBacklogBound(), results.get(flow).getBacklogBound(),
+							analysis + " backlog of " + flow);
+				}
+			}
+
+			// A flow crossing the link s1 -> s2 creates a cyclic dependency.
+			network.addFlow(arrival_curve, Arrays.asList(s1, s2));
+			assertThrows(Exception.class, () -> network.getServersTopologicallySorted());
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	private static AbstractAnalysis performAnalysis(Network network, AnalysisConfig configuration,
+			Analysis.Analyses analysis, Flow flow) throws Exception {
+		switch (analysis) {
+		case TFA:
+			return Analysis.performTfaEnd2End(network, configuration, flow);
+		case SFA:
+			return Analysis.performSfaEnd2End(network, configuration, flow);
+		default:
+			return Analysis.performPmooEnd2End(network, configuration, flow);
+		}
+	}
+}
@@ -38,7 +38,14 @@ import org.junit.platform.suite.api.SelectClasses;
 		TA_4S_1SC_2F_1AC_2P_Test.class, TA_2S_1SC_2F_1AC_2P_Test.class, TA_3S_1SC_3F_1AC_3P_Test.class,
 		TA_2S_1SC_4F_1AC_1P_Test.class, TA_2S_2SC_1F_1AC_1P_Test.class, TA_2S_2SC_2F_1AC_1P_Test.class,
 		TR_3S_1SC_2F_1AC_2P_Test.class, TR_7S_1SC_3F_1AC_3P_Test.class, FF_3S_1SC_2F_1AC_2P_Test.class,
-		FF_4S_1SC_3F_1AC_3P_Test.class, FF_4S_1SC_4F_1AC_4P_Test.class })
+		FF_4S_1SC_3F_1AC_3P_Test.class, FF_4S_1SC_4F_1AC_4P_Test.class, NetworkSerialization_Test.class,
+		CurveInterning_Test.class, TbRlClosedForms_Test.class, ConvolutionSequence_Test.class,
+		PmooEnumeration_Test.class, FlowProlongation_Test.class, TotalFlowBoundCache_Test.class,
+		AnalysisMetrics_Test.class, CalculationContext_Test.class, TwoPhaseFlowAnalysis_Test.class,
+		TotalFlowSweepAnalysis_Test.class, ArrivalBoundCache_Test.class,
+		AllFlowsAnalysis_Test.class, ParallelFlowAnalysis_Test.class, Num_Test.class,
+		Deconvolution_Test.class, CurveDncDouble_Test.class,
+		IncrementalAnalysis_Test.class, NetworkSnapshot_Test.class, CurveSegmentLookup_Test.class })
 
 public class All_Tests {
 }
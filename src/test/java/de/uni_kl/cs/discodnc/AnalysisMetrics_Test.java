@@ -0,0 +1,179 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.minplus.MinPlus;
+import de.uni_kl.cs.discodnc.nc.AbstractAnalysis;
+import de.uni_kl.cs.discodnc.nc.Analysis;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics.Counter;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics.Histogram;
+import de.uni_kl.cs.discodnc.nc.AnalysisMetrics.Timer;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.OperationImpl;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkFactory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AnalysisMetrics_Test {
+	private AnalysisMetrics_Test() {
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void metricsLeaveBoundsUnchanged(DncTestConfig test_config) throws Exception {
+		if (test_config.mux_discipline == Multiplexing.FIFO) {
+			return; // PMOO is not available for FIFO multiplexing
+		}
+		test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+
+		List<NetworkFactory> network_factories = new ArrayList<NetworkFactory>();
+		network_factories.add(new TA_3S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new FF_4S_1SC_4F_1AC_4P_Network());
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			for (NetworkFactory network_factory : network_factories) {
+				network_factory.reinitializeCurves();
+				Network network = network_factory.createNetwork();
+
+				List<Flow> flows = new ArrayList<Flow>(network.getFlows());
+				flows.sort(Comparator.comparingInt(Flow::getId));
+				for (Flow flow : flows) {
+					for (Analysis.Analyses analysis : Analysis.Analyses.values()) {
+						test_config.setCollectMetrics(false);
+						AbstractAnalysis plain = performAnalysis(network, test_config, analysis, flow);
+						test_config.setCollectMetrics(true);
+						AbstractAnalysis measured = performAnalysis(network, test_config, analysis, flow);
+
+						assertEquals(plain.getDelayBound(), measured.getDelayBound());
+						assertEquals(plain.getBacklogBound(), measured.getBacklogBound());
+						assertNull(plain.getMetrics());
+						assertNull(AnalysisMetrics.current());
+
+						AnalysisMetrics metrics = measured.getMetrics();
+						assertNotNull(metrics);
+						assertEquals(1, metrics.getTimerCalls(Timer.ANALYSIS));
+						assertTrue(metrics.getCount(Counter.DELAY_BOUNDS) > 0);
+						assertTrue(metrics.getCount(Counter.ARRIVAL_BOUNDS) > 0
+								|| network.getFlows(flow.getPath()).size() == 1);
+						assertEquals(metrics.getCount(Counter.ARRIVAL_BOUNDS),
+								metrics.getHistogramCount(Histogram.ARRIVAL_BOUND_CANDIDATES));
+					}
+				}
+			}
+		} finally {
+			test_config.setCollectMetrics(false);
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@Test
+	public void countsPairwiseConvolutions() throws Exception {
+		// Other tests may leave a different default context behind.
+		CalculationContext previous_context = CalculationContext.bind(
+				new CalculationContext(NumImpl.REAL_DOUBLE_PRECISION, CurveImpl.DNC, OperationImpl.DNC));
+		try {
+			List<ServiceCurve> service_curves = new ArrayList<ServiceCurve>();
+			for (int i = 1; i <= 4; i++) {
+				service_curves.add(CurvePwAffine.getFactory().createRateLatency(10 * i, i));
+			}
+			service_curves.add(null);
+
+			Set<ServiceCurve> service_curves_1 = new HashSet<ServiceCurve>(service_curves.subList(0, 2));
+			Set<ServiceCurve> service_curves_2 = new HashSet<ServiceCurve>(service_curves.subList(1, 4));
+
+			Set<ArrivalCurve> arrival_curves = new HashSet<ArrivalCurve>();
+			for (int i = 1; i <= 3; i++) {
+				arrival_curves.add(CurvePwAffine.getFactory().createTokenBucket(i, 10 * i));
+			}
+
+			AnalysisConfig configuration = new AnalysisConfig();
+			configuration.setCollectMetrics(true);
+
+			AnalysisMetrics metrics = AnalysisMetrics.begin(configuration);
+			try {
+				MinPlus.convolve(service_curves);
+				assertEquals(3, metrics.getCount(Counter.CONVOLUTIONS));
+
+				MinPlus.convolve_SCs_SCs(service_curves_1, service_curves_2);
+				assertEquals(3 + 2 * 3, metrics.getCount(Counter.CONVOLUTIONS));
+
+				// Nothing to convolve with an empty set
+				MinPlus.convolve_SCs_SCs(service_curves_1, new HashSet<ServiceCurve>());
+				assertEquals(3 + 2 * 3, metrics.getCount(Counter.CONVOLUTIONS));
+
+				MinPlus.convolve(arrival_curves);
+				assertEquals(3 + 2 * 3 + 2, metrics.getCount(Counter.CONVOLUTIONS));
+
+				MinPlus.convolve(service_curves.get(0), service_curves.get(1));
+				assertEquals(3 + 2 * 3 + 2 + 1, metrics.getCount(Counter.CONVOLUTIONS));
+			} finally {
+				AnalysisMetrics.end(metrics);
+			}
+		} finally {
+			CalculationContext.restore(previous_context);
+		}
+	}
+
+	private static AbstractAnalysis performAnalysis(Network network, DncTestConfig test_config,
+			Analysis.Analyses analysis, Flow flow) throws Exception {
+		switch (analysis) {
+		case TFA:
+			return Analysis.performTfaEnd2End(network, test_config, flow);
+		case SFA:
+			return Analysis.performSfaEnd2End(network, test_config, flow);
+		default:
+			return Analysis.performPmooEnd2End(network, test_config, flow);
+		}
+	}
+}
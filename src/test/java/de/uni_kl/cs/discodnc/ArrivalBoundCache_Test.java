@@ -0,0 +1,247 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.nc.Analysis;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.ArrivalBoundCache;
+import de.uni_kl.cs.discodnc.nc.ArrivalBoundDispatch;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.analyses.SeparateFlowAnalysis;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Link;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.Server;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ArrivalBoundCache_Test {
+	private ArrivalBoundCache_Test() {
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void cachedBoundsMatchRecomputation(DncTestConfig test_config) throws Exception {
+		if (test_config.mux_discipline == Multiplexing.FIFO) {
+			return; // PMOO arrival bounding is not available for FIFO multiplexing
+		}
+		test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		ArrivalBoundCache cache = new ArrivalBoundCache();
+		try {
+			Network network = new TA_3S_1SC_3F_1AC_3P_Network().getNetwork();
+			for (Link link : network.getLinks()) {
+				Set<ArrivalCurve> arrival_bounds = ArrivalBoundDispatch.computeArrivalBounds(network, test_config,
+						link, network.getFlows(link), Flow.NULL_FLOW);
+
+				ArrivalBoundDispatch.setArrivalBoundCache(cache);
+				Set<ArrivalCurve> arrival_bounds_computed = ArrivalBoundDispatch.computeArrivalBounds(network,
+						test_config, link, network.getFlows(link), Flow.NULL_FLOW);
+				long hits = cache.numHits();
+				Set<ArrivalCurve> arrival_bounds_cached = ArrivalBoundDispatch.computeArrivalBounds(network,
+						test_config, link, network.getFlows(link), Flow.NULL_FLOW);
+				ArrivalBoundDispatch.disableArrivalBoundCache();
+
+				assertEquals(hits + 1, cache.numHits());
+				assertEquals(arrival_bounds, arrival_bounds_computed);
+				assertEquals(arrival_bounds, arrival_bounds_cached);
+			}
+		} finally {
+			ArrivalBoundDispatch.disableArrivalBoundCache();
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void entriesAreSeparatedByKey(DncTestConfig test_config) throws Exception {
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			CurvePwAffine factory = CurvePwAffine.getFactory();
+
+			Network network = new Network();
+			Server s0 = network.addServer(factory.createRateLatency(20, 0.5));
+			Server s1 = network.addServer(factory.createRateLatency(20, 0.5));
+			Link link = network.addLink(s0, s1);
+			Flow f0 = network.addFlow(factory.createTokenBucket(1, 2), Arrays.asList(s0, s1));
+			Flow f1 = network.addFlow(factory.createTokenBucket(2, 1), Arrays.asList(s0, s1));
+
+			Set<Flow> flows = new HashSet<Flow>(Arrays.asList(f0, f1));
+			Set<ArrivalCurve> arrival_bounds = Collections.singleton(factory.createTokenBucket(3, 10));
+
+			AnalysisConfig configuration = test_config.copy();
+			configuration.setMultiplexingDiscipline(MuxDiscipline.SERVER_LOCAL);
+			s0.setMultiplexingDiscipline(Multiplexing.ARBITRARY);
+
+			ArrivalBoundCache cache = new ArrivalBoundCache();
+			assertNull(cache.getEntry(configuration, link, flows, Flow.NULL_FLOW));
+			cache.addEntry(configuration, link, flows, Flow.NULL_FLOW, arrival_bounds);
+
+			Set<ArrivalCurve> arrival_bounds_cached = cache.getEntry(configuration, link, flows, Flow.NULL_FLOW);
+			assertEquals(arrival_bounds, arrival_bounds_cached);
+			// Callers modify the returned bounds in place.
+			assertNotSame(arrival_bounds.iterator().next(), arrival_bounds_cached.iterator().next());
+			assertNotNull(cache.getEntry(configuration.copy(), link, new HashSet<Flow>(flows), Flow.NULL_FLOW));
+
+			assertNull(cache.getEntry(configuration, link, Collections.singleton(f0), Flow.NULL_FLOW));
+			assertNull(cache.getEntry(configuration, link, Collections.singleton(f0), f1));
+
+			AnalysisConfig configuration_tbrl = configuration.copy();
+			configuration_tbrl.setUseTbrlDeconvolution(!configuration.tbrlDeconvolution());
+			assertNull(cache.getEntry(configuration_tbrl, link, flows, Flow.NULL_FLOW));
+
+			AnalysisConfig configuration_fp_cap = configuration.copy();
+			configuration_fp_cap.setFlowProlongationVariantCap(configuration.flowProlongationVariantCap() + 1);
+			assertNull(cache.getEntry(configuration_fp_cap, link, flows, Flow.NULL_FLOW));
+			AnalysisConfig configuration_fp_budget = configuration.copy();
+			configuration_fp_budget.setFlowProlongationTimeBudget(configuration.flowProlongationTimeBudget() + 1);
+			assertNull(cache.getEntry(configuration_fp_budget, link, flows, Flow.NULL_FLOW));
+
+			// Server-local multiplexing depends on the servers' settings ...
+			s0.setMultiplexingDiscipline(Multiplexing.FIFO);
+			assertNull(cache.getEntry(configuration, link, flows, Flow.NULL_FLOW));
+			s0.setMultiplexingDiscipline(Multiplexing.ARBITRARY);
+			assertNotNull(cache.getEntry(configuration, link, flows, Flow.NULL_FLOW));
+
+			// ... whereas global multiplexing overrides them.
+			configuration.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+			cache.addEntry(configuration, link, flows, Flow.NULL_FLOW, arrival_bounds);
+			s0.setMultiplexingDiscipline(Multiplexing.FIFO);
+			assertNotNull(cache.getEntry(configuration, link, flows, Flow.NULL_FLOW));
+
+			assertEquals(2, cache.size());
+			assertEquals(4, cache.numHits());
+			assertEquals(7, cache.numMisses());
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void curveChangesAreNotServedStale(DncTestConfig test_config) throws Exception {
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		ArrivalBoundCache cache = new ArrivalBoundCache();
+		try {
+			CurvePwAffine factory = CurvePwAffine.getFactory();
+
+			Network network = new Network();
+			Server s0 = network.addServer(factory.createRateLatency(20, 0.5));
+			Server s1 = network.addServer(factory.createRateLatency(20, 0.5));
+			Link link = network.addLink(s0, s1);
+			Flow f0 = network.addFlow(factory.createTokenBucket(1, 2), Arrays.asList(s0, s1));
+			Flow f1 = network.addFlow(factory.createTokenBucket(2, 1), Arrays.asList(s0, s1));
+
+			ArrivalBoundDispatch.setArrivalBoundCache(cache);
+			Analysis.performSfaEnd2End(network, test_config, f0);
+			assertNotNull(cache.getEntry(test_config, link, Collections.singleton(f1), f0));
+
+			long curve_version = network.getCurveVersion();
+			s0.setServiceCurve(factory.createRateLatency(3, 100));
+			assertNotEquals(curve_version, network.getCurveVersion());
+			assertNull(cache.getEntry(test_config, link, Collections.singleton(f1), f0));
+
+			for (Flow flow : Arrays.asList(f0, f1)) {
+				ArrivalBoundDispatch.setArrivalBoundCache(cache);
+				SeparateFlowAnalysis sfa_cached = Analysis.performSfaEnd2End(network, test_config, flow);
+				ArrivalBoundDispatch.disableArrivalBoundCache();
+				SeparateFlowAnalysis sfa = Analysis.performSfaEnd2End(network, test_config, flow);
+
+				assertEquals(sfa.getDelayBound(), sfa_cached.getDelayBound());
+				assertEquals(sfa.getBacklogBound(), sfa_cached.getBacklogBound());
+			}
+
+			ArrivalBoundDispatch.setArrivalBoundCache(cache);
+			Analysis.performSfaEnd2End(network, test_config, f0);
+			f1.setArrivalCurve(factory.createTokenBucket(2, 10));
+			SeparateFlowAnalysis sfa_cached = Analysis.performSfaEnd2End(network, test_config, f0);
+			ArrivalBoundDispatch.disableArrivalBoundCache();
+			SeparateFlowAnalysis sfa = Analysis.performSfaEnd2End(network, test_config, f0);
+
+			assertEquals(sfa.getDelayBound(), sfa_cached.getDelayBound());
+			assertEquals(sfa.getBacklogBound(), sfa_cached.getBacklogBound());
+		} finally {
+			ArrivalBoundDispatch.disableArrivalBoundCache();
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void evictsLeastRecentlyUsedEntry(DncTestConfig test_config) throws Exception {
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			CurvePwAffine factory = CurvePwAffine.getFactory();
+
+			Network network = new Network();
+			Server s0 = network.addServer(factory.createRateLatency(20, 0.5));
+			Server s1 = network.addServer(factory.createRateLatency(20, 0.5));
+			Link link = network.addLink(s0, s1);
+			Flow f0 = network.addFlow(factory.createTokenBucket(1, 2), Arrays.asList(s0, s1));
+			Flow f1 = network.addFlow(factory.createTokenBucket(2, 1), Arrays.asList(s0, s1));
+			Flow f2 = network.addFlow(factory.createTokenBucket(3, 3), Arrays.asList(s0, s1));
+			Set<ArrivalCurve> arrival_bounds = Collections.singleton(factory.createTokenBucket(3, 10));
+
+			ArrivalBoundCache cache = new ArrivalBoundCache(2);
+			cache.addEntry(test_config, link, Collections.singleton(f0), Flow.NULL_FLOW, arrival_bounds);
+			cache.addEntry(test_config, link, Collections.singleton(f1), Flow.NULL_FLOW, arrival_bounds);
+			// Accessing f0's entry makes f1's entry the least recently used one.
+			assertNotNull(cache.getEntry(test_config, link, Collections.singleton(f0), Flow.NULL_FLOW));
+			cache.addEntry(test_config, link, Collections.singleton(f2), Flow.NULL_FLOW, arrival_bounds);
+
+			assertEquals(2, cache.size());
+			assertEquals(1, cache.numEvictions());
+			assertNotNull(cache.getEntry(test_config, link, Collections.singleton(f0), Flow.NULL_FLOW));
+			assertNull(cache.getEntry(test_config, link, Collections.singleton(f1), Flow.NULL_FLOW));
+			assertNotNull(cache.getEntry(test_config, link, Collections.singleton(f2), Flow.NULL_FLOW));
+
+			assertEquals(2, cache.removeEntries(Collections.singleton(link)));
+			assertEquals(0, cache.size());
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+}
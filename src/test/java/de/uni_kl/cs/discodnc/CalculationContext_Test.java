@@ -0,0 +1,135 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.nc.Analysis;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.OperationImpl;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class CalculationContext_Test {
+	private CalculationContext_Test() {
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void concurrentContextsMatchSequentialBounds(DncTestConfig test_config) throws Exception {
+		if (test_config.mux_discipline == Multiplexing.FIFO) {
+			return; // PMOO is not available for FIFO multiplexing
+		}
+		test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		CalculationContext default_context = CalculatorConfig.getInstance().getDefaultContext();
+		try {
+			CalculationContext context_test = new CalculationContext(test_config.getNumImpl(),
+					test_config.getCurveImpl(), OperationImpl.DNC);
+			CalculationContext context_other = new CalculationContext(NumImpl.RATIONAL_BIGINTEGER, CurveImpl.DNC,
+					OperationImpl.DNC);
+			if (test_config.getNumImpl() == NumImpl.RATIONAL_BIGINTEGER
+					&& test_config.getCurveImpl() == CurveImpl.DNC) {
+				context_other = context_other.withNumImpl(NumImpl.REAL_DOUBLE_PRECISION);
+			}
+
+			List<Num> bounds_test = deriveBounds(test_config, context_test);
+			List<Num> bounds_other = deriveBounds(test_config, context_other);
+
+			ExecutorService executor = Executors.newFixedThreadPool(2);
+			try {
+				Callable<List<Num>> task_test = () -> deriveBounds(test_config, context_test);
+				CalculationContext context_other_final = context_other;
+				Callable<List<Num>> task_other = () -> deriveBounds(test_config, context_other_final);
+				Future<List<Num>> future_test = executor.submit(task_test);
+				Future<List<Num>> future_other = executor.submit(task_other);
+
+				assertEquals(bounds_test, future_test.get());
+				assertEquals(bounds_other, future_other.get());
+			} finally {
+				executor.shutdownNow();
+			}
+
+			assertSame(default_context, CalculatorConfig.getInstance().getDefaultContext());
+			assertSame(default_context, CalculationContext.current());
+			assertNull(CalculationContext.bound());
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	private static List<Num> deriveBounds(DncTestConfig test_config, CalculationContext context) throws Exception {
+		AnalysisConfig configuration = test_config.copy();
+		configuration.setCalculationContext(context);
+
+		// The network's curves must be created in the context they are analyzed in.
+		Network network;
+		CalculationContext previous_context = CalculationContext.bind(context);
+		try {
+			network = new FF_4S_1SC_4F_1AC_4P_Network().getNetwork();
+		} finally {
+			CalculationContext.restore(previous_context);
+		}
+
+		List<Flow> flows = new ArrayList<Flow>(network.getFlows());
+		flows.sort(Comparator.comparingInt(Flow::getId));
+
+		List<Num> bounds = new ArrayList<Num>();
+		for (Flow flow : flows) {
+			bounds.add(Analysis.performTfaEnd2End(network, configuration, flow).getDelayBound());
+			bounds.add(Analysis.performSfaEnd2End(network, configuration, flow).getDelayBound());
+			bounds.add(Analysis.performPmooEnd2End(network, configuration, flow).getDelayBound());
+		}
+		for (Num bound : bounds) {
+			assertEquals(Num.getFactory(context.getNumImpl()).getClass(), bound.getClass());
+		}
+		return bounds;
+	}
+}
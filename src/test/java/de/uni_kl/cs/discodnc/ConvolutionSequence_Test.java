@@ -0,0 +1,81 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.minplus.MinPlus;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConvolutionSequence_Test {
+	private ConvolutionSequence_Test() {
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void sequenceMatchesPairwiseConvolution(DncTestConfig test_config) throws Exception {
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			CurvePwAffine factory = CurvePwAffine.getFactory();
+
+			List<ServiceCurve> service_curves = new ArrayList<ServiceCurve>();
+			service_curves.add(factory.createRateLatency(20, 0.5));
+			service_curves.add(CurvePwAffine.max(factory.createRateLatency(10, 1), factory.createRateLatency(40, 2)));
+			service_curves.add(factory.createDelayedInfiniteBurst(0.25));
+			service_curves.add(CurvePwAffine.max(factory.createRateLatency(15, 0), factory.createRateLatency(30, 1.5)));
+			service_curves.add(factory.createRateLatency(25, 1));
+
+			for (boolean tb_rl_optimized : new boolean[] { false, true }) {
+				ServiceCurve pairwise = service_curves.get(0);
+				for (int i = 1; i < service_curves.size(); i++) {
+					pairwise = MinPlus.convolve(pairwise, service_curves.get(i), tb_rl_optimized);
+				}
+				ServiceCurve sequence = MinPlus.convolve(service_curves, tb_rl_optimized);
+
+				for (int i = 0; i <= 40; i++) {
+					Num x = Num.getFactory().create(i * 0.25);
+					Num diff = Num.getUtils().abs(Num.getUtils().sub(pairwise.f(x), sequence.f(x)));
+					assertTrue(diff.leq(Num.getFactory().getEpsilon()), pairwise + " != " + sequence + " at " + x);
+				}
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+}
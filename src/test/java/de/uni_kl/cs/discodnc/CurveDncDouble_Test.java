@@ -0,0 +1,161 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.Curve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.LinearSegment;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.curves.dnc.Curve_DNC;
+import de.uni_kl.cs.discodnc.curves.dnc_double.Curve_DNC_Double;
+import de.uni_kl.cs.discodnc.minplus.MinPlus;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.OperationImpl;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the results of DNC_DOUBLE curves to the ones of DNC curves with
+ * REAL_DOUBLE_PRECISION numbers.
+ */
+public class CurveDncDouble_Test {
+	private CurveDncDouble_Test() {
+	}
+
+	private interface CurveComputation {
+		Curve compute() throws Exception;
+	}
+
+	private static ArrivalCurve createArrivalCurve() {
+		CurvePwAffine factory = CurvePwAffine.getFactory();
+		return CurvePwAffine.min(CurvePwAffine.min(factory.createTokenBucket(8, 10), factory.createTokenBucket(4, 30)),
+				factory.createTokenBucket(1, 80));
+	}
+
+	private static ServiceCurve createServiceCurve() {
+		CurvePwAffine factory = CurvePwAffine.getFactory();
+		return CurvePwAffine.max(CurvePwAffine.max(factory.createRateLatency(10, 1), factory.createRateLatency(20, 3)),
+				factory.createRateLatency(40, 6));
+	}
+
+	private static Curve computeIn(CurveImpl curve_impl, CurveComputation computation) throws Exception {
+		CalculationContext previous_context = CalculationContext
+				.bind(new CalculationContext(NumImpl.REAL_DOUBLE_PRECISION, curve_impl, OperationImpl.DNC));
+		try {
+			return computation.compute();
+		} finally {
+			CalculationContext.restore(previous_context);
+		}
+	}
+
+	private static void assertSameResults(String operation, CurveComputation computation) throws Exception {
+		Curve curve_dnc = computeIn(CurveImpl.DNC, computation);
+		Curve curve_dnc_double = computeIn(CurveImpl.DNC_DOUBLE, computation);
+
+		assertTrue(curve_dnc instanceof Curve_DNC, operation);
+		assertTrue(curve_dnc_double instanceof Curve_DNC_Double, operation);
+		// Evaluate with the numbers the curves were computed with, not the calling thread's
+		computeIn(CurveImpl.DNC, () -> {
+			for (int i = 0; i <= 60; i++) {
+				Num x = Num.getFactory(NumImpl.REAL_DOUBLE_PRECISION).create(i * 0.25);
+				assertEquals(curve_dnc.f(x).doubleValue(), curve_dnc_double.f(x).doubleValue(), 1e-9,
+						operation + ": " + curve_dnc + " != " + curve_dnc_double + " at " + x);
+			}
+			return null;
+		});
+	}
+
+	@Test
+	public void curveOperationsMatchCurveDnc() throws Exception {
+		assertSameResults("add", () -> CurvePwAffine.add(createArrivalCurve(),
+				CurvePwAffine.getFactory().createTokenBucket(2, 5)));
+		assertSameResults("sub", () -> CurvePwAffine.sub(createServiceCurve(),
+				CurvePwAffine.getFactory().createTokenBucket(2, 5)));
+		assertSameResults("min", () -> CurvePwAffine.min(createArrivalCurve(),
+				CurvePwAffine.getFactory().createTokenBucket(6, 20)));
+		assertSameResults("max", () -> CurvePwAffine.max(createServiceCurve(),
+				CurvePwAffine.getFactory().createRateLatency(30, 4)));
+		assertSameResults("shiftRight", () -> CurvePwAffine.shiftRight(createArrivalCurve(),
+				Num.getFactory().create(1.5)));
+		assertSameResults("shiftLeftClipping", () -> CurvePwAffine.shiftLeftClipping(createServiceCurve(),
+				Num.getFactory().create(2.5)));
+		assertSameResults("removeLatency", () -> CurvePwAffine.removeLatency(createServiceCurve()));
+	}
+
+	@Test
+	public void convolutionMatchesCurveDnc() throws Exception {
+		assertSameResults("service curve convolution", () -> MinPlus.convolve(createServiceCurve(),
+				CurvePwAffine.getFactory().createRateLatency(15, 2)));
+		assertSameResults("arrival curve convolution", () -> MinPlus.convolve(createArrivalCurve(),
+				CurvePwAffine.getFactory().createTokenBucket(5, 15)));
+	}
+
+	@Test
+	public void deconvolutionMatchesCurveDnc() throws Exception {
+		assertSameResults("deconvolution", () -> MinPlus.deconvolve(createArrivalCurve(), createServiceCurve()));
+		assertSameResults("token bucket deconvolution", () -> MinPlus
+				.deconvolve(CurvePwAffine.getFactory().createTokenBucket(5, 15), createServiceCurve()));
+	}
+
+	@Test
+	public void segmentViewsFollowTheirSegments() throws Exception {
+		Curve_DNC_Double curve = (Curve_DNC_Double) computeIn(CurveImpl.DNC_DOUBLE, () -> createServiceCurve());
+
+		LinearSegment segment = curve.getSegment(1);
+		assertSame(segment, curve.getSegment(1));
+		double x = curve.getSegmentX(1);
+		double grad = curve.getSegmentGrad(1);
+
+		curve.addSegment(0, -1.0, 0.0, 0.0, false);
+		assertSame(segment, curve.getSegment(2));
+		assertEquals(x, segment.getX().doubleValue());
+
+		curve.removeSegment(0);
+		assertSame(segment, curve.getSegment(1));
+
+		segment.setGrad(Num.getFactory(NumImpl.REAL_DOUBLE_PRECISION).create(2 * grad));
+		assertEquals(2 * grad, curve.getSegmentGrad(1));
+
+		// Once its segment is removed, the view does not change the curve anymore.
+		curve.removeSegment(1);
+		assertEquals(2 * grad, segment.getGrad().doubleValue());
+		double grad_after_removal = curve.getSegmentGrad(1);
+		segment.setGrad(Num.getFactory(NumImpl.REAL_DOUBLE_PRECISION).create(0));
+		assertEquals(grad_after_removal, curve.getSegmentGrad(1));
+	}
+}
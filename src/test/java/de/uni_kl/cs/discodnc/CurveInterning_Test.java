@@ -0,0 +1,146 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.nc.Analysis;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkFactory;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CurveInterning_Test {
+	private CurveInterning_Test() {
+	}
+
+	private static List<NetworkFactory> createNetworkFactories() {
+		List<NetworkFactory> network_factories = new ArrayList<NetworkFactory>();
+		network_factories.add(new S_1SC_10F_10AC_Network());
+		network_factories.add(new TA_3S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new TA_2S_2SC_2F_1AC_1P_Network());
+		network_factories.add(new TR_7S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new FF_4S_1SC_4F_1AC_4P_Network());
+		return network_factories;
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void sharedImmutableCurves(DncTestConfig test_config) throws Exception {
+		if (test_config.getCurveImpl() != CurveImpl.DNC) {
+			return; // Interning is specific to the DNC curves
+		}
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			CalculatorConfig.getInstance().enableCurveInterning();
+
+			CurvePwAffine factory = CurvePwAffine.getFactory();
+			assertSame(factory.createZeroArrivals(), factory.createZeroArrivals());
+			assertSame(factory.createZeroService(), factory.createZeroService());
+			assertSame(factory.createZeroDelayInfiniteBurst(), factory.createZeroDelayInfiniteBurst());
+			assertSame(factory.createTokenBucket(5, 25), factory.createTokenBucket(5, 25));
+			assertSame(factory.createRateLatency(20, 0.5), factory.createRateLatency(20, 0.5));
+
+			ArrivalCurve token_bucket = factory.createTokenBucket(5, 25);
+			assertThrows(UnsupportedOperationException.class,
+					() -> token_bucket.getSegment(1).setY(Num.getFactory().createZero()));
+			assertThrows(UnsupportedOperationException.class, () -> token_bucket.removeSegment(0));
+
+			ArrivalCurve token_bucket_copy = token_bucket.copy();
+			assertNotSame(token_bucket, token_bucket_copy);
+			assertEquals(token_bucket, token_bucket_copy);
+			token_bucket_copy.getSegment(1).setY(Num.getFactory().create(10));
+			assertEquals(factory.createTokenBucket(5, 10), token_bucket_copy);
+
+			ServiceCurve rate_latency = factory.createRateLatency(20, 0.5);
+			assertEquals(rate_latency, factory.createServiceCurve(rate_latency));
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void boundsMatchWithoutInterning(DncTestConfig test_config) throws Exception {
+		if (test_config.getCurveImpl() != CurveImpl.DNC) {
+			return; // Interning is specific to the DNC curves
+		}
+		test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			for (NetworkFactory network_factory : createNetworkFactories()) {
+				CalculatorConfig.getInstance().disableCurveInterning();
+				network_factory.createNetwork();
+				network_factory.reinitializeCurves();
+				List<Num> bounds = computeDelayBounds(network_factory.createNetwork(), test_config);
+
+				CalculatorConfig.getInstance().enableCurveInterning();
+				network_factory.reinitializeCurves();
+				List<Num> bounds_interned = computeDelayBounds(network_factory.createNetwork(), test_config);
+
+				assertEquals(bounds, bounds_interned);
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	private static List<Num> computeDelayBounds(Network network, DncTestConfig test_config) throws Exception {
+		List<Flow> flows = new ArrayList<Flow>(network.getFlows());
+		flows.sort(Comparator.comparingInt(Flow::getId));
+
+		List<Num> bounds = new ArrayList<Num>();
+		for (Flow flow : flows) {
+			bounds.add(Analysis.performTfaEnd2End(network, test_config, flow).getDelayBound());
+			bounds.add(Analysis.performSfaEnd2End(network, test_config, flow).getDelayBound());
+			bounds.add(Analysis.performPmooEnd2End(network, test_config, flow).getDelayBound());
+		}
+		return bounds;
+	}
+}
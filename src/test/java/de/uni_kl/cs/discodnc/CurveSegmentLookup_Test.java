@@ -0,0 +1,163 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.Curve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.LinearSegment;
+import de.uni_kl.cs.discodnc.curves.dnc.Curve_DNC;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CurveSegmentLookup_Test {
+	private CurveSegmentLookup_Test() {
+	}
+
+	/**
+	 * f(x) = x on [0,2], jumps to 5 after 2, rises with slope 2 from 4 on, reaches
+	 * 9 in 6 and jumps to 12 after it.
+	 */
+	private static Curve_DNC createDiscontinuousCurve() {
+		List<LinearSegment> segments = new ArrayList<LinearSegment>();
+		segments.add(LinearSegment.createLinearSegment(0, 0, 1, false));
+		segments.add(LinearSegment.createLinearSegment(2, 5, 0, true));
+		segments.add(LinearSegment.createLinearSegment(4, 5, 2, false));
+		segments.add(LinearSegment.createLinearSegment(6, 12, 1, true));
+		return (Curve_DNC) CurvePwAffine.getFactory().createCurve(segments);
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void segmentsAtLeftOpenDiscontinuities(DncTestConfig test_config) throws Exception {
+		if (test_config.getCurveImpl() != CurveImpl.DNC) {
+			return; // The segment search is specific to the DNC curves
+		}
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			Curve_DNC curve = createDiscontinuousCurve();
+			assertEquals(4, curve.getSegmentCount());
+
+			int[] x = { 0, 1, 2, 3, 4, 5, 6, 7 };
+			int[] segment_defining = { 0, 0, 0, 1, 2, 2, 2, 3 };
+			int[] segment_limit_right = { 0, 0, 1, 1, 2, 2, 3, 3 };
+			for (int i = 0; i < x.length; i++) {
+				Num x_num = Num.getFactory().create(x[i]);
+				assertEquals(segment_defining[i], curve.getSegmentDefining(x_num), "defining " + x[i]);
+				assertEquals(segment_limit_right[i], curve.getSegmentLimitRight(x_num), "limit right " + x[i]);
+			}
+			assertEquals(-1, curve.getSegmentDefining(Num.getFactory().create(-1)));
+			assertEquals(-1, curve.getSegmentLimitRight(Num.getFactory().create(-1)));
+
+			assertEquals(Num.getFactory().create(2), curve.f(Num.getFactory().create(2)));
+			assertEquals(Num.getFactory().create(5), curve.fLimitRight(Num.getFactory().create(2)));
+			assertEquals(Num.getFactory().create(9), curve.f(Num.getFactory().create(6)));
+			assertEquals(Num.getFactory().create(12), curve.fLimitRight(Num.getFactory().create(6)));
+
+			// The burst of a token bucket is a left-open segment in the origin
+			Curve_DNC token_bucket = (Curve_DNC) CurvePwAffine.getFactory().createTokenBucket(5, 25);
+			assertEquals(0, token_bucket.getSegmentDefining(Num.getFactory().getZero()));
+			assertEquals(1, token_bucket.getSegmentLimitRight(Num.getFactory().getZero()));
+			assertEquals(1, token_bucket.getSegmentDefining(Num.getFactory().create(1)));
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void batchedValuesMatchSingleValues(DncTestConfig test_config) throws Exception {
+		if (test_config.getCurveImpl() != CurveImpl.DNC) {
+			return; // The segment search is specific to the DNC curves
+		}
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			List<Curve> curves = new ArrayList<Curve>();
+			curves.add(createDiscontinuousCurve());
+			curves.add(CurvePwAffine.getFactory().createTokenBucket(5, 25));
+			curves.add(CurvePwAffine.getFactory().createRateLatency(20, 3));
+
+			// Sorted, with repetitions and at the discontinuities
+			double[] x_double = { 0, 0, 0.5, 2, 2, 2.5, 3, 4, 6, 6, 6.5, 10 };
+			Num[] x = new Num[x_double.length];
+			for (int i = 0; i < x.length; i++) {
+				x[i] = Num.getFactory().create(x_double[i]);
+			}
+
+			for (Curve curve : curves) {
+				Num[] f_x = curve.f(x);
+				assertEquals(x.length, f_x.length);
+				for (int i = 0; i < x.length; i++) {
+					assertEquals(curve.f(x[i]), f_x[i], curve + " at " + x[i]);
+				}
+			}
+
+			Num[] f_negative = curves.get(0).f(new Num[] { Num.getFactory().create(-1), Num.getFactory().getZero() });
+			assertTrue(f_negative[0].isNaN());
+			assertEquals(Num.getFactory().getZero(), f_negative[1]);
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void inverseFollowsSegmentChanges(DncTestConfig test_config) throws Exception {
+		if (test_config.getCurveImpl() != CurveImpl.DNC) {
+			return; // The segment search is specific to the DNC curves
+		}
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			Curve curve = createDiscontinuousCurve();
+			Num y = Num.getFactory().create(3);
+			assertEquals(Num.getFactory().create(3), curve.f_inv(y));
+
+			// The y-coordinates are not sorted anymore, so they must not be searched
+			// binary as remembered for the unmodified curve
+			curve.getSegment(2).setY(Num.getFactory().create(1));
+			assertEquals(curve.copy().f_inv(y), curve.f_inv(y));
+			assertEquals(Num.getFactory().create(3), curve.f_inv(y));
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.minplus.MinPlus;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class Deconvolution_Test {
+	private Deconvolution_Test() {
+	}
+
+	/**
+	 * The service curve max(RL(2, 1), RL(4, 3)) has an inflection point at x = 5
+	 * where it exceeds the arrival curve TB(1, 1) already. The deconvolution is
+	 * attained at the latency, i.e., it is TB(1, 2).
+	 */
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void serviceCurveAboveArrivalCurveAtInflectionPoint(DncTestConfig test_config) throws Exception {
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			CurvePwAffine factory = CurvePwAffine.getFactory();
+
+			ArrivalCurve arrival_curve = factory.createTokenBucket(1, 1);
+			ServiceCurve service_curve = CurvePwAffine.max(factory.createRateLatency(2, 1),
+					factory.createRateLatency(4, 3));
+			ArrivalCurve expected = factory.createTokenBucket(1, 2);
+
+			ArrivalCurve result = MinPlus.deconvolve(arrival_curve, service_curve);
+
+			for (int i = 0; i <= 40; i++) {
+				Num x = Num.getFactory().create(i * 0.25);
+				Num diff = Num.getUtils().abs(Num.getUtils().sub(expected.f(x), result.f(x)));
+				assertTrue(diff.leq(Num.getFactory().getEpsilon()), expected + " != " + result + " at " + x);
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+}
@@ -99,6 +99,7 @@ public abstract class DncTest {
 			System.out.println("Arrival Boundings:\t" + test_config.arrivalBoundMethods().toString());
 			System.out
 					.println("Remove duplicate ABs:\t" + Boolean.toString(test_config.removeDuplicateArrivalBounds()));
+			System.out.println("Prune dominated curves:\t" + Boolean.toString(test_config.pruneDominatedCurves()));
 			System.out.println("TB,RL convolution:\t" + Boolean.toString(test_config.tbrlConvolution()));
 			System.out.println("TB,RL deconvolution:\t" + Boolean.toString(test_config.tbrlDeconvolution()));
 		}
@@ -59,9 +59,11 @@ public class DncTestArguments implements ArgumentsProvider {
 		nums.add(NumImpl.REAL_SINGLE_PRECISION);
 		nums.add(NumImpl.RATIONAL_INTEGER);
 		nums.add(NumImpl.RATIONAL_BIGINTEGER);
+		nums.add(NumImpl.RATIONAL_LONG);
 
 		Set<CurveImpl> curves = new HashSet<CurveImpl>();
 		curves.add(CurveImpl.DNC);
+		curves.add(CurveImpl.DNC_DOUBLE);
 		curves.add(CurveImpl.MPA_RTC);
 
 //		Set<OperationImpl> operations = new HashSet<OperationImpl>();
@@ -115,6 +117,12 @@ public class DncTestArguments implements ArgumentsProvider {
 		// use
 		for (CurveImpl curve : curves) {
 			for (NumImpl num : nums) {
+				// DNC_DOUBLE curves compute with double precision, independent of the number
+				// representation.
+				if (curve == CurveImpl.DNC_DOUBLE && num != NumImpl.REAL_DOUBLE_PRECISION) {
+					continue;
+				}
+
 				for (Set<ArrivalBoundMethod> single_ab : single_abs_allMux) {
 					for (AnalysisConfig.Multiplexing mux : mux_disciplines) {
 						test_configurations
@@ -243,9 +251,33 @@ public class DncTestArguments implements ArgumentsProvider {
 						AnalysisConfig.Multiplexing.ARBITRARY, true, num, curve));
 				test_configurations.add(new DncTestConfig(triplet_arbMux, true, true, true,
 						AnalysisConfig.Multiplexing.ARBITRARY, true, num, curve));
+
+				// Dominance pruning needs multiple arrival bounds to choose from
+				for (AnalysisConfig.Multiplexing mux : mux_disciplines) {
+					test_configurations.add(prunedConfig(pair_1, false, mux, num, curve));
+					test_configurations.add(prunedConfig(pair_1, true, mux, num, curve));
+				}
+				for (Set<ArrivalBoundMethod> pair_ab : pair_abs_arbMux) {
+					test_configurations
+							.add(prunedConfig(pair_ab, false, AnalysisConfig.Multiplexing.ARBITRARY, num, curve));
+					test_configurations
+							.add(prunedConfig(pair_ab, true, AnalysisConfig.Multiplexing.ARBITRARY, num, curve));
+				}
+				test_configurations
+						.add(prunedConfig(triplet_arbMux, false, AnalysisConfig.Multiplexing.ARBITRARY, num, curve));
+				test_configurations
+						.add(prunedConfig(triplet_arbMux, true, AnalysisConfig.Multiplexing.ARBITRARY, num, curve));
 			}
 		}
 
 		return test_configurations;
 	}
+
+	private static DncTestConfig prunedConfig(Set<ArrivalBoundMethod> arrival_bound_methods, boolean tbrl_opt,
+			AnalysisConfig.Multiplexing mux, NumImpl num, CurveImpl curve) {
+		DncTestConfig test_config = new DncTestConfig(arrival_bound_methods, true, tbrl_opt, tbrl_opt, mux, false, num,
+				curve);
+		test_config.setPruneDominatedCurves(true);
+		return test_config;
+	}
 }
@@ -29,6 +29,8 @@
 package de.uni_kl.cs.discodnc;
 
 import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
 import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
 import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
 
@@ -81,6 +83,54 @@ public class DncTestConfig extends AnalysisConfig {
 		return curve_implementation;
 	}
 
+	/**
+	 * Sets the global CalculatorConfig to this configuration's number and curve
+	 * implementation with all checks disabled. Tests must hand the returned
+	 * settings to restoreCalculator(CalculationContext) in a finally block.
+	 *
+	 * @return The previous settings of the CalculatorConfig.
+	 */
+	protected CalculationContext initializeCalculator() {
+		CalculationContext previous_settings = CalculatorConfig.getInstance().getDefaultContext();
+
+		CalculatorConfig.getInstance().disableAllChecks();
+		CalculatorConfig.getInstance().setCurveImpl(curve_implementation);
+		CalculatorConfig.getInstance().setNumImpl(num_implementation);
+
+		return previous_settings;
+	}
+
+	/**
+	 * Restores the CalculatorConfig's settings, including the checks, curve
+	 * interning and the TB/RL closed forms that a test may have changed.
+	 *
+	 * @param previous_settings
+	 *            The settings returned by initializeCalculator().
+	 */
+	protected static void restoreCalculator(CalculationContext previous_settings) {
+		CalculatorConfig calculator_config = CalculatorConfig.getInstance();
+
+		// The checks can only be toggled altogether.
+		if (previous_settings.exec_arrival_curve_checks()) {
+			calculator_config.enableAllChecks();
+		} else {
+			calculator_config.disableAllChecks();
+		}
+		if (previous_settings.exec_curve_interning()) {
+			calculator_config.enableCurveInterning();
+		} else {
+			calculator_config.disableCurveInterning();
+		}
+		if (previous_settings.exec_tbrl_closed_forms()) {
+			calculator_config.enableTbRlClosedForms();
+		} else {
+			calculator_config.disableTbRlClosedForms();
+		}
+		calculator_config.setCurveImpl(previous_settings.getCurveImpl());
+		calculator_config.setNumImpl(previous_settings.getNumImpl());
+		calculator_config.setOperationImpl(previous_settings.getOperationImpl());
+	}
+
 	@Override
 	public String toString() {
 		// AB, remove duplicate ABs, tbrl opt convolution, tbrl opt deconvolusion, mux,
@@ -92,6 +142,9 @@ public class DncTestConfig extends AnalysisConfig {
 		if (removeDuplicateArrivalBounds()) {
 			func_test_str.append(", " + "rm dupl ABs");
 		}
+		if (pruneDominatedCurves()) {
+			func_test_str.append(", " + "prune dominated");
+		}
 		if (tbrlConvolution()) {
 			func_test_str.append(", " + "TbRl Conv");
 		}
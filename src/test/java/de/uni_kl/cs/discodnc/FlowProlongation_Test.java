@@ -0,0 +1,113 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.nc.Analysis;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.analyses.PmooAnalysis;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.Server;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FlowProlongation_Test {
+	private FlowProlongation_Test() {
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void limitedVariantsStayValid(DncTestConfig test_config) throws Exception {
+		if (test_config.mux_discipline == Multiplexing.FIFO) {
+			return; // PMOO is not available for FIFO multiplexing
+		}
+		test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			CurvePwAffine factory = CurvePwAffine.getFactory();
+
+			// The cross-flows enter s0 via the same link, so the ones leaving early can be
+			// prolonged to the sub-paths of the others.
+			Network network = new Network();
+			Server s_in = network.addServer(factory.createRateLatency(50, 0.1));
+			Server s0 = network.addServer(factory.createRateLatency(20, 0.2));
+			Server s1 = network.addServer(factory.createRateLatency(20, 0.2));
+			Server s2 = network.addServer(factory.createRateLatency(20, 0.2));
+			network.addLink(s_in, s0);
+			network.addLink(s0, s1);
+			network.addLink(s1, s2);
+
+			network.addFlow(factory.createTokenBucket(2, 4), Arrays.asList(s_in, s0));
+			network.addFlow(factory.createTokenBucket(3, 2), Arrays.asList(s_in, s0, s1));
+			network.addFlow(factory.createTokenBucket(1, 3), Arrays.asList(s_in, s0, s1, s2));
+			Flow flow_of_interest = network.addFlow(factory.createTokenBucket(1, 1), Arrays.asList(s0, s1, s2));
+
+			test_config.setUseFlowProlongation(false);
+			PmooAnalysis pmoo = Analysis.performPmooEnd2End(network, test_config, flow_of_interest);
+
+			test_config.setUseFlowProlongation(true);
+			PmooAnalysis pmoo_fp = Analysis.performPmooEnd2End(network, test_config, flow_of_interest);
+			assertTrue(pmoo_fp.getDelayBound().leq(pmoo.getDelayBound()));
+
+			// Only the unprolonged interference pattern.
+			test_config.setFlowProlongationVariantCap(1);
+			PmooAnalysis pmoo_fp_capped = Analysis.performPmooEnd2End(network, test_config, flow_of_interest);
+			assertEquals(pmoo.getDelayBound(), pmoo_fp_capped.getDelayBound());
+			assertEquals(pmoo.getBacklogBound(), pmoo_fp_capped.getBacklogBound());
+			assertTrue(pmoo_fp.getDelayBound().leq(pmoo_fp_capped.getDelayBound()));
+
+			test_config.setFlowProlongationVariantCap(1000);
+			PmooAnalysis pmoo_fp_all = Analysis.performPmooEnd2End(network, test_config, flow_of_interest);
+			assertEquals(pmoo_fp.getDelayBound(), pmoo_fp_all.getDelayBound());
+			assertEquals(pmoo_fp.getBacklogBound(), pmoo_fp_all.getBacklogBound());
+
+			test_config.setFlowProlongationVariantCap(0);
+			test_config.setFlowProlongationTimeBudget(1);
+			PmooAnalysis pmoo_fp_budget = Analysis.performPmooEnd2End(network, test_config, flow_of_interest);
+			assertTrue(pmoo_fp.getDelayBound().leq(pmoo_fp_budget.getDelayBound()));
+			assertTrue(pmoo_fp_budget.getDelayBound().leq(pmoo.getDelayBound()));
+		} finally {
+			test_config.setUseFlowProlongation(false);
+			test_config.setFlowProlongationVariantCap(0);
+			test_config.setFlowProlongationTimeBudget(0);
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.nc.Analysis;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.ArrivalBoundMethod;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.AnalysisResults;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.analyses.IncrementalAnalysis;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkFactory;
+import de.uni_kl.cs.discodnc.network.Server;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IncrementalAnalysis_Test {
+	private IncrementalAnalysis_Test() {
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void updatesEqualFreshAnalysis(DncTestConfig test_config) throws Exception {
+		if (test_config.mux_discipline == Multiplexing.FIFO) {
+			if (test_config.arrivalBoundMethods().contains(ArrivalBoundMethod.PMOO)) {
+				return; // FIFO multiplexing does not allow for PMOO arrival bounding
+			}
+			test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_FIFO);
+		} else {
+			test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+		}
+
+		List<NetworkFactory> network_factories = new ArrayList<NetworkFactory>();
+		network_factories.add(new TA_3S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new TR_7S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new FF_4S_1SC_4F_1AC_4P_Network());
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			for (NetworkFactory network_factory : network_factories) {
+				for (Analysis.Analyses analysis : Analysis.Analyses.values()) {
+					if (analysis == Analysis.Analyses.PMOO && test_config.mux_discipline == Multiplexing.FIFO) {
+						continue; // PMOO is not available for FIFO multiplexing
+					}
+
+					network_factory.reinitializeCurves();
+					Network network = network_factory.createNetwork();
+					IncrementalAnalysis incremental = new IncrementalAnalysis(network, test_config, analysis);
+					incremental.performAnalysis();
+
+					// Remove the flow with the lowest id and add it again.
+					List<Flow> flows = new ArrayList<Flow>(network.getFlows());
+					flows.sort(Comparator.comparingInt(Flow::getId));
+					Flow flow_removed = flows.get(0);
+					ArrivalCurve arrival_curve = flow_removed.getArrivalCurve();
+					List<Server> path = flow_removed.getPath().getServers();
+
+					incremental.removeFlow(flow_removed);
+					assertEqualsFreshAnalysis(network, test_config, analysis, incremental.getResults());
+
+					incremental.addFlow(arrival_curve, path);
+					assertEqualsFreshAnalysis(network, test_config, analysis, incremental.getResults());
+				}
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	private static void assertEqualsFreshAnalysis(Network network, DncTestConfig test_config,
+			Analysis.Analyses analysis, Map<Flow, AnalysisResults> results) throws Exception {
+		Map<Flow, AnalysisResults> results_fresh = new IncrementalAnalysis(network, test_config, analysis)
+				.performAnalysis();
+
+		assertEquals(results_fresh.keySet(), results.keySet());
+		for (Flow flow : network.getFlows()) {
+			assertEquals(results_fresh.get(flow).getDelayBound(), results.get(flow).getDelayBound(),
+					analysis + " delay of " + flow);
+			assertEquals(results_fresh.get(flow).getBacklogBound(), results.get(flow).getBacklogBound(),
+					analysis + " backlog of " + flow);
+		}
+	}
+}
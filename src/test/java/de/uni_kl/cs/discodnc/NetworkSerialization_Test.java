@@ -0,0 +1,255 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.LinearSegment;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Link;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkFactory;
+import de.uni_kl.cs.discodnc.network.Server;
+import de.uni_kl.cs.discodnc.network.io.NetworkBinaryFormat;
+import de.uni_kl.cs.discodnc.network.io.NetworkJsonFormat;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NetworkSerialization_Test {
+	private NetworkSerialization_Test() {
+	}
+
+	private static List<NetworkFactory> createNetworkFactories() {
+		List<NetworkFactory> network_factories = new ArrayList<NetworkFactory>();
+		network_factories.add(new S_1SC_1F_1AC_Network());
+		network_factories.add(new S_1SC_2F_1AC_Network());
+		network_factories.add(new S_1SC_2F_2AC_Network());
+		network_factories.add(new S_1SC_10F_10AC_Network());
+		network_factories.add(new TA_2S_1SC_1F_1AC_1P_Network());
+		network_factories.add(new TA_3S_1SC_2F_1AC_1P_Network());
+		network_factories.add(new TA_2S_1SC_2F_1AC_1P_Network());
+		network_factories.add(new TA_4S_1SC_2F_1AC_2P_Network());
+		network_factories.add(new TA_2S_1SC_2F_1AC_2P_Network());
+		network_factories.add(new TA_3S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new TA_2S_1SC_4F_1AC_1P_Network());
+		network_factories.add(new TA_2S_2SC_1F_1AC_1P_Network());
+		network_factories.add(new TA_2S_2SC_2F_1AC_1P_Network());
+		network_factories.add(new TR_3S_1SC_2F_1AC_2P_Network());
+		network_factories.add(new TR_7S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new FF_3S_1SC_2F_1AC_2P_Network());
+		network_factories.add(new FF_4S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new FF_4S_1SC_4F_1AC_4P_Network());
+		return network_factories;
+	}
+
+	private static List<Network> createNetworks() {
+		List<Network> networks = new ArrayList<Network>();
+		for (NetworkFactory network_factory : createNetworkFactories()) {
+			// Same order as in DncTest: factories reinitialize the curves of the network created before
+			network_factory.createNetwork();
+			network_factory.reinitializeCurves();
+			networks.add(network_factory.createNetwork());
+		}
+		return networks;
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void binaryRoundTrip(DncTestConfig test_config) throws Exception {
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			for (Network network : createNetworks()) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				NetworkBinaryFormat.write(network, out);
+				Network network_read = NetworkBinaryFormat.read(new ByteArrayInputStream(out.toByteArray()));
+
+				assertNetworkEquals(network, network_read);
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void jsonRoundTrip(DncTestConfig test_config) throws Exception {
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			for (Network network : createNetworks()) {
+				StringWriter out = new StringWriter();
+				NetworkJsonFormat.write(network, out);
+				Network network_read = NetworkJsonFormat.read(new StringReader(out.toString()));
+
+				assertNetworkEquals(network, network_read);
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void rationalRoundTrip(DncTestConfig test_config) throws Exception {
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			Num one_third = Num.getFactory().create(1, 3);
+
+			Network network = new Network();
+			Server s0 = network.addServer(CurvePwAffine.getFactory().createRateLatency(one_third, one_third));
+			Server s1 = network.addServer(CurvePwAffine.getFactory().createRateLatency(one_third, one_third));
+			network.addLink(s0, s1);
+			network.addFlow(CurvePwAffine.getFactory().createTokenBucket(one_third, one_third), s0, s1);
+
+			ByteArrayOutputStream out_binary = new ByteArrayOutputStream();
+			NetworkBinaryFormat.write(network, out_binary);
+			Network network_binary = NetworkBinaryFormat.read(new ByteArrayInputStream(out_binary.toByteArray()));
+			assertNetworkEquals(network, network_binary);
+			assertCurvesIdentical(network, network_binary);
+
+			StringWriter out_json = new StringWriter();
+			NetworkJsonFormat.write(network, out_json);
+			Network network_json = NetworkJsonFormat.read(new StringReader(out_json.toString()));
+			assertNetworkEquals(network, network_json);
+			assertCurvesIdentical(network, network_json);
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	/**
+	 * Curve equality allows for an epsilon, the segments' numbers have to be
+	 * identical after a round trip.
+	 */
+	private static void assertCurvesIdentical(Network expected, Network actual) {
+		List<Server> servers_expected = sortedServers(expected);
+		List<Server> servers_actual = sortedServers(actual);
+		for (int i = 0; i < servers_expected.size(); i++) {
+			assertCurveIdentical(servers_expected.get(i).getServiceCurve(), servers_actual.get(i).getServiceCurve());
+		}
+
+		List<Flow> flows_expected = new ArrayList<Flow>(expected.getFlows());
+		flows_expected.sort(Comparator.comparingInt(Flow::getId));
+		List<Flow> flows_actual = new ArrayList<Flow>(actual.getFlows());
+		flows_actual.sort(Comparator.comparingInt(Flow::getId));
+		for (int i = 0; i < flows_expected.size(); i++) {
+			assertCurveIdentical(flows_expected.get(i).getArrivalCurve(), flows_actual.get(i).getArrivalCurve());
+		}
+	}
+
+	private static void assertCurveIdentical(CurvePwAffine expected, CurvePwAffine actual) {
+		assertEquals(expected.getSegmentCount(), actual.getSegmentCount(), "Number of segments");
+		for (int i = 0; i < expected.getSegmentCount(); i++) {
+			LinearSegment s_expected = expected.getSegment(i);
+			LinearSegment s_actual = actual.getSegment(i);
+			assertNumIdentical(s_expected.getX(), s_actual.getX());
+			assertNumIdentical(s_expected.getY(), s_actual.getY());
+			assertNumIdentical(s_expected.getGrad(), s_actual.getGrad());
+			assertEquals(s_expected.isLeftopen(), s_actual.isLeftopen());
+		}
+	}
+
+	private static void assertNumIdentical(Num expected, Num actual) {
+		if (expected.isFinite()) {
+			assertTrue(Num.getUtils().sub(expected, actual).eqZero(), "Expected " + expected + " but was " + actual);
+		} else {
+			assertEquals(expected.toString(), actual.toString());
+		}
+	}
+
+	private static void assertNetworkEquals(Network expected, Network actual) {
+		List<Server> servers_expected = sortedServers(expected);
+		List<Server> servers_actual = sortedServers(actual);
+		assertEquals(servers_expected.size(), servers_actual.size(), "Number of servers");
+		for (int i = 0; i < servers_expected.size(); i++) {
+			Server s_expected = servers_expected.get(i);
+			Server s_actual = servers_actual.get(i);
+			assertEquals(s_expected.getAlias(), s_actual.getAlias());
+			assertEquals(s_expected.multiplexingDiscipline(), s_actual.multiplexingDiscipline());
+			assertEquals(s_expected.useGamma(), s_actual.useGamma());
+			assertEquals(s_expected.useExtraGamma(), s_actual.useExtraGamma());
+			assertEquals(s_expected.getServiceCurve(), s_actual.getServiceCurve(), "Service curve");
+			assertEquals(s_expected.getMaxServiceCurve(), s_actual.getMaxServiceCurve(), "Max service curve");
+		}
+
+		List<Link> links_expected = new ArrayList<Link>(expected.getLinks());
+		links_expected.sort(Comparator.comparingInt(Link::getId));
+		List<Link> links_actual = new ArrayList<Link>(actual.getLinks());
+		links_actual.sort(Comparator.comparingInt(Link::getId));
+		assertEquals(links_expected.size(), links_actual.size(), "Number of links");
+		for (int i = 0; i < links_expected.size(); i++) {
+			Link l_expected = links_expected.get(i);
+			Link l_actual = links_actual.get(i);
+			assertEquals(l_expected.getAlias(), l_actual.getAlias());
+			assertEquals(servers_expected.indexOf(l_expected.getSource()),
+					servers_actual.indexOf(l_actual.getSource()));
+			assertEquals(servers_expected.indexOf(l_expected.getDest()),
+					servers_actual.indexOf(l_actual.getDest()));
+		}
+
+		List<Flow> flows_expected = new ArrayList<Flow>(expected.getFlows());
+		flows_expected.sort(Comparator.comparingInt(Flow::getId));
+		List<Flow> flows_actual = new ArrayList<Flow>(actual.getFlows());
+		flows_actual.sort(Comparator.comparingInt(Flow::getId));
+		assertEquals(flows_expected.size(), flows_actual.size(), "Number of flows");
+		for (int i = 0; i < flows_expected.size(); i++) {
+			Flow f_expected = flows_expected.get(i);
+			Flow f_actual = flows_actual.get(i);
+			assertEquals(f_expected.getAlias(), f_actual.getAlias());
+			assertEquals(f_expected.getArrivalCurve(), f_actual.getArrivalCurve(), "Arrival curve");
+
+			List<Server> path_expected = f_expected.getPath().getServers();
+			List<Server> path_actual = f_actual.getPath().getServers();
+			assertEquals(path_expected.size(), path_actual.size(), "Path length");
+			for (int j = 0; j < path_expected.size(); j++) {
+				assertEquals(servers_expected.indexOf(path_expected.get(j)),
+						servers_actual.indexOf(path_actual.get(j)));
+			}
+			assertEquals(f_expected.getPath().getLinks().size(), f_actual.getPath().getLinks().size());
+		}
+	}
+
+	private static List<Server> sortedServers(Network network) {
+		List<Server> servers = new ArrayList<Server>(network.getServers());
+		servers.sort(Comparator.comparingInt(Server::getId));
+		return servers;
+	}
+}
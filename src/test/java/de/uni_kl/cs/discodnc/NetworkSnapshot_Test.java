@@ -0,0 +1,243 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.misc.SetUtils;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Link;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkSnapshot;
+import de.uni_kl.cs.discodnc.network.Server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NetworkSnapshot_Test {
+	private NetworkSnapshot_Test() {
+	}
+
+	@Test
+	public void queriesEqualNetwork() {
+		Network network = new FF_4S_1SC_4F_1AC_4P_Network().getNetwork();
+		assertEqualsNetwork(network, network.getSnapshot());
+	}
+
+	@Test
+	public void intersectionOfViews() {
+		FF_4S_1SC_4F_1AC_4P_Network factory = new FF_4S_1SC_4F_1AC_4P_Network();
+		Network network = factory.getNetwork();
+		NetworkSnapshot snapshot = network.getSnapshot();
+
+		for (Server s1 : network.getServers()) {
+			for (Server s2 : network.getServers()) {
+				Set<Flow> expected = SetUtils.getIntersection(network.getFlows(s1), network.getFlows(s2));
+
+				Set<Flow> intersection = snapshot.getIntersection(snapshot.getFlows(s1), snapshot.getFlows(s2));
+				assertEquals(expected, intersection, s1 + " and " + s2);
+
+				// The result is a new, modifiable set
+				intersection.add(factory.f0);
+				assertEquals(expected, snapshot.getIntersection(snapshot.getFlows(s1), snapshot.getFlows(s2)));
+			}
+			for (Link l : network.getLinks()) {
+				assertEquals(SetUtils.getIntersection(network.getFlows(s1), network.getFlows(l)),
+						snapshot.getIntersection(snapshot.getFlows(s1), snapshot.getFlows(l)), s1 + " and " + l);
+			}
+		}
+	}
+
+	@Test
+	public void intersectionOfViewAndForeignSet() throws Exception {
+		FF_4S_1SC_4F_1AC_4P_Network factory = new FF_4S_1SC_4F_1AC_4P_Network();
+		Network network = factory.getNetwork();
+		NetworkSnapshot snapshot = network.getSnapshot();
+
+		Set<Flow> foreign = new HashSet<Flow>();
+		foreign.add(factory.f0);
+		foreign.add(factory.f2);
+
+		for (Server s : network.getServers()) {
+			Set<Flow> expected = SetUtils.getIntersection(network.getFlows(s), foreign);
+			assertEquals(expected, snapshot.getIntersection(snapshot.getFlows(s), foreign), s.toString());
+			assertEquals(expected, snapshot.getIntersection(foreign, snapshot.getFlows(s)), s.toString());
+		}
+
+		// Views of another snapshot are foreign sets, too
+		network.addFlow(CurvePwAffine.getFactory().createTokenBucket(1, 1), factory.s0);
+		NetworkSnapshot snapshot_changed = network.getSnapshot();
+		assertNotSame(snapshot, snapshot_changed);
+		for (Server s : network.getServers()) {
+			assertEquals(SetUtils.getIntersection(snapshot.getFlows(s), snapshot_changed.getFlows(s)),
+					snapshot.getIntersection(snapshot.getFlows(s), snapshot_changed.getFlows(s)), s.toString());
+		}
+
+		assertTrue(snapshot.getIntersection(snapshot.getFlows(factory.s0), null).isEmpty());
+	}
+
+	@Test
+	public void inAndOutLinks() {
+		FF_4S_1SC_4F_1AC_4P_Network factory = new FF_4S_1SC_4F_1AC_4P_Network();
+		Network network = factory.getNetwork();
+		NetworkSnapshot snapshot = network.getSnapshot();
+
+		for (Server s : network.getServers()) {
+			assertEquals(network.getInLinks(s), new HashSet<Link>(snapshot.getInLinks(s)), s.toString());
+			assertEquals(network.getOutLinks(s), new HashSet<Link>(snapshot.getOutLinks(s)), s.toString());
+			for (Link l : snapshot.getInLinks(s)) {
+				assertSame(s, l.getDest());
+			}
+			for (Link l : snapshot.getOutLinks(s)) {
+				assertSame(s, l.getSource());
+			}
+		}
+
+		// s2 is the source of three links but the destination of none
+		assertEquals(0, snapshot.getInLinks(factory.s2).size());
+		assertEquals(3, snapshot.getOutLinks(factory.s2).size());
+		assertEquals(3, snapshot.getInLinks(factory.s3).size());
+		assertEquals(0, snapshot.getOutLinks(factory.s3).size());
+
+		assertSame(factory.l_s0_s1, snapshot.findLink(factory.s0, factory.s1));
+		assertNull(snapshot.findLink(factory.s1, factory.s0));
+	}
+
+	@Test
+	public void indicesAfterRemoval() throws Exception {
+		FF_4S_1SC_4F_1AC_4P_Network factory = new FF_4S_1SC_4F_1AC_4P_Network();
+		Network network = factory.getNetwork();
+		NetworkSnapshot snapshot = network.getSnapshot();
+
+		network.removeFlow(factory.f1);
+		NetworkSnapshot snapshot_flow_removed = network.getSnapshot();
+		assertEquals(-1, snapshot_flow_removed.indexOf(factory.f1));
+		assertEqualsNetwork(network, snapshot_flow_removed);
+
+		// s2 is the source of f1, f2 and f3, they are removed with it
+		network.removeServer(factory.s2);
+		NetworkSnapshot snapshot_server_removed = network.getSnapshot();
+		assertEquals(-1, snapshot_server_removed.indexOf(factory.s2));
+		assertEquals(-1, snapshot_server_removed.indexOf(factory.l_s2_s0));
+		assertEquals(-1, snapshot_server_removed.indexOf(factory.f3));
+		assertTrue(snapshot_server_removed.getFlows(factory.s2).isEmpty());
+		assertTrue(snapshot_server_removed.getInLinks(factory.s2).isEmpty());
+		assertEqualsNetwork(network, snapshot_server_removed);
+
+		// The first snapshot still describes the original network
+		assertEquals(4, snapshot.numServers());
+		assertEquals(6, snapshot.numLinks());
+		assertEquals(4, snapshot.numFlows());
+		assertSame(factory.f1, snapshot.getFlow(snapshot.indexOf(factory.f1)));
+		assertSame(factory.s2, snapshot.getServer(snapshot.indexOf(factory.s2)));
+		assertTrue(snapshot.getFlows(factory.s3).contains(factory.f1));
+	}
+
+	@Test
+	public void invalidatedByStructuralChanges() throws Exception {
+		FF_4S_1SC_4F_1AC_4P_Network factory = new FF_4S_1SC_4F_1AC_4P_Network();
+		Network network = factory.getNetwork();
+
+		NetworkSnapshot snapshot = network.getSnapshot();
+		assertSame(snapshot, network.getSnapshot());
+
+		// Curves are not part of the snapshot
+		factory.reinitializeCurves();
+		assertSame(snapshot, network.getSnapshot());
+
+		Server server_added = network.addServer(CurvePwAffine.getFactory().createRateLatency(10, 1));
+		NetworkSnapshot snapshot_server_added = network.getSnapshot();
+		assertNotSame(snapshot, snapshot_server_added);
+		assertEquals(-1, snapshot.indexOf(server_added));
+		assertEqualsNetwork(network, snapshot_server_added);
+
+		Link link_added = network.addLink(factory.s3, server_added);
+		NetworkSnapshot snapshot_link_added = network.getSnapshot();
+		assertNotSame(snapshot_server_added, snapshot_link_added);
+		assertEquals(-1, snapshot_server_added.indexOf(link_added));
+		assertEqualsNetwork(network, snapshot_link_added);
+
+		Flow flow_added = network.addFlow(CurvePwAffine.getFactory().createTokenBucket(1, 1), factory.s3,
+				server_added);
+		NetworkSnapshot snapshot_flow_added = network.getSnapshot();
+		assertNotSame(snapshot_link_added, snapshot_flow_added);
+		assertEquals(-1, snapshot_link_added.indexOf(flow_added));
+		assertEqualsNetwork(network, snapshot_flow_added);
+
+		network.removeLink(link_added);
+		NetworkSnapshot snapshot_link_removed = network.getSnapshot();
+		assertNotSame(snapshot_flow_added, snapshot_link_removed);
+		assertEqualsNetwork(network, snapshot_link_removed);
+	}
+
+	private static void assertEqualsNetwork(Network network, NetworkSnapshot snapshot) {
+		assertEquals(network.numServers(), snapshot.numServers());
+		assertEquals(network.getLinks().size(), snapshot.numLinks());
+		assertEquals(network.numFlows(), snapshot.numFlows());
+
+		// Indices are dense and ordered by id
+		for (int i = 0; i < snapshot.numServers(); i++) {
+			assertEquals(i, snapshot.indexOf(snapshot.getServer(i)));
+			assertTrue(network.getServers().contains(snapshot.getServer(i)));
+			if (i > 0) {
+				assertTrue(snapshot.getServer(i - 1).getId() < snapshot.getServer(i).getId());
+			}
+		}
+		for (int i = 0; i < snapshot.numLinks(); i++) {
+			assertEquals(i, snapshot.indexOf(snapshot.getLink(i)));
+			assertTrue(network.getLinks().contains(snapshot.getLink(i)));
+			if (i > 0) {
+				assertTrue(snapshot.getLink(i - 1).getId() < snapshot.getLink(i).getId());
+			}
+		}
+		for (int i = 0; i < snapshot.numFlows(); i++) {
+			assertEquals(i, snapshot.indexOf(snapshot.getFlow(i)));
+			assertTrue(network.getFlows().contains(snapshot.getFlow(i)));
+			if (i > 0) {
+				assertTrue(snapshot.getFlow(i - 1).getId() < snapshot.getFlow(i).getId());
+			}
+		}
+
+		for (Server s : network.getServers()) {
+			assertEquals(network.getFlows(s), snapshot.getFlows(s), s.toString());
+			assertEquals(network.getSourceFlows(s), snapshot.getSourceFlows(s), s.toString());
+			assertEquals(network.getInLinks(s), new HashSet<Link>(snapshot.getInLinks(s)), s.toString());
+			assertEquals(network.getOutLinks(s), new HashSet<Link>(snapshot.getOutLinks(s)), s.toString());
+		}
+		for (Link l : network.getLinks()) {
+			assertEquals(network.getFlows(l), snapshot.getFlows(l), l.toString());
+		}
+	}
+}
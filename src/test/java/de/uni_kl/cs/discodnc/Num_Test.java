@@ -0,0 +1,171 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.numbers.Num;
+import de.uni_kl.cs.discodnc.numbers.implementations.RationalBigInt;
+import de.uni_kl.cs.discodnc.numbers.implementations.RationalLong;
+
+import org.apache.commons.math3.fraction.BigFraction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class Num_Test {
+	private Num_Test() {
+	}
+
+	@Test
+	public void rationalBigIntEqIsSymmetric() {
+		Num one = RationalBigInt.getInstance().create(1);
+
+		assertTrue(one.eq(1.0));
+		assertFalse(one.eq(2.0));
+		assertFalse(one.eq(0.5));
+		assertFalse(RationalBigInt.getInstance().create(-3).eq(0.0));
+		assertTrue(RationalBigInt.getInstance().create(1, 3).eq(1.0 / 3.0));
+	}
+
+	@Test
+	public void rationalLongPromotesOnOverflow() throws Exception {
+		RationalLong factory = RationalLong.getInstance();
+		Num max = factory.create(Long.toString(Long.MAX_VALUE));
+		Num min = factory.create(Long.toString(Long.MIN_VALUE));
+		Num one = factory.create(1);
+		Num two = factory.create(2);
+
+		// 2^63 and -2^63 do not fit into the long representation
+		Num max_plus_one = factory.add(max, one);
+		assertEquals("9223372036854775808", max_plus_one.toString());
+		assertExact(BigInteger.ONE.shiftLeft(63), BigInteger.ONE, max_plus_one);
+		assertExact(BigInteger.ONE.shiftLeft(63).negate(), BigInteger.ONE, min);
+		assertExact(BigInteger.ONE.shiftLeft(63), BigInteger.ONE, factory.negate(min));
+		assertExact(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.valueOf(2)), BigInteger.ONE,
+				factory.mult(max, two));
+		assertExact(BigInteger.ONE, BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.valueOf(2)),
+				factory.div(factory.div(one, max), two));
+		assertExact(BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE), BigInteger.ONE,
+				factory.sub(min, one));
+
+		// Overflowing intermediate results of the long arithmetic
+		Num third_max = factory.div(one, factory.create(Long.toString(Long.MAX_VALUE / 3)));
+		Num sum = factory.add(third_max, factory.div(one, factory.create(Long.toString(Long.MAX_VALUE / 3 - 1))));
+		BigFraction sum_expected = new BigFraction(BigInteger.ONE, BigInteger.valueOf(Long.MAX_VALUE / 3))
+				.add(new BigFraction(BigInteger.ONE, BigInteger.valueOf(Long.MAX_VALUE / 3 - 1)));
+		assertExact(sum_expected.getNumerator(), sum_expected.getDenominator(), sum);
+	}
+
+	@Test
+	public void rationalLongDemotesAfterOverflow() throws Exception {
+		RationalLong factory = RationalLong.getInstance();
+		Num max = factory.create(Long.toString(Long.MAX_VALUE));
+		Num one = factory.create(1);
+		Num two = factory.create(2);
+
+		Num max_again = factory.sub(factory.add(max, one), one);
+		assertEquals(max, max_again);
+		assertEquals(max.hashCode(), max_again.hashCode());
+		assertEquals(max.toString(), max_again.toString());
+
+		Num max_halved = factory.div(factory.mult(max, two), two);
+		assertEquals(max, max_halved);
+		assertEquals(max.hashCode(), max_halved.hashCode());
+
+		Num zero = factory.sub(factory.mult(max, max), factory.mult(max, max));
+		assertTrue(zero.eqZero());
+		assertEquals(factory.createZero(), zero);
+		assertEquals(factory.createZero().hashCode(), zero.hashCode());
+
+		// -2^63 stays promoted as its negation does not fit into a long
+		Num min = factory.create(Long.toString(Long.MIN_VALUE));
+		Num min_again = factory.add(factory.sub(min, one), one);
+		assertEquals(min, min_again);
+		assertEquals(min.hashCode(), min_again.hashCode());
+	}
+
+	@Test
+	public void rationalLongCreatesDoublesExactly() throws Exception {
+		RationalLong factory = RationalLong.getInstance();
+		double[] values = { 0.1, -0.1, 1.0 / 3.0, 0.5, 1024.0, (double) (1L << 62), -(double) (1L << 62),
+				(double) Long.MAX_VALUE, (double) Long.MIN_VALUE, 1e300, -1e300, Double.MAX_VALUE,
+				Double.MIN_NORMAL, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MIN_VALUE * 3, Math.ulp(1.0),
+				1.0 + Math.ulp(1.0), 1e-300 };
+
+		for (double value : values) {
+			Num num = factory.create(value);
+			BigFraction expected = toBigFraction(new BigDecimal(value));
+			assertExact(expected.getNumerator(), expected.getDenominator(), num);
+			assertEquals(value, num.doubleValue(), Double.toString(value));
+			assertEquals(num, factory.create(value));
+			assertEquals(num.hashCode(), factory.create(value).hashCode());
+		}
+
+		assertExact(BigInteger.ONE, BigInteger.ONE.shiftLeft(1074), factory.create(Double.MIN_VALUE));
+
+		// Values that fit into longs have the long representation, whichever way they are created
+		Num two_to_forty = factory.create(Math.scalb(1.0, 40));
+		assertEquals(factory.create(Long.toString(1L << 40)), two_to_forty);
+		assertEquals(factory.create(Long.toString(1L << 40)).hashCode(), two_to_forty.hashCode());
+	}
+
+	@Test
+	public void rationalLongEqualsIsConsistentWithHashCode() {
+		RationalLong factory = RationalLong.getInstance();
+		Num one = factory.create(1);
+		Num almost_one = factory.add(one, factory.div(factory.create(1, 1000000000), factory.create(10)));
+
+		// eq(double) allows for an epsilon, equals does not
+		assertTrue(one.eq(almost_one.doubleValue()));
+		assertNotEquals(one, almost_one);
+
+		Num one_third = factory.create(1, 3);
+		Num one_third_computed = factory.div(factory.create(2), factory.create(6));
+		assertEquals(one_third, one_third_computed);
+		assertEquals(one_third.hashCode(), one_third_computed.hashCode());
+	}
+
+	private static BigFraction toBigFraction(BigDecimal decimal) {
+		if (decimal.scale() <= 0) {
+			return new BigFraction(decimal.toBigIntegerExact());
+		}
+		return new BigFraction(decimal.unscaledValue(), BigInteger.TEN.pow(decimal.scale()));
+	}
+
+	private static void assertExact(BigInteger numerator, BigInteger denominator, Num num) {
+		RationalLong rational = (RationalLong) num;
+		assertEquals(numerator, rational.getNumerator(), "Numerator of " + num);
+		assertEquals(denominator, rational.getDenominator(), "Denominator of " + num);
+	}
+}
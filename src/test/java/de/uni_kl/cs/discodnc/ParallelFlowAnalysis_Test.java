@@ -0,0 +1,104 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.nc.Analysis;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.ArrivalBoundMethod;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.AnalysisResults;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.analyses.ParallelFlowAnalysis;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkFactory;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ParallelFlowAnalysis_Test {
+	private static final int NUM_THREADS = 4;
+
+	private ParallelFlowAnalysis_Test() {
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void parallelResultsEqualSequentialResults(DncTestConfig test_config) throws Exception {
+		if (test_config.mux_discipline == Multiplexing.FIFO) {
+			if (test_config.arrivalBoundMethods().contains(ArrivalBoundMethod.PMOO)) {
+				return; // FIFO multiplexing does not allow for PMOO arrival bounding
+			}
+			test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_FIFO);
+		} else {
+			test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+		}
+
+		List<NetworkFactory> network_factories = new ArrayList<NetworkFactory>();
+		network_factories.add(new S_1SC_10F_10AC_Network());
+		network_factories.add(new TA_3S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new TR_7S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new FF_4S_1SC_4F_1AC_4P_Network());
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			for (NetworkFactory network_factory : network_factories) {
+				network_factory.reinitializeCurves();
+				Network network = network_factory.createNetwork();
+
+				for (Analysis.Analyses analysis : Analysis.Analyses.values()) {
+					if (analysis == Analysis.Analyses.PMOO && test_config.mux_discipline == Multiplexing.FIFO) {
+						continue; // PMOO is not available for FIFO multiplexing
+					}
+
+					Map<Flow, AnalysisResults> results_sequential = new ParallelFlowAnalysis(network, test_config,
+							analysis, 1).performAnalysis();
+					Map<Flow, AnalysisResults> results_parallel = new ParallelFlowAnalysis(network, test_config,
+							analysis, NUM_THREADS).performAnalysis();
+					assertEquals(network.getFlows(), results_parallel.keySet());
+
+					for (Flow flow : network.getFlows()) {
+						assertEquals(results_sequential.get(flow).getDelayBound(),
+								results_parallel.get(flow).getDelayBound(), analysis + " delay of " + flow);
+						assertEquals(results_sequential.get(flow).getBacklogBound(),
+								results_parallel.get(flow).getBacklogBound(), analysis + " backlog of " + flow);
+					}
+				}
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+}
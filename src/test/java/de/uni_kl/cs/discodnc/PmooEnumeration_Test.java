@@ -0,0 +1,138 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.nc.Analysis;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.analyses.PmooAnalysis;
+import de.uni_kl.cs.discodnc.nc.analyses.PmooResults;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkFactory;
+import de.uni_kl.cs.discodnc.network.Server;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PmooEnumeration_Test {
+	private PmooEnumeration_Test() {
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void parallelEnumerationMatchesSequential(DncTestConfig test_config) throws Exception {
+		if (test_config.mux_discipline == Multiplexing.FIFO) {
+			return; // PMOO is not available for FIFO multiplexing
+		}
+		test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+
+		List<NetworkFactory> network_factories = new ArrayList<NetworkFactory>();
+		network_factories.add(new TA_3S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new TR_7S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new FF_4S_1SC_4F_1AC_4P_Network());
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			for (NetworkFactory network_factory : network_factories) {
+				network_factory.reinitializeCurves();
+				Network network = network_factory.createNetwork();
+
+				List<Flow> flows = new ArrayList<Flow>(network.getFlows());
+				flows.sort(Comparator.comparingInt(Flow::getId));
+				for (Flow flow : flows) {
+					test_config.setParallelPmooEnumeration(false);
+					PmooAnalysis pmoo = Analysis.performPmooEnd2End(network, test_config, flow);
+					test_config.setParallelPmooEnumeration(true);
+					PmooAnalysis pmoo_parallel = Analysis.performPmooEnd2End(network, test_config, flow);
+
+					assertEquals(pmoo.getDelayBound(), pmoo_parallel.getDelayBound());
+					assertEquals(pmoo.getBacklogBound(), pmoo_parallel.getBacklogBound());
+
+					PmooResults results = (PmooResults) pmoo.getResults();
+					PmooResults results_parallel = (PmooResults) pmoo_parallel.getResults();
+					assertEquals(results.getCombinationsVisited() + results.getCombinationsPruned(),
+							results_parallel.getCombinationsVisited() + results_parallel.getCombinationsPruned());
+				}
+			}
+		} finally {
+			test_config.setParallelPmooEnumeration(false);
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void enumeratesAllRateLatencyComponents(DncTestConfig test_config) throws Exception {
+		if (test_config.mux_discipline == Multiplexing.FIFO) {
+			return; // PMOO is not available for FIFO multiplexing
+		}
+		test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			CurvePwAffine factory = CurvePwAffine.getFactory();
+
+			// Two servers with two rate latency components each, a cross-flow with two
+			// token bucket components: 2 * 2 * 2 combinations.
+			Network network = new Network();
+			ServiceCurve service_curve = CurvePwAffine.max(factory.createRateLatency(10, 1),
+					factory.createRateLatency(40, 2));
+			Server s0 = network.addServer(service_curve);
+			Server s1 = network.addServer(service_curve);
+			network.addLink(s0, s1);
+
+			ArrivalCurve arrival_curve_xf = CurvePwAffine.min(factory.createTokenBucket(1, 10),
+					factory.createTokenBucket(4, 2));
+			network.addFlow(arrival_curve_xf, Arrays.asList(s0, s1));
+			Flow flow_of_interest = network.addFlow(factory.createTokenBucket(1, 1), Arrays.asList(s0, s1));
+
+			PmooAnalysis pmoo = Analysis.performPmooEnd2End(network, test_config, flow_of_interest);
+			PmooResults results = (PmooResults) pmoo.getResults();
+
+			assertEquals(8, results.getCombinationsVisited() + results.getCombinationsPruned());
+			assertTrue(pmoo.getDelayBound().lt(Num.getFactory().getPositiveInfinity()));
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+}
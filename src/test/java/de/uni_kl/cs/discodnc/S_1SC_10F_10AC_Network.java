@@ -35,6 +35,7 @@ import de.uni_kl.cs.discodnc.network.Flow;
 import de.uni_kl.cs.discodnc.network.Network;
 import de.uni_kl.cs.discodnc.network.NetworkFactory;
 import de.uni_kl.cs.discodnc.network.Server;
+import de.uni_kl.cs.discodnc.numbers.Num;
 
 public class S_1SC_10F_10AC_Network implements NetworkFactory {
 	private static final int sc_R = 10;
@@ -63,7 +64,7 @@ public class S_1SC_10F_10AC_Network implements NetworkFactory {
 
 		try {
 			for (int i = 1; i <= 10; i++) {
-				arrival_curves[i - 1] = CurvePwAffine.getFactory().createTokenBucket(i * 0.1, i);
+				arrival_curves[i - 1] = createArrivalCurve(i);
 				flows[i - 1] = network.addFlow(arrival_curves[i - 1], s0);
 			}
 			f0 = flows[0];
@@ -76,6 +77,11 @@ public class S_1SC_10F_10AC_Network implements NetworkFactory {
 		return network;
 	}
 
+	// Rates of i/10 rather than i * 0.1 keep rational numbers exact
+	private static ArrivalCurve createArrivalCurve(int i) {
+		return CurvePwAffine.getFactory().createTokenBucket(Num.getFactory().create(i, 10), Num.getFactory().create(i));
+	}
+
 	public void reinitializeCurves() {
 		service_curve = CurvePwAffine.getFactory().createRateLatency(sc_R, sc_T);
 		for (Server server : network.getServers()) {
@@ -83,7 +89,7 @@ public class S_1SC_10F_10AC_Network implements NetworkFactory {
 		}
 
 		for (int i = 1; i <= 10; i++) {
-			arrival_curves[i - 1] = CurvePwAffine.getFactory().createTokenBucket(i * 0.1, i);
+			arrival_curves[i - 1] = createArrivalCurve(i);
 			flows[i - 1].setArrivalCurve(arrival_curves[i - 1]);
 		}
 	}
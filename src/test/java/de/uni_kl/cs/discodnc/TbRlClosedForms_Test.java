@@ -0,0 +1,212 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.ArrivalCurve;
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.curves.LinearSegment;
+import de.uni_kl.cs.discodnc.curves.ServiceCurve;
+import de.uni_kl.cs.discodnc.minplus.dnc.Convolution_DNC;
+import de.uni_kl.cs.discodnc.minplus.dnc.Deconvolution_DNC;
+import de.uni_kl.cs.discodnc.nc.Analysis;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.ArrivalBoundMethod;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.analyses.PmooAnalysis;
+import de.uni_kl.cs.discodnc.nc.analyses.SeparateFlowAnalysis;
+import de.uni_kl.cs.discodnc.nc.analyses.TotalFlowAnalysis;
+import de.uni_kl.cs.discodnc.nc.bounds.Backlog;
+import de.uni_kl.cs.discodnc.nc.bounds.Delay;
+import de.uni_kl.cs.discodnc.nc.bounds.LeftOverService;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkFactory;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TbRlClosedForms_Test {
+	private TbRlClosedForms_Test() {
+	}
+
+	private static List<NetworkFactory> createNetworkFactories() {
+		List<NetworkFactory> network_factories = new ArrayList<NetworkFactory>();
+		network_factories.add(new S_1SC_10F_10AC_Network());
+		network_factories.add(new TA_3S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new TA_2S_2SC_2F_1AC_1P_Network());
+		network_factories.add(new TR_7S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new FF_4S_1SC_4F_1AC_4P_Network());
+		return network_factories;
+	}
+
+	private static void setClosedForms(boolean closed_forms) {
+		if (closed_forms) {
+			CalculatorConfig.getInstance().enableTbRlClosedForms();
+		} else {
+			CalculatorConfig.getInstance().disableTbRlClosedForms();
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void operationsMatchGenericAlgorithms(DncTestConfig test_config) throws Exception {
+		if (test_config.getCurveImpl() != CurveImpl.DNC) {
+			return; // The closed forms are specific to the DNC curves
+		}
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			List<Object> results = new ArrayList<Object>();
+			for (boolean closed_forms : new boolean[] { false, true }) {
+				setClosedForms(closed_forms);
+				CurvePwAffine factory = CurvePwAffine.getFactory();
+
+				ArrivalCurve alpha_1 = CurvePwAffine.min(factory.createTokenBucket(10, 10),
+						factory.createTokenBucket(5, 25));
+				ArrivalCurve alpha_2 = factory.createTokenBucket(2, 5);
+				ServiceCurve beta_1 = CurvePwAffine.max(factory.createRateLatency(20, 0.5),
+						factory.createRateLatency(40, 2));
+				ServiceCurve beta_2 = factory.createRateLatency(30, 1);
+
+				List<Object> results_config = new ArrayList<Object>();
+				results_config.add(CurvePwAffine.add(alpha_1, alpha_2));
+				results_config.add(Convolution_DNC.convolve(alpha_1, alpha_2));
+				results_config.add(Convolution_DNC.convolve(beta_1, beta_2));
+				results_config.add(Deconvolution_DNC.deconvolve(alpha_1, beta_1));
+				results_config.add(LeftOverService.arbMux(beta_1, alpha_1));
+				results_config.add(LeftOverService.arbMux(beta_2, CurvePwAffine.add(alpha_1, alpha_2)));
+				results_config.add(Delay.deriveFIFO(alpha_1, beta_1));
+				results_config.add(Backlog.derive(alpha_1, beta_1));
+				results_config.add(Backlog.derive(alpha_2, beta_2));
+
+				if (results.isEmpty()) {
+					results.addAll(results_config);
+				} else {
+					for (int i = 0; i < results.size(); i++) {
+						assertSameFunction(results.get(i), results_config.get(i));
+					}
+				}
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void boundsMatchGenericAlgorithms(DncTestConfig test_config) throws Exception {
+		if (test_config.getCurveImpl() != CurveImpl.DNC) {
+			return; // The closed forms are specific to the DNC curves
+		}
+
+		if (test_config.mux_discipline == Multiplexing.FIFO) {
+			if (test_config.arrivalBoundMethods().contains(ArrivalBoundMethod.PMOO)) {
+				return; // FIFO multiplexing does not allow for PMOO arrival bounding
+			}
+			test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_FIFO);
+		} else {
+			test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+		}
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			for (NetworkFactory network_factory : createNetworkFactories()) {
+				setClosedForms(false);
+				network_factory.createNetwork();
+				network_factory.reinitializeCurves();
+				List<Num> bounds_generic = computeBounds(network_factory.createNetwork(), test_config);
+
+				setClosedForms(true);
+				network_factory.reinitializeCurves();
+				List<Num> bounds = computeBounds(network_factory.createNetwork(), test_config);
+
+				assertEquals(bounds_generic, bounds);
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	/**
+	 * Curves are compared segment by segment but, in contrast to equals(), without
+	 * the left-openness of continuous inflection points that differs between the
+	 * generic algorithms.
+	 */
+	private static void assertSameFunction(Object expected, Object actual) {
+		if (!(expected instanceof CurvePwAffine)) {
+			assertEquals(expected, actual);
+			return;
+		}
+
+		CurvePwAffine expected_curve = (CurvePwAffine) expected;
+		CurvePwAffine actual_curve = (CurvePwAffine) actual;
+		assertEquals(expected_curve.getSegmentCount(), actual_curve.getSegmentCount(), actual_curve.toString());
+		for (int i = 0; i < expected_curve.getSegmentCount(); i++) {
+			LinearSegment expected_segment = expected_curve.getSegment(i);
+			LinearSegment actual_segment = actual_curve.getSegment(i);
+			assertEquals(expected_segment.getX(), actual_segment.getX(), actual_curve.toString());
+			assertEquals(expected_segment.getY(), actual_segment.getY(), actual_curve.toString());
+			assertEquals(expected_segment.getGrad(), actual_segment.getGrad(), actual_curve.toString());
+		}
+	}
+
+	private static List<Num> computeBounds(Network network, DncTestConfig test_config) throws Exception {
+		List<Flow> flows = new ArrayList<Flow>(network.getFlows());
+		flows.sort(Comparator.comparingInt(Flow::getId));
+
+		List<Num> bounds = new ArrayList<Num>();
+		for (Flow flow : flows) {
+			TotalFlowAnalysis tfa = Analysis.performTfaEnd2End(network, test_config, flow);
+			bounds.add(tfa.getDelayBound());
+			bounds.add(tfa.getBacklogBound());
+
+			SeparateFlowAnalysis sfa = Analysis.performSfaEnd2End(network, test_config, flow);
+			bounds.add(sfa.getDelayBound());
+			bounds.add(sfa.getBacklogBound());
+
+			if (test_config.multiplexingDiscipline() != MuxDiscipline.GLOBAL_FIFO) {
+				PmooAnalysis pmoo = Analysis.performPmooEnd2End(network, test_config, flow);
+				bounds.add(pmoo.getDelayBound());
+				bounds.add(pmoo.getBacklogBound());
+			}
+		}
+		return bounds;
+	}
+}
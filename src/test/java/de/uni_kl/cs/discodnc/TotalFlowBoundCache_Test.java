@@ -0,0 +1,198 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.nc.Analysis;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.TotalFlowBoundCache;
+import de.uni_kl.cs.discodnc.nc.analyses.SeparateFlowAnalysis;
+import de.uni_kl.cs.discodnc.nc.analyses.TotalFlowAnalysis;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkFactory;
+import de.uni_kl.cs.discodnc.network.Server;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TotalFlowBoundCache_Test {
+	private TotalFlowBoundCache_Test() {
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void cachedBoundsMatchRecomputation(DncTestConfig test_config) throws Exception {
+		List<NetworkFactory> network_factories = new ArrayList<NetworkFactory>();
+		network_factories.add(new TA_3S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new TR_7S_1SC_3F_1AC_3P_Network());
+		network_factories.add(new FF_4S_1SC_4F_1AC_4P_Network());
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			test_config.setAbConsiderTFANodeBacklog(true);
+			test_config.setUseTotalFlowBoundCache(true);
+
+			for (NetworkFactory network_factory : network_factories) {
+				network_factory.reinitializeCurves();
+				Network network = network_factory.createNetwork();
+				TotalFlowBoundCache cache = network.getTotalFlowBoundCache();
+
+				List<Flow> flows = new ArrayList<Flow>(network.getFlows());
+				flows.sort(Comparator.comparingInt(Flow::getId));
+				for (Flow flow : flows) {
+					cache.clear();
+					SeparateFlowAnalysis sfa = Analysis.performSfaEnd2End(network, test_config, flow);
+					SeparateFlowAnalysis sfa_cached = Analysis.performSfaEnd2End(network, test_config, flow);
+
+					assertEquals(sfa.getDelayBound(), sfa_cached.getDelayBound());
+					assertEquals(sfa.getBacklogBound(), sfa_cached.getBacklogBound());
+				}
+
+				Analysis.performTfaEnd2End(network, test_config, flows.get(0));
+				assertTrue(cache.size() > 0);
+
+				// Structural changes invalidate the cache.
+				network.addFlow(CurvePwAffine.getFactory().createTokenBucket(1, 1), flows.get(0).getSource());
+				assertEquals(0, cache.size());
+			}
+		} finally {
+			test_config.setAbConsiderTFANodeBacklog(false);
+			test_config.setUseTotalFlowBoundCache(false);
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void cacheIsOptIn(DncTestConfig test_config) throws Exception {
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			test_config.setAbConsiderTFANodeBacklog(true);
+
+			Network network = new FF_4S_1SC_4F_1AC_4P_Network().createNetwork();
+			for (Flow flow : network.getFlows()) {
+				Analysis.performSfaEnd2End(network, test_config, flow);
+				Analysis.performTfaEnd2End(network, test_config, flow);
+			}
+			assertEquals(0, network.getTotalFlowBoundCache().size());
+			assertEquals(0, network.getTotalFlowBoundCache().numHits());
+		} finally {
+			test_config.setAbConsiderTFANodeBacklog(false);
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void serverMultiplexingChangesAreNotServedStale(DncTestConfig test_config) throws Exception {
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			test_config.setAbConsiderTFANodeBacklog(true);
+			test_config.setUseTotalFlowBoundCache(true);
+
+			Network network = new FF_4S_1SC_4F_1AC_4P_Network().createNetwork();
+			TotalFlowBoundCache cache = network.getTotalFlowBoundCache();
+
+			List<Flow> flows = new ArrayList<Flow>(network.getFlows());
+			flows.sort(Comparator.comparingInt(Flow::getId));
+			for (Multiplexing mux : Multiplexing.values()) {
+				for (Server server : network.getServers()) {
+					server.setMultiplexingDiscipline(mux);
+				}
+
+				for (Flow flow : flows) {
+					TotalFlowAnalysis tfa_cached = Analysis.performTfaEnd2End(network, test_config, flow);
+					SeparateFlowAnalysis sfa_cached = Analysis.performSfaEnd2End(network, test_config, flow);
+
+					cache.clear();
+					TotalFlowAnalysis tfa = Analysis.performTfaEnd2End(network, test_config, flow);
+					cache.clear();
+					SeparateFlowAnalysis sfa = Analysis.performSfaEnd2End(network, test_config, flow);
+
+					assertEquals(tfa.getDelayBound(), tfa_cached.getDelayBound());
+					assertEquals(tfa.getBacklogBound(), tfa_cached.getBacklogBound());
+					assertEquals(sfa.getDelayBound(), sfa_cached.getDelayBound());
+					assertEquals(sfa.getBacklogBound(), sfa_cached.getBacklogBound());
+				}
+			}
+		} finally {
+			test_config.setAbConsiderTFANodeBacklog(false);
+			test_config.setUseTotalFlowBoundCache(false);
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void curveChangesAreNotServedStale(DncTestConfig test_config) throws Exception {
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			test_config.setUseTotalFlowBoundCache(true);
+
+			CurvePwAffine factory = CurvePwAffine.getFactory();
+			Network network = new Network();
+			Server s0 = network.addServer(factory.createRateLatency(10, 1));
+			Flow f0 = network.addFlow(factory.createTokenBucket(1, 5), s0);
+			TotalFlowBoundCache cache = network.getTotalFlowBoundCache();
+
+			TotalFlowAnalysis tfa = Analysis.performTfaEnd2End(network, test_config, f0);
+			assertEquals(Num.getFactory().create(1.5), tfa.getDelayBound());
+			assertTrue(cache.size() > 0);
+
+			s0.setServiceCurve(factory.createRateLatency(1, 100));
+			assertEquals(0, cache.size());
+			tfa = Analysis.performTfaEnd2End(network, test_config, f0);
+			assertEquals(Num.getFactory().create(105), tfa.getDelayBound());
+
+			Analysis.performTfaEnd2End(network, test_config, f0);
+			assertTrue(cache.size() > 0);
+			f0.setArrivalCurve(factory.createTokenBucket(1, 10));
+			assertEquals(0, cache.size());
+			tfa = Analysis.performTfaEnd2End(network, test_config, f0);
+			assertEquals(Num.getFactory().create(110), tfa.getDelayBound());
+
+			Analysis.performTfaEnd2End(network, test_config, f0);
+			assertTrue(cache.size() > 0);
+			s0.setMaxServiceCurve(factory.createRateLatencyMSC(100, 0));
+			assertEquals(0, cache.size());
+		} finally {
+			test_config.setUseTotalFlowBoundCache(false);
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+}
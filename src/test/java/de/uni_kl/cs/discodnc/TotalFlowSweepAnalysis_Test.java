@@ -0,0 +1,293 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.curves.CurvePwAffine;
+import de.uni_kl.cs.discodnc.nc.Analysis;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.ArrivalBoundMethod;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.AnalysisResults;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+import de.uni_kl.cs.discodnc.nc.analyses.TotalFlowAnalysis;
+import de.uni_kl.cs.discodnc.nc.analyses.TotalFlowSweepAnalysis;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.network.NetworkFactory;
+import de.uni_kl.cs.discodnc.network.Server;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TotalFlowSweepAnalysis_Test {
+	private TotalFlowSweepAnalysis_Test() {
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void sweepForwardsOutputBounds(DncTestConfig test_config) throws Exception {
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+
+			// Token bucket (5, 25) crossing two rate latencies (10, 10): D_0 = 10 + 25 / 10.
+			// The burst at s1 is min(25 + 5 * D_0, 25 + 5 * 10), the output bound w.r.t.
+			// the left-over service, and D_1 = 10 + 75 / 10.
+			Network network = new TA_2S_1SC_1F_1AC_1P_Network().getNetwork();
+			Flow flow = network.getFlows().iterator().next();
+
+			AnalysisResults results = new TotalFlowSweepAnalysis(network, test_config).performAnalysis().get(flow);
+			assertEquals(Num.getFactory().create(30), results.getDelayBound());
+			assertEquals(Num.getFactory().create(125), results.getBacklogBound());
+
+			TotalFlowAnalysis tfa = Analysis.performTfaEnd2End(network, test_config, flow);
+			assertEquals(tfa.getDelayBound(), results.getDelayBound());
+			assertEquals(tfa.getBacklogBound(), results.getBacklogBound());
+			assertEquals(results.getDelayBound(), Analysis.analyseAllFlowsTfaSweep(network, test_config).get(flow)
+					.getDelayBound());
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void singleServerMatchesTfa(DncTestConfig test_config) throws Exception {
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+
+			Network network = new S_1SC_10F_10AC_Network().getNetwork();
+			Map<Flow, AnalysisResults> results = new TotalFlowSweepAnalysis(network, test_config).performAnalysis();
+
+			assertEquals(network.getFlows(), results.keySet());
+			for (Flow flow : network.getFlows()) {
+				TotalFlowAnalysis tfa = Analysis.performTfaEnd2End(network, test_config, flow);
+				assertEquals(tfa.getDelayBound(), results.get(flow).getDelayBound());
+				assertEquals(tfa.getBacklogBound(), results.get(flow).getBacklogBound());
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void feedForwardNetworksMatchTfa(DncTestConfig test_config) throws Exception {
+		// PMOO arrival bounds span several hops, the sweep bounds arrivals hop by hop.
+		if (test_config.arrivalBoundMethods().contains(ArrivalBoundMethod.PMOO)) {
+			return;
+		}
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+
+			// Flows share links and leave them towards different servers.
+			NetworkFactory[] network_factories = { new TR_7S_1SC_3F_1AC_3P_Network(),
+					new FF_4S_1SC_4F_1AC_4P_Network(), new TA_3S_1SC_3F_1AC_3P_Network() };
+			for (NetworkFactory network_factory : network_factories) {
+				Network network = network_factory.getNetwork();
+				Map<Flow, AnalysisResults> results = new TotalFlowSweepAnalysis(network, test_config)
+						.performAnalysis();
+
+				for (Flow flow : network.getFlows()) {
+					TotalFlowAnalysis tfa = Analysis.performTfaEnd2End(network, test_config, flow);
+					assertEquals(tfa.getDelayBound(), results.get(flow).getDelayBound());
+					assertEquals(tfa.getBacklogBound(), results.get(flow).getBacklogBound());
+				}
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void ringConvergesToFixedPoint(DncTestConfig test_config) throws Exception {
+		// The iterates' denominators grow with every iteration and overflow integer rationals.
+		if (test_config.getNumImpl() == NumImpl.RATIONAL_INTEGER) {
+			return;
+		}
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+
+			Network network = createRing(4, 3, 10, false);
+			assertFalse(network.isFeedForward());
+			assertEquals(1, network.getCyclicDependencies().size());
+			assertEquals(4, network.getCyclicDependencies().get(0).size());
+			assertThrows(Exception.class,
+					() -> Analysis.performTfaEnd2End(network, test_config, network.getFlows().iterator().next()));
+
+			TotalFlowSweepAnalysis sweep = new TotalFlowSweepAnalysis(network, test_config);
+			Map<Flow, AnalysisResults> results = sweep.performAnalysis();
+
+			assertTrue(sweep.isConverged());
+			assertEquals(Collections.singletonList(TotalFlowSweepAnalysis.FixedPoint.CONVERGED),
+					sweep.getFixedPoints());
+			assertTrue(sweep.getIterationCounts().get(0) > 1);
+			for (Flow flow : network.getFlows()) {
+				assertFalse(results.get(flow).getDelayBound().isInfinite());
+				assertFalse(results.get(flow).getBacklogBound().isInfinite());
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void ringBoundsLieAboveFixedPoint(DncTestConfig test_config) throws Exception {
+		if (test_config.getNumImpl() == NumImpl.RATIONAL_INTEGER) {
+			return;
+		}
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+
+			// Every server forwards its own flow, bursts b_1, and the flow at its second
+			// hop, bursts b_2, to the next server. The flows on a link, bursts L, are
+			// bounded by L at the next server. Thus, with arbitrary multiplexing, the
+			// delay bound is D = (15 + L) / 70 and the outputs w.r.t. the left-over
+			// service are b_1 = 5 + 10 * (10 + L) / 80, b_2 = b_1 + 10 * (15 + b_2) / 80
+			// and L = 5 + b_1 + 20 * (10 + b_2) / 90. The fixed point is L = 1566 / 85,
+			// i.e., a delay bound 3 * D and a backlog bound 5 + L + 3.
+			AnalysisConfig configuration = new AnalysisConfig();
+			configuration.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+			double delay_bound = 8523.0 / 5950;
+			double backlog_bound = 2246.0 / 85;
+
+			for (boolean against_ids : new boolean[] { false, true }) {
+				Network network = createRing(4, 3, 10, against_ids);
+
+				TotalFlowSweepAnalysis sweep = new TotalFlowSweepAnalysis(network, configuration);
+				Map<Flow, AnalysisResults> results = sweep.performAnalysis();
+
+				assertTrue(sweep.isConverged());
+				for (Flow flow : network.getFlows()) {
+					assertTrue(results.get(flow).getDelayBound().doubleValue() >= delay_bound);
+					assertTrue(results.get(flow).getDelayBound().doubleValue() <= delay_bound * (1 + 1e-2));
+					assertTrue(results.get(flow).getBacklogBound().doubleValue() >= backlog_bound);
+					assertTrue(results.get(flow).getBacklogBound().doubleValue() <= backlog_bound * (1 + 1e-2));
+				}
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void ringDiverges(DncTestConfig test_config) throws Exception {
+		// The bursts exceed the range of integer rationals before the divergence is detected.
+		if (test_config.getNumImpl() == NumImpl.RATIONAL_INTEGER) {
+			return;
+		}
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+
+			// Stable servers, yet the bursts grow faster along the ring than the servers can absorb.
+			// With the server ids running against the flows, every iteration forwards the arrival
+			// curves by a single hop only.
+			for (boolean against_ids : new boolean[] { false, true }) {
+				Network network = createRing(4, 4, 20, against_ids);
+
+				TotalFlowSweepAnalysis sweep = new TotalFlowSweepAnalysis(network, test_config);
+				Map<Flow, AnalysisResults> results = sweep.performAnalysis();
+
+				assertFalse(sweep.isConverged());
+				assertEquals(Collections.singletonList(TotalFlowSweepAnalysis.FixedPoint.DIVERGED),
+						sweep.getFixedPoints());
+				assertTrue(sweep.getIterationCounts().get(0) > TotalFlowSweepAnalysis.DIVERGENCE_ITERATIONS);
+				assertTrue(sweep.getIterationCounts().get(0) < sweep.getIterationCap());
+				for (Flow flow : network.getFlows()) {
+					assertTrue(results.get(flow).getDelayBound().isInfinite());
+				}
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void feedForwardNetworkHasNoCyclicComponents(DncTestConfig test_config) throws Exception {
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+
+			Network network = new TA_2S_1SC_1F_1AC_1P_Network().getNetwork();
+			assertTrue(network.isFeedForward());
+			assertTrue(network.getCyclicDependencies().isEmpty());
+
+			TotalFlowSweepAnalysis sweep = new TotalFlowSweepAnalysis(network, test_config);
+			sweep.performAnalysis();
+			assertTrue(sweep.isConverged());
+			assertTrue(sweep.getCyclicComponents().isEmpty());
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	/**
+	 * Rate latency servers (100, 0.1) connected to a ring. A token bucket flow
+	 * (rate, 5) starts at every server and crosses the given number of hops, in
+	 * the order of the server ids or against it.
+	 */
+	private static Network createRing(int num_servers, int num_hops, double rate, boolean against_ids)
+			throws Exception {
+		Network network = new Network();
+
+		List<Server> servers = new ArrayList<Server>();
+		for (int i = 0; i < num_servers; i++) {
+			servers.add(network.addServer(CurvePwAffine.getFactory().createRateLatency(100, 0.1)));
+		}
+		if (against_ids) {
+			Collections.reverse(servers);
+		}
+		for (int i = 0; i < num_servers; i++) {
+			network.addLink(servers.get(i), servers.get((i + 1) % num_servers));
+		}
+		for (int i = 0; i < num_servers; i++) {
+			List<Server> path = new ArrayList<Server>();
+			for (int hop = 0; hop < num_hops; hop++) {
+				path.add(servers.get((i + hop) % num_servers));
+			}
+			network.addFlow(CurvePwAffine.getFactory().createTokenBucket(rate, 5), path);
+		}
+
+		return network;
+	}
+}
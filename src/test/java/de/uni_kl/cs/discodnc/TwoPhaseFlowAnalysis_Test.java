@@ -0,0 +1,147 @@
+/*
+ * This file is part of the Disco Deterministic Network Calculator.
+ *
+ * Copyright (C) 2013 - 2018 Steffen Bondorf
+ * Copyright (C) 2017+ The DiscoDNC contributors
+ *
+ * Distributed Computer Systems (DISCO) Lab
+ * University of Kaiserslautern, Germany
+ *
+ * http://discodnc.cs.uni-kl.de
+ *
+ *
+ * The Disco Deterministic Network Calculator (DiscoDNC) is free software;
+ * you can redistribute it and/or modify it under the terms of the 
+ * GNU Lesser General Public License as published by the Free Software Foundation; 
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+
+package de.uni_kl.cs.discodnc;
+
+import de.uni_kl.cs.discodnc.nc.AbstractAnalysis;
+import de.uni_kl.cs.discodnc.nc.Analysis;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.Multiplexing;
+import de.uni_kl.cs.discodnc.nc.AnalysisConfig.MuxDiscipline;
+import de.uni_kl.cs.discodnc.nc.AnalysisResults;
+import de.uni_kl.cs.discodnc.nc.CalculationContext;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.CurveImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.NumImpl;
+import de.uni_kl.cs.discodnc.nc.CalculatorConfig.OperationImpl;
+import de.uni_kl.cs.discodnc.nc.analyses.TwoPhaseFlowAnalysis;
+import de.uni_kl.cs.discodnc.network.Flow;
+import de.uni_kl.cs.discodnc.network.Network;
+import de.uni_kl.cs.discodnc.numbers.Num;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TwoPhaseFlowAnalysis_Test {
+	private TwoPhaseFlowAnalysis_Test() {
+	}
+
+	@ParameterizedTest(name = "[{arguments}]")
+	@ArgumentsSource(DncTestArguments.class)
+	public void criticalFlowsGetExactBounds(DncTestConfig test_config) throws Exception {
+		if (test_config.mux_discipline == Multiplexing.FIFO) {
+			return; // PMOO is not available for FIFO multiplexing
+		}
+		if (test_config.getNumImpl() != NumImpl.REAL_DOUBLE_PRECISION
+				|| test_config.getCurveImpl() == CurveImpl.MPA_RTC) {
+			return; // Screening with exact numbers defeats its purpose
+		}
+		test_config.setMultiplexingDiscipline(MuxDiscipline.GLOBAL_ARBITRARY);
+
+		CalculationContext previous_settings = test_config.initializeCalculator();
+		try {
+			Network network = new FF_4S_1SC_4F_1AC_4P_Network().getNetwork();
+
+			List<Flow> flows = new ArrayList<Flow>(network.getFlows());
+			flows.sort(Comparator.comparingInt(Flow::getId));
+			Flow flow_critical = flows.get(0);
+			Flow flow_relaxed = flows.get(1);
+
+			CalculationContext context_exact = new CalculationContext(NumImpl.RATIONAL_BIGINTEGER, CurveImpl.DNC,
+					OperationImpl.DNC);
+			List<Num> delay_bounds_exact = deriveDelayBounds(test_config, context_exact);
+
+			for (Analysis.Analyses analysis : Analysis.Analyses.values()) {
+				TwoPhaseFlowAnalysis screening = new TwoPhaseFlowAnalysis(network, test_config, analysis);
+				screening.performAnalysis();
+				assertTrue(screening.getCriticalFlows().isEmpty());
+
+				double delay_bound_critical = screening.getResults(flow_critical).getDelayBound().doubleValue();
+				double delay_bound_relaxed = screening.getResults(flow_relaxed).getDelayBound().doubleValue();
+
+				TwoPhaseFlowAnalysis two_phase = new TwoPhaseFlowAnalysis(network, test_config, analysis);
+				two_phase.setDelayDeadline(flow_critical, delay_bound_critical);
+				two_phase.setDelayDeadline(flow_relaxed, 10 * delay_bound_relaxed);
+				two_phase.performAnalysis();
+
+				assertEquals(Collections.singleton(flow_critical), two_phase.getCriticalFlows());
+				assertNull(two_phase.getExactResults(flow_relaxed));
+				assertTrue(two_phase.meetsDeadlines(flow_relaxed));
+
+				AnalysisResults results_screening = two_phase.getScreeningResults(flow_critical);
+				AnalysisResults results_exact = two_phase.getExactResults(flow_critical);
+				assertEquals(delay_bound_critical, results_screening.getDelayBound().doubleValue());
+				assertEquals(delay_bounds_exact.get(analysis.ordinal()), results_exact.getDelayBound());
+				assertEquals(results_exact, two_phase.getResults(flow_critical));
+				assertEquals(delay_bound_critical, results_exact.getDelayBound().doubleValue(),
+						1e-6 * delay_bound_critical);
+				assertFalse(results_exact.getDelayBound().isInfinite());
+			}
+		} finally {
+			DncTestConfig.restoreCalculator(previous_settings);
+		}
+	}
+
+	private static List<Num> deriveDelayBounds(DncTestConfig test_config, CalculationContext context)
+			throws Exception {
+		CalculationContext previous_context = CalculationContext.bind(context);
+		try {
+			Network network = new FF_4S_1SC_4F_1AC_4P_Network().getNetwork();
+			List<Flow> flows = new ArrayList<Flow>(network.getFlows());
+			flows.sort(Comparator.comparingInt(Flow::getId));
+
+			List<Num> delay_bounds = new ArrayList<Num>();
+			for (Analysis.Analyses analysis : Analysis.Analyses.values()) {
+				delay_bounds.add(performAnalysis(network, test_config, analysis, flows.get(0)).getDelayBound());
+			}
+			return delay_bounds;
+		} finally {
+			CalculationContext.restore(previous_context);
+		}
+	}
+
+	private static AbstractAnalysis performAnalysis(Network network, DncTestConfig test_config,
+			Analysis.Analyses analysis, Flow flow) throws Exception {
+		switch (analysis) {
+		case TFA:
+			return Analysis.performTfaEnd2End(network, test_config, flow);
+		case SFA:
+			return Analysis.performSfaEnd2End(network, test_config, flow);
+		default:
+			return Analysis.performPmooEnd2End(network, test_config, flow);
+		}
+	}
+}